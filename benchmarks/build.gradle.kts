@@ -0,0 +1,38 @@
+plugins {
+    id("java")
+    id("me.champeau.gradle.jmh")
+}
+
+
+/* ******************** metadata ******************** */
+
+description = "JMH benchmarks for the HiveMQ MQTT Client"
+
+metadata {
+    moduleName = "com.hivemq.client.mqtt.benchmarks"
+    readableName = "HiveMQ MQTT Client benchmarks"
+}
+
+
+/* ******************** dependencies ******************** */
+
+dependencies {
+    "jmhImplementation"(rootProject)
+    "jmhImplementation"("io.netty:netty-buffer:${property("netty.version")}")
+    "jmhImplementation"("io.netty:netty-codec:${property("netty.version")}")
+    "jmhImplementation"("io.netty:netty-transport:${property("netty.version")}")
+    "jmhImplementation"("org.jetbrains:annotations:${property("annotations.version")}")
+    "jmhRuntimeOnly"("io.netty:netty-transport-native-epoll:${property("netty.version")}:linux-x86_64")
+    "jmhRuntimeOnly"("io.netty.incubator:netty-incubator-transport-native-io_uring:" +
+            "${property("netty-iouring.version")}:linux-x86_64")
+}
+
+
+/* ******************** jmh ******************** */
+
+jmh {
+    jmhVersion = "${property("jmh.version")}"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    duplicateClassesStrategy = DuplicatesStrategy.WARN
+}
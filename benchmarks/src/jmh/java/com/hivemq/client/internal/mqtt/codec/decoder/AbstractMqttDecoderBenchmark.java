@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.codec.decoder;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.message.connect.MqttConnect;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base for benchmarks that decode messages with an {@link MqttDecoder} on an {@link EmbeddedChannel}.
+ *
+ * @author Silvio Giebl
+ */
+public abstract class AbstractMqttDecoderBenchmark {
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private EmbeddedChannel channel;
+
+    protected void setUpChannel(
+            final @NotNull MqttMessageDecoders decoders, final @NotNull MqttClientAdvancedConfig advancedConfig) {
+
+        final MqttClientConfig clientConfig =
+                new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("benchmark"),
+                        MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
+                        MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(),
+                        ImmutableList.of(), null);
+        channel = new EmbeddedChannel(new MqttDecoder(decoders, clientConfig, MqttConnect.DEFAULT));
+    }
+
+    protected void tearDownChannel() {
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * Decodes the readable bytes of the given buffer without consuming them.
+     *
+     * @param encoded the encoded message.
+     * @return the decoded message.
+     */
+    protected @NotNull Object decode(final @NotNull ByteBuf encoded) {
+        channel.writeInbound(encoded.retainedDuplicate());
+        return channel.readInbound();
+    }
+}
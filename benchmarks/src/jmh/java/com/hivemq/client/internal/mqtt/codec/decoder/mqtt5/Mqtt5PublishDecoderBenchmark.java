@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.codec.decoder.mqtt5;
+
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.codec.decoder.AbstractMqttDecoderBenchmark;
+import com.hivemq.client.internal.mqtt.codec.decoder.MqttMessageDecoders;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.message.Mqtt5MessageType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Silvio Giebl
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mqtt5PublishDecoderBenchmark extends AbstractMqttDecoderBenchmark {
+
+    @Param({"AT_MOST_ONCE", "AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public MqttQos qos;
+
+    @Param({"16", "1024", "4096", "65536"})
+    public int payloadSize;
+
+    @Param({"false", "true"})
+    public boolean zeroCopyPayload;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private ByteBuf encoded;
+
+    @Setup
+    public void setUp() {
+        setUpChannel(new MqttMessageDecoders() {{
+            decoders[Mqtt5MessageType.PUBLISH.getCode()] = new Mqtt5PublishDecoder();
+        }}, new MqttClientAdvancedConfigBuilder.Default().zeroCopyPayload(zeroCopyPayload).build());
+
+        final byte[] topic = "benchmark/decode/topic".getBytes(StandardCharsets.UTF_8);
+        final int packetIdentifierLength = (qos == MqttQos.AT_MOST_ONCE) ? 0 : 2;
+        final int remainingLength = 2 + topic.length + packetIdentifierLength + 1 + payloadSize;
+        encoded = Unpooled.directBuffer(1 + MqttVariableByteInteger.encodedLength(remainingLength) + remainingLength);
+        encoded.writeByte((Mqtt5MessageType.PUBLISH.getCode() << 4) | (qos.getCode() << 1));
+        MqttVariableByteInteger.encode(remainingLength, encoded);
+        encoded.writeShort(topic.length).writeBytes(topic);
+        if (packetIdentifierLength > 0) {
+            encoded.writeShort(1);
+        }
+        encoded.writeByte(0); // property length
+        encoded.writeZero(payloadSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tearDownChannel();
+        encoded.release();
+    }
+
+    @Benchmark
+    public MqttStatefulPublish decode() {
+        final MqttStatefulPublish publish = (MqttStatefulPublish) decode(encoded);
+        publish.stateless().releasePayload();
+        return publish;
+    }
+}
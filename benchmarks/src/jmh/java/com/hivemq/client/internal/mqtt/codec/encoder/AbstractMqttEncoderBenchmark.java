@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.codec.encoder;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base for benchmarks that encode messages with a connected {@link MqttEncoder} on an {@link EmbeddedChannel}.
+ *
+ * @author Silvio Giebl
+ */
+public abstract class AbstractMqttEncoderBenchmark {
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private EmbeddedChannel channel;
+
+    protected void setUpChannel(final @NotNull MqttMessageEncoders encoders) {
+        final MqttClientConfig clientConfig =
+                new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("benchmark"),
+                        MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT,
+                        MqttClientAdvancedConfig.DEFAULT, MqttClientConfig.ConnectDefaults.of(null, null, null),
+                        ImmutableList.of(), ImmutableList.of(), null);
+        final MqttEncoder encoder = new MqttEncoder(encoders, clientConfig);
+        channel = new EmbeddedChannel(encoder);
+        encoder.onConnected(new MqttClientConnectionConfig(MqttClientTransportConfigImpl.DEFAULT, 10, true, true, 0,
+                false, false, null, 10, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, true, false, 10,
+                MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 3, MqttQos.EXACTLY_ONCE, true, true, true, true,
+                channel, null));
+    }
+
+    protected void tearDownChannel() {
+        channel.finishAndReleaseAll();
+    }
+
+    protected int encode(final @NotNull Object message) {
+        channel.writeOutbound(message);
+        final ByteBuf byteBuf = channel.readOutbound();
+        final int encodedLength = byteBuf.readableBytes();
+        byteBuf.release();
+        return encodedLength;
+    }
+}
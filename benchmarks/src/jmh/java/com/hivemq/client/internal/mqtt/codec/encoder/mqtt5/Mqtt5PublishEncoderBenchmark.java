@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.codec.encoder.mqtt5;
+
+import com.hivemq.client.internal.mqtt.codec.encoder.AbstractMqttEncoderBenchmark;
+import com.hivemq.client.internal.mqtt.codec.encoder.MqttMessageEncoders;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.message.Mqtt5MessageType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Silvio Giebl
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mqtt5PublishEncoderBenchmark extends AbstractMqttEncoderBenchmark {
+
+    @Param({"AT_MOST_ONCE", "AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public MqttQos qos;
+
+    @Param({"16", "1024", "4096", "65536"})
+    public int payloadSize;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttStatefulPublish statefulPublish;
+
+    @Setup
+    public void setUp() {
+        setUpChannel(new MqttMessageEncoders() {{
+            encoders[Mqtt5MessageType.PUBLISH.getCode()] = new Mqtt5PublishEncoder();
+        }});
+        final MqttPublish publish = new MqttPublishBuilder.Default().topic("benchmark/encode/topic")
+                .qos(qos)
+                .payload(new byte[payloadSize])
+                .build();
+        final int packetIdentifier =
+                (qos == MqttQos.AT_MOST_ONCE) ? MqttStatefulPublish.NO_PACKET_IDENTIFIER_QOS_0 : 1;
+        statefulPublish = publish.createStateful(packetIdentifier, false, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tearDownChannel();
+    }
+
+    @Benchmark
+    public int encode() {
+        return encode(statefulPublish);
+    }
+}
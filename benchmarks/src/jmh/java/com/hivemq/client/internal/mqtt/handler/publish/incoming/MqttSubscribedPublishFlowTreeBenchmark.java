@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.incoming;
+
+import com.hivemq.client.internal.mqtt.datatypes.MqttTopicFilterImpl;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttStatefulSubscribe;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscription;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.message.subscribe.Mqtt5RetainHandling;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches incoming Publish topics against a topic tree populated with a mix of exact, single level wildcard and multi
+ * level wildcard topic filters.
+ *
+ * @author Silvio Giebl
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MqttSubscribedPublishFlowTreeBenchmark {
+
+    private static final int TOPIC_COUNT = 1 << 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int filterCount;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttSubscribedPublishFlowTree flowTree;
+    private final MqttStatefulPublish[] publishes = new MqttStatefulPublish[TOPIC_COUNT];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        flowTree = new MqttSubscribedPublishFlowTree();
+        for (int i = 0; i < filterCount; i++) {
+            final String prefix = "site/" + (i % 100) + "/device/" + i + "/";
+            final String suffix;
+            switch (i % 10) {
+                case 7:
+                case 8:
+                    suffix = "+";
+                    break;
+                case 9:
+                    suffix = "#";
+                    break;
+                default:
+                    suffix = "telemetry";
+            }
+            flowTree.subscribe(new MqttSubscription(MqttTopicFilterImpl.of(prefix + suffix), MqttQos.AT_LEAST_ONCE,
+                    false, Mqtt5RetainHandling.SEND, false), MqttStatefulSubscribe.DEFAULT_NO_SUBSCRIPTION_IDENTIFIER,
+                    null);
+        }
+        final Random random = new Random(0);
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            final int device = random.nextInt(filterCount);
+            publishes[i] = new MqttPublishBuilder.Default().topic("site/" + (device % 100) + "/device/" + device +
+                    "/telemetry").qos(MqttQos.AT_LEAST_ONCE).build().createStateful(1, false, null);
+        }
+    }
+
+    @Benchmark
+    public boolean findMatching() {
+        final MqttStatefulPublishWithFlows publishWithFlows =
+                new MqttStatefulPublishWithFlows(publishes[index++ & (TOPIC_COUNT - 1)]);
+        flowTree.findMatching(publishWithFlows);
+        return publishWithFlows.subscriptionFound;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.mqtt.datatypes.MqttTopicImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes to a cycling set of topics. If the topic count exceeds the topic alias maximum, topic aliases have to be
+ * overwritten.
+ *
+ * @author Silvio Giebl
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MqttTopicAliasAutoMappingBenchmark {
+
+    @Param({"16", "256"})
+    public int topicAliasMaximum;
+
+    @Param({"8", "256", "4096"})
+    public int topicCount;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttTopicAliasAutoMapping topicAliasMapping;
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttTopicImpl[] topics;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        topicAliasMapping = new MqttTopicAliasAutoMapping(topicAliasMaximum, null);
+        topics = new MqttTopicImpl[topicCount];
+        for (int i = 0; i < topicCount; i++) {
+            topics[i] = MqttTopicImpl.of("benchmark/topic/alias/" + i);
+        }
+    }
+
+    @Benchmark
+    public int onPublish() {
+        final int topicAlias = topicAliasMapping.onPublish(topics[index]);
+        if (++index == topicCount) {
+            index = 0;
+        }
+        return topicAlias;
+    }
+}
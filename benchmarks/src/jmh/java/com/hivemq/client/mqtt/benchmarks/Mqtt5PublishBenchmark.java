@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.benchmarks;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end publish benchmark of an {@link Mqtt5AsyncClient} connected to a {@link MqttBrokerStub}.
+ * <p>
+ * {@link #latency()} measures the round trip of a single Publish message until its acknowledgement flow is completed,
+ * {@link #throughput()} measures the rate of Publish messages if {@value #BATCH_SIZE} messages are in flight,
+ * {@link #batchThroughput()} the same if the messages are published as one batch.
+ *
+ * @author Silvio Giebl
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Mqtt5PublishBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"AT_MOST_ONCE", "AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public MqttQos qos;
+
+    @Param({"16", "1024", "65536"})
+    public int payloadSize;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttBrokerStub broker;
+    @SuppressWarnings("NullabilityAnnotations")
+    private Mqtt5AsyncClient client;
+    @SuppressWarnings("NullabilityAnnotations")
+    private Mqtt5Publish publish;
+    @SuppressWarnings("NullabilityAnnotations")
+    private List<Mqtt5Publish> batch;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        broker = new MqttBrokerStub();
+        client = Mqtt5Client.builder()
+                .identifier("benchmark")
+                .serverHost("127.0.0.1")
+                .serverPort(broker.getPort())
+                .buildAsync();
+        client.connect().join();
+        publish = Mqtt5Publish.builder().topic("benchmark/publish").qos(qos).payload(new byte[payloadSize]).build();
+        batch = Collections.nCopies(BATCH_SIZE, publish);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        client.disconnect().join();
+        broker.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Mqtt5PublishResult latency() {
+        return client.publish(publish).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void throughput() {
+        final CompletableFuture<?>[] futures = new CompletableFuture[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            futures[i] = client.publish(publish);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Mqtt5PublishResult> batchThroughput() {
+        return client.publishBatch(batch).join();
+    }
+}
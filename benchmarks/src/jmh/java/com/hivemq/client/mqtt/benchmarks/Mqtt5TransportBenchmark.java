@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.benchmarks;
+
+import com.hivemq.client.mqtt.MqttNettyTransport;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Netty transports (NIO, epoll, io_uring) with {@link Mqtt5AsyncClient}s connected to a {@link
+ * MqttBrokerStub}.
+ * <p>
+ * {@link #connect()} measures connecting and disconnecting a client, {@link #publishThroughput()} measures the rate of
+ * QoS 1 Publish messages if {@value #BATCH_SIZE} messages are in flight. Transports that are not available on the
+ * current platform fall back to the default transport (a warning is logged), so results for them
+ * are only meaningful on Linux with the epoll and iouring modules on the classpath.
+ *
+ * @author Silvio Giebl
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Mqtt5TransportBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"NIO", "EPOLL", "IO_URING"})
+    public MqttNettyTransport transport;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private MqttBrokerStub broker;
+    @SuppressWarnings("NullabilityAnnotations")
+    private Mqtt5AsyncClient connectClient;
+    @SuppressWarnings("NullabilityAnnotations")
+    private Mqtt5AsyncClient publishClient;
+    @SuppressWarnings("NullabilityAnnotations")
+    private Mqtt5Publish publish;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        broker = new MqttBrokerStub();
+        connectClient = buildClient("benchmark-connect");
+        publishClient = buildClient("benchmark-publish");
+        // keeps the event loop of the transport acquired, so connect() does not measure starting Netty threads
+        publishClient.connect().join();
+        publish = Mqtt5Publish.builder().topic("benchmark/transport").qos(MqttQos.AT_LEAST_ONCE).build();
+    }
+
+    private Mqtt5AsyncClient buildClient(final String identifier) {
+        return Mqtt5Client.builder()
+                .identifier(identifier)
+                .serverHost("127.0.0.1")
+                .serverPort(broker.getPort())
+                .executorConfig()
+                .nettyTransport(transport)
+                .applyExecutorConfig()
+                .buildAsync();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        publishClient.disconnect().join();
+        broker.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void connect() {
+        connectClient.connect().join();
+        connectClient.disconnect().join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishThroughput() {
+        final CompletableFuture<?>[] futures = new CompletableFuture[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            futures[i] = publishClient.publish(publish);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
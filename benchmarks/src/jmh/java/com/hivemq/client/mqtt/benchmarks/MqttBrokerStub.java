@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.benchmarks;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Minimal in-process MQTT 5 broker stand-in on the loopback interface. It only acknowledges messages (CONNECT,
+ * PUBLISH, PUBREL, PINGREQ) so that benchmarks measure the client and not a broker. Incoming Publish messages are
+ * discarded and never forwarded.
+ *
+ * @author Silvio Giebl
+ */
+class MqttBrokerStub {
+
+    private final @NotNull EventLoopGroup eventLoopGroup = new NioEventLoopGroup(1);
+    private final @NotNull Channel serverChannel;
+
+    MqttBrokerStub() throws InterruptedException {
+        serverChannel = new ServerBootstrap().group(eventLoopGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(final @NotNull Channel channel) {
+                        channel.pipeline().addLast(new AcknowledgingHandler());
+                    }
+                })
+                .bind("127.0.0.1", 0)
+                .sync()
+                .channel();
+    }
+
+    int getPort() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    void stop() throws InterruptedException {
+        serverChannel.close().sync();
+        eventLoopGroup.shutdownGracefully().sync();
+    }
+
+    private static class AcknowledgingHandler extends ByteToMessageDecoder {
+
+        private static final int CONNECT = 1;
+        private static final int PUBLISH = 3;
+        private static final int PUBREL = 6;
+        private static final int PINGREQ = 12;
+        private static final int DISCONNECT = 14;
+
+        private boolean pendingFlush;
+
+        @Override
+        protected void decode(
+                final @NotNull ChannelHandlerContext ctx, final @NotNull ByteBuf in, final @NotNull List<Object> out) {
+
+            while (in.isReadable()) {
+                final int start = in.readerIndex();
+                final int fixedHeader = in.readUnsignedByte();
+                int remainingLength = 0;
+                int shift = 0;
+                int encodedByte;
+                do {
+                    if (!in.isReadable()) {
+                        in.readerIndex(start);
+                        return;
+                    }
+                    encodedByte = in.readUnsignedByte();
+                    remainingLength += (encodedByte & 0x7F) << shift;
+                    shift += 7;
+                } while ((encodedByte & 0x80) != 0);
+                if (in.readableBytes() < remainingLength) {
+                    in.readerIndex(start);
+                    return;
+                }
+                final int end = in.readerIndex() + remainingLength;
+                handle(ctx, fixedHeader, in);
+                in.readerIndex(end);
+            }
+        }
+
+        private void handle(
+                final @NotNull ChannelHandlerContext ctx, final int fixedHeader, final @NotNull ByteBuf in) {
+
+            switch (fixedHeader >> 4) {
+                case CONNECT:
+                    // CONNACK: no session present, success, no properties
+                    write(ctx, ctx.alloc().ioBuffer(5).writeByte(0x20).writeByte(3).writeMedium(0));
+                    break;
+                case PUBLISH: {
+                    final int qos = (fixedHeader >> 1) & 0x3;
+                    if (qos > 0) {
+                        in.skipBytes(in.readUnsignedShort());
+                        // PUBACK for QoS 1, PUBREC for QoS 2
+                        ack(ctx, (qos == 1) ? 0x40 : 0x50, in.readUnsignedShort());
+                    }
+                    break;
+                }
+                case PUBREL:
+                    ack(ctx, 0x70, in.readUnsignedShort()); // PUBCOMP
+                    break;
+                case PINGREQ:
+                    write(ctx, ctx.alloc().ioBuffer(2).writeByte(0xD0).writeByte(0));
+                    break;
+                case DISCONNECT:
+                    ctx.close();
+                    break;
+            }
+        }
+
+        private void ack(final @NotNull ChannelHandlerContext ctx, final int fixedHeader, final int packetIdentifier) {
+            // success reason code and properties are omitted
+            write(ctx, ctx.alloc().ioBuffer(4).writeByte(fixedHeader).writeByte(2).writeShort(packetIdentifier));
+        }
+
+        private void write(final @NotNull ChannelHandlerContext ctx, final @NotNull ByteBuf out) {
+            ctx.write(out, ctx.voidPromise());
+            pendingFlush = true;
+        }
+
+        @Override
+        public void channelReadComplete(final @NotNull ChannelHandlerContext ctx) throws Exception {
+            if (pendingFlush) {
+                pendingFlush = false;
+                ctx.flush();
+            }
+            super.channelReadComplete(ctx);
+        }
+    }
+}
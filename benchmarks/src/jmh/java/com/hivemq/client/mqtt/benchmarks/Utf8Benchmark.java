@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.benchmarks;
+
+import com.hivemq.client.internal.util.Utf8Util;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmark of the UTF-8 validation of {@link Utf8Util} for a byte array, a heap byte buffer and a direct byte buffer.
+ * <p>
+ * The ASCII fast path reads 8 bytes at once, which must not be slower for heap byte buffers (byte arrays are validated
+ * as heap byte buffers) than for direct byte buffers. Mixed content is mostly ASCII with a 2 byte character every 16
+ * bytes, so the fast path is left regularly.
+ *
+ * @author Silvio Giebl
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Utf8Benchmark {
+
+    @Param({"ASCII", "MIXED"})
+    public String content;
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    @SuppressWarnings("NullabilityAnnotations")
+    private byte[] bytes;
+    @SuppressWarnings("NullabilityAnnotations")
+    private ByteBuffer heapByteBuffer;
+    @SuppressWarnings("NullabilityAnnotations")
+    private ByteBuffer directByteBuffer;
+
+    @Setup
+    public void setUp() {
+        final String pattern = content.equals("ASCII") ? "0123456789abcdef" : "0123456789abcd\u00e4";
+        final StringBuilder stringBuilder = new StringBuilder();
+        while (stringBuilder.length() < size) {
+            stringBuilder.append(pattern);
+        }
+        final byte[] encoded = stringBuilder.toString().getBytes(StandardCharsets.UTF_8);
+        bytes = new byte[size];
+        System.arraycopy(encoded, 0, bytes, 0, size);
+        if ((bytes[size - 1] & 0xC0) == 0xC0) {
+            bytes[size - 1] = 'x'; // do not cut a 2 byte character
+        }
+        heapByteBuffer = ByteBuffer.wrap(bytes);
+        directByteBuffer = ByteBuffer.allocateDirect(size);
+        directByteBuffer.put(bytes).flip();
+        if (Utf8Util.isWellFormed(bytes) != 0) {
+            throw new IllegalStateException("Benchmark data is not well-formed UTF-8.");
+        }
+    }
+
+    @Benchmark
+    public long byteArray() {
+        return Utf8Util.isWellFormed(bytes);
+    }
+
+    @Benchmark
+    public long heapByteBuffer() {
+        return Utf8Util.isWellFormed(heapByteBuffer);
+    }
+
+    @Benchmark
+    public long directByteBuffer() {
+        return Utf8Util.isWellFormed(directByteBuffer);
+    }
+}
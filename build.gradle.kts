@@ -71,6 +71,17 @@ allprojects {
     repositories {
         mavenCentral()
     }
+
+    // optional modules like the io_uring incubator transport bring their own Netty version, all Netty modules must
+    // resolve to the version the client is built, tested and published with
+    val nettyVersion = "${property("netty.version")}"
+    configurations.all {
+        resolutionStrategy.eachDependency {
+            if ((requested.group == "io.netty") && !requested.name.startsWith("netty-tcnative")) {
+                useVersion(nettyVersion)
+            }
+        }
+    }
 }
 
 dependencies {
@@ -94,7 +105,7 @@ dependencies {
 
 /* ******************** optional dependencies ******************** */
 
-listOf("websocket", "proxy", "epoll").forEach {
+listOf("websocket", "proxy", "epoll", "iouring", "openssl").forEach {
     java.registerFeature(it) {
         usingSourceSet(sourceSets["main"])
     }
@@ -104,6 +115,9 @@ dependencies {
     "websocketImplementation"("io.netty:netty-codec-http:${property("netty.version")}")
     "proxyImplementation"("io.netty:netty-handler-proxy:${property("netty.version")}")
     "epollImplementation"("io.netty:netty-transport-native-epoll:${property("netty.version")}:linux-x86_64")
+    "iouringImplementation"("io.netty.incubator:netty-incubator-transport-native-io_uring:" +
+            "${property("netty-iouring.version")}:linux-x86_64")
+    "opensslImplementation"("io.netty:netty-tcnative-boringssl-static:${property("netty-tcnative.version")}")
 }
 
 
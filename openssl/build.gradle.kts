@@ -0,0 +1,28 @@
+plugins {
+    id("java-platform")
+}
+
+
+/* ******************** metadata ******************** */
+
+description = "Adds dependencies for the HiveMQ MQTT Client OpenSSL module"
+
+metadata {
+    moduleName = "com.hivemq.client.mqtt.openssl"
+    readableName = "HiveMQ MQTT Client OpenSSL module"
+}
+
+
+/* ******************** dependencies ******************** */
+
+javaPlatform {
+    allowDependencies()
+}
+
+dependencies {
+    api(rootProject)
+}
+
+configurations.runtime {
+    extendsFrom(rootProject.configurations["opensslImplementation"])
+}
@@ -16,6 +16,7 @@
 
 package com.hivemq.client.internal.mqtt;
 
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.message.connect.MqttConnect;
 import com.hivemq.client.internal.mqtt.message.connect.MqttConnectBuilder;
 import com.hivemq.client.internal.mqtt.message.disconnect.MqttDisconnect;
@@ -29,6 +30,7 @@ import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribeBuilde
 import com.hivemq.client.internal.mqtt.util.MqttChecks;
 import com.hivemq.client.internal.rx.RxFutureConverter;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
 import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
 import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5Connect;
@@ -40,12 +42,16 @@ import com.hivemq.client.mqtt.mqtt5.message.subscribe.Mqtt5Subscribe;
 import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAck;
 import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.Mqtt5Unsubscribe;
 import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.unsuback.Mqtt5UnsubAck;
+import com.hivemq.client.rx.FlowableWithSingle;
+import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
+import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Subscription;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -153,8 +159,9 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         final MqttSubscribe mqttSubscribe = MqttChecks.subscribe(subscribe);
         Checks.notNull(callback, "Callback");
 
-        return handleSubAck(delegate.subscribePublishes(mqttSubscribe, manualAcknowledgement)
-                .subscribeSingleFuture(new CallbackSubscriber(callback)), mqttSubscribe);
+        final Scheduler scheduler = applicationScheduler();
+        return handleSubAck(
+                subscribeWithCallback(mqttSubscribe, callback, scheduler, manualAcknowledgement), mqttSubscribe);
     }
 
     @Override
@@ -168,9 +175,9 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         Checks.notNull(callback, "Callback");
         Checks.notNull(executor, "Executor");
 
-        return handleSubAck(delegate.subscribePublishesUnsafe(mqttSubscribe, manualAcknowledgement)
-                .observeOnBoth(Schedulers.from(executor), true)
-                .subscribeSingleFuture(new CallbackSubscriber(callback)), mqttSubscribe);
+        final Scheduler scheduler = Schedulers.from(executor);
+        return handleSubAck(
+                subscribeWithCallback(mqttSubscribe, callback, scheduler, manualAcknowledgement), mqttSubscribe);
     }
 
     @Override
@@ -203,7 +210,7 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         Checks.notNull(filter, "Global publish filter");
         Checks.notNull(callback, "Callback");
 
-        delegate.publishes(filter, manualAcknowledgement).subscribe(new CallbackSubscriber(callback));
+        publishesWithCallback(filter, callback, applicationScheduler(), manualAcknowledgement);
     }
 
     @Override
@@ -217,9 +224,7 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         Checks.notNull(callback, "Callback");
         Checks.notNull(executor, "Executor");
 
-        delegate.publishesUnsafe(filter, manualAcknowledgement)
-                .observeOn(Schedulers.from(executor), true)
-                .subscribe(new CallbackSubscriber(callback));
+        publishesWithCallback(filter, callback, Schedulers.from(executor), manualAcknowledgement);
     }
 
     @Override
@@ -248,6 +253,15 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         return new MqttPublishBuilder.Send<>(this::publish);
     }
 
+    @Override
+    public @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5PublishResult>> publishBatch(
+            final @Nullable List<@Nullable Mqtt5Publish> publishes) {
+
+        final ImmutableList<MqttPublish> mqttPublishes = MqttChecks.publishes(publishes);
+
+        return RxFutureConverter.toFuture(delegate.publishBatch(mqttPublishes));
+    }
+
     @Override
     public @NotNull CompletableFuture<Void> reauth() {
         return RxFutureConverter.toFuture(delegate.reauth());
@@ -285,6 +299,65 @@ public class MqttAsyncClient implements Mqtt5AsyncClient {
         return delegate.toBlocking();
     }
 
+    private @NotNull Scheduler applicationScheduler() {
+        return delegate.getConfig().getExecutorConfig().getApplicationScheduler();
+    }
+
+    private @NotNull CompletableFuture<@NotNull Mqtt5SubAck> subscribeWithCallback(
+            final @NotNull MqttSubscribe subscribe,
+            final @NotNull Consumer<Mqtt5Publish> callback,
+            final @NotNull Scheduler scheduler,
+            final boolean manualAcknowledgement) {
+
+        final FlowableWithSingle<Mqtt5Publish, Mqtt5SubAck> flowable =
+                delegate.subscribePublishesUnsafe(subscribe, manualAcknowledgement);
+        final MqttClientAdvancedConfig advancedConfig = delegate.getConfig().getAdvancedConfig();
+        final int lanes = advancedConfig.getIncomingPublishDispatchLanes();
+        if (lanes == 1) {
+            return flowable.observeOnBoth(scheduler, true).subscribeSingleFuture(new CallbackSubscriber(callback));
+        }
+        // the lanes already are workers of the scheduler, an additional observeOn would only add a hop through a
+        // single worker, so only the SubAck is observed on the scheduler
+        return completeOn(flowable.subscribeSingleFuture(new MqttPartitionedCallbackSubscriber(
+                callback, scheduler, lanes, advancedConfig.getIncomingPublishDispatchKey())), scheduler);
+    }
+
+    private void publishesWithCallback(
+            final @NotNull MqttGlobalPublishFilter filter,
+            final @NotNull Consumer<Mqtt5Publish> callback,
+            final @NotNull Scheduler scheduler,
+            final boolean manualAcknowledgement) {
+
+        final Flowable<Mqtt5Publish> flowable = delegate.publishesUnsafe(filter, manualAcknowledgement);
+        final MqttClientAdvancedConfig advancedConfig = delegate.getConfig().getAdvancedConfig();
+        final int lanes = advancedConfig.getIncomingPublishDispatchLanes();
+        if (lanes == 1) {
+            flowable.observeOn(scheduler, true).subscribe(new CallbackSubscriber(callback));
+        } else {
+            flowable.subscribe(new MqttPartitionedCallbackSubscriber(
+                    callback, scheduler, lanes, advancedConfig.getIncomingPublishDispatchKey()));
+        }
+    }
+
+    private static <T> @NotNull CompletableFuture<T> completeOn(
+            final @NotNull CompletableFuture<T> future, final @NotNull Scheduler scheduler) {
+
+        final CompletableFuture<T> scheduledFuture = new CompletableFuture<>();
+        future.whenComplete((t, throwable) -> scheduler.scheduleDirect(() -> {
+            if (throwable != null) {
+                scheduledFuture.completeExceptionally(throwable);
+            } else {
+                scheduledFuture.complete(t);
+            }
+        }));
+        scheduledFuture.whenComplete((t, throwable) -> {
+            if (scheduledFuture.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return scheduledFuture;
+    }
+
     private static class CallbackSubscriber implements FlowableSubscriber<Mqtt5Publish> {
 
         private final @NotNull Consumer<Mqtt5Publish> callback;
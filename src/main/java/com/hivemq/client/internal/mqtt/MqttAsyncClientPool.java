@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt;
+
+import com.hivemq.client.internal.mqtt.message.connect.MqttConnect;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.util.MqttChecks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClientPool;
+import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5Connect;
+import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAck;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author Silvio Giebl
+ */
+public class MqttAsyncClientPool implements Mqtt5AsyncClientPool {
+
+    private final @NotNull ImmutableList<MqttAsyncClient> clients;
+    private final @NotNull AtomicInteger roundRobin = new AtomicInteger();
+
+    MqttAsyncClientPool(final @NotNull ImmutableList<MqttAsyncClient> clients) {
+        this.clients = clients;
+    }
+
+    @Override
+    public @NotNull ImmutableList<MqttAsyncClient> getClients() {
+        return clients;
+    }
+
+    @Override
+    public @NotNull MqttAsyncClient getClient(final @Nullable Mqtt5Publish publish) {
+        return getClient(MqttChecks.publish(publish));
+    }
+
+    private @NotNull MqttAsyncClient getClient(final @NotNull MqttPublish publish) {
+        final int size = clients.size();
+        if (size == 1) {
+            return clients.get(0);
+        }
+        final int hash;
+        if (publish.getQos() == MqttQos.AT_MOST_ONCE) {
+            hash = roundRobin.getAndIncrement();
+        } else {
+            hash = publish.getTopic().hashCode();
+        }
+        return clients.get((hash & Integer.MAX_VALUE) % size);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5ConnAck>> connect() {
+        return collect(forEachClient(MqttAsyncClient::connect));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5ConnAck>> connect(
+            final @Nullable Mqtt5Connect connect) {
+
+        final MqttConnect mqttConnect = MqttChecks.connect(connect);
+        return collect(forEachClient(client -> client.connect(mqttConnect)));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@NotNull Mqtt5PublishResult> publish(final @Nullable Mqtt5Publish publish) {
+        final MqttPublish mqttPublish = MqttChecks.publish(publish);
+        return getClient(mqttPublish).publish(mqttPublish);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> disconnect() {
+        return CompletableFuture.allOf(forEachClient(MqttAsyncClient::disconnect));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> @NotNull CompletableFuture<T> @NotNull [] forEachClient(
+            final @NotNull Function<MqttAsyncClient, CompletableFuture<T>> operation) {
+
+        final CompletableFuture<T>[] futures = new CompletableFuture[clients.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = operation.apply(clients.get(i));
+        }
+        return futures;
+    }
+
+    private static <T> @NotNull CompletableFuture<@NotNull List<@NotNull T>> collect(
+            final @NotNull CompletableFuture<T> @NotNull [] futures) {
+
+        return CompletableFuture.allOf(futures).thenApply(v -> {
+            final ImmutableList.Builder<T> builder = ImmutableList.builder(futures.length);
+            for (final CompletableFuture<T> future : futures) {
+                builder.add(future.join());
+            }
+            return builder.build();
+        });
+    }
+}
@@ -30,6 +30,7 @@ import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribeBuilde
 import com.hivemq.client.internal.mqtt.util.MqttChecks;
 import com.hivemq.client.internal.util.AsyncRuntimeException;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
 import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
 import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5SubAckException;
@@ -47,16 +48,19 @@ import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.unsuback.Mqtt5UnsubAck;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
 import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import org.jctools.queues.SpmcArrayQueue;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Subscription;
 
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author Silvio Giebl
@@ -136,7 +140,8 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
 
         Checks.notNull(filter, "Global publish filter");
 
-        return new MqttPublishes(delegate.publishesUnsafe(filter, manualAcknowledgement));
+        return new MqttPublishes(delegate.publishesUnsafe(filter, manualAcknowledgement),
+                getConfig().getAdvancedConfig().getBlockingPublishesPrefetch());
     }
 
     @Override
@@ -172,6 +177,18 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
         return new MqttPublishBuilder.Send<>(this::publish);
     }
 
+    @Override
+    public @NotNull List<@NotNull Mqtt5PublishResult> publishBatch(
+            final @Nullable List<@Nullable Mqtt5Publish> publishes) {
+
+        final ImmutableList<MqttPublish> mqttPublishes = MqttChecks.publishes(publishes);
+        try {
+            return delegate.publishBatchUnsafe(mqttPublishes).blockingGet();
+        } catch (final RuntimeException e) {
+            throw AsyncRuntimeException.fillInStackTrace(e);
+        }
+    }
+
     @Override
     public void reauth() {
         try {
@@ -216,49 +233,41 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
         return delegate.toAsync();
     }
 
-    private static class MqttPublishes implements Mqtt5Publishes, FlowableSubscriber<Mqtt5Publish> {
+    static class MqttPublishes implements Mqtt5Publishes, FlowableSubscriber<Mqtt5Publish> {
 
+        private final int prefetch;
+        private final int requestThreshold;
         private final @NotNull AtomicReference<@Nullable Subscription> subscription = new AtomicReference<>();
-        private final @NotNull LinkedList<Entry> entries = new LinkedList<>();
-        private @Nullable Mqtt5Publish queuedPublish;
-        private @Nullable Throwable error;
-
-        MqttPublishes(final @NotNull Flowable<Mqtt5Publish> publishes) {
+        // onNext is serialized, so there is only a single producer
+        private final @NotNull SpmcArrayQueue<Mqtt5Publish> queue;
+        private final @NotNull AtomicInteger consumed = new AtomicInteger();
+        private final @NotNull ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+        private final @NotNull AtomicReference<@Nullable Throwable> error = new AtomicReference<>();
+
+        MqttPublishes(final @NotNull Flowable<Mqtt5Publish> publishes, final int prefetch) {
+            this.prefetch = prefetch;
+            requestThreshold = prefetch - (prefetch >> 2);
+            queue = new SpmcArrayQueue<>(Math.max(prefetch, 2)); // the ring buffer needs at least 2 slots
             publishes.subscribe(this);
         }
 
         @Override
         public void onSubscribe(final @NotNull Subscription subscription) {
             if (this.subscription.compareAndSet(null, subscription)) {
-                subscription.request(1);
+                subscription.request(prefetch);
             } else {
                 subscription.cancel();
             }
         }
 
-        private void request() {
-            final Subscription subscription = this.subscription.get();
-            assert subscription != null;
-            subscription.request(1);
-        }
-
         @Override
         public void onNext(final @NotNull Mqtt5Publish publish) {
-            synchronized (entries) {
-                if (error != null) {
-                    return;
-                }
-                Entry entry;
-                while ((entry = entries.poll()) != null) {
-                    final boolean success = entry.result.compareAndSet(null, publish);
-                    entry.latch.countDown();
-                    if (success) {
-                        request();
-                        return;
-                    }
-                }
-                queuedPublish = publish;
+            if (error.get() != null) {
+                return;
             }
+            final boolean offered = queue.offer(publish);
+            assert offered : "at most prefetch publishes are requested, so the queue must never be full";
+            signal();
         }
 
         @Override
@@ -268,114 +277,145 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
 
         @Override
         public void onError(final @NotNull Throwable t) {
-            synchronized (entries) {
-                if (error != null) {
-                    return;
-                }
-                error = t;
-                Entry entry;
-                while ((entry = entries.poll()) != null) {
-                    entry.result.set(t);
-                    entry.latch.countDown();
-                }
+            if (error.compareAndSet(null, t)) {
+                signalAll();
             }
         }
 
         @Override
         public @NotNull Mqtt5Publish receive() throws InterruptedException {
-            final Entry entry;
-            synchronized (entries) {
-                if (error != null) {
-                    throw handleError(error);
-                }
-                final Mqtt5Publish publish = receiveNowUnsafe();
-                if (publish != null) {
-                    return publish;
-                }
-                entry = new Entry();
-                entries.offer(entry);
-            }
+            final Mqtt5Publish publish = receive(false, 0);
+            assert publish != null;
+            return publish;
+        }
 
-            InterruptedException interruptedException = null;
-            try {
-                entry.latch.await();
-            } catch (final InterruptedException e) {
-                interruptedException = e;
-            }
-            final Object result = entry.result.getAndSet(Entry.CANCELLED);
-            if (result instanceof Mqtt5Publish) {
-                return (Mqtt5Publish) result;
-            }
-            if (result instanceof Throwable) {
-                throw handleError((Throwable) result);
-            }
-            if (interruptedException != null) {
-                throw interruptedException;
+        @Override
+        public @NotNull Optional<Mqtt5Publish> receive(final long timeout, final @Nullable TimeUnit timeUnit)
+                throws InterruptedException {
+
+            if (timeout < 0) {
+                throw new IllegalArgumentException("Timeout must be greater than 0.");
             }
-            throw new InterruptedException();
+            Checks.notNull(timeUnit, "Time unit");
+
+            return Optional.ofNullable(receive(true, timeUnit.toNanos(timeout)));
         }
 
         @Override
-        public @NotNull Optional<Mqtt5Publish> receive(final long timeout, final @Nullable TimeUnit timeUnit)
+        public @NotNull List<Mqtt5Publish> receive(
+                final int maxPublishes, final long timeout, final @Nullable TimeUnit timeUnit)
                 throws InterruptedException {
 
+            if (maxPublishes <= 0) {
+                throw new IllegalArgumentException("Maximum publishes must be greater than 0.");
+            }
             if (timeout < 0) {
                 throw new IllegalArgumentException("Timeout must be greater than 0.");
             }
             Checks.notNull(timeUnit, "Time unit");
 
-            final Entry entry;
-            synchronized (entries) {
-                if (error != null) {
-                    throw handleError(error);
+            final Mqtt5Publish first = receive(true, timeUnit.toNanos(timeout));
+            if (first == null) {
+                return ImmutableList.of();
+            }
+            final ImmutableList.Builder<Mqtt5Publish> builder =
+                    ImmutableList.builder(Math.min(maxPublishes, prefetch));
+            builder.add(first);
+            for (int i = 1; i < maxPublishes; i++) {
+                final Mqtt5Publish publish = queue.poll();
+                if (publish == null) {
+                    break;
+                }
+                consumed();
+                builder.add(publish);
+            }
+            return builder.build();
+        }
+
+        @Override
+        public @NotNull Optional<Mqtt5Publish> receiveNow() {
+            return Optional.ofNullable(poll());
+        }
+
+        private @Nullable Mqtt5Publish receive(final boolean timed, final long timeoutNanos)
+                throws InterruptedException {
+
+            Mqtt5Publish publish = poll();
+            if (publish != null) {
+                return publish;
+            }
+            final Thread thread = Thread.currentThread();
+            final long deadline = timed ? System.nanoTime() + timeoutNanos : 0;
+            while (true) {
+                waiters.offer(thread);
+                try {
+                    publish = poll(); // check again after registering so that a concurrent onNext is not missed
+                } catch (final RuntimeException e) {
+                    leave(thread);
+                    throw e;
                 }
-                final Mqtt5Publish publish = receiveNowUnsafe();
                 if (publish != null) {
-                    return Optional.of(publish);
+                    leave(thread);
+                    return publish;
+                }
+                if (timed) {
+                    final long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        leave(thread);
+                        return null;
+                    }
+                    LockSupport.parkNanos(this, remainingNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+                leave(thread);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
                 }
-                entry = new Entry();
-                entries.offer(entry);
             }
+        }
 
-            InterruptedException interruptedException = null;
-            try {
-                entry.latch.await(timeout, timeUnit);
-            } catch (final InterruptedException e) {
-                interruptedException = e;
+        private @Nullable Mqtt5Publish poll() {
+            final Throwable error = this.error.get();
+            if (error != null) {
+                throw handleError(error);
             }
-            final Object result = entry.result.getAndSet(Entry.CANCELLED);
-            if (result instanceof Mqtt5Publish) {
-                return Optional.of((Mqtt5Publish) result);
+            final Mqtt5Publish publish = queue.poll();
+            if (publish != null) {
+                consumed();
             }
-            if (result instanceof Throwable) {
-                throw handleError((Throwable) result);
+            return publish;
+        }
+
+        private void consumed() {
+            // exactly one consumer observes the threshold, so exactly one request is made per requestThreshold
+            if (consumed.incrementAndGet() == requestThreshold) {
+                consumed.addAndGet(-requestThreshold);
+                final Subscription subscription = this.subscription.get();
+                assert subscription != null;
+                subscription.request(requestThreshold);
             }
-            if (interruptedException != null) {
-                throw interruptedException;
+        }
+
+        private void signal() {
+            final Thread waiter = waiters.poll();
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
             }
-            return Optional.empty();
         }
 
-        @Override
-        public @NotNull Optional<Mqtt5Publish> receiveNow() {
-            final Mqtt5Publish publish;
-            synchronized (entries) {
-                if (error != null) {
-                    throw handleError(error);
-                }
-                publish = receiveNowUnsafe();
+        private void signalAll() {
+            Thread waiter;
+            while ((waiter = waiters.poll()) != null) {
+                LockSupport.unpark(waiter);
             }
-            return Optional.ofNullable(publish);
         }
 
-        private @Nullable Mqtt5Publish receiveNowUnsafe() {
-            if (queuedPublish != null) {
-                final Mqtt5Publish queuedPublish = this.queuedPublish;
-                this.queuedPublish = null;
-                request();
-                return queuedPublish;
+        private void leave(final @NotNull Thread thread) {
+            // if the thread was already removed, it consumed a signal that may belong to a still queued publish
+            if (!waiters.remove(thread) && !queue.isEmpty()) {
+                signal();
             }
-            return null;
         }
 
         @Override
@@ -384,16 +424,8 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
             if (subscription != null) {
                 subscription.cancel();
             }
-            synchronized (entries) {
-                if (error != null) {
-                    return;
-                }
-                error = new CancellationException();
-                Entry entry;
-                while ((entry = entries.poll()) != null) {
-                    entry.result.set(error);
-                    entry.latch.countDown();
-                }
+            if (error.compareAndSet(null, new CancellationException())) {
+                signalAll();
             }
         }
 
@@ -403,13 +435,5 @@ public class MqttBlockingClient implements Mqtt5BlockingClient {
             }
             throw new RuntimeException(t);
         }
-
-        private static class Entry {
-
-            static final @NotNull Object CANCELLED = new Object();
-
-            final @NotNull CountDownLatch latch = new CountDownLatch(1);
-            final @NotNull AtomicReference<@Nullable Object> result = new AtomicReference<>();
-        }
     }
 }
@@ -31,6 +31,7 @@ import com.hivemq.client.mqtt.datatypes.MqttClientIdentifier;
 import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnect;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientConfig;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientConnectionConfig;
 import com.hivemq.client.mqtt.mqtt5.auth.Mqtt5EnhancedAuthMechanism;
@@ -41,6 +42,7 @@ import io.netty.handler.ssl.SslContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -57,6 +59,7 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
     private final @NotNull ConnectDefaults connectDefaults;
     private final @NotNull ImmutableList<MqttClientConnectedListener> connectedListeners;
     private final @NotNull ImmutableList<MqttClientDisconnectedListener> disconnectedListeners;
+    private final @Nullable MqttClientMetrics metrics;
 
     private final @NotNull ClientComponent clientComponent;
 
@@ -79,7 +82,8 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
             final @NotNull MqttClientAdvancedConfig advancedConfig,
             final @NotNull ConnectDefaults connectDefaults,
             final @NotNull ImmutableList<MqttClientConnectedListener> connectedListeners,
-            final @NotNull ImmutableList<MqttClientDisconnectedListener> disconnectedListeners) {
+            final @NotNull ImmutableList<MqttClientDisconnectedListener> disconnectedListeners,
+            final @Nullable MqttClientMetrics metrics) {
 
         this.mqttVersion = mqttVersion;
         this.clientIdentifier = clientIdentifier;
@@ -89,6 +93,7 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
         this.connectDefaults = connectDefaults;
         this.connectedListeners = connectedListeners;
         this.disconnectedListeners = disconnectedListeners;
+        this.metrics = metrics;
 
         clientComponent = SingletonComponent.INSTANCE.clientComponentBuilder().clientConfig(this).build();
 
@@ -169,6 +174,15 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
         return disconnectedListeners;
     }
 
+    @Override
+    public @NotNull Optional<MqttClientMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    public @Nullable MqttClientMetrics getRawMetrics() {
+        return metrics;
+    }
+
     public @NotNull ClientComponent getClientComponent() {
         return clientComponent;
     }
@@ -179,9 +193,13 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
             eventLoopAcquireCount++;
             EventLoop eventLoop = this.eventLoop;
             if (eventLoop == null) {
-                this.eventLoop = eventLoop =
-                        NettyEventLoopProvider.INSTANCE.acquireEventLoop(executorConfig.getRawNettyExecutor(),
-                                executorConfig.getRawNettyThreads());
+                final MqttClientIdentifierImpl clientIdentifier = this.clientIdentifier;
+                final int affinity =
+                        (clientIdentifier == MqttClientIdentifierImpl.REQUEST_CLIENT_IDENTIFIER_FROM_SERVER) ? 0 :
+                                clientIdentifier.hashCode();
+                this.eventLoop = eventLoop = NettyEventLoopProvider.of(executorConfig.getRawNettyTransport())
+                        .acquireEventLoop(executorConfig.getRawNettyExecutor(), executorConfig.getRawNettyThreads(),
+                                executorConfig.getNettyEventLoopPlacement(), affinity, metrics);
             }
             return eventLoop;
         }
@@ -198,7 +216,8 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
                         if (eventLoopAcquireCount == this.eventLoopAcquireCount) { // eventLoop has not been reacquired
                             this.eventLoop = null;
                             // releaseEventLoop must be the last statement so everything is cleaned up even if it throws
-                            NettyEventLoopProvider.INSTANCE.releaseEventLoop(executorConfig.getRawNettyExecutor());
+                            NettyEventLoopProvider.of(executorConfig.getRawNettyTransport())
+                                    .releaseEventLoop(executorConfig.getRawNettyExecutor(), eventLoop);
                         }
                     }
                 });
@@ -242,8 +261,13 @@ public class MqttClientConfig implements Mqtt5ClientConfig {
 
     public void setCurrentTransportConfig(final @NotNull MqttClientTransportConfigImpl currentTransportConfig) {
         if (!this.currentTransportConfig.equals(currentTransportConfig)) {
+            // the ssl context only depends on the ssl config, keeping it retains its session cache which is keyed by
+            // host and port, so reconnects (also to other servers) can resume previous tls sessions
+            if (!Objects.equals(
+                    this.currentTransportConfig.getRawSslConfig(), currentTransportConfig.getRawSslConfig())) {
+                currentSslContext = null;
+            }
             this.currentTransportConfig = currentTransportConfig;
-            currentSslContext = null;
         }
     }
 
@@ -20,6 +20,7 @@ import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttTopicAliasAu
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttTopicAliasMapping;
 import com.hivemq.client.internal.util.UnsignedDataTypes;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3ClientConnectionConfig;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientConnectionConfig;
 import com.hivemq.client.mqtt.mqtt5.auth.Mqtt5EnhancedAuthMechanism;
@@ -84,7 +85,8 @@ public class MqttClientConnectionConfig
             final boolean wildcardSubscriptionAvailable,
             final boolean sharedSubscriptionAvailable,
             final boolean subscriptionIdentifiersAvailable,
-            final @NotNull Channel channel) {
+            final @NotNull Channel channel,
+            final @Nullable MqttClientMetrics metrics) {
 
         this.transportConfig = transportConfig;
         this.keepAlive = (short) keepAlive;
@@ -96,7 +98,7 @@ public class MqttClientConnectionConfig
         this.sendMaximum = (short) sendMaximum;
         this.sendMaximumPacketSize = sendMaximumPacketSize;
         this.sendTopicAliasMapping =
-                (sendTopicAliasMaximum == 0) ? null : new MqttTopicAliasAutoMapping(sendTopicAliasMaximum);
+                (sendTopicAliasMaximum == 0) ? null : new MqttTopicAliasAutoMapping(sendTopicAliasMaximum, metrics);
         this.maximumQos = maximumQos;
         this.channel = channel;
 
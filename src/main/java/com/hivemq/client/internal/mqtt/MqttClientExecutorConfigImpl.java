@@ -17,6 +17,8 @@
 package com.hivemq.client.internal.mqtt;
 
 import com.hivemq.client.mqtt.MqttClientExecutorConfig;
+import com.hivemq.client.mqtt.MqttNettyEventLoopPlacement;
+import com.hivemq.client.mqtt.MqttNettyTransport;
 import io.reactivex.Scheduler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -33,19 +35,26 @@ public class MqttClientExecutorConfigImpl implements MqttClientExecutorConfig {
 
     public static final int DEFAULT_NETTY_THREADS = 0;
     public static final @NotNull MqttClientExecutorConfigImpl DEFAULT =
-            new MqttClientExecutorConfigImpl(null, DEFAULT_NETTY_THREADS, DEFAULT_APPLICATION_SCHEDULER);
+            new MqttClientExecutorConfigImpl(null, DEFAULT_NETTY_THREADS, null, DEFAULT_NETTY_EVENT_LOOP_PLACEMENT,
+                    DEFAULT_APPLICATION_SCHEDULER);
 
     private final @Nullable Executor nettyExecutor;
     private final int nettyThreads;
+    private final @Nullable MqttNettyTransport nettyTransport;
+    private final @NotNull MqttNettyEventLoopPlacement nettyEventLoopPlacement;
     private final @NotNull Scheduler applicationScheduler;
 
     MqttClientExecutorConfigImpl(
             final @Nullable Executor nettyExecutor,
             final int nettyThreads,
+            final @Nullable MqttNettyTransport nettyTransport,
+            final @NotNull MqttNettyEventLoopPlacement nettyEventLoopPlacement,
             final @NotNull Scheduler applicationScheduler) {
 
         this.nettyExecutor = nettyExecutor;
         this.nettyThreads = nettyThreads;
+        this.nettyTransport = nettyTransport;
+        this.nettyEventLoopPlacement = nettyEventLoopPlacement;
         this.applicationScheduler = applicationScheduler;
     }
 
@@ -67,6 +76,20 @@ public class MqttClientExecutorConfigImpl implements MqttClientExecutorConfig {
         return nettyThreads;
     }
 
+    @Override
+    public @NotNull Optional<MqttNettyTransport> getNettyTransport() {
+        return Optional.ofNullable(nettyTransport);
+    }
+
+    public @Nullable MqttNettyTransport getRawNettyTransport() {
+        return nettyTransport;
+    }
+
+    @Override
+    public @NotNull MqttNettyEventLoopPlacement getNettyEventLoopPlacement() {
+        return nettyEventLoopPlacement;
+    }
+
     @Override
     public @NotNull Scheduler getApplicationScheduler() {
         return applicationScheduler;
@@ -88,6 +111,7 @@ public class MqttClientExecutorConfigImpl implements MqttClientExecutorConfig {
         final MqttClientExecutorConfigImpl that = (MqttClientExecutorConfigImpl) o;
 
         return Objects.equals(nettyExecutor, that.nettyExecutor) && (nettyThreads == that.nettyThreads) &&
+                (nettyTransport == that.nettyTransport) && (nettyEventLoopPlacement == that.nettyEventLoopPlacement) &&
                 applicationScheduler.equals(that.applicationScheduler);
     }
 
@@ -95,6 +119,8 @@ public class MqttClientExecutorConfigImpl implements MqttClientExecutorConfig {
     public int hashCode() {
         int result = Objects.hashCode(nettyExecutor);
         result = 31 * result + nettyThreads;
+        result = 31 * result + Objects.hashCode(nettyTransport);
+        result = 31 * result + nettyEventLoopPlacement.hashCode();
         result = 31 * result + applicationScheduler.hashCode();
         return result;
     }
@@ -16,8 +16,13 @@
 
 package com.hivemq.client.internal.mqtt;
 
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.internal.netty.NettyEventLoopProvider;
 import com.hivemq.client.internal.util.Checks;
 import com.hivemq.client.mqtt.MqttClientExecutorConfigBuilder;
+import com.hivemq.client.mqtt.MqttNettyEventLoopPlacement;
+import com.hivemq.client.mqtt.MqttNettyTransport;
 import io.reactivex.Scheduler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,8 +35,14 @@ import java.util.function.Function;
  */
 public abstract class MqttClientExecutorConfigImplBuilder<B extends MqttClientExecutorConfigImplBuilder<B>> {
 
+    private static final @NotNull InternalLogger LOGGER =
+            InternalLoggerFactory.getLogger(MqttClientExecutorConfigImplBuilder.class);
+
     private @Nullable Executor nettyExecutor;
     private int nettyThreads = MqttClientExecutorConfigImpl.DEFAULT_NETTY_THREADS;
+    private @Nullable MqttNettyTransport nettyTransport;
+    private @NotNull MqttNettyEventLoopPlacement nettyEventLoopPlacement =
+            MqttClientExecutorConfigImpl.DEFAULT_NETTY_EVENT_LOOP_PLACEMENT;
     private @NotNull Scheduler applicationScheduler = MqttClientExecutorConfigImpl.DEFAULT_APPLICATION_SCHEDULER;
 
     MqttClientExecutorConfigImplBuilder() {}
@@ -39,6 +50,8 @@ public abstract class MqttClientExecutorConfigImplBuilder<B extends MqttClientEx
     MqttClientExecutorConfigImplBuilder(final @NotNull MqttClientExecutorConfigImpl executorConfig) {
         nettyExecutor = executorConfig.getRawNettyExecutor();
         nettyThreads = executorConfig.getRawNettyThreads();
+        nettyTransport = executorConfig.getRawNettyTransport();
+        nettyEventLoopPlacement = executorConfig.getNettyEventLoopPlacement();
         applicationScheduler = executorConfig.getApplicationScheduler();
     }
 
@@ -58,13 +71,27 @@ public abstract class MqttClientExecutorConfigImplBuilder<B extends MqttClientEx
         return self();
     }
 
+    public @NotNull B nettyTransport(final @Nullable MqttNettyTransport nettyTransport) {
+        if ((nettyTransport != null) && !NettyEventLoopProvider.isAvailable(nettyTransport)) {
+            LOGGER.warn("Netty transport {} is not available, using the default transport instead.", nettyTransport);
+        }
+        this.nettyTransport = nettyTransport;
+        return self();
+    }
+
+    public @NotNull B nettyEventLoopPlacement(final @Nullable MqttNettyEventLoopPlacement nettyEventLoopPlacement) {
+        this.nettyEventLoopPlacement = Checks.notNull(nettyEventLoopPlacement, "Netty event loop placement");
+        return self();
+    }
+
     public @NotNull B applicationScheduler(final @Nullable Scheduler applicationScheduler) {
         this.applicationScheduler = Checks.notNull(applicationScheduler, "Application scheduler");
         return self();
     }
 
     public @NotNull MqttClientExecutorConfigImpl build() {
-        return new MqttClientExecutorConfigImpl(nettyExecutor, nettyThreads, applicationScheduler);
+        return new MqttClientExecutorConfigImpl(nettyExecutor, nettyThreads, nettyTransport, nettyEventLoopPlacement,
+                applicationScheduler);
     }
 
     public static class Default extends MqttClientExecutorConfigImplBuilder<Default>
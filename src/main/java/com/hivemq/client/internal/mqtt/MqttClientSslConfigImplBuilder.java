@@ -40,6 +40,7 @@ public abstract class MqttClientSslConfigImplBuilder<B extends MqttClientSslConf
     private @Nullable ImmutableList<String> protocols;
     private int handshakeTimeoutMs = (int) MqttClientSslConfigImpl.DEFAULT_HANDSHAKE_TIMEOUT_MS;
     private @Nullable HostnameVerifier hostnameVerifier = MqttClientSslConfigImpl.DEFAULT_HOSTNAME_VERIFIER;
+    private boolean openSsl;
 
     MqttClientSslConfigImplBuilder() {}
 
@@ -51,6 +52,7 @@ public abstract class MqttClientSslConfigImplBuilder<B extends MqttClientSslConf
             protocols = sslConfig.getRawProtocols();
             handshakeTimeoutMs = (int) sslConfig.getHandshakeTimeoutMs();
             hostnameVerifier = sslConfig.getRawHostnameVerifier();
+            openSsl = sslConfig.isOpenSsl();
         }
     }
 
@@ -89,9 +91,14 @@ public abstract class MqttClientSslConfigImplBuilder<B extends MqttClientSslConf
         return self();
     }
 
+    public @NotNull B openSsl(final boolean openSsl) {
+        this.openSsl = openSsl;
+        return self();
+    }
+
     public @NotNull MqttClientSslConfigImpl build() {
-        return new MqttClientSslConfigImpl(
-                keyManagerFactory, trustManagerFactory, cipherSuites, protocols, handshakeTimeoutMs, hostnameVerifier);
+        return new MqttClientSslConfigImpl(keyManagerFactory, trustManagerFactory, cipherSuites, protocols,
+                handshakeTimeoutMs, hostnameVerifier, openSsl);
     }
 
     public static class Default extends MqttClientSslConfigImplBuilder<Default> implements MqttClientSslConfigBuilder {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt;
+
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Scheduler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Passes incoming Publish messages to a callback concurrently on multiple lanes.
+ * <p>
+ * Messages are assigned to a lane by the hash of their dispatch key (their topic by default). Each lane is a worker of
+ * the scheduler, so messages of the same lane are passed to the callback in order. Only a limited amount of messages
+ * is requested in advance, so slow callbacks still apply backpressure.
+ *
+ * @author Silvio Giebl
+ */
+class MqttPartitionedCallbackSubscriber implements FlowableSubscriber<Mqtt5Publish> {
+
+    private final @NotNull Consumer<Mqtt5Publish> callback;
+    private final @Nullable Function<? super Mqtt5Publish, ?> dispatchKey;
+    private final Scheduler.@NotNull Worker @NotNull [] lanes;
+    private final int prefetch;
+    private final int limit;
+    private final @NotNull AtomicInteger consumed = new AtomicInteger();
+    private @Nullable Subscription subscription;
+
+    MqttPartitionedCallbackSubscriber(
+            final @NotNull Consumer<Mqtt5Publish> callback,
+            final @NotNull Scheduler scheduler,
+            final int lanes,
+            final @Nullable Function<? super Mqtt5Publish, ?> dispatchKey) {
+
+        this.callback = callback;
+        this.dispatchKey = dispatchKey;
+        this.lanes = new Scheduler.Worker[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = scheduler.createWorker();
+        }
+        prefetch = Math.max(Flowable.bufferSize(), lanes);
+        limit = prefetch - (prefetch >> 2);
+    }
+
+    @Override
+    public void onSubscribe(final @NotNull Subscription s) {
+        subscription = s;
+        s.request(prefetch);
+    }
+
+    @Override
+    public void onNext(final @NotNull Mqtt5Publish publish) {
+        final Object key = (dispatchKey == null) ? publish.getTopic() : dispatchKey.apply(publish);
+        int hash = Objects.hashCode(key);
+        hash ^= hash >>> 16;
+        lanes[(hash & 0x7fff_ffff) % lanes.length].schedule(() -> {
+            try {
+                callback.accept(publish);
+            } finally {
+                onConsumed();
+            }
+        });
+    }
+
+    private void onConsumed() {
+        if (consumed.incrementAndGet() == limit) {
+            consumed.addAndGet(-limit);
+            assert subscription != null;
+            subscription.request(limit);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        dispose();
+    }
+
+    @Override
+    public void onError(final @NotNull Throwable t) {
+        dispose();
+    }
+
+    private void dispose() {
+        for (final Scheduler.Worker lane : lanes) {
+            lane.schedule(lane::dispose);
+        }
+    }
+}
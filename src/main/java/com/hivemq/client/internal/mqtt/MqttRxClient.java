@@ -21,6 +21,7 @@ import com.hivemq.client.internal.mqtt.handler.connect.MqttConnAckSingle;
 import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectCompletable;
 import com.hivemq.client.internal.mqtt.handler.publish.incoming.MqttGlobalIncomingPublishFlowable;
 import com.hivemq.client.internal.mqtt.handler.publish.incoming.MqttSubscribedPublishFlowable;
+import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttAckBatchSingle;
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttAckFlowable;
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttAckSingle;
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttAckSingleFlowable;
@@ -37,6 +38,7 @@ import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribe;
 import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribeBuilder;
 import com.hivemq.client.internal.mqtt.util.MqttChecks;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
 import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5RxClient;
 import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5Connect;
@@ -58,6 +60,8 @@ import io.reactivex.internal.fuseable.ScalarCallable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 /**
  * @author Silvio Giebl
  */
@@ -203,6 +207,19 @@ public class MqttRxClient implements Mqtt5RxClient {
         return new MqttAckSingle(clientConfig, publish);
     }
 
+    @Override
+    public @NotNull Single<List<Mqtt5PublishResult>> publishBatch(final @Nullable List<Mqtt5Publish> publishes) {
+        return publishBatch(MqttChecks.publishes(publishes));
+    }
+
+    @NotNull Single<List<Mqtt5PublishResult>> publishBatch(final @NotNull ImmutableList<MqttPublish> publishes) {
+        return publishBatchUnsafe(publishes).observeOn(clientConfig.getExecutorConfig().getApplicationScheduler());
+    }
+
+    @NotNull Single<List<Mqtt5PublishResult>> publishBatchUnsafe(final @NotNull ImmutableList<MqttPublish> publishes) {
+        return new MqttAckBatchSingle(clientConfig, publishes);
+    }
+
     @Override
     public @NotNull Flowable<Mqtt5PublishResult> publish(final @Nullable Flowable<Mqtt5Publish> publishFlowable) {
         Checks.notNull(publishFlowable, "Publish flowable");
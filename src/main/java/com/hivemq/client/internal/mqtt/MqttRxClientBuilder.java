@@ -18,13 +18,16 @@ package com.hivemq.client.internal.mqtt;
 
 import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
 import com.hivemq.client.internal.mqtt.message.auth.MqttSimpleAuth;
 import com.hivemq.client.internal.mqtt.message.auth.MqttSimpleAuthBuilder;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
 import com.hivemq.client.internal.mqtt.message.publish.MqttWillPublish;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
 import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClientPool;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientBuilder;
 import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig;
 import com.hivemq.client.mqtt.mqtt5.auth.Mqtt5EnhancedAuthMechanism;
@@ -114,8 +117,30 @@ public class MqttRxClientBuilder extends MqttRxClientBuilderBase<MqttRxClientBui
         return buildRx().toBlocking();
     }
 
+    @Override
+    public @NotNull MqttAsyncClientPool buildAsyncPool(final int size) {
+        Checks.range(size, 1, Mqtt5AsyncClientPool.MAX_SIZE, "Pool size");
+        // a store instance must only be used by one client, but all clients of the pool share the advanced config
+        if ((advancedConfig.getOutgoingPublishStore() != null) || (advancedConfig.getIncomingQos2Store() != null)) {
+            throw new IllegalArgumentException("Outgoing publish store and incoming QoS 2 store must not be set " +
+                    "for a pool, as a store must only be used by one client.");
+        }
+        final ImmutableList.Builder<MqttAsyncClient> clients = ImmutableList.builder(size);
+        for (int i = 0; i < size; i++) {
+            clients.add(new MqttRxClient(buildClientConfig(poolIdentifier(i))).toAsync());
+        }
+        return new MqttAsyncClientPool(clients.build());
+    }
+
     private @NotNull MqttClientConfig buildClientConfig() {
-        return buildClientConfig(MqttVersion.MQTT_5_0, advancedConfig,
-                MqttClientConfig.ConnectDefaults.of(simpleAuth, enhancedAuthMechanism, willPublish));
+        return buildClientConfig(MqttVersion.MQTT_5_0, advancedConfig, buildConnectDefaults());
+    }
+
+    private @NotNull MqttClientConfig buildClientConfig(final @NotNull MqttClientIdentifierImpl identifier) {
+        return buildClientConfig(MqttVersion.MQTT_5_0, identifier, advancedConfig, buildConnectDefaults());
+    }
+
+    private @NotNull MqttClientConfig.ConnectDefaults buildConnectDefaults() {
+        return MqttClientConfig.ConnectDefaults.of(simpleAuth, enhancedAuthMechanism, willPublish);
     }
 }
@@ -29,6 +29,7 @@ import com.hivemq.client.mqtt.datatypes.MqttClientIdentifier;
 import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnect;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -48,6 +49,7 @@ public abstract class MqttRxClientBuilderBase<B extends MqttRxClientBuilderBase<
     private @Nullable MqttClientAutoReconnectImpl autoReconnect;
     private ImmutableList.@Nullable Builder<MqttClientConnectedListener> connectedListenersBuilder;
     private ImmutableList.@Nullable Builder<MqttClientDisconnectedListener> disconnectedListenersBuilder;
+    private @Nullable MqttClientMetrics metrics;
 
     protected MqttRxClientBuilderBase() {}
 
@@ -59,6 +61,7 @@ public abstract class MqttRxClientBuilderBase<B extends MqttRxClientBuilderBase<
         autoReconnect = clientBuilder.autoReconnect;
         connectedListenersBuilder = clientBuilder.connectedListenersBuilder;
         disconnectedListenersBuilder = clientBuilder.disconnectedListenersBuilder;
+        metrics = clientBuilder.metrics;
     }
 
     protected abstract @NotNull B self();
@@ -174,6 +177,11 @@ public abstract class MqttRxClientBuilderBase<B extends MqttRxClientBuilderBase<
         return self();
     }
 
+    public @NotNull B metrics(final @Nullable MqttClientMetrics metrics) {
+        this.metrics = metrics;
+        return self();
+    }
+
     @Override
     @NotNull MqttClientTransportConfigImpl buildTransportConfig() {
         if (transportConfig == null) {
@@ -209,8 +217,24 @@ public abstract class MqttRxClientBuilderBase<B extends MqttRxClientBuilderBase<
             final @NotNull MqttClientAdvancedConfig advancedConfig,
             final @NotNull MqttClientConfig.ConnectDefaults connectDefaults) {
 
+        return buildClientConfig(mqttVersion, identifier, advancedConfig, connectDefaults);
+    }
+
+    protected @NotNull MqttClientConfig buildClientConfig(
+            final @NotNull MqttVersion mqttVersion,
+            final @NotNull MqttClientIdentifierImpl identifier,
+            final @NotNull MqttClientAdvancedConfig advancedConfig,
+            final @NotNull MqttClientConfig.ConnectDefaults connectDefaults) {
+
         return new MqttClientConfig(mqttVersion, identifier, buildTransportConfig(), executorConfig, advancedConfig,
-                connectDefaults, buildConnectedListeners(), buildDisconnectedListeners());
+                connectDefaults, buildConnectedListeners(), buildDisconnectedListeners(), metrics);
+    }
+
+    protected @NotNull MqttClientIdentifierImpl poolIdentifier(final int index) {
+        if (identifier.toString().isEmpty()) {
+            return identifier;
+        }
+        return MqttClientIdentifierImpl.of(identifier + "-" + index);
     }
 
     public static class Choose extends MqttRxClientBuilderBase<Choose> implements MqttClientBuilder {
@@ -18,29 +18,126 @@ package com.hivemq.client.internal.mqtt.advanced;
 
 import com.hivemq.client.internal.mqtt.advanced.interceptor.MqttClientInterceptors;
 import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5IncomingQos0OverflowPolicy;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5OfflinePublishOverflowPolicy;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * @author Silvio Giebl
  */
 public class MqttClientAdvancedConfig implements Mqtt5ClientAdvancedConfig {
 
-    public static final @NotNull MqttClientAdvancedConfig DEFAULT = new MqttClientAdvancedConfig(false, false, null);
+    public static final @NotNull MqttClientAdvancedConfig DEFAULT =
+            new MqttClientAdvancedConfig(false, false, false, 1, 0, DEFAULT_MAX_CONCURRENT_PUBLISH_FLOWABLES, false,
+                    false, 0, RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER, DEFAULT_INCOMING_QOS_0_BUFFER_BYTES,
+                    DEFAULT_INCOMING_QOS_0_OVERFLOW_POLICY, 0, 0, 0, 0, 1, null, false, false, null, null, 0,
+                    DEFAULT_OFFLINE_PUBLISH_BUFFER_BYTES, DEFAULT_OFFLINE_PUBLISH_BUFFER_MEMORY_BYTES, null,
+                    DEFAULT_OFFLINE_PUBLISH_OVERFLOW_POLICY, DEFAULT_SUBSCRIBE_PIPELINING_DEPTH, false,
+                    DEFAULT_BLOCKING_PUBLISHES_PREFETCH, null);
 
     private final boolean allowServerReAuth;
     private final boolean validatePayloadFormat;
+    private final boolean zeroCopyPayload;
+    private final int flushCoalescingMaxWrites;
+    private final int flushCoalescingMaxDelayMicros;
+    private final int maxConcurrentPublishFlowables;
+    private final boolean qos2CompleteResult;
+    private final boolean subscriptionIdentifierRouting;
+    private final int topicMatchingCacheSize;
+    private final int incomingQos0BufferSize;
+    private final long incomingQos0BufferBytes;
+    private final @NotNull Mqtt5IncomingQos0OverflowPolicy incomingQos0OverflowPolicy;
+    private final int incomingBackpressureHighWaterMark;
+    private final int incomingBackpressureLowWaterMark;
+    private final long incomingBackpressureHighWaterMarkBytes;
+    private final long incomingBackpressureLowWaterMarkBytes;
+    private final int incomingPublishDispatchLanes;
+    private final @Nullable Function<? super Mqtt5Publish, ?> incomingPublishDispatchKey;
+    private final boolean pingRespRequired;
+    private final boolean sharedKeepAliveTimer;
+    private final @Nullable Mqtt5OutgoingPublishStore outgoingPublishStore;
+    private final @Nullable Mqtt5IncomingQos2Store incomingQos2Store;
+    private final int offlinePublishBufferSize;
+    private final long offlinePublishBufferBytes;
+    private final long offlinePublishBufferMemoryBytes;
+    private final @Nullable Path offlinePublishSpillDirectory;
+    private final @NotNull Mqtt5OfflinePublishOverflowPolicy offlinePublishOverflowPolicy;
+    private final int subscribePipeliningDepth;
+    private final boolean subscribeCoalescing;
+    private final int blockingPublishesPrefetch;
     private final @Nullable MqttClientInterceptors interceptors;
 
     MqttClientAdvancedConfig(
             final boolean allowServerReAuth,
             final boolean validatePayloadFormat,
+            final boolean zeroCopyPayload,
+            final int flushCoalescingMaxWrites,
+            final int flushCoalescingMaxDelayMicros,
+            final int maxConcurrentPublishFlowables,
+            final boolean qos2CompleteResult,
+            final boolean subscriptionIdentifierRouting,
+            final int topicMatchingCacheSize,
+            final int incomingQos0BufferSize,
+            final long incomingQos0BufferBytes,
+            final @NotNull Mqtt5IncomingQos0OverflowPolicy incomingQos0OverflowPolicy,
+            final int incomingBackpressureHighWaterMark,
+            final int incomingBackpressureLowWaterMark,
+            final long incomingBackpressureHighWaterMarkBytes,
+            final long incomingBackpressureLowWaterMarkBytes,
+            final int incomingPublishDispatchLanes,
+            final @Nullable Function<? super Mqtt5Publish, ?> incomingPublishDispatchKey,
+            final boolean pingRespRequired,
+            final boolean sharedKeepAliveTimer,
+            final @Nullable Mqtt5OutgoingPublishStore outgoingPublishStore,
+            final @Nullable Mqtt5IncomingQos2Store incomingQos2Store,
+            final int offlinePublishBufferSize,
+            final long offlinePublishBufferBytes,
+            final long offlinePublishBufferMemoryBytes,
+            final @Nullable Path offlinePublishSpillDirectory,
+            final @NotNull Mqtt5OfflinePublishOverflowPolicy offlinePublishOverflowPolicy,
+            final int subscribePipeliningDepth,
+            final boolean subscribeCoalescing,
+            final int blockingPublishesPrefetch,
             final @Nullable MqttClientInterceptors interceptors) {
 
         this.allowServerReAuth = allowServerReAuth;
         this.validatePayloadFormat = validatePayloadFormat;
+        this.zeroCopyPayload = zeroCopyPayload;
+        this.flushCoalescingMaxWrites = flushCoalescingMaxWrites;
+        this.flushCoalescingMaxDelayMicros = flushCoalescingMaxDelayMicros;
+        this.maxConcurrentPublishFlowables = maxConcurrentPublishFlowables;
+        this.qos2CompleteResult = qos2CompleteResult;
+        this.subscriptionIdentifierRouting = subscriptionIdentifierRouting;
+        this.topicMatchingCacheSize = topicMatchingCacheSize;
+        this.incomingQos0BufferSize = incomingQos0BufferSize;
+        this.incomingQos0BufferBytes = incomingQos0BufferBytes;
+        this.incomingQos0OverflowPolicy = incomingQos0OverflowPolicy;
+        this.incomingBackpressureHighWaterMark = incomingBackpressureHighWaterMark;
+        this.incomingBackpressureLowWaterMark = incomingBackpressureLowWaterMark;
+        this.incomingBackpressureHighWaterMarkBytes = incomingBackpressureHighWaterMarkBytes;
+        this.incomingBackpressureLowWaterMarkBytes = incomingBackpressureLowWaterMarkBytes;
+        this.incomingPublishDispatchLanes = incomingPublishDispatchLanes;
+        this.incomingPublishDispatchKey = incomingPublishDispatchKey;
+        this.pingRespRequired = pingRespRequired;
+        this.sharedKeepAliveTimer = sharedKeepAliveTimer;
+        this.outgoingPublishStore = outgoingPublishStore;
+        this.incomingQos2Store = incomingQos2Store;
+        this.offlinePublishBufferSize = offlinePublishBufferSize;
+        this.offlinePublishBufferBytes = offlinePublishBufferBytes;
+        this.offlinePublishBufferMemoryBytes = offlinePublishBufferMemoryBytes;
+        this.offlinePublishSpillDirectory = offlinePublishSpillDirectory;
+        this.offlinePublishOverflowPolicy = offlinePublishOverflowPolicy;
+        this.subscribePipeliningDepth = subscribePipeliningDepth;
+        this.subscribeCoalescing = subscribeCoalescing;
+        this.blockingPublishesPrefetch = blockingPublishesPrefetch;
         this.interceptors = interceptors;
     }
 
@@ -54,6 +151,146 @@ public class MqttClientAdvancedConfig implements Mqtt5ClientAdvancedConfig {
         return validatePayloadFormat;
     }
 
+    @Override
+    public boolean isZeroCopyPayload() {
+        return zeroCopyPayload;
+    }
+
+    @Override
+    public int getFlushCoalescingMaxWrites() {
+        return flushCoalescingMaxWrites;
+    }
+
+    @Override
+    public int getFlushCoalescingMaxDelayMicros() {
+        return flushCoalescingMaxDelayMicros;
+    }
+
+    @Override
+    public int getMaxConcurrentPublishFlowables() {
+        return maxConcurrentPublishFlowables;
+    }
+
+    @Override
+    public boolean isQos2CompleteResult() {
+        return qos2CompleteResult;
+    }
+
+    @Override
+    public boolean isSubscriptionIdentifierRouting() {
+        return subscriptionIdentifierRouting;
+    }
+
+    @Override
+    public int getTopicMatchingCacheSize() {
+        return topicMatchingCacheSize;
+    }
+
+    @Override
+    public int getIncomingQos0BufferSize() {
+        return incomingQos0BufferSize;
+    }
+
+    @Override
+    public long getIncomingQos0BufferBytes() {
+        return incomingQos0BufferBytes;
+    }
+
+    @Override
+    public @NotNull Mqtt5IncomingQos0OverflowPolicy getIncomingQos0OverflowPolicy() {
+        return incomingQos0OverflowPolicy;
+    }
+
+    @Override
+    public int getIncomingBackpressureHighWaterMark() {
+        return incomingBackpressureHighWaterMark;
+    }
+
+    @Override
+    public int getIncomingBackpressureLowWaterMark() {
+        return incomingBackpressureLowWaterMark;
+    }
+
+    @Override
+    public long getIncomingBackpressureHighWaterMarkBytes() {
+        return incomingBackpressureHighWaterMarkBytes;
+    }
+
+    @Override
+    public long getIncomingBackpressureLowWaterMarkBytes() {
+        return incomingBackpressureLowWaterMarkBytes;
+    }
+
+    @Override
+    public int getIncomingPublishDispatchLanes() {
+        return incomingPublishDispatchLanes;
+    }
+
+    @Override
+    public @Nullable Function<? super Mqtt5Publish, ?> getIncomingPublishDispatchKey() {
+        return incomingPublishDispatchKey;
+    }
+
+    @Override
+    public boolean isPingRespRequired() {
+        return pingRespRequired;
+    }
+
+    @Override
+    public boolean isSharedKeepAliveTimer() {
+        return sharedKeepAliveTimer;
+    }
+
+    @Override
+    public @Nullable Mqtt5OutgoingPublishStore getOutgoingPublishStore() {
+        return outgoingPublishStore;
+    }
+
+    @Override
+    public @Nullable Mqtt5IncomingQos2Store getIncomingQos2Store() {
+        return incomingQos2Store;
+    }
+
+    @Override
+    public int getOfflinePublishBufferSize() {
+        return offlinePublishBufferSize;
+    }
+
+    @Override
+    public long getOfflinePublishBufferBytes() {
+        return offlinePublishBufferBytes;
+    }
+
+    @Override
+    public long getOfflinePublishBufferMemoryBytes() {
+        return offlinePublishBufferMemoryBytes;
+    }
+
+    @Override
+    public @Nullable Path getOfflinePublishSpillDirectory() {
+        return offlinePublishSpillDirectory;
+    }
+
+    @Override
+    public @NotNull Mqtt5OfflinePublishOverflowPolicy getOfflinePublishOverflowPolicy() {
+        return offlinePublishOverflowPolicy;
+    }
+
+    @Override
+    public int getSubscribePipeliningDepth() {
+        return subscribePipeliningDepth;
+    }
+
+    @Override
+    public boolean isSubscribeCoalescing() {
+        return subscribeCoalescing;
+    }
+
+    @Override
+    public int getBlockingPublishesPrefetch() {
+        return blockingPublishesPrefetch;
+    }
+
     @Override
     public @Nullable MqttClientInterceptors getInterceptors() {
         return interceptors;
@@ -75,6 +312,33 @@ public class MqttClientAdvancedConfig implements Mqtt5ClientAdvancedConfig {
         final MqttClientAdvancedConfig that = (MqttClientAdvancedConfig) o;
 
         return (allowServerReAuth == that.allowServerReAuth) && (validatePayloadFormat == that.validatePayloadFormat) &&
+                (zeroCopyPayload == that.zeroCopyPayload) &&
+                (flushCoalescingMaxWrites == that.flushCoalescingMaxWrites) &&
+                (flushCoalescingMaxDelayMicros == that.flushCoalescingMaxDelayMicros) &&
+                (maxConcurrentPublishFlowables == that.maxConcurrentPublishFlowables) &&
+                (qos2CompleteResult == that.qos2CompleteResult) &&
+                (subscriptionIdentifierRouting == that.subscriptionIdentifierRouting) &&
+                (topicMatchingCacheSize == that.topicMatchingCacheSize) &&
+                (incomingQos0BufferSize == that.incomingQos0BufferSize) &&
+                (incomingQos0BufferBytes == that.incomingQos0BufferBytes) &&
+                (incomingQos0OverflowPolicy == that.incomingQos0OverflowPolicy) &&
+                (incomingBackpressureHighWaterMark == that.incomingBackpressureHighWaterMark) &&
+                (incomingBackpressureLowWaterMark == that.incomingBackpressureLowWaterMark) &&
+                (incomingBackpressureHighWaterMarkBytes == that.incomingBackpressureHighWaterMarkBytes) &&
+                (incomingBackpressureLowWaterMarkBytes == that.incomingBackpressureLowWaterMarkBytes) &&
+                (incomingPublishDispatchLanes == that.incomingPublishDispatchLanes) &&
+                Objects.equals(incomingPublishDispatchKey, that.incomingPublishDispatchKey) &&
+                (pingRespRequired == that.pingRespRequired) && (sharedKeepAliveTimer == that.sharedKeepAliveTimer) &&
+                Objects.equals(outgoingPublishStore, that.outgoingPublishStore) &&
+                Objects.equals(incomingQos2Store, that.incomingQos2Store) &&
+                (offlinePublishBufferSize == that.offlinePublishBufferSize) &&
+                (offlinePublishBufferBytes == that.offlinePublishBufferBytes) &&
+                (offlinePublishBufferMemoryBytes == that.offlinePublishBufferMemoryBytes) &&
+                Objects.equals(offlinePublishSpillDirectory, that.offlinePublishSpillDirectory) &&
+                (offlinePublishOverflowPolicy == that.offlinePublishOverflowPolicy) &&
+                (subscribePipeliningDepth == that.subscribePipeliningDepth) &&
+                (subscribeCoalescing == that.subscribeCoalescing) &&
+                (blockingPublishesPrefetch == that.blockingPublishesPrefetch) &&
                 Objects.equals(interceptors, that.interceptors);
     }
 
@@ -82,6 +346,34 @@ public class MqttClientAdvancedConfig implements Mqtt5ClientAdvancedConfig {
     public int hashCode() {
         int result = Boolean.hashCode(allowServerReAuth);
         result = 31 * result + Boolean.hashCode(validatePayloadFormat);
+        result = 31 * result + Boolean.hashCode(zeroCopyPayload);
+        result = 31 * result + flushCoalescingMaxWrites;
+        result = 31 * result + flushCoalescingMaxDelayMicros;
+        result = 31 * result + maxConcurrentPublishFlowables;
+        result = 31 * result + Boolean.hashCode(qos2CompleteResult);
+        result = 31 * result + Boolean.hashCode(subscriptionIdentifierRouting);
+        result = 31 * result + topicMatchingCacheSize;
+        result = 31 * result + incomingQos0BufferSize;
+        result = 31 * result + Long.hashCode(incomingQos0BufferBytes);
+        result = 31 * result + incomingQos0OverflowPolicy.hashCode();
+        result = 31 * result + incomingBackpressureHighWaterMark;
+        result = 31 * result + incomingBackpressureLowWaterMark;
+        result = 31 * result + Long.hashCode(incomingBackpressureHighWaterMarkBytes);
+        result = 31 * result + Long.hashCode(incomingBackpressureLowWaterMarkBytes);
+        result = 31 * result + incomingPublishDispatchLanes;
+        result = 31 * result + Objects.hashCode(incomingPublishDispatchKey);
+        result = 31 * result + Boolean.hashCode(pingRespRequired);
+        result = 31 * result + Boolean.hashCode(sharedKeepAliveTimer);
+        result = 31 * result + Objects.hashCode(outgoingPublishStore);
+        result = 31 * result + Objects.hashCode(incomingQos2Store);
+        result = 31 * result + offlinePublishBufferSize;
+        result = 31 * result + Long.hashCode(offlinePublishBufferBytes);
+        result = 31 * result + Long.hashCode(offlinePublishBufferMemoryBytes);
+        result = 31 * result + Objects.hashCode(offlinePublishSpillDirectory);
+        result = 31 * result + offlinePublishOverflowPolicy.hashCode();
+        result = 31 * result + subscribePipeliningDepth;
+        result = 31 * result + Boolean.hashCode(subscribeCoalescing);
+        result = 31 * result + blockingPublishesPrefetch;
         result = 31 * result + Objects.hashCode(interceptors);
         return result;
     }
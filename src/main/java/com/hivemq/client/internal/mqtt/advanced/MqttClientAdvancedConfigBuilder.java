@@ -19,11 +19,19 @@ package com.hivemq.client.internal.mqtt.advanced;
 import com.hivemq.client.internal.mqtt.advanced.interceptor.MqttClientInterceptors;
 import com.hivemq.client.internal.mqtt.advanced.interceptor.MqttClientInterceptorsBuilder;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig;
 import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfigBuilder;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5IncomingQos0OverflowPolicy;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5OfflinePublishOverflowPolicy;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.Mqtt5ClientInterceptors;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -31,8 +39,43 @@ import java.util.function.Function;
  */
 public abstract class MqttClientAdvancedConfigBuilder<B extends MqttClientAdvancedConfigBuilder<B>> {
 
+    private static final int MAX_INCOMING_PUBLISH_DISPATCH_LANES = 1024;
+    private static final int MAX_SUBSCRIBE_PIPELINING_DEPTH = 1024;
+    private static final int MAX_BLOCKING_PUBLISHES_PREFETCH = 1024;
+
     private boolean allowServerReAuth;
     private boolean validatePayloadFormat;
+    private boolean zeroCopyPayload;
+    private int flushCoalescingMaxWrites = 1;
+    private int flushCoalescingMaxDelayMicros;
+    private int maxConcurrentPublishFlowables = Mqtt5ClientAdvancedConfig.DEFAULT_MAX_CONCURRENT_PUBLISH_FLOWABLES;
+    private boolean qos2CompleteResult;
+    private boolean subscriptionIdentifierRouting;
+    private int topicMatchingCacheSize;
+    private int incomingQos0BufferSize = Mqtt5ClientAdvancedConfig.RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER;
+    private long incomingQos0BufferBytes = Mqtt5ClientAdvancedConfig.DEFAULT_INCOMING_QOS_0_BUFFER_BYTES;
+    private @NotNull Mqtt5IncomingQos0OverflowPolicy incomingQos0OverflowPolicy =
+            Mqtt5ClientAdvancedConfig.DEFAULT_INCOMING_QOS_0_OVERFLOW_POLICY;
+    private int incomingBackpressureHighWaterMark;
+    private int incomingBackpressureLowWaterMark;
+    private long incomingBackpressureHighWaterMarkBytes;
+    private long incomingBackpressureLowWaterMarkBytes;
+    private int incomingPublishDispatchLanes = 1;
+    private @Nullable Function<? super Mqtt5Publish, ?> incomingPublishDispatchKey;
+    private boolean pingRespRequired;
+    private boolean sharedKeepAliveTimer;
+    private @Nullable Mqtt5OutgoingPublishStore outgoingPublishStore;
+    private @Nullable Mqtt5IncomingQos2Store incomingQos2Store;
+    private int offlinePublishBufferSize;
+    private long offlinePublishBufferBytes = Mqtt5ClientAdvancedConfig.DEFAULT_OFFLINE_PUBLISH_BUFFER_BYTES;
+    private long offlinePublishBufferMemoryBytes =
+            Mqtt5ClientAdvancedConfig.DEFAULT_OFFLINE_PUBLISH_BUFFER_MEMORY_BYTES;
+    private @Nullable Path offlinePublishSpillDirectory;
+    private @NotNull Mqtt5OfflinePublishOverflowPolicy offlinePublishOverflowPolicy =
+            Mqtt5ClientAdvancedConfig.DEFAULT_OFFLINE_PUBLISH_OVERFLOW_POLICY;
+    private int subscribePipeliningDepth = Mqtt5ClientAdvancedConfig.DEFAULT_SUBSCRIBE_PIPELINING_DEPTH;
+    private boolean subscribeCoalescing;
+    private int blockingPublishesPrefetch = Mqtt5ClientAdvancedConfig.DEFAULT_BLOCKING_PUBLISHES_PREFETCH;
     private @Nullable MqttClientInterceptors interceptors;
 
     MqttClientAdvancedConfigBuilder() {}
@@ -40,6 +83,34 @@ public abstract class MqttClientAdvancedConfigBuilder<B extends MqttClientAdvanc
     MqttClientAdvancedConfigBuilder(final @NotNull MqttClientAdvancedConfig advancedConfig) {
         allowServerReAuth = advancedConfig.isAllowServerReAuth();
         validatePayloadFormat = advancedConfig.isValidatePayloadFormat();
+        zeroCopyPayload = advancedConfig.isZeroCopyPayload();
+        flushCoalescingMaxWrites = advancedConfig.getFlushCoalescingMaxWrites();
+        flushCoalescingMaxDelayMicros = advancedConfig.getFlushCoalescingMaxDelayMicros();
+        maxConcurrentPublishFlowables = advancedConfig.getMaxConcurrentPublishFlowables();
+        qos2CompleteResult = advancedConfig.isQos2CompleteResult();
+        subscriptionIdentifierRouting = advancedConfig.isSubscriptionIdentifierRouting();
+        topicMatchingCacheSize = advancedConfig.getTopicMatchingCacheSize();
+        incomingQos0BufferSize = advancedConfig.getIncomingQos0BufferSize();
+        incomingQos0BufferBytes = advancedConfig.getIncomingQos0BufferBytes();
+        incomingQos0OverflowPolicy = advancedConfig.getIncomingQos0OverflowPolicy();
+        incomingBackpressureHighWaterMark = advancedConfig.getIncomingBackpressureHighWaterMark();
+        incomingBackpressureLowWaterMark = advancedConfig.getIncomingBackpressureLowWaterMark();
+        incomingBackpressureHighWaterMarkBytes = advancedConfig.getIncomingBackpressureHighWaterMarkBytes();
+        incomingBackpressureLowWaterMarkBytes = advancedConfig.getIncomingBackpressureLowWaterMarkBytes();
+        incomingPublishDispatchLanes = advancedConfig.getIncomingPublishDispatchLanes();
+        incomingPublishDispatchKey = advancedConfig.getIncomingPublishDispatchKey();
+        pingRespRequired = advancedConfig.isPingRespRequired();
+        sharedKeepAliveTimer = advancedConfig.isSharedKeepAliveTimer();
+        outgoingPublishStore = advancedConfig.getOutgoingPublishStore();
+        incomingQos2Store = advancedConfig.getIncomingQos2Store();
+        offlinePublishBufferSize = advancedConfig.getOfflinePublishBufferSize();
+        offlinePublishBufferBytes = advancedConfig.getOfflinePublishBufferBytes();
+        offlinePublishBufferMemoryBytes = advancedConfig.getOfflinePublishBufferMemoryBytes();
+        offlinePublishSpillDirectory = advancedConfig.getOfflinePublishSpillDirectory();
+        offlinePublishOverflowPolicy = advancedConfig.getOfflinePublishOverflowPolicy();
+        subscribePipeliningDepth = advancedConfig.getSubscribePipeliningDepth();
+        subscribeCoalescing = advancedConfig.isSubscribeCoalescing();
+        blockingPublishesPrefetch = advancedConfig.getBlockingPublishesPrefetch();
         interceptors = advancedConfig.getInterceptors();
     }
 
@@ -55,6 +126,148 @@ public abstract class MqttClientAdvancedConfigBuilder<B extends MqttClientAdvanc
         return self();
     }
 
+    public @NotNull B zeroCopyPayload(final boolean zeroCopyPayload) {
+        this.zeroCopyPayload = zeroCopyPayload;
+        return self();
+    }
+
+    public @NotNull B flushCoalescing(final int maxWrites, final long maxDelay, final @Nullable TimeUnit timeUnit) {
+        Checks.notNull(timeUnit, "Time unit");
+        Checks.range(maxWrites, 1, Integer.MAX_VALUE, "Flush coalescing maximum writes");
+        final long maxDelayMicros = Checks.range(timeUnit.toMicros(maxDelay), 0, Integer.MAX_VALUE,
+                "Flush coalescing maximum delay in microseconds");
+        if ((maxWrites == 1) && (maxDelayMicros > 0)) {
+            throw new IllegalArgumentException(
+                    "Flush coalescing maximum delay must be 0 if flush coalescing is disabled (maximum writes 1).");
+        }
+        this.flushCoalescingMaxWrites = maxWrites;
+        this.flushCoalescingMaxDelayMicros = (int) maxDelayMicros;
+        return self();
+    }
+
+    public @NotNull B maxConcurrentPublishFlowables(final int maxConcurrentPublishFlowables) {
+        this.maxConcurrentPublishFlowables = (int) Checks.range(
+                maxConcurrentPublishFlowables, 0, Integer.MAX_VALUE, "Maximum concurrent publish flowables");
+        return self();
+    }
+
+    public @NotNull B qos2CompleteResult(final boolean qos2CompleteResult) {
+        this.qos2CompleteResult = qos2CompleteResult;
+        return self();
+    }
+
+    public @NotNull B subscriptionIdentifierRouting(final boolean subscriptionIdentifierRouting) {
+        this.subscriptionIdentifierRouting = subscriptionIdentifierRouting;
+        return self();
+    }
+
+    public @NotNull B topicMatchingCache(final int size) {
+        this.topicMatchingCacheSize = (int) Checks.range(size, 0, Integer.MAX_VALUE, "Topic matching cache size");
+        return self();
+    }
+
+    public @NotNull B incomingQos0Buffer(final int size, final long bytes) {
+        this.incomingQos0BufferSize = (int) Checks.range(size, 0, Integer.MAX_VALUE, "Incoming QoS 0 buffer size");
+        this.incomingQos0BufferBytes = Checks.range(bytes, 1, Long.MAX_VALUE, "Incoming QoS 0 buffer bytes");
+        return self();
+    }
+
+    public @NotNull B incomingQos0OverflowPolicy(final @Nullable Mqtt5IncomingQos0OverflowPolicy overflowPolicy) {
+        this.incomingQos0OverflowPolicy = Checks.notNull(overflowPolicy, "Incoming QoS 0 overflow policy");
+        return self();
+    }
+
+    public @NotNull B incomingBackpressure(final int highWaterMark, final int lowWaterMark) {
+        this.incomingBackpressureHighWaterMark =
+                (int) Checks.range(highWaterMark, 0, Integer.MAX_VALUE, "Incoming backpressure high water mark");
+        this.incomingBackpressureLowWaterMark =
+                (int) Checks.range(lowWaterMark, 0, highWaterMark, "Incoming backpressure low water mark");
+        return self();
+    }
+
+    public @NotNull B incomingBackpressureBytes(final long highWaterMark, final long lowWaterMark) {
+        this.incomingBackpressureHighWaterMarkBytes =
+                Checks.range(highWaterMark, 0, Long.MAX_VALUE, "Incoming backpressure high water mark bytes");
+        this.incomingBackpressureLowWaterMarkBytes =
+                Checks.range(lowWaterMark, 0, highWaterMark, "Incoming backpressure low water mark bytes");
+        return self();
+    }
+
+    public @NotNull B incomingPublishDispatch(final int lanes) {
+        this.incomingPublishDispatchLanes =
+                (int) Checks.range(lanes, 1, MAX_INCOMING_PUBLISH_DISPATCH_LANES, "Incoming publish dispatch lanes");
+        this.incomingPublishDispatchKey = null;
+        return self();
+    }
+
+    public @NotNull B incomingPublishDispatch(
+            final int lanes, final @Nullable Function<? super Mqtt5Publish, ?> dispatchKey) {
+
+        Checks.notNull(dispatchKey, "Incoming publish dispatch key");
+        this.incomingPublishDispatchLanes =
+                (int) Checks.range(lanes, 1, MAX_INCOMING_PUBLISH_DISPATCH_LANES, "Incoming publish dispatch lanes");
+        this.incomingPublishDispatchKey = dispatchKey;
+        return self();
+    }
+
+    public @NotNull B pingRespRequired(final boolean pingRespRequired) {
+        this.pingRespRequired = pingRespRequired;
+        return self();
+    }
+
+    public @NotNull B sharedKeepAliveTimer(final boolean sharedKeepAliveTimer) {
+        this.sharedKeepAliveTimer = sharedKeepAliveTimer;
+        return self();
+    }
+
+    public @NotNull B outgoingPublishStore(final @Nullable Mqtt5OutgoingPublishStore outgoingPublishStore) {
+        this.outgoingPublishStore = outgoingPublishStore;
+        return self();
+    }
+
+    public @NotNull B incomingQos2Store(final @Nullable Mqtt5IncomingQos2Store incomingQos2Store) {
+        this.incomingQos2Store = incomingQos2Store;
+        return self();
+    }
+
+    public @NotNull B offlinePublishBuffer(final int size, final long bytes) {
+        this.offlinePublishBufferSize =
+                (int) Checks.range(size, 0, Integer.MAX_VALUE, "Offline publish buffer size");
+        this.offlinePublishBufferBytes = Checks.range(bytes, 1, Long.MAX_VALUE, "Offline publish buffer bytes");
+        return self();
+    }
+
+    public @NotNull B offlinePublishBufferSpill(final long memoryBytes, final @Nullable Path spillDirectory) {
+        this.offlinePublishBufferMemoryBytes =
+                Checks.range(memoryBytes, 0, Long.MAX_VALUE, "Offline publish buffer memory bytes");
+        this.offlinePublishSpillDirectory = spillDirectory;
+        return self();
+    }
+
+    public @NotNull B offlinePublishOverflowPolicy(
+            final @Nullable Mqtt5OfflinePublishOverflowPolicy overflowPolicy) {
+
+        this.offlinePublishOverflowPolicy = Checks.notNull(overflowPolicy, "Offline publish overflow policy");
+        return self();
+    }
+
+    public @NotNull B subscribePipelining(final int depth) {
+        this.subscribePipeliningDepth =
+                (int) Checks.range(depth, 1, MAX_SUBSCRIBE_PIPELINING_DEPTH, "Subscribe pipelining depth");
+        return self();
+    }
+
+    public @NotNull B subscribeCoalescing(final boolean subscribeCoalescing) {
+        this.subscribeCoalescing = subscribeCoalescing;
+        return self();
+    }
+
+    public @NotNull B blockingPublishesPrefetch(final int prefetch) {
+        this.blockingPublishesPrefetch =
+                (int) Checks.range(prefetch, 1, MAX_BLOCKING_PUBLISHES_PREFETCH, "Blocking publishes prefetch");
+        return self();
+    }
+
     public @NotNull B interceptors(final @Nullable Mqtt5ClientInterceptors interceptors) {
         this.interceptors = Checks.notImplementedOrNull(interceptors, MqttClientInterceptors.class, "Interceptors");
         return self();
@@ -65,7 +278,16 @@ public abstract class MqttClientAdvancedConfigBuilder<B extends MqttClientAdvanc
     }
 
     public @NotNull MqttClientAdvancedConfig build() {
-        return new MqttClientAdvancedConfig(allowServerReAuth, validatePayloadFormat, interceptors);
+        return new MqttClientAdvancedConfig(allowServerReAuth, validatePayloadFormat, zeroCopyPayload,
+                flushCoalescingMaxWrites, flushCoalescingMaxDelayMicros, maxConcurrentPublishFlowables,
+                qos2CompleteResult, subscriptionIdentifierRouting, topicMatchingCacheSize, incomingQos0BufferSize,
+                incomingQos0BufferBytes, incomingQos0OverflowPolicy, incomingBackpressureHighWaterMark,
+                incomingBackpressureLowWaterMark, incomingBackpressureHighWaterMarkBytes,
+                incomingBackpressureLowWaterMarkBytes, incomingPublishDispatchLanes, incomingPublishDispatchKey,
+                pingRespRequired, sharedKeepAliveTimer, outgoingPublishStore, incomingQos2Store,
+                offlinePublishBufferSize, offlinePublishBufferBytes, offlinePublishBufferMemoryBytes,
+                offlinePublishSpillDirectory, offlinePublishOverflowPolicy, subscribePipeliningDepth,
+                subscribeCoalescing, blockingPublishesPrefetch, interceptors);
     }
 
     public static class Default extends MqttClientAdvancedConfigBuilder<Default>
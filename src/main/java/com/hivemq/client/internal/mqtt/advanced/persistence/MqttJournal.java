@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.internal.annotations.NotThreadSafe;
+import io.netty.util.internal.PlatformDependent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of records in memory mapped segment files.
+ * <p>
+ * Records are appended to the current segment without any system call, {@link #force()} makes all records appended
+ * since the last call durable at once. If a record does not fit into the current segment, the owner of the journal
+ * {@link #roll(Collection) rolls} it: the records which are still live are written to a new segment as a snapshot,
+ * so the journal is compacted whenever a segment is full.
+ * <p>
+ * Format of a record: length (4 bytes), CRC32 of the data (4 bytes), data. As segments are zero filled, a length of 0
+ * marks the end of a segment. Replaying a segment stops at the first record with an invalid checksum, which can only
+ * be a record that was not completely written before a crash. A snapshot is terminated by a record with a length of
+ * -1 and no data.
+ * <p>
+ * The journal is owned by one thread, only {@link #force()} may be called by another thread concurrently, so the
+ * blocking force does not stall the owner. Rolling does not force either: the previous segments are only unmapped and
+ * deleted by the next force after it made the new segment durable. Until then a crash leaves both in the directory,
+ * so replaying starts at the newest segment with a complete snapshot.
+ *
+ * @author Silvio Giebl
+ */
+@NotThreadSafe
+public class MqttJournal {
+
+    private static final int RECORD_HEADER_LENGTH = 8;
+    private static final int SNAPSHOT_END = -1;
+    private static final @NotNull String SEGMENT_SUFFIX = ".journal";
+
+    private final @NotNull Path directory;
+    private final @NotNull String prefix;
+    private final int segmentSize;
+    private final @NotNull CRC32 crc = new CRC32();
+
+    private final @NotNull ArrayList<Path> segments = new ArrayList<>();
+    private long sequence;
+    private final @NotNull ReentrantLock forceLock = new ReentrantLock();
+    private volatile @Nullable MappedByteBuffer buffer;
+    private volatile boolean dirty;
+    // guards swapping the buffer on roll against taking a snapshot of the state to force
+    private final @NotNull Object rollLock = new Object();
+    private final @NotNull ArrayList<MappedByteBuffer> retiredBuffers = new ArrayList<>();
+    private final @NotNull ArrayList<Path> retiredSegments = new ArrayList<>();
+
+    public MqttJournal(final @NotNull Path directory, final @NotNull String prefix, final int segmentSize) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Replays the records of the existing segments in the order they were appended, starting at the newest segment
+     * which contains a complete snapshot.
+     * <p>
+     * The owner must {@link #roll(Collection) roll} the journal before appending records.
+     *
+     * @param consumer the consumer of the data of the records.
+     * @throws IOException if the segments could not be read.
+     */
+    public void open(final @NotNull Consumer<byte @NotNull []> consumer) throws IOException {
+        Files.createDirectories(directory);
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "-*" + SEGMENT_SUFFIX)) {
+            for (final Path segment : stream) {
+                if (sequence(segment) >= 0) {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(sequence(a), sequence(b)));
+        int start = 0;
+        for (int i = segments.size() - 1; i > 0; i--) {
+            if (replay(segments.get(i), null)) {
+                start = i;
+                break;
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            final Path segment = segments.get(i);
+            sequence = Math.max(sequence, sequence(segment));
+            if (i >= start) {
+                replay(segment, consumer);
+            }
+        }
+    }
+
+    /**
+     * Replays the valid records of a segment.
+     *
+     * @param segment  the segment to replay.
+     * @param consumer the consumer of the data of the records, <code>null</code> to only validate the segment.
+     * @return whether the segment contains a complete snapshot.
+     * @throws IOException if the segment could not be read.
+     */
+    private boolean replay(final @NotNull Path segment, final @Nullable Consumer<byte @NotNull []> consumer)
+            throws IOException {
+
+        final MappedByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        boolean snapshot = false;
+        try {
+            while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if ((length == SNAPSHOT_END) && (checksum == SNAPSHOT_END)) {
+                    snapshot = true;
+                    continue;
+                }
+                if ((length <= 0) || (length > buffer.remaining())) {
+                    break;
+                }
+                final byte[] data = new byte[length];
+                buffer.get(data);
+                if (checksum(data) != checksum) {
+                    break;
+                }
+                if (consumer != null) {
+                    consumer.accept(data);
+                }
+            }
+        } finally {
+            PlatformDependent.freeDirectBuffer(buffer);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Appends a record to the current segment.
+     *
+     * @param data the data of the record.
+     * @return whether the record was appended, <code>false</code> if the journal must be {@link #roll(Collection)
+     *         rolled} because the record does not fit into the current segment.
+     */
+    public boolean append(final byte @NotNull [] data) {
+        final MappedByteBuffer buffer = this.buffer;
+        if ((buffer == null) || (buffer.remaining() < RECORD_HEADER_LENGTH + data.length)) {
+            return false;
+        }
+        put(buffer, data);
+        dirty = true;
+        return true;
+    }
+
+    private void put(final @NotNull MappedByteBuffer buffer, final byte @NotNull [] data) {
+        buffer.putInt(data.length);
+        buffer.putInt(checksum(data));
+        buffer.put(data);
+    }
+
+    /**
+     * Starts a new segment with a snapshot of the given live records.
+     * <p>
+     * Does not block on the disk: the new segment is only made durable by the next {@link #force()}, which then also
+     * unmaps and deletes the previous segments.
+     *
+     * @param records the data of the live records.
+     * @throws IOException if the new segment could not be created.
+     */
+    public void roll(final @NotNull Collection<byte @NotNull []> records) throws IOException {
+        long size = RECORD_HEADER_LENGTH;
+        for (final byte[] record : records) {
+            size += RECORD_HEADER_LENGTH + record.length;
+        }
+        final Path segment = directory.resolve(String.format("%s-%016x%s", prefix, ++sequence, SEGMENT_SUFFIX));
+        final MappedByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, size * 2));
+        }
+        for (final byte[] record : records) {
+            put(buffer, record);
+        }
+        buffer.putInt(SNAPSHOT_END);
+        buffer.putInt(SNAPSHOT_END);
+        synchronized (rollLock) {
+            final MappedByteBuffer oldBuffer = this.buffer;
+            if (oldBuffer != null) {
+                retiredBuffers.add(oldBuffer);
+            }
+            retiredSegments.addAll(segments);
+            this.buffer = buffer;
+            dirty = true;
+        }
+        segments.clear();
+        segments.add(segment);
+    }
+
+    /**
+     * Makes all records appended before this call durable and deletes the segments which were replaced by a roll. May
+     * be called by another thread than the owner.
+     */
+    public void force() {
+        forceLock.lock();
+        try {
+            final MappedByteBuffer buffer;
+            final MappedByteBuffer[] retiredBuffers;
+            final Path[] retiredSegments;
+            synchronized (rollLock) {
+                if (!dirty) {
+                    return;
+                }
+                // reset before forcing, so a record which is appended concurrently marks the journal dirty again
+                dirty = false;
+                buffer = this.buffer;
+                retiredBuffers = this.retiredBuffers.toArray(new MappedByteBuffer[0]);
+                retiredSegments = this.retiredSegments.toArray(new Path[0]);
+                this.retiredBuffers.clear();
+                this.retiredSegments.clear();
+            }
+            if (buffer != null) {
+                buffer.force();
+            }
+            for (final MappedByteBuffer retiredBuffer : retiredBuffers) {
+                PlatformDependent.freeDirectBuffer(retiredBuffer);
+            }
+            for (final Path retiredSegment : retiredSegments) {
+                try {
+                    Files.deleteIfExists(retiredSegment);
+                } catch (final IOException ignored) {
+                    // replaying starts at the newest complete snapshot, so a remaining segment is only skipped
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Unmaps the current and the replaced segments without forcing them. Records must not be appended afterwards until
+     * the journal is rolled. Waits for a concurrent force.
+     */
+    public void close() {
+        forceLock.lock();
+        try {
+            synchronized (rollLock) {
+                final MappedByteBuffer buffer = this.buffer;
+                if (buffer != null) {
+                    this.buffer = null;
+                    PlatformDependent.freeDirectBuffer(buffer);
+                }
+                for (final MappedByteBuffer retiredBuffer : retiredBuffers) {
+                    PlatformDependent.freeDirectBuffer(retiredBuffer);
+                }
+                retiredBuffers.clear();
+                retiredSegments.clear();
+                dirty = false;
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private int checksum(final byte @NotNull [] data) {
+        crc.reset();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    private long sequence(final @NotNull Path segment) {
+        final String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(prefix.length() + 1, name.length() - SEGMENT_SUFFIX.length()), 16);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.internal.annotations.NotThreadSafe;
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.internal.util.UnsignedDataTypes;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link Mqtt5IncomingQos2Store} which maps a file with one slot per packet identifier into memory.
+ * <p>
+ * Format: epoch (4 bytes), then one slot (4 bytes) per packet identifier. A packet identifier is stored if its slot
+ * contains the current epoch. Clearing the store only increments the epoch, so it is a single 4 byte write which can
+ * not be torn by a crash.
+ * <p>
+ * If the file can not be mapped, the error is logged and the store does not persist anything, so a failing disk does
+ * not affect receiving publishes.
+ * <p>
+ * {@link #sync()} may be called by another thread concurrently to the other methods. The file is never unmapped, so
+ * forcing it does not need to be coordinated with writes to the slots.
+ *
+ * @author Silvio Giebl
+ */
+@NotThreadSafe
+public class MqttMappedIncomingQos2Store implements Mqtt5IncomingQos2Store {
+
+    private static final @NotNull InternalLogger LOGGER =
+            InternalLoggerFactory.getLogger(MqttMappedIncomingQos2Store.class);
+
+    private static final int EPOCH_OFFSET = 0;
+    private static final int SLOTS_OFFSET = 4;
+    private static final int SLOT_LENGTH = 4;
+    private static final int FILE_LENGTH =
+            SLOTS_OFFSET + (UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE + 1) * SLOT_LENGTH;
+    private static final int NO_EPOCH = 0;
+
+    private final @NotNull Path file;
+    private @Nullable MappedByteBuffer buffer;
+    private int epoch;
+    private volatile boolean dirty; // also accessed by sync, which is called on another thread
+
+    public MqttMappedIncomingQos2Store(final @NotNull Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void load(final @NotNull IntConsumer loader) {
+        final MappedByteBuffer buffer;
+        try {
+            final Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_LENGTH);
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Incoming QoS 2 store could not be mapped, QoS 2 states are not persisted.", e);
+            return;
+        }
+        this.buffer = buffer;
+        epoch = buffer.getInt(EPOCH_OFFSET);
+        if (epoch == NO_EPOCH) {
+            nextEpoch(buffer);
+            return;
+        }
+        for (int packetIdentifier = 1; packetIdentifier <= UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE;
+             packetIdentifier++) {
+            if (buffer.getInt(slot(packetIdentifier)) == epoch) {
+                loader.accept(packetIdentifier);
+            }
+        }
+    }
+
+    @Override
+    public void store(final int packetIdentifier) {
+        final MappedByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            buffer.putInt(slot(packetIdentifier), epoch);
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void remove(final int packetIdentifier) {
+        final MappedByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            buffer.putInt(slot(packetIdentifier), NO_EPOCH);
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        final MappedByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            nextEpoch(buffer);
+        }
+    }
+
+    @Override
+    public void sync() {
+        final MappedByteBuffer buffer = this.buffer;
+        if (dirty && (buffer != null)) {
+            // reset before forcing, so a change which is made concurrently marks the store dirty again
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    private void nextEpoch(final @NotNull MappedByteBuffer buffer) {
+        if (++epoch == NO_EPOCH) {
+            // slots of previous epochs could contain the epochs which are used again after the overflow
+            for (int packetIdentifier = 1; packetIdentifier <= UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE;
+                 packetIdentifier++) {
+                buffer.putInt(slot(packetIdentifier), NO_EPOCH);
+            }
+            epoch++;
+        }
+        buffer.putInt(EPOCH_OFFSET, epoch);
+        dirty = true;
+    }
+
+    private static int slot(final int packetIdentifier) {
+        return SLOTS_OFFSET + packetIdentifier * SLOT_LENGTH;
+    }
+}
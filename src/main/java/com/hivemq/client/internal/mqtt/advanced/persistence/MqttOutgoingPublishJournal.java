@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.internal.annotations.NotThreadSafe;
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link Mqtt5OutgoingPublishStore} which appends its changes to a {@link MqttJournal}.
+ * <p>
+ * The live records are also kept in memory in the order they were first stored, so that they can be written to the
+ * next segment when the journal is rolled without reading the previous segments again.
+ * <p>
+ * If the journal can not be written, the error is logged and the store does not persist any further changes, so a
+ * failing disk does not affect sending publishes.
+ *
+ * @author Silvio Giebl
+ */
+@NotThreadSafe
+public class MqttOutgoingPublishJournal implements Mqtt5OutgoingPublishStore {
+
+    private static final @NotNull InternalLogger LOGGER =
+            InternalLoggerFactory.getLogger(MqttOutgoingPublishJournal.class);
+
+    static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final @NotNull String PREFIX = "outgoing";
+
+    private static final byte PUBLISH = 1;
+    private static final byte PUBREL = 2;
+    private static final byte REMOVE = 3;
+    private static final int RECORD_HEADER_LENGTH = 3;
+
+    private final @NotNull MqttJournal journal;
+    private final @NotNull LinkedHashMap<Integer, byte[]> records = new LinkedHashMap<>();
+    private volatile boolean failed; // read by sync, which is called on another thread
+
+    public MqttOutgoingPublishJournal(final @NotNull Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MqttOutgoingPublishJournal(final @NotNull Path directory, final int segmentSize) {
+        journal = new MqttJournal(directory, PREFIX, segmentSize);
+    }
+
+    @Override
+    public void load(final @NotNull Loader loader) {
+        try {
+            journal.open(this::replay);
+            journal.roll(records.values());
+        } catch (final IOException e) {
+            fail(e);
+            records.clear();
+            return;
+        }
+        for (final Map.Entry<Integer, byte[]> entry : records.entrySet()) {
+            final int packetIdentifier = entry.getKey();
+            final byte[] record = entry.getValue();
+            if (record[0] == PUBLISH) {
+                loader.onPublish(packetIdentifier, decodePublish(record));
+            } else {
+                loader.onPubRel(packetIdentifier);
+            }
+        }
+    }
+
+    private void replay(final byte @NotNull [] record) {
+        final int packetIdentifier = ((record[1] & 0xFF) << 8) | (record[2] & 0xFF);
+        if (record[0] == REMOVE) {
+            records.remove(packetIdentifier);
+        } else {
+            records.put(packetIdentifier, record);
+        }
+    }
+
+    @Override
+    public void storePublish(final int packetIdentifier, final @NotNull Mqtt5Publish publish) {
+        if (!failed) {
+            final byte[] record = encodePublish(packetIdentifier, publish);
+            records.put(packetIdentifier, record);
+            append(record);
+        }
+    }
+
+    @Override
+    public void storePubRel(final int packetIdentifier) {
+        if (!failed) {
+            final byte[] record = record(PUBREL, packetIdentifier);
+            records.put(packetIdentifier, record);
+            append(record);
+        }
+    }
+
+    @Override
+    public void remove(final int packetIdentifier) {
+        if (!failed && (records.remove(packetIdentifier) != null)) {
+            append(record(REMOVE, packetIdentifier));
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (!failed) {
+            records.clear();
+            roll();
+        }
+    }
+
+    @Override
+    public void sync() {
+        if (!failed) {
+            journal.force();
+        }
+    }
+
+    private void append(final byte @NotNull [] record) {
+        if (!journal.append(record)) {
+            // the live records already contain the state of the record
+            roll();
+        }
+    }
+
+    private void roll() {
+        try {
+            journal.roll(records.values());
+        } catch (final IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(final @NotNull IOException e) {
+        failed = true;
+        journal.close();
+        LOGGER.error("Outgoing publish journal could not be written, QoS 1 and 2 publishes are not persisted.", e);
+    }
+
+    private static byte @NotNull [] record(final byte type, final int packetIdentifier) {
+        final byte[] record = new byte[RECORD_HEADER_LENGTH];
+        record[0] = type;
+        record[1] = (byte) (packetIdentifier >> 8);
+        record[2] = (byte) packetIdentifier;
+        return record;
+    }
+
+    static byte @NotNull [] encodePublish(final int packetIdentifier, final @NotNull Mqtt5Publish publish) {
+        final byte[] record = MqttPublishSerializer.serialize(publish, RECORD_HEADER_LENGTH);
+        record[0] = PUBLISH;
+        record[1] = (byte) (packetIdentifier >> 8);
+        record[2] = (byte) packetIdentifier;
+        return record;
+    }
+
+    static @NotNull Mqtt5Publish decodePublish(final byte @NotNull [] record) {
+        return MqttPublishSerializer.deserialize(record, RECORD_HEADER_LENGTH);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.datatypes.MqttUtf8String;
+import com.hivemq.client.mqtt.mqtt5.datatypes.Mqtt5UserProperties;
+import com.hivemq.client.mqtt.mqtt5.datatypes.Mqtt5UserProperty;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PayloadFormatIndicator;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes Publish messages for local storage.
+ * <p>
+ * Unlike the MQTT encoding, the format does not depend on the connection (no topic alias, packet identifier or
+ * maximum packet size) and it can be preceded by a header of the caller.
+ *
+ * @author Silvio Giebl
+ */
+public final class MqttPublishSerializer {
+
+    private static final int FLAG_RETAIN = 0b1;
+    private static final int FLAG_MESSAGE_EXPIRY_INTERVAL = 0b1000;
+    private static final int FLAG_CONTENT_TYPE = 0b1_0000;
+    private static final int FLAG_RESPONSE_TOPIC = 0b10_0000;
+    private static final int FLAG_CORRELATION_DATA = 0b100_0000;
+    private static final int QOS_SHIFT = 1;
+    private static final byte NO_PAYLOAD_FORMAT_INDICATOR = -1;
+
+    /**
+     * Serializes a Publish message.
+     *
+     * @param publish the Publish message.
+     * @param offset  the amount of bytes reserved for a header in front of the serialized Publish message.
+     * @return the byte array containing the header space and the serialized Publish message.
+     */
+    public static byte @NotNull [] serialize(final @NotNull Mqtt5Publish publish, final int offset) {
+        final ByteBuffer topic = publish.getTopic().toByteBuffer();
+        final long messageExpiryInterval = publish.getMessageExpiryInterval().orElse(-1);
+        final ByteBuffer contentType = publish.getContentType().map(MqttUtf8String::toByteBuffer).orElse(null);
+        final ByteBuffer responseTopic = publish.getResponseTopic().map(MqttUtf8String::toByteBuffer).orElse(null);
+        final ByteBuffer correlationData = publish.getCorrelationData().orElse(null);
+        final List<? extends Mqtt5UserProperty> userProperties = publish.getUserProperties().asList();
+        final ByteBuffer payload = publish.getPayload().orElse(null);
+
+        int flags = publish.getQos().getCode() << QOS_SHIFT;
+        // flags, payload format indicator, topic, user properties count, payload or -1
+        int length = offset + 2 + length(topic) + 4 + ((payload == null) ? 4 : length(payload));
+        if (publish.isRetain()) {
+            flags |= FLAG_RETAIN;
+        }
+        if (messageExpiryInterval != -1) {
+            flags |= FLAG_MESSAGE_EXPIRY_INTERVAL;
+            length += 8;
+        }
+        if (contentType != null) {
+            flags |= FLAG_CONTENT_TYPE;
+            length += length(contentType);
+        }
+        if (responseTopic != null) {
+            flags |= FLAG_RESPONSE_TOPIC;
+            length += length(responseTopic);
+        }
+        if (correlationData != null) {
+            flags |= FLAG_CORRELATION_DATA;
+            length += length(correlationData);
+        }
+        for (final Mqtt5UserProperty userProperty : userProperties) {
+            length += length(userProperty.getName().toByteBuffer()) + length(userProperty.getValue().toByteBuffer());
+        }
+
+        final byte[] bytes = new byte[length];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length - offset);
+        buffer.put((byte) flags);
+        buffer.put(publish.getPayloadFormatIndicator()
+                .map(payloadFormatIndicator -> (byte) payloadFormatIndicator.getCode())
+                .orElse(NO_PAYLOAD_FORMAT_INDICATOR));
+        put(buffer, topic);
+        if (messageExpiryInterval != -1) {
+            buffer.putLong(messageExpiryInterval);
+        }
+        if (contentType != null) {
+            put(buffer, contentType);
+        }
+        if (responseTopic != null) {
+            put(buffer, responseTopic);
+        }
+        if (correlationData != null) {
+            put(buffer, correlationData);
+        }
+        buffer.putInt(userProperties.size());
+        for (final Mqtt5UserProperty userProperty : userProperties) {
+            put(buffer, userProperty.getName().toByteBuffer());
+            put(buffer, userProperty.getValue().toByteBuffer());
+        }
+        if (payload == null) {
+            buffer.putInt(-1);
+        } else {
+            put(buffer, payload);
+        }
+        return bytes;
+    }
+
+    /**
+     * Deserializes a Publish message.
+     *
+     * @param bytes  the byte array containing the serialized Publish message.
+     * @param offset the index of the serialized Publish message in the byte array.
+     * @return the deserialized Publish message.
+     */
+    public static @NotNull Mqtt5Publish deserialize(final byte @NotNull [] bytes, final int offset) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+        final int flags = buffer.get();
+        final byte payloadFormatIndicator = buffer.get();
+        final MqttQos qos = MqttQos.fromCode((flags >> QOS_SHIFT) & 0b11);
+        assert qos != null;
+        final Mqtt5PublishBuilder.Complete builder =
+                Mqtt5Publish.builder().topic(getString(buffer)).qos(qos).retain((flags & FLAG_RETAIN) != 0);
+        if ((flags & FLAG_MESSAGE_EXPIRY_INTERVAL) != 0) {
+            builder.messageExpiryInterval(buffer.getLong());
+        }
+        if (payloadFormatIndicator != NO_PAYLOAD_FORMAT_INDICATOR) {
+            builder.payloadFormatIndicator(Mqtt5PayloadFormatIndicator.fromCode(payloadFormatIndicator));
+        }
+        if ((flags & FLAG_CONTENT_TYPE) != 0) {
+            builder.contentType(getString(buffer));
+        }
+        if ((flags & FLAG_RESPONSE_TOPIC) != 0) {
+            builder.responseTopic(getString(buffer));
+        }
+        if ((flags & FLAG_CORRELATION_DATA) != 0) {
+            builder.correlationData(getBytes(buffer));
+        }
+        final int userPropertiesCount = buffer.getInt();
+        if (userPropertiesCount > 0) {
+            final ArrayList<Mqtt5UserProperty> userProperties = new ArrayList<>(userPropertiesCount);
+            for (int i = 0; i < userPropertiesCount; i++) {
+                userProperties.add(Mqtt5UserProperty.of(getString(buffer), getString(buffer)));
+            }
+            builder.userProperties(Mqtt5UserProperties.of(userProperties));
+        }
+        builder.payload(getBytes(buffer));
+        return builder.build();
+    }
+
+    private static int length(final @Nullable ByteBuffer data) {
+        return (data == null) ? 0 : 4 + data.remaining();
+    }
+
+    private static void put(final @NotNull ByteBuffer buffer, final @NotNull ByteBuffer data) {
+        buffer.putInt(data.remaining());
+        buffer.put(data.duplicate());
+    }
+
+    private static byte @Nullable [] getBytes(final @NotNull ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static @NotNull String getString(final @NotNull ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+
+    private MqttPublishSerializer() {}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.internal.annotations.NotThreadSafe;
+import io.netty.util.internal.PlatformDependent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+/**
+ * FIFO queue of records in memory mapped segment files, used to move data out of the heap.
+ * <p>
+ * Records are appended to the last segment and polled from the first segment, a segment is deleted as soon as all of
+ * its records are polled. Unlike the {@link MqttJournal}, the segments are never forced to disk and are not replayed:
+ * the queue does not survive a restart.
+ * <p>
+ * Several queues can share a directory and prefix: the segments of a queue are named with a unique id and the queue
+ * holds a lock on a lock file with the same id until it is {@link #close() closed}. When a queue is created, it only
+ * deletes the segments of queues whose lock file is not locked anymore, as they are left over from a previous process.
+ * <p>
+ * Format of a record: length (4 bytes), data.
+ *
+ * @author Silvio Giebl
+ */
+@NotThreadSafe
+public class MqttSpillQueue {
+
+    private static final int RECORD_HEADER_LENGTH = 4;
+    private static final @NotNull String SEGMENT_SUFFIX = ".spill";
+    private static final @NotNull String LOCK_SUFFIX = ".lock";
+
+    private final @NotNull Path directory;
+    private final @NotNull String prefix;
+    private final int segmentSize;
+    private final @NotNull Path lockPath;
+    private final @NotNull FileChannel lockChannel;
+
+    private final @NotNull ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long sequence;
+    private int size;
+
+    public MqttSpillQueue(final @NotNull Path directory, final @NotNull String prefix, final int segmentSize)
+            throws IOException {
+
+        Files.createDirectories(directory);
+        deleteLeftovers(directory, prefix);
+        final String id = UUID.randomUUID().toString();
+        this.directory = directory;
+        this.prefix = prefix + "-" + id;
+        this.segmentSize = segmentSize;
+        lockPath = directory.resolve(this.prefix + LOCK_SUFFIX);
+        lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            lockChannel.lock();
+        } catch (final IOException e) {
+            lockChannel.close();
+            Files.deleteIfExists(lockPath);
+            throw e;
+        }
+    }
+
+    private static void deleteLeftovers(final @NotNull Path directory, final @NotNull String prefix)
+            throws IOException {
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "-*" + LOCK_SUFFIX)) {
+            for (final Path lockPath : stream) {
+                final String name = lockPath.getFileName().toString();
+                final String queuePrefix = name.substring(0, name.length() - LOCK_SUFFIX.length());
+                try (final FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.WRITE)) {
+                    final FileLock lock = lockChannel.tryLock();
+                    if (lock == null) {
+                        continue; // locked by a queue of another process
+                    }
+                    try (final DirectoryStream<Path> segments = Files.newDirectoryStream(
+                            directory, queuePrefix + "-*" + SEGMENT_SUFFIX)) {
+                        for (final Path segment : segments) {
+                            Files.deleteIfExists(segment);
+                        }
+                    }
+                } catch (final OverlappingFileLockException e) {
+                    continue; // locked by a queue of this process
+                } catch (final NoSuchFileException e) {
+                    continue; // closed concurrently
+                }
+                Files.deleteIfExists(lockPath);
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the end of the queue.
+     *
+     * @param data the data of the record.
+     * @throws IOException if a new segment could not be created.
+     */
+    public void offer(final byte @NotNull [] data) throws IOException {
+        Segment segment = segments.peekLast();
+        if ((segment == null) || !segment.offer(data)) {
+            final Path path = directory.resolve(String.format("%s-%016x%s", prefix, ++sequence, SEGMENT_SUFFIX));
+            segment = new Segment(path, Math.max(segmentSize, RECORD_HEADER_LENGTH + data.length));
+            segments.addLast(segment);
+            segment.offer(data);
+        }
+        size++;
+    }
+
+    /**
+     * Removes the record at the head of the queue.
+     *
+     * @return the data of the record or <code>null</code> if the queue is empty.
+     */
+    public byte @Nullable [] poll() {
+        final Segment segment = segments.peekFirst();
+        if (segment == null) {
+            return null;
+        }
+        final byte[] data = segment.poll();
+        size--;
+        if (segment.isEmpty()) {
+            if (segments.size() == 1) {
+                segment.reset();
+            } else {
+                segments.pollFirst();
+                segment.delete();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return the amount of records in the queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all records and deletes all segments.
+     */
+    public void clear() {
+        Segment segment;
+        while ((segment = segments.pollFirst()) != null) {
+            segment.delete();
+        }
+        size = 0;
+    }
+
+    /**
+     * Removes all records, deletes all segments and releases the lock file. The queue must not be used afterwards.
+     */
+    public void close() {
+        clear();
+        try {
+            lockChannel.close();
+            Files.deleteIfExists(lockPath);
+        } catch (final IOException ignored) {
+            // a left over lock file is deleted when the next queue with the same prefix is created
+        }
+    }
+
+    private static class Segment {
+
+        private final @NotNull Path path;
+        private final @NotNull MappedByteBuffer buffer;
+        private int readIndex;
+
+        Segment(final @NotNull Path path, final int size) throws IOException {
+            this.path = path;
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        boolean offer(final byte @NotNull [] data) {
+            if (buffer.remaining() < RECORD_HEADER_LENGTH + data.length) {
+                return false;
+            }
+            buffer.putInt(data.length);
+            buffer.put(data);
+            return true;
+        }
+
+        byte @NotNull [] poll() {
+            final int length = buffer.getInt(readIndex);
+            final byte[] data = new byte[length];
+            final int position = buffer.position();
+            buffer.position(readIndex + RECORD_HEADER_LENGTH);
+            buffer.get(data);
+            buffer.position(position);
+            readIndex += RECORD_HEADER_LENGTH + length;
+            return data;
+        }
+
+        boolean isEmpty() {
+            return readIndex == buffer.position();
+        }
+
+        void reset() {
+            readIndex = 0;
+            buffer.clear();
+        }
+
+        void delete() {
+            PlatformDependent.freeDirectBuffer(buffer);
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException ignored) {
+                // a left over segment is deleted when the next queue with the same prefix is created
+            }
+        }
+    }
+}
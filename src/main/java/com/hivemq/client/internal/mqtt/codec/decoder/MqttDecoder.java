@@ -17,18 +17,21 @@
 package com.hivemq.client.internal.mqtt.codec.decoder;
 
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
 import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
 import com.hivemq.client.internal.mqtt.ioc.ConnectionScope;
 import com.hivemq.client.internal.mqtt.message.connect.MqttConnect;
 import com.hivemq.client.internal.mqtt.message.connect.MqttConnectRestrictions;
 import com.hivemq.client.mqtt.exceptions.MqttDecodeException;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt5.message.Mqtt5MessageType;
 import com.hivemq.client.mqtt.mqtt5.message.disconnect.Mqtt5DisconnectReasonCode;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import java.util.List;
@@ -47,6 +50,7 @@ public class MqttDecoder extends ByteToMessageDecoder {
 
     private final @NotNull MqttMessageDecoders decoders;
     private final @NotNull MqttDecoderContext context;
+    private final @Nullable MqttClientMetrics metrics;
 
     @Inject
     MqttDecoder(
@@ -56,9 +60,11 @@ public class MqttDecoder extends ByteToMessageDecoder {
 
         this.decoders = decoders;
         final MqttConnectRestrictions restrictions = connect.getRestrictions();
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
         context = new MqttDecoderContext(restrictions.getMaximumPacketSize(), restrictions.getTopicAliasMaximum(),
                 restrictions.isRequestProblemInformation(), restrictions.isRequestResponseInformation(),
-                clientConfig.getAdvancedConfig().isValidatePayloadFormat(), false, false, false);
+                advancedConfig.isValidatePayloadFormat(), false, advancedConfig.isZeroCopyPayload(), false, false);
+        metrics = clientConfig.getRawMetrics();
     }
 
     @Override
@@ -108,6 +114,9 @@ public class MqttDecoder extends ByteToMessageDecoder {
             in.writerIndex(readerIndexAfterFixedHeader + remainingLength);
             out.add(decoder.decode(flags, in, context));
             in.writerIndex(writerIndex);
+            if (metrics != null) {
+                metrics.onBytesDecoded(packetSize);
+            }
 
         } catch (final MqttDecoderException e) {
             in.clear();
@@ -30,6 +30,7 @@ public class MqttDecoderContext {
     private final boolean responseInformationRequested;
     private final boolean validatePayloadFormat;
     private final boolean directBufferPayload;
+    private final boolean zeroCopyPayload;
     private final boolean directBufferAuth;
     private final boolean directBufferCorrelationData;
 
@@ -40,6 +41,7 @@ public class MqttDecoderContext {
             final boolean responseInformationRequested,
             final boolean validatePayloadFormat,
             final boolean directBufferPayload,
+            final boolean zeroCopyPayload,
             final boolean directBufferAuth,
             final boolean directBufferCorrelationData) {
 
@@ -49,6 +51,7 @@ public class MqttDecoderContext {
         this.responseInformationRequested = responseInformationRequested;
         this.validatePayloadFormat = validatePayloadFormat;
         this.directBufferPayload = directBufferPayload;
+        this.zeroCopyPayload = zeroCopyPayload;
         this.directBufferAuth = directBufferAuth;
         this.directBufferCorrelationData = directBufferCorrelationData;
     }
@@ -77,6 +80,10 @@ public class MqttDecoderContext {
         return directBufferPayload;
     }
 
+    public boolean useZeroCopyPayload() {
+        return zeroCopyPayload;
+    }
+
     public boolean useDirectBufferAuth() {
         return directBufferAuth;
     }
@@ -21,6 +21,7 @@ import com.hivemq.client.internal.mqtt.codec.decoder.MqttDecoderException;
 import com.hivemq.client.internal.mqtt.codec.decoder.MqttMessageDecoder;
 import com.hivemq.client.internal.mqtt.datatypes.*;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishPayloadBuffer;
 import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
 import com.hivemq.client.internal.util.ByteBufferUtil;
 import com.hivemq.client.internal.util.Utf8Util;
@@ -192,23 +193,29 @@ public class Mqtt5PublishDecoder implements MqttMessageDecoder {
 
         final int payloadLength = in.readableBytes();
         ByteBuffer payload = null;
+        MqttPublishPayloadBuffer payloadBuffer = null;
         if (payloadLength > 0) {
-            payload = ByteBufferUtil.allocate(payloadLength, context.useDirectBufferPayload());
-            in.readBytes(payload);
-            payload.position(0);
-
             if ((payloadFormatIndicator == Mqtt5PayloadFormatIndicator.UTF_8) && context.validatePayloadFormat() &&
-                    (Utf8Util.isWellFormed(ByteBufferUtil.getBytes(payload)) != 0)) {
+                    (Utf8Util.isWellFormed(in, in.readerIndex(), payloadLength) != 0)) {
                 throw new MqttDecoderException(Mqtt5DisconnectReasonCode.PAYLOAD_FORMAT_INVALID,
                         "payload is not valid UTF-8");
             }
+            if (context.useZeroCopyPayload()) {
+                final ByteBuf payloadSlice = in.readRetainedSlice(payloadLength);
+                payload = payloadSlice.nioBuffer();
+                payloadBuffer = new MqttPublishPayloadBuffer(payloadSlice);
+            } else {
+                payload = ByteBufferUtil.allocate(payloadLength, context.useDirectBufferPayload());
+                in.readBytes(payload);
+                payload.position(0);
+            }
         }
 
         final MqttUserPropertiesImpl userProperties = MqttUserPropertiesImpl.build(userPropertiesBuilder);
 
         final MqttPublish publish =
                 new MqttPublish(topic, payload, qos, retain, messageExpiryInterval, payloadFormatIndicator, contentType,
-                        responseTopic, correlationData, userProperties, null);
+                        responseTopic, correlationData, userProperties, null, payloadBuffer);
 
         final ImmutableIntList subscriptionIdentifiers =
                 (subscriptionIdentifiersBuilder == null) ? DEFAULT_NO_SUBSCRIPTION_IDENTIFIERS :
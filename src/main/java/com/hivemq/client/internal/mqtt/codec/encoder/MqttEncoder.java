@@ -16,20 +16,28 @@
 
 package com.hivemq.client.internal.mqtt.codec.encoder;
 
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.ioc.ConnectionScope;
 import com.hivemq.client.internal.mqtt.message.MqttMessage;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main encoder for MQTT messages which delegates to the individual {@link MqttMessageEncoder}s.
+ * <p>
+ * Flushes are delayed while messages are read, and, if configured, coalesced across a number of writes or a maximum
+ * delay after the connection is established.
  *
  * @author Silvio Giebl
  */
@@ -40,18 +48,30 @@ public class MqttEncoder extends ChannelDuplexHandler {
 
     private final @NotNull MqttMessageEncoders encoders;
     private final @NotNull MqttEncoderContext context;
+    private final int flushCoalescingMaxWrites;
+    private final int flushCoalescingMaxDelayMicros;
+    private final @Nullable MqttClientMetrics metrics;
 
     private boolean inRead = false;
     private boolean pendingFlush = false;
+    private boolean flushCoalescing = false;
+    private boolean flushScheduled = false;
+    private int unflushedWrites = 0;
+    private int unflushedRequests = 0;
 
     @Inject
-    MqttEncoder(final @NotNull MqttMessageEncoders encoders) {
+    MqttEncoder(final @NotNull MqttMessageEncoders encoders, final @NotNull MqttClientConfig clientConfig) {
         this.encoders = encoders;
         context = new MqttEncoderContext(ByteBufAllocator.DEFAULT);
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+        flushCoalescingMaxWrites = advancedConfig.getFlushCoalescingMaxWrites();
+        flushCoalescingMaxDelayMicros = advancedConfig.getFlushCoalescingMaxDelayMicros();
+        metrics = clientConfig.getRawMetrics();
     }
 
     public void onConnected(final @NotNull MqttClientConnectionConfig connectionConfig) {
         context.setMaximumPacketSize(connectionConfig.getSendMaximumPacketSize());
+        flushCoalescing = flushCoalescingMaxWrites > 1;
     }
 
     @Override
@@ -67,21 +87,56 @@ public class MqttEncoder extends ChannelDuplexHandler {
                 throw new UnsupportedOperationException();
             }
             final ByteBuf out = messageEncoder.castAndEncode(message, context);
+            if (metrics != null) {
+                metrics.onBytesEncoded(out.readableBytes());
+            }
             ctx.write(out, promise);
         } else {
             ctx.write(msg, promise);
         }
+        unflushedWrites++;
     }
 
     @Override
     public void flush(final @NotNull ChannelHandlerContext ctx) {
+        unflushedRequests++;
         if (inRead) {
             pendingFlush = true;
         } else {
-            ctx.flush();
+            coalesceFlush(ctx);
+        }
+    }
+
+    private void coalesceFlush(final @NotNull ChannelHandlerContext ctx) {
+        if (!flushCoalescing || (unflushedWrites >= flushCoalescingMaxWrites)) {
+            flushNow(ctx);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            if (flushCoalescingMaxDelayMicros == 0) {
+                ctx.executor().execute(() -> scheduledFlush(ctx));
+            } else {
+                ctx.executor()
+                        .schedule(() -> scheduledFlush(ctx), flushCoalescingMaxDelayMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+    }
+
+    private void scheduledFlush(final @NotNull ChannelHandlerContext ctx) {
+        flushScheduled = false;
+        if (unflushedWrites > 0) {
+            flushNow(ctx);
         }
     }
 
+    private void flushNow(final @NotNull ChannelHandlerContext ctx) {
+        if (metrics != null) {
+            metrics.onFlush(unflushedWrites, unflushedRequests);
+        }
+        unflushedWrites = 0;
+        unflushedRequests = 0;
+        ctx.flush();
+    }
+
     @Override
     public void channelRead(final @NotNull ChannelHandlerContext ctx, final @NotNull Object msg) {
         inRead = true;
@@ -94,8 +149,16 @@ public class MqttEncoder extends ChannelDuplexHandler {
         inRead = false;
         if (pendingFlush) {
             pendingFlush = false;
-            ctx.flush();
+            coalesceFlush(ctx);
+        }
+    }
+
+    @Override
+    public void close(final @NotNull ChannelHandlerContext ctx, final @NotNull ChannelPromise promise) {
+        if (unflushedWrites > 0) {
+            flushNow(ctx);
         }
+        ctx.close(promise);
     }
 
     @Override
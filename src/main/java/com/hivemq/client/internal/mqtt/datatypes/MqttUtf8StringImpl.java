@@ -138,15 +138,7 @@ public class MqttUtf8StringImpl implements MqttUtf8String {
      * @return whether the byte array represents a well-formed UTF-8 encoded string.
      */
     static boolean isWellFormed(final byte @NotNull [] binary) {
-        if (Utf8Util.isWellFormed(binary) != 0) {
-            return true;
-        }
-        for (final byte b : binary) {
-            if (b == 0) {
-                return true;
-            }
-        }
-        return false;
+        return Utf8Util.isWellFormedWithoutNullCharacter(binary) != 0;
     }
 
     /**
@@ -216,6 +208,7 @@ public class MqttUtf8StringImpl implements MqttUtf8String {
     private byte @Nullable [] binary;
     private @Nullable String string;
     private int conversions;
+    private int hash; // cached if calculated from the UTF-8 encoded representation
 
     MqttUtf8StringImpl(final byte @NotNull [] binary) {
         this.binary = binary;
@@ -365,12 +358,68 @@ public class MqttUtf8StringImpl implements MqttUtf8String {
         if ((binary != null) && (thatBinary != null)) {
             return Arrays.equals(binary, thatBinary);
         }
+        if ((binary != null) && (thatString != null)) {
+            return equals(binary, thatString);
+        }
+        if ((string != null) && (thatBinary != null)) {
+            return equals(thatBinary, string);
+        }
         return toString().equals(that.toString());
     }
 
+    /**
+     * Compares the UTF-8 encoded with the UTF-16 encoded representation without converting if the UTF-8 encoded
+     * representation only contains ASCII characters.
+     */
+    private static boolean equals(final byte @NotNull [] binary, final @NotNull String string) {
+        final int length = string.length();
+        if (length > binary.length) { // UTF-8 never needs less code units than UTF-16
+            return false;
+        }
+        for (int i = 0; i < binary.length; i++) {
+            final byte b = binary[i];
+            if (b < 0) { // not ASCII
+                return new String(binary, StandardCharsets.UTF_8).equals(string);
+            }
+            if ((i >= length) || (string.charAt(i) != b)) {
+                return false;
+            }
+        }
+        return length == binary.length;
+    }
+
+    /**
+     * Returns the same hash code as the UTF-16 encoded Java string.
+     * <p>
+     * If only the UTF-8 encoded representation is present and it only contains ASCII characters, the hash code is
+     * calculated without converting to the UTF-16 encoded representation.
+     *
+     * @return the hash code.
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        final String string = this.string;
+        if (string != null) {
+            return string.hashCode();
+        }
+        int hash = this.hash;
+        if (hash == 0) {
+            final byte[] binary = this.binary;
+            hash = (binary == null) ? toString().hashCode() : hashCode(binary);
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    private static int hashCode(final byte @NotNull [] binary) {
+        int hash = 0;
+        for (final byte b : binary) {
+            if (b < 0) { // not ASCII
+                return new String(binary, StandardCharsets.UTF_8).hashCode();
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
     }
 
     @Override
@@ -77,6 +77,9 @@ public class MqttSession {
             expireFuture = null;
         }
 
+        incomingQosHandler.loadStore(connAck.isSessionPresent());
+        outgoingQosHandler.loadStore(connAck.isSessionPresent());
+
         pipeline.addAfter(MqttDecoder.NAME, MqttSubscriptionHandler.NAME, subscriptionHandler);
         pipeline.addAfter(MqttDecoder.NAME, MqttIncomingQosHandler.NAME, incomingQosHandler);
         pipeline.addAfter(MqttDecoder.NAME, MqttOutgoingQosHandler.NAME, outgoingQosHandler);
@@ -28,6 +28,7 @@ import com.hivemq.client.mqtt.exceptions.ConnectionFailedException;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttDisconnectSource;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAck;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.EventLoop;
@@ -157,6 +158,10 @@ public class MqttConnAckSingle extends Single<Mqtt5ConnAck> {
                     if (reconnector.isReconnect()) {
                         if (clientConfig.getRawState().compareAndSet(DISCONNECTED_RECONNECT, CONNECTING_RECONNECT)) {
 
+                            final MqttClientMetrics metrics = clientConfig.getRawMetrics();
+                            if (metrics != null) {
+                                metrics.onReconnect();
+                            }
                             clientConfig.setCurrentTransportConfig(reconnector.getTransportConfig());
                             connect(clientConfig, reconnector.getConnect(), new MqttConnAckFlow(flow), eventLoop);
                         }
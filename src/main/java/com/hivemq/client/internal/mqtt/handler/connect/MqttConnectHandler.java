@@ -20,6 +20,7 @@ import com.hivemq.client.internal.logging.InternalLogger;
 import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.codec.decoder.MqttDecoder;
 import com.hivemq.client.internal.mqtt.codec.encoder.MqttEncoder;
 import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
@@ -170,7 +171,9 @@ public class MqttConnectHandler extends MqttTimeoutInboundHandler {
 
             final int keepAlive = connectionConfig.getKeepAlive();
             if (keepAlive > 0) {
-                final MqttPingHandler pingHandler = new MqttPingHandler(keepAlive, connectFlushTime, System.nanoTime());
+                final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+                final MqttPingHandler pingHandler = new MqttPingHandler(keepAlive, connectFlushTime, System.nanoTime(),
+                        advancedConfig.isPingRespRequired(), advancedConfig.isSharedKeepAliveTimer());
                 channel.pipeline().addAfter(MqttDecoder.NAME, MqttPingHandler.NAME, pingHandler);
             }
 
@@ -283,7 +286,8 @@ public class MqttConnectHandler extends MqttTimeoutInboundHandler {
                 connAckRestrictions.isWildcardSubscriptionAvailable(),
                 connAckRestrictions.isSharedSubscriptionAvailable(),
                 connAckRestrictions.areSubscriptionIdentifiersAvailable(),
-                channel);
+                channel,
+                clientConfig.getRawMetrics());
         // @formatter:on
 
         clientConfig.setConnectionConfig(connectionConfig);
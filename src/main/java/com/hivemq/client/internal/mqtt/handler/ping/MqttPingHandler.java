@@ -38,6 +38,10 @@ import java.util.concurrent.TimeUnit;
  * <li>Sends a PINGREQ message when no write has been performed for the Keep Alive interval.</li>
  * <li>Disconnects or closes the channel if the PINGRESP message is not received in the timeout.</li>
  * </ul>
+ * While reading is paused (for example by incoming backpressure), the timeout of a missing PINGRESP message is
+ * postponed once by another Keep Alive interval, as it may already be received but not read yet. If it is still
+ * missing afterwards, the channel is closed even if reading is still paused, so a stalled consumer can not keep a dead
+ * connection open.
  *
  * @author Silvio Giebl
  */
@@ -46,20 +50,40 @@ public class MqttPingHandler extends MqttConnectionAwareHandler
         implements DefaultChannelOutboundHandler, Runnable, ChannelFutureListener {
 
     public static final @NotNull String NAME = "ping";
-    private static final boolean PINGRESP_REQUIRED = false; // TODO configurable
+    private static final long MIN_DELAY_NANOS = 1_000;
 
     private final long keepAliveNanos;
+    private final boolean pingRespRequired;
+    private final boolean sharedTimer;
     private long lastFlushTimeNanos;
     private long lastReadTimeNanos;
     private boolean pingReqWritten;
     private boolean pingReqFlushed;
     private boolean messageRead;
+    private boolean timeoutPostponed;
     private @Nullable ScheduledFuture<?> timeoutFuture;
 
     public MqttPingHandler(final int keepAlive, final long lastFlushTimeNanos, final long lastReadTimeNanos) {
+        this(keepAlive, lastFlushTimeNanos, lastReadTimeNanos, false, false);
+    }
+
+    /**
+     * @param pingRespRequired whether only a PINGRESP message counts as response to a PINGREQ message.
+     * @param sharedTimer      whether the Keep Alive checks are scheduled on the {@link MqttPingTimer} of the event
+     *                         loop instead of as separate tasks.
+     */
+    public MqttPingHandler(
+            final int keepAlive,
+            final long lastFlushTimeNanos,
+            final long lastReadTimeNanos,
+            final boolean pingRespRequired,
+            final boolean sharedTimer) {
+
         keepAliveNanos = TimeUnit.SECONDS.toNanos(keepAlive) - TimeUnit.MILLISECONDS.toNanos(100);
         this.lastFlushTimeNanos = lastFlushTimeNanos;
         this.lastReadTimeNanos = lastReadTimeNanos;
+        this.pingRespRequired = pingRespRequired;
+        this.sharedTimer = sharedTimer;
     }
 
     @Override
@@ -80,13 +104,17 @@ public class MqttPingHandler extends MqttConnectionAwareHandler
         if (msg instanceof MqttPingResp) {
             messageRead = true;
         } else {
-            messageRead = !PINGRESP_REQUIRED;
+            messageRead = !pingRespRequired;
             ctx.fireChannelRead(msg);
         }
     }
 
     private void schedule(final @NotNull ChannelHandlerContext ctx, final long delayNanos) {
-        timeoutFuture = ctx.executor().schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        if (sharedTimer) {
+            MqttPingTimer.get(ctx.executor()).schedule(ctx.executor(), this, delayNanos);
+        } else {
+            timeoutFuture = ctx.executor().schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
     }
 
     private long nextDelay(final long timeNanos) {
@@ -104,15 +132,22 @@ public class MqttPingHandler extends MqttConnectionAwareHandler
                 return;
             }
             if (!messageRead) {
+                if (!timeoutPostponed && !ctx.channel().config().isAutoRead()) {
+                    timeoutPostponed = true;
+                    schedule(ctx, keepAliveNanos); // check again when reading may be resumed
+                    return;
+                }
                 MqttDisconnectUtil.close(ctx.channel(), "Timeout while waiting for PINGRESP");
                 return;
             }
         }
         pingReqFlushed = false;
         messageRead = false;
+        timeoutPostponed = false;
         final long timeNanos = System.nanoTime();
         final long nextDelayNanos = nextDelay(timeNanos);
-        if (nextDelayNanos > 1_000) {
+        // the shared timer can not run earlier than the next tick, so a check that is due before is done now
+        if (nextDelayNanos > (sharedTimer ? MqttPingTimer.TICK_NANOS : MIN_DELAY_NANOS)) {
             pingReqWritten = false;
             schedule(ctx, nextDelayNanos);
         } else {
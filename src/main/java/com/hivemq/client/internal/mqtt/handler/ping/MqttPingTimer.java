@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.ping;
+
+import com.hivemq.client.internal.annotations.NotThreadSafe;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel which batches the Keep Alive checks of all connections on one event loop into a single periodic
+ * task.
+ * <p>
+ * There is one instance per event loop thread, so it must only be used on the event loop. Tasks are never removed
+ * explicitly, {@link MqttPingHandler#run()} returns immediately if the connection is already closed.
+ *
+ * @author Silvio Giebl
+ */
+@NotThreadSafe
+class MqttPingTimer implements Runnable {
+
+    static final long TICK_MILLIS = 100;
+    static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    private static final int WHEEL_SIZE = 512; // must be a power of 2
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final @NotNull FastThreadLocal<MqttPingTimer> TIMERS = new FastThreadLocal<MqttPingTimer>() {
+        @Override
+        protected @NotNull MqttPingTimer initialValue() {
+            return new MqttPingTimer();
+        }
+    };
+
+    static @NotNull MqttPingTimer get(final @NotNull EventExecutor eventLoop) {
+        assert eventLoop.inEventLoop();
+        return TIMERS.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private final @NotNull ArrayList<Task> @NotNull [] wheel = new ArrayList[WHEEL_SIZE];
+    private @NotNull ArrayList<Task> spare = new ArrayList<>();
+    private long tick;
+    private int size;
+    private @Nullable ScheduledFuture<?> future;
+
+    MqttPingTimer() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    void schedule(final @NotNull EventExecutor eventLoop, final @NotNull Runnable runnable, final long delayNanos) {
+        // rounded down, so the task runs at most one tick early instead of up to one tick late
+        final long ticks = Math.max(1, delayNanos / TICK_NANOS);
+        final long deadline = tick + ticks;
+        wheel[(int) (deadline & WHEEL_MASK)].add(new Task(runnable, deadline));
+        size++;
+        if (future == null) {
+            future = eventLoop.scheduleAtFixedRate(this, TICK_NANOS, TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void run() {
+        final long tick = ++this.tick;
+        final int index = (int) (tick & WHEEL_MASK);
+        // swapped out before running the tasks, because they may schedule themselves into the same bucket again
+        final ArrayList<Task> bucket = wheel[index];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        wheel[index] = spare;
+        for (int i = 0; i < bucket.size(); i++) {
+            final Task task = bucket.get(i);
+            if (task.deadline <= tick) {
+                size--;
+                task.runnable.run();
+            } else {
+                wheel[index].add(task);
+            }
+        }
+        bucket.clear();
+        spare = bucket;
+        if ((size == 0) && (future != null)) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static class Task {
+
+        final @NotNull Runnable runnable;
+        final long deadline;
+
+        Task(final @NotNull Runnable runnable, final long deadline) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+        }
+    }
+}
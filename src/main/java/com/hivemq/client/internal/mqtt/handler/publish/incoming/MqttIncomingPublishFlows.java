@@ -17,6 +17,8 @@
 package com.hivemq.client.internal.mqtt.handler.publish.incoming;
 
 import com.hivemq.client.internal.annotations.NotThreadSafe;
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicFilterImpl;
 import com.hivemq.client.internal.mqtt.ioc.ClientScope;
 import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscribe;
@@ -47,8 +49,10 @@ public class MqttIncomingPublishFlows {
     private final @Nullable HandleList<MqttGlobalIncomingPublishFlow> @NotNull [] globalFlows;
 
     @Inject
-    MqttIncomingPublishFlows() {
-        subscribedFlows = new MqttSubscribedPublishFlowTree();
+    MqttIncomingPublishFlows(final @NotNull MqttClientConfig clientConfig) {
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+        subscribedFlows = new MqttSubscribedPublishFlowTree(
+                advancedConfig.isSubscriptionIdentifierRouting(), advancedConfig.getTopicMatchingCacheSize());
         //noinspection unchecked
         globalFlows = new HandleList[MqttGlobalPublishFilter.values().length];
     }
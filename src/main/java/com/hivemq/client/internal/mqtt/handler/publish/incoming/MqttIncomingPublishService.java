@@ -20,12 +20,21 @@ import com.hivemq.client.internal.annotations.CallByThread;
 import com.hivemq.client.internal.checkpoint.Confirmable;
 import com.hivemq.client.internal.logging.InternalLogger;
 import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.ioc.ClientScope;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
 import com.hivemq.client.internal.util.collections.ChunkedArrayQueue;
 import com.hivemq.client.internal.util.collections.HandleList.Handle;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5IncomingQos0OverflowPolicy;
+import io.netty.channel.Channel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
 
 /**
  * @author Silvio Giebl
@@ -35,15 +44,27 @@ class MqttIncomingPublishService {
 
     private static final @NotNull InternalLogger LOGGER =
             InternalLoggerFactory.getLogger(MqttIncomingPublishService.class);
-    private static final boolean QOS_0_DROP_OLDEST = true; // TODO configurable
 
     private final @NotNull MqttIncomingQosHandler incomingQosHandler;
     final @NotNull MqttIncomingPublishFlows incomingPublishFlows;
+    private final int qos0BufferSize;
+    private final long qos0BufferBytes;
+    private final @NotNull Mqtt5IncomingQos0OverflowPolicy qos0OverflowPolicy;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final long highWaterMarkBytes;
+    private final long lowWaterMarkBytes;
+    private final @Nullable MqttClientMetrics metrics;
 
     private final @NotNull ChunkedArrayQueue<MqttStatefulPublishWithFlows> qos0Queue = new ChunkedArrayQueue<>(32);
     private final ChunkedArrayQueue<MqttStatefulPublishWithFlows>.@NotNull Iterator qos0It = qos0Queue.iterator();
+    private long qos0QueueBytes;
+    private int qos0QueueMaxSize = Integer.MAX_VALUE;
+    private boolean qos0Overflowing;
     private final @NotNull ChunkedArrayQueue<MqttStatefulPublishWithFlows> qos1Or2Queue = new ChunkedArrayQueue<>(32);
     private final ChunkedArrayQueue<MqttStatefulPublishWithFlows>.@NotNull Iterator qos1Or2It = qos1Or2Queue.iterator();
+    private long qos1Or2QueueBytes;
+    private @Nullable Channel pausedChannel;
 
     private long nextQoS1Or2PublishId = 1;
 
@@ -53,37 +74,114 @@ class MqttIncomingPublishService {
 
     MqttIncomingPublishService(
             final @NotNull MqttIncomingQosHandler incomingQosHandler,
-            final @NotNull MqttIncomingPublishFlows incomingPublishFlows) {
+            final @NotNull MqttIncomingPublishFlows incomingPublishFlows,
+            final @NotNull MqttClientConfig clientConfig) {
 
         this.incomingQosHandler = incomingQosHandler;
         this.incomingPublishFlows = incomingPublishFlows;
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+        qos0BufferSize = advancedConfig.getIncomingQos0BufferSize();
+        qos0BufferBytes = advancedConfig.getIncomingQos0BufferBytes();
+        qos0OverflowPolicy = advancedConfig.getIncomingQos0OverflowPolicy();
+        highWaterMark = advancedConfig.getIncomingBackpressureHighWaterMark();
+        lowWaterMark = advancedConfig.getIncomingBackpressureLowWaterMark();
+        highWaterMarkBytes = advancedConfig.getIncomingBackpressureHighWaterMarkBytes();
+        lowWaterMarkBytes = advancedConfig.getIncomingBackpressureLowWaterMarkBytes();
+        metrics = clientConfig.getRawMetrics();
     }
 
     @CallByThread("Netty EventLoop")
-    void onPublishQos0(final @NotNull MqttStatefulPublishWithFlows publishWithFlows, final int receiveMaximum) {
-        if (qos0Queue.size() >= receiveMaximum) { // TODO receiveMaximum
-            LOGGER.warn("QoS 0 publish message dropped.");
-            if (QOS_0_DROP_OLDEST) {
-                qos0It.reset();
-                final MqttStatefulPublishWithFlows flows = qos0It.next();
-                qos0It.remove();
-                for (Handle<MqttIncomingPublishFlow> h = flows.getFirst(); h != null; h = h.getNext()) {
-                    if (h.getElement().dereference() == 0) {
-                        referencedFlowCount--;
+    void onPublishQos0(
+            final @NotNull Channel channel,
+            final @NotNull MqttStatefulPublishWithFlows publishWithFlows,
+            final int receiveMaximum) {
+
+        qos0QueueMaxSize = (qos0BufferSize == Mqtt5ClientAdvancedConfig.RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER) ?
+                receiveMaximum : qos0BufferSize;
+        final int payloadSize = payloadSize(publishWithFlows);
+        if (payloadSize > qos0BufferBytes) { // would never fit into the buffer, even if it was empty
+            onQos0Dropped();
+            publishWithFlows.publish.stateless().releasePayload();
+            return;
+        }
+        if (isQos0QueueFull(payloadSize)) {
+            switch (qos0OverflowPolicy) {
+                case DROP_OLDEST:
+                    while (!qos0Queue.isEmpty() && isQos0QueueFull(payloadSize)) {
+                        dropOldestQos0();
                     }
-                }
-            } else {
-                return;
+                    break;
+                case DROP_NEWEST:
+                    onQos0Dropped();
+                    publishWithFlows.publish.stateless().releasePayload();
+                    return;
+                case BACKPRESSURE:
+                    // the publish was already read, reading is paused as soon as the buffer is full, so the buffer
+                    // is only exceeded by publishes that were read together with the publish that filled it
+                    pauseRead(channel);
+                    break;
             }
+        } else {
+            qos0Overflowing = false;
         }
         onPublish(publishWithFlows);
-        if (!publishWithFlows.isEmpty()) {
+        if (publishWithFlows.isEmpty()) {
+            publishWithFlows.publish.stateless().releasePayload();
+        } else {
             qos0Queue.offer(publishWithFlows);
+            qos0QueueBytes += payloadSize;
+            if ((qos0OverflowPolicy == Mqtt5IncomingQos0OverflowPolicy.BACKPRESSURE) && isQos0QueueFull(1)) {
+                pauseRead(channel);
+            }
+            onQueued(channel);
+        }
+    }
+
+    private boolean isQos0QueueFull(final int payloadSize) {
+        return (qos0Queue.size() >= qos0QueueMaxSize) || (qos0QueueBytes + payloadSize > qos0BufferBytes);
+    }
+
+    boolean isQos0Overflowing() {
+        return qos0Overflowing;
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void dropOldestQos0() {
+        onQos0Dropped();
+        qos0It.reset();
+        final MqttStatefulPublishWithFlows flows = qos0It.next();
+        qos0It.remove();
+        qos0QueueBytes -= payloadSize(flows);
+        flows.publish.stateless().releasePayload();
+        for (Handle<MqttIncomingPublishFlow> h = flows.getFirst(); h != null; h = h.getNext()) {
+            if (h.getElement().dereference() == 0) {
+                referencedFlowCount--;
+            }
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void onQos0Dropped() {
+        if (metrics != null) {
+            metrics.onQos0Dropped();
         }
+        if (!qos0Overflowing) {
+            qos0Overflowing = true;
+            LOGGER.warn("Incoming QoS 0 buffer is full, QoS 0 publish messages are dropped until it has space again.");
+        }
+    }
+
+    private static int payloadSize(final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
+        final ByteBuffer payload = publishWithFlows.publish.stateless().getRawPayload();
+        return (payload == null) ? 0 : payload.remaining();
     }
 
     @CallByThread("Netty EventLoop")
-    boolean onPublishQos1Or2(final @NotNull MqttStatefulPublishWithFlows publishWithFlows, final int receiveMaximum) {
+    boolean onPublishQos1Or2(
+            final @NotNull Channel channel,
+            final @NotNull MqttStatefulPublishWithFlows publishWithFlows,
+            final int receiveMaximum) {
+
         if (qos1Or2Queue.size() >= receiveMaximum) {
             return false; // flow control error
         }
@@ -91,12 +189,59 @@ class MqttIncomingPublishService {
         onPublish(publishWithFlows);
         if (qos1Or2Queue.isEmpty() && publishWithFlows.isEmpty() && publishWithFlows.areAcknowledged()) {
             incomingQosHandler.ack(publishWithFlows);
+            publishWithFlows.publish.stateless().releasePayload();
         } else {
             qos1Or2Queue.offer(publishWithFlows);
+            qos1Or2QueueBytes += payloadSize(publishWithFlows);
+            onQueued(channel);
         }
         return true;
     }
 
+    @CallByThread("Netty EventLoop")
+    private void onQueued(final @NotNull Channel channel) {
+        final int queued = qos0Queue.size() + qos1Or2Queue.size();
+        if (((highWaterMark != 0) && (queued >= highWaterMark)) ||
+                ((highWaterMarkBytes != 0) && (qos0QueueBytes + qos1Or2QueueBytes >= highWaterMarkBytes))) {
+            pauseRead(channel);
+        }
+        if (metrics != null) {
+            metrics.onIncomingQueued(qos0Queue.size(), qos1Or2Queue.size());
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void pauseRead(final @NotNull Channel channel) {
+        if (pausedChannel != channel) {
+            pausedChannel = channel;
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void resumeRead() {
+        final Channel channel = pausedChannel;
+        if (channel == null) {
+            return;
+        }
+        if ((qos0OverflowPolicy == Mqtt5IncomingQos0OverflowPolicy.BACKPRESSURE) && isQos0QueueFull(1)) {
+            return;
+        }
+        if ((highWaterMark != 0) && (qos0Queue.size() + qos1Or2Queue.size() > lowWaterMark)) {
+            return;
+        }
+        if ((highWaterMarkBytes != 0) && (qos0QueueBytes + qos1Or2QueueBytes > lowWaterMarkBytes)) {
+            return;
+        }
+        pausedChannel = null;
+        channel.config().setAutoRead(true);
+    }
+
+    @CallByThread("Netty EventLoop")
+    void onChannelEnd() {
+        pausedChannel = null; // reading is only paused for the current channel, a new channel starts reading
+    }
+
     @CallByThread("Netty EventLoop")
     private void onPublish(final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
         incomingPublishFlows.findMatching(publishWithFlows);
@@ -114,6 +259,12 @@ class MqttIncomingPublishService {
 
     @CallByThread("Netty EventLoop")
     void drain() {
+        drainQueues();
+        resumeRead();
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void drainQueues() {
         runIndex++;
         blockingFlowCount = 0;
 
@@ -123,7 +274,9 @@ class MqttIncomingPublishService {
             emit(publishWithFlows);
             if ((qos1Or2It.getIterated() == 1) && publishWithFlows.isEmpty() && publishWithFlows.areAcknowledged()) {
                 qos1Or2It.remove();
+                qos1Or2QueueBytes -= payloadSize(publishWithFlows);
                 incomingQosHandler.ack(publishWithFlows);
+                publishWithFlows.publish.stateless().releasePayload();
             } else if (blockingFlowCount == referencedFlowCount) {
                 return;
             }
@@ -134,6 +287,8 @@ class MqttIncomingPublishService {
             emit(publishWithFlows);
             if ((qos0It.getIterated() == 1) && publishWithFlows.isEmpty()) {
                 qos0It.remove();
+                qos0QueueBytes -= payloadSize(publishWithFlows);
+                publishWithFlows.publish.stateless().releasePayload();
             } else if (blockingFlowCount == referencedFlowCount) {
                 return;
             }
@@ -162,6 +317,8 @@ class MqttIncomingPublishService {
                             confirmable = new MqttIncomingPublishConfirmable(flow, publishWithFlows);
                         }
                         publish = publish.withConfirmable(confirmable);
+                    } else {
+                        publish = publish.withRetainedPayload();
                     }
                     flow.onNext(publish);
                     publishWithFlows.remove(h);
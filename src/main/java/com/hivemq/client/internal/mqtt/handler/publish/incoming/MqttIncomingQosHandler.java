@@ -22,8 +22,11 @@ import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
 import com.hivemq.client.internal.mqtt.advanced.interceptor.MqttClientInterceptors;
+import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertiesImpl;
 import com.hivemq.client.internal.mqtt.handler.MqttSessionAwareHandler;
+import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectEvent;
 import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
+import com.hivemq.client.internal.mqtt.handler.util.MqttStoreSync;
 import com.hivemq.client.internal.mqtt.ioc.ClientScope;
 import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
 import com.hivemq.client.internal.mqtt.message.publish.puback.MqttPubAck;
@@ -36,16 +39,20 @@ import com.hivemq.client.internal.mqtt.message.publish.pubrel.MqttPubRel;
 import com.hivemq.client.internal.util.collections.IntIndex;
 import com.hivemq.client.mqtt.MqttVersion;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.qos1.Mqtt5IncomingQos1Interceptor;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.qos2.Mqtt5IncomingQos2Interceptor;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
 import com.hivemq.client.mqtt.mqtt5.message.disconnect.Mqtt5DisconnectReasonCode;
 import com.hivemq.client.mqtt.mqtt5.message.publish.pubcomp.Mqtt5PubCompReasonCode;
+import com.hivemq.client.mqtt.mqtt5.message.publish.pubrec.Mqtt5PubRecReasonCode;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.EventLoop;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 
 /**
  * @author Silvio Giebl
@@ -65,6 +72,11 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
 
     private final @NotNull MqttClientConfig clientConfig;
     final @NotNull MqttIncomingPublishService incomingPublishService;
+    private final @Nullable MqttClientMetrics metrics;
+    private final @Nullable Mqtt5IncomingQos2Store store;
+    private final @Nullable MqttStoreSync storeSync;
+    private boolean storeLoaded;
+    private final @NotNull ArrayList<Object> unsyncedMessages = new ArrayList<>();
 
     // valid for session
     private final @NotNull IntIndex<Object> messages = new IntIndex<>(INDEX_SPEC);
@@ -80,7 +92,39 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
             final @NotNull MqttIncomingPublishFlows incomingPublishFlows) {
 
         this.clientConfig = clientConfig;
-        incomingPublishService = new MqttIncomingPublishService(this, incomingPublishFlows);
+        metrics = clientConfig.getRawMetrics();
+        store = clientConfig.getAdvancedConfig().getIncomingQos2Store();
+        storeSync = (store == null) ? null : new MqttStoreSync(store::sync);
+        incomingPublishService = new MqttIncomingPublishService(this, incomingPublishFlows, clientConfig);
+    }
+
+    /**
+     * Loads the incoming QoS 2 store once before the first session is started or resumed.
+     * <p>
+     * If the server still has the session, a PUBREC is restored for every stored packet identifier, so resent QoS 2
+     * PUBLISH messages are only acknowledged again and not delivered a second time.
+     *
+     * @param sessionPresent whether the server still has the session.
+     */
+    @CallByThread("Netty EventLoop")
+    public void loadStore(final boolean sessionPresent) {
+        final Mqtt5IncomingQos2Store store = this.store;
+        final MqttStoreSync storeSync = this.storeSync;
+        if ((store == null) || (storeSync == null) || storeLoaded) {
+            return;
+        }
+        storeLoaded = true;
+
+        store.load(packetIdentifier -> {
+            if (sessionPresent) {
+                messages.put(new MqttPubRec(packetIdentifier, Mqtt5PubRecReasonCode.SUCCESS, null,
+                        MqttUserPropertiesImpl.NO_USER_PROPERTIES));
+            }
+        });
+        if (!sessionPresent) {
+            store.clear();
+            storeSync.sync();
+        }
     }
 
     @Override
@@ -104,9 +148,13 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
     }
 
     private void readPublish(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttStatefulPublish publish) {
-        switch (publish.stateless().getQos()) {
+        final MqttQos qos = publish.stateless().getQos();
+        if (metrics != null) {
+            metrics.onPublishReceived(qos);
+        }
+        switch (qos) {
             case AT_MOST_ONCE:
-                readPublishQos0(publish);
+                readPublishQos0(ctx, publish);
                 break;
             case AT_LEAST_ONCE:
                 readPublishQos1(ctx, publish);
@@ -117,8 +165,8 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
         }
     }
 
-    private void readPublishQos0(final @NotNull MqttStatefulPublish publish) {
-        incomingPublishService.onPublishQos0(new MqttStatefulPublishWithFlows(publish), receiveMaximum);
+    private void readPublishQos0(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttStatefulPublish publish) {
+        incomingPublishService.onPublishQos0(ctx.channel(), new MqttStatefulPublishWithFlows(publish), receiveMaximum);
     }
 
     private void readPublishQos1(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttStatefulPublish publish) {
@@ -133,6 +181,7 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
             final MqttStatefulPublishWithFlows prevPublishWithFlows = (MqttStatefulPublishWithFlows) prevMessage;
             if (prevPublishWithFlows.publish.stateless().getQos() == MqttQos.AT_LEAST_ONCE) {
                 if (prevPublishWithFlows.connectionIndex == connectionIndex) {
+                    publish.stateless().releasePayload();
                     if (clientConfig.getMqttVersion() == MqttVersion.MQTT_5_0) {
                         LOGGER.error("QoS 1 PUBLISH ({}) must not be resent ({}) during the same connection",
                                 prevPublishWithFlows.publish, publish);
@@ -148,12 +197,14 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
                     }
                 }
             } else { // EXACTLY_ONCE
+                publish.stateless().releasePayload();
                 LOGGER.error("QoS 1 PUBLISH ({}) must not carry the same packet identifier as a QoS 2 PUBLISH ({})",
                         publish, prevPublishWithFlows.publish);
                 MqttDisconnectUtil.disconnect(ctx.channel(), Mqtt5DisconnectReasonCode.PROTOCOL_ERROR,
                         "QoS 1 PUBLISH must not carry the same packet identifier as a QoS 2 PUBLISH");
             }
         } else { // MqttPubRec
+            publish.stateless().releasePayload();
             LOGGER.error("QoS 1 PUBLISH ({}) must not carry the same packet identifier as a QoS 2 PUBLISH ({})",
                     publish, prevMessage);
             MqttDisconnectUtil.disconnect(ctx.channel(), Mqtt5DisconnectReasonCode.PROTOCOL_ERROR,
@@ -172,6 +223,7 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
         } else if (prevMessage instanceof MqttStatefulPublishWithFlows) {
             final MqttStatefulPublishWithFlows prevPublishWithFlows = (MqttStatefulPublishWithFlows) prevMessage;
             if (prevPublishWithFlows.publish.stateless().getQos() == MqttQos.EXACTLY_ONCE) {
+                publish.stateless().releasePayload();
                 if (prevPublishWithFlows.connectionIndex == connectionIndex) {
                     if (clientConfig.getMqttVersion() == MqttVersion.MQTT_5_0) {
                         LOGGER.error("QoS 2 PUBLISH ({}) must not be resent ({}) during the same connection",
@@ -187,6 +239,7 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
                 }
             } else { // AT_LEAST_ONCE
                 if (prevPublishWithFlows.connectionIndex == connectionIndex) {
+                    publish.stateless().releasePayload();
                     LOGGER.error("QoS 2 PUBLISH ({}) must not carry the same packet identifier as a QoS 1 PUBLISH ({})",
                             publish, prevPublishWithFlows.publish);
                     MqttDisconnectUtil.disconnect(ctx.channel(), Mqtt5DisconnectReasonCode.PROTOCOL_ERROR,
@@ -199,6 +252,7 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
                 }
             }
         } else { // MqttPubRec, resent message and already acknowledged
+            publish.stateless().releasePayload();
             if (checkDupFlagSet(ctx, publish)) {
                 writePubRec(ctx, (MqttPubRec) prevMessage);
             }
@@ -209,9 +263,10 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
     private boolean readNewPublishQos1Or2(
             final @NotNull ChannelHandlerContext ctx, final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
 
-        if (incomingPublishService.onPublishQos1Or2(publishWithFlows, receiveMaximum)) {
+        if (incomingPublishService.onPublishQos1Or2(ctx.channel(), publishWithFlows, receiveMaximum)) {
             return true;
         }
+        publishWithFlows.publish.stateless().releasePayload();
         LOGGER.error("Received more QoS 1 and/or 2 PUBLISH messages ({}) than allowed by receive maximum ({})",
                 publishWithFlows.publish, receiveMaximum);
         MqttDisconnectUtil.disconnect(ctx.channel(), Mqtt5DisconnectReasonCode.RECEIVE_MAXIMUM_EXCEEDED,
@@ -246,6 +301,9 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
                 final MqttPubRec pubRec = buildPubRec(new MqttPubRecBuilder(publishWithFlows.publish));
                 final Object prevMessage = !pubRec.getReasonCode().isError() ? messages.put(pubRec) :
                         messages.remove(pubRec.getPacketIdentifier());
+                if ((store != null) && (prevMessage == publishWithFlows) && !pubRec.getReasonCode().isError()) {
+                    store.store(pubRec.getPacketIdentifier());
+                }
                 if (ack(prevMessage, publishWithFlows) && (ctx != null)) {
                     writePubRec(ctx, pubRec);
                 }
@@ -275,12 +333,48 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
     }
 
     private void writePubRec(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubRec pubRec) {
-        ctx.writeAndFlush(pubRec, ctx.voidPromise());
+        writeAfterStoreSync(ctx, pubRec);
+    }
+
+    /**
+     * Writes a PUBREC or PUBCOMP message only after the changes of the incoming QoS 2 store are durable. The sync
+     * blocks until the changes are written to disk, so it is run on a separate thread. All messages of the same event
+     * loop iteration share one sync and one flush.
+     */
+    private void writeAfterStoreSync(final @NotNull ChannelHandlerContext ctx, final @NotNull Object msg) {
+        final MqttStoreSync storeSync = this.storeSync;
+        if (storeSync == null) {
+            ctx.writeAndFlush(msg, ctx.voidPromise());
+            return;
+        }
+        unsyncedMessages.add(msg);
+        if (unsyncedMessages.size() == 1) {
+            final EventLoop eventLoop = ctx.channel().eventLoop();
+            eventLoop.execute(() -> {
+                final Object[] messages = unsyncedMessages.toArray();
+                unsyncedMessages.clear();
+                storeSync.afterSync(eventLoop, () -> writeSynced(ctx, messages));
+            });
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void writeSynced(final @NotNull ChannelHandlerContext ctx, final @NotNull Object @NotNull [] messages) {
+        // if the connection ended during the sync, the server resends the messages which are acknowledged
+        if (this.ctx == ctx) {
+            for (final Object message : messages) {
+                ctx.write(message, ctx.voidPromise());
+            }
+            ctx.flush();
+        }
     }
 
     private void readPubRel(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubRel pubRel) {
         final Object prevMessage = messages.remove(pubRel.getPacketIdentifier());
         if (prevMessage instanceof MqttPubRec) { // normal case
+            if (store != null) {
+                store.remove(pubRel.getPacketIdentifier());
+            }
             writePubComp(ctx, buildPubComp(new MqttPubCompBuilder(pubRel)));
         } else if (prevMessage == null) { // may be resent
             writePubComp(
@@ -305,13 +399,26 @@ public class MqttIncomingQosHandler extends MqttSessionAwareHandler {
     }
 
     private void writePubComp(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubComp pubComp) {
-        ctx.writeAndFlush(pubComp, ctx.voidPromise());
+        writeAfterStoreSync(ctx, pubComp);
+    }
+
+    @Override
+    protected void onDisconnectEvent(
+            final @NotNull ChannelHandlerContext ctx, final @NotNull MqttDisconnectEvent disconnectEvent) {
+
+        super.onDisconnectEvent(ctx, disconnectEvent);
+        incomingPublishService.onChannelEnd();
     }
 
     @Override
     public void onSessionEnd(final @NotNull Throwable cause) {
         super.onSessionEnd(cause);
+        incomingPublishService.onChannelEnd();
         messages.clear();
+        if ((store != null) && (storeSync != null)) {
+            store.clear();
+            storeSync.sync();
+        }
     }
 
     private @NotNull MqttPubAck buildPubAck(final @NotNull MqttPubAckBuilder pubAckBuilder) {
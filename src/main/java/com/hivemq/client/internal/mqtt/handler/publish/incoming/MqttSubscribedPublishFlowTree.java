@@ -18,12 +18,15 @@ package com.hivemq.client.internal.mqtt.handler.publish.incoming;
 
 import com.hivemq.client.internal.annotations.NotThreadSafe;
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicFilterImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttTopicImpl;
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicIterator;
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicLevel;
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicLevels;
 import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscription;
 import com.hivemq.client.internal.util.collections.HandleList.Handle;
+import com.hivemq.client.internal.util.collections.ImmutableIntList;
 import com.hivemq.client.internal.util.collections.Index;
+import com.hivemq.client.internal.util.collections.IntIndex;
 import com.hivemq.client.internal.util.collections.NodeList;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
 import com.hivemq.client.mqtt.mqtt5.message.subscribe.Mqtt5RetainHandling;
@@ -38,9 +41,30 @@ import java.util.*;
 @NotThreadSafe
 public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows {
 
+    private static final @NotNull IntIndex.Spec<SubscriptionIdentifierEntry> SUBSCRIPTION_IDENTIFIER_INDEX_SPEC =
+            new IntIndex.Spec<>(entry -> entry.subscriptionIdentifier);
+
     private @Nullable TopicTreeNode rootNode;
+    private final @Nullable IntIndex<SubscriptionIdentifierEntry> subscriptionIdentifiers;
+    private final @Nullable MatchingCache matchingCache;
+
+    MqttSubscribedPublishFlowTree() {
+        this(false, 0);
+    }
 
-    MqttSubscribedPublishFlowTree() {}
+    /**
+     * @param subscriptionIdentifierRouting whether incoming Publish messages are routed by the subscription
+     *                                      identifiers they contain. The topic tree is only traversed if they do not
+     *                                      contain subscription identifiers or contain unknown subscription
+     *                                      identifiers.
+     * @param matchingCacheSize             the maximum amount of topics whose matching flows are cached, 0 disables
+     *                                      the cache.
+     */
+    MqttSubscribedPublishFlowTree(final boolean subscriptionIdentifierRouting, final int matchingCacheSize) {
+        subscriptionIdentifiers =
+                subscriptionIdentifierRouting ? new IntIndex<>(SUBSCRIPTION_IDENTIFIER_INDEX_SPEC) : null;
+        matchingCache = (matchingCacheSize == 0) ? null : new MatchingCache(matchingCacheSize);
+    }
 
     @Override
     public void subscribe(
@@ -48,7 +72,18 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
             final int subscriptionIdentifier,
             final @Nullable MqttSubscribedPublishFlow flow) {
 
+        invalidateMatchingCache();
         final TopicTreeEntry entry = new TopicTreeEntry(subscription, subscriptionIdentifier, flow);
+        if (subscriptionIdentifiers != null) {
+            SubscriptionIdentifierEntry identifierEntry = subscriptionIdentifiers.get(subscriptionIdentifier);
+            if (identifierEntry == null) {
+                identifierEntry = new SubscriptionIdentifierEntry(subscriptionIdentifier, subscriptionIdentifiers);
+                subscriptionIdentifiers.put(identifierEntry);
+            }
+            identifierEntry.flow = flow;
+            identifierEntry.entryCount++;
+            entry.identifierEntry = identifierEntry;
+        }
         final MqttTopicIterator topicIterator = MqttTopicIterator.of(subscription.getTopicFilter());
         TopicTreeNode node = rootNode;
         if (node == null) {
@@ -63,6 +98,9 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
     public void suback(
             final @NotNull MqttTopicFilterImpl topicFilter, final int subscriptionIdentifier, final boolean error) {
 
+        if (error) {
+            invalidateMatchingCache();
+        }
         final MqttTopicIterator topicIterator = MqttTopicIterator.of(topicFilter);
         TopicTreeNode node = rootNode;
         while (node != null) {
@@ -73,6 +111,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
 
     @Override
     public void unsubscribe(final @NotNull MqttTopicFilterImpl topicFilter) {
+        invalidateMatchingCache();
         final MqttTopicIterator topicIterator = MqttTopicIterator.of(topicFilter);
         TopicTreeNode node = rootNode;
         while (node != null) {
@@ -83,6 +122,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
 
     @Override
     public void cancel(final @NotNull MqttSubscribedPublishFlow flow) {
+        invalidateMatchingCache();
         for (Handle<MqttTopicFilterImpl> h = flow.getTopicFilters().getFirst(); h != null; h = h.getNext()) {
             final MqttTopicIterator topicIterator = MqttTopicIterator.of(h.getElement());
             TopicTreeNode node = rootNode;
@@ -94,11 +134,54 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
 
     @Override
     public void findMatching(final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
-        final MqttTopicIterator topicIterator = MqttTopicIterator.of(publishWithFlows.publish.stateless().getTopic());
+        if ((subscriptionIdentifiers != null) && findMatchingBySubscriptionIdentifiers(publishWithFlows)) {
+            return;
+        }
+        final MqttTopicImpl topic = publishWithFlows.publish.stateless().getTopic();
+        if (matchingCache != null) {
+            final CachedMatch cachedMatch = matchingCache.get(topic);
+            if (cachedMatch != null) {
+                cachedMatch.addTo(publishWithFlows);
+                return;
+            }
+        }
+        final MqttTopicIterator topicIterator = MqttTopicIterator.of(topic);
         TopicTreeNode node = rootNode;
         while (node != null) {
             node = node.findMatching(topicIterator, publishWithFlows);
         }
+        if (matchingCache != null) {
+            matchingCache.put(topic, new CachedMatch(publishWithFlows));
+        }
+    }
+
+    private boolean findMatchingBySubscriptionIdentifiers(final @NotNull MqttStatefulPublishWithFlows flows) {
+        assert subscriptionIdentifiers != null;
+        final ImmutableIntList identifiers = flows.publish.getSubscriptionIdentifiers();
+        if (identifiers.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < identifiers.size(); i++) {
+            if (subscriptionIdentifiers.get(identifiers.get(i)) == null) {
+                return false; // subscription unknown to the index, for example from a previous session
+            }
+        }
+        flows.subscriptionFound = true;
+        outer:
+        for (int i = 0; i < identifiers.size(); i++) {
+            final int identifier = identifiers.get(i);
+            for (int j = 0; j < i; j++) {
+                if (identifiers.get(j) == identifier) {
+                    continue outer;
+                }
+            }
+            final SubscriptionIdentifierEntry identifierEntry = subscriptionIdentifiers.get(identifier);
+            assert identifierEntry != null;
+            if (identifierEntry.flow != null) {
+                flows.add(identifierEntry.flow);
+            }
+        }
+        return true;
     }
 
     @Override
@@ -108,6 +191,10 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
             node = node.clear(cause);
         }
         rootNode = null;
+        if (subscriptionIdentifiers != null) {
+            subscriptionIdentifiers.clear();
+        }
+        invalidateMatchingCache();
     }
 
     @Override
@@ -131,6 +218,62 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
         }
     }
 
+    private void invalidateMatchingCache() {
+        if (matchingCache != null) {
+            matchingCache.clear();
+        }
+    }
+
+    /**
+     * LRU cache from concrete topics to the flows that the topic tree resolved for them.
+     */
+    private static class MatchingCache extends LinkedHashMap<MqttTopicImpl, CachedMatch> {
+
+        private final int maxSize;
+
+        MatchingCache(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final @NotNull Map.Entry<MqttTopicImpl, CachedMatch> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static class CachedMatch {
+
+        private static final @NotNull MqttIncomingPublishFlow @NotNull [] EMPTY = new MqttIncomingPublishFlow[0];
+
+        private final @NotNull MqttIncomingPublishFlow @NotNull [] flows;
+        private final boolean subscriptionFound;
+
+        CachedMatch(final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
+            int size = 0;
+            for (Handle<MqttIncomingPublishFlow> h = publishWithFlows.getFirst(); h != null; h = h.getNext()) {
+                size++;
+            }
+            if (size == 0) {
+                flows = EMPTY;
+            } else {
+                flows = new MqttIncomingPublishFlow[size];
+                int i = 0;
+                for (Handle<MqttIncomingPublishFlow> h = publishWithFlows.getFirst(); h != null; h = h.getNext()) {
+                    flows[i++] = h.getElement();
+                }
+            }
+            subscriptionFound = publishWithFlows.subscriptionFound;
+        }
+
+        void addTo(final @NotNull MqttStatefulPublishWithFlows publishWithFlows) {
+            for (final MqttIncomingPublishFlow flow : flows) {
+                publishWithFlows.add(flow);
+            }
+            publishWithFlows.subscriptionFound = subscriptionFound;
+        }
+    }
+
     private static class TopicTreeEntry extends NodeList.Node<TopicTreeEntry> {
 
         final int subscriptionIdentifier;
@@ -139,6 +282,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
         @Nullable MqttSubscribedPublishFlow flow;
         @Nullable Handle<MqttTopicFilterImpl> handle;
         boolean acknowledged;
+        @Nullable SubscriptionIdentifierEntry identifierEntry;
 
         TopicTreeEntry(
                 final @NotNull MqttSubscription subscription,
@@ -152,6 +296,41 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
             this.flow = flow;
             handle = (flow == null) ? null : flow.getTopicFilters().add(topicFilter);
         }
+
+        void removed() {
+            if (identifierEntry != null) {
+                identifierEntry.removeEntry();
+            }
+        }
+
+        void cancelled() {
+            flow = null;
+            handle = null;
+            if (identifierEntry != null) {
+                identifierEntry.flow = null;
+            }
+        }
+    }
+
+    private static class SubscriptionIdentifierEntry {
+
+        final int subscriptionIdentifier;
+        private final @NotNull IntIndex<SubscriptionIdentifierEntry> index;
+        @Nullable MqttSubscribedPublishFlow flow;
+        int entryCount;
+
+        SubscriptionIdentifierEntry(
+                final int subscriptionIdentifier, final @NotNull IntIndex<SubscriptionIdentifierEntry> index) {
+
+            this.subscriptionIdentifier = subscriptionIdentifier;
+            this.index = index;
+        }
+
+        void removeEntry() {
+            if (--entryCount == 0) {
+                index.remove(subscriptionIdentifier);
+            }
+        }
     }
 
     private static class TopicTreeNode {
@@ -251,6 +430,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
                                 entry.flow.getTopicFilters().remove(entry.handle);
                             }
                             entries.remove(entry);
+                            entry.removed();
                         }
                     }
                 }
@@ -293,6 +473,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
                             }
                         }
                         entries.remove(entry);
+                        entry.removed();
                     }
                 }
                 return entries.isEmpty();
@@ -320,8 +501,7 @@ public class MqttSubscribedPublishFlowTree implements MqttSubscribedPublishFlows
             if (entries != null) {
                 for (TopicTreeEntry entry = entries.getFirst(); entry != null; entry = entry.getNext()) {
                     if (entry.flow == flow) {
-                        entry.flow = null;
-                        entry.handle = null;
+                        entry.cancelled();
                         break;
                     }
                 }
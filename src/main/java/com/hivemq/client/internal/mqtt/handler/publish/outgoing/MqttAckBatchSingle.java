@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.annotations.CallByThread;
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.exceptions.MqttClientStateExceptions;
+import com.hivemq.client.internal.mqtt.ioc.ClientComponent;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Publishes a batch of Publish messages with a single handoff to the {@link MqttOutgoingQosHandler}, so that the whole
+ * batch is written with one flush (as long as the send maximum and the channel writability allow it).
+ * <p>
+ * The batch consumes only one credit of the single publishes or one request of the global publish flowables as it does
+ * not need to be buffered.
+ *
+ * @author Silvio Giebl
+ */
+public class MqttAckBatchSingle extends Single<List<Mqtt5PublishResult>> {
+
+    private final @NotNull MqttClientConfig clientConfig;
+    private final @NotNull ImmutableList<MqttPublish> publishes;
+
+    public MqttAckBatchSingle(
+            final @NotNull MqttClientConfig clientConfig, final @NotNull ImmutableList<MqttPublish> publishes) {
+
+        this.clientConfig = clientConfig;
+        this.publishes = publishes;
+    }
+
+    @Override
+    protected void subscribeActual(final @NotNull SingleObserver<? super List<Mqtt5PublishResult>> observer) {
+        final ClientComponent clientComponent = clientConfig.getClientComponent();
+        final MqttOutgoingQosHandler outgoingQosHandler = clientComponent.outgoingQosHandler();
+
+        if (publishes.isEmpty()) {
+            observer.onSubscribe(EmptyDisposable.INSTANCE);
+            observer.onSuccess(ImmutableList.of());
+        } else if (clientConfig.getState().isConnectedOrReconnect() || outgoingQosHandler.isOfflineBuffered()) {
+            final Flow flow = new Flow(observer, clientConfig, outgoingQosHandler, publishes.size());
+            observer.onSubscribe(flow);
+            final MqttPublishWithFlow first = new MqttPublishWithFlow(publishes.get(0), flow);
+            MqttPublishWithFlow last = first;
+            for (int i = 1; i < publishes.size(); i++) {
+                last = last.nextInBatch = new MqttPublishWithFlow(publishes.get(i), flow);
+                last.batchIndex = i;
+            }
+            outgoingQosHandler.publishSingle(first);
+        } else {
+            EmptyDisposable.error(MqttClientStateExceptions.notConnected(), observer);
+        }
+    }
+
+    static class Flow extends MqttAckFlow implements Disposable {
+
+        private final @NotNull SingleObserver<? super List<Mqtt5PublishResult>> observer;
+        private final @NotNull MqttOutgoingQosHandler outgoingQosHandler;
+
+        private final @NotNull MqttPublishResult @NotNull [] results;
+        private int resultCount;
+        private int acknowledged;
+
+        Flow(
+                final @NotNull SingleObserver<? super List<Mqtt5PublishResult>> observer,
+                final @NotNull MqttClientConfig clientConfig,
+                final @NotNull MqttOutgoingQosHandler outgoingQosHandler,
+                final int size) {
+
+            super(clientConfig);
+            this.observer = observer;
+            this.outgoingQosHandler = outgoingQosHandler;
+            results = new MqttPublishResult[size];
+            init();
+        }
+
+        @CallByThread("Netty EventLoop")
+        @Override
+        void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
+            assert results[batchIndex] == null : "a publish must only have one result";
+            results[batchIndex] = result;
+            resultCount++;
+            if (result.acknowledged()) {
+                acknowledged(1);
+            }
+        }
+
+        @CallByThread("Netty EventLoop")
+        @Override
+        void acknowledged(final long acknowledged) {
+            this.acknowledged += acknowledged;
+            assert this.acknowledged <= resultCount : "a publish must not be acknowledged before its result";
+            if (this.acknowledged == results.length) {
+                if (setDone()) {
+                    observer.onSuccess(ImmutableList.copyOf(results));
+                }
+                outgoingQosHandler.requestSingle(this);
+            }
+        }
+    }
+}
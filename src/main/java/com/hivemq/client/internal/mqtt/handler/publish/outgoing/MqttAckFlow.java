@@ -27,12 +27,29 @@ import org.jetbrains.annotations.NotNull;
  */
 abstract class MqttAckFlow extends FlowWithEventLoop {
 
+    static final int INGRESS_FLOWABLES = 0;
+    static final int INGRESS_SINGLE_DIRECT = 1;
+    static final int INGRESS_SINGLE_FLOWABLES = 2;
+    static final int INGRESS_OFFLINE = 3;
+
+    /**
+     * How the publishes of this flow reach the {@link MqttOutgoingQosHandler}, set before they are queued.
+     */
+    int ingress = INGRESS_FLOWABLES;
+
     MqttAckFlow(final @NotNull MqttClientConfig clientConfig) {
         super(clientConfig);
     }
 
+    /**
+     * Emits the result of the publish at the given position in its batch. Flows that are not used for batches ignore
+     * the position.
+     *
+     * @param result     the result of the publish.
+     * @param batchIndex the position of the publish in its batch, 0 if it is not part of a batch.
+     */
     @CallByThread("Netty EventLoop")
-    abstract void onNext(final @NotNull MqttPublishResult result);
+    abstract void onNext(final @NotNull MqttPublishResult result, final int batchIndex);
 
     @CallByThread("Netty EventLoop")
     abstract void acknowledged(final long acknowledged);
@@ -23,7 +23,6 @@ import com.hivemq.client.internal.mqtt.ioc.ClientComponent;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
 import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
-import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.reactivex.SingleObserver;
 import io.reactivex.disposables.Disposable;
@@ -46,14 +45,13 @@ public class MqttAckSingle extends Single<Mqtt5PublishResult> {
 
     @Override
     protected void subscribeActual(final @NotNull SingleObserver<? super Mqtt5PublishResult> observer) {
-        if (clientConfig.getState().isConnectedOrReconnect()) {
-            final ClientComponent clientComponent = clientConfig.getClientComponent();
-            final MqttOutgoingQosHandler outgoingQosHandler = clientComponent.outgoingQosHandler();
-            final MqttPublishFlowables publishFlowables = outgoingQosHandler.getPublishFlowables();
+        final ClientComponent clientComponent = clientConfig.getClientComponent();
+        final MqttOutgoingQosHandler outgoingQosHandler = clientComponent.outgoingQosHandler();
 
+        if (clientConfig.getState().isConnectedOrReconnect() || outgoingQosHandler.isOfflineBuffered()) {
             final Flow flow = new Flow(observer, clientConfig, outgoingQosHandler);
             observer.onSubscribe(flow);
-            publishFlowables.add(Flowable.just(new MqttPublishWithFlow(publish, flow)));
+            outgoingQosHandler.publishSingle(new MqttPublishWithFlow(publish, flow));
         } else {
             EmptyDisposable.error(MqttClientStateExceptions.notConnected(), observer);
         }
@@ -79,7 +77,7 @@ public class MqttAckSingle extends Single<Mqtt5PublishResult> {
 
         @CallByThread("Netty EventLoop")
         @Override
-        void onNext(final @NotNull MqttPublishResult result) {
+        void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
             if (result.acknowledged()) {
                 done(result);
             } else {
@@ -106,7 +104,7 @@ public class MqttAckSingle extends Single<Mqtt5PublishResult> {
                     observer.onError(error);
                 }
             }
-            outgoingQosHandler.request(1);
+            outgoingQosHandler.requestSingle(this);
         }
     }
 }
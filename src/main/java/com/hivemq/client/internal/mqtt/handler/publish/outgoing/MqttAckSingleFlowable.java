@@ -47,14 +47,13 @@ public class MqttAckSingleFlowable extends Flowable<Mqtt5PublishResult> {
 
     @Override
     protected void subscribeActual(final @NotNull Subscriber<? super Mqtt5PublishResult> subscriber) {
-        if (clientConfig.getState().isConnectedOrReconnect()) {
-            final ClientComponent clientComponent = clientConfig.getClientComponent();
-            final MqttOutgoingQosHandler outgoingQosHandler = clientComponent.outgoingQosHandler();
-            final MqttPublishFlowables publishFlowables = outgoingQosHandler.getPublishFlowables();
+        final ClientComponent clientComponent = clientConfig.getClientComponent();
+        final MqttOutgoingQosHandler outgoingQosHandler = clientComponent.outgoingQosHandler();
 
+        if (clientConfig.getState().isConnectedOrReconnect() || outgoingQosHandler.isOfflineBuffered()) {
             final Flow flow = new Flow(subscriber, clientConfig, outgoingQosHandler);
             subscriber.onSubscribe(flow);
-            publishFlowables.add(Flowable.just(new MqttPublishWithFlow(publish, flow)));
+            outgoingQosHandler.publishSingle(new MqttPublishWithFlow(publish, flow));
         } else {
             EmptySubscription.error(MqttClientStateExceptions.notConnected(), subscriber);
         }
@@ -86,13 +85,13 @@ public class MqttAckSingleFlowable extends Flowable<Mqtt5PublishResult> {
 
         @CallByThread("Netty EventLoop")
         @Override
-        void onNext(final @NotNull MqttPublishResult result) {
+        void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
             switch (state.get()) {
                 case STATE_NONE:
                     if (state.compareAndSet(STATE_NONE, STATE_RESULT)) {
                         this.result = result;
                     } else {
-                        onNext(result);
+                        onNext(result, batchIndex);
                     }
                     break;
                 case STATE_REQUESTED:
@@ -119,7 +118,7 @@ public class MqttAckSingleFlowable extends Flowable<Mqtt5PublishResult> {
             if (setDone()) {
                 subscriber.onComplete();
             }
-            outgoingQosHandler.request(1);
+            outgoingQosHandler.requestSingle(this);
         }
 
         @Override
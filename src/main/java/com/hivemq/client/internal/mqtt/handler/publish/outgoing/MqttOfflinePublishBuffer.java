@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.persistence.MqttPublishSerializer;
+import com.hivemq.client.internal.mqtt.advanced.persistence.MqttSpillQueue;
+import com.hivemq.client.internal.mqtt.exceptions.MqttClientStateExceptions;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
+import com.hivemq.client.internal.mqtt.util.MqttChecks;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5OfflinePublishOverflowPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Buffer for single publishes and batches of publishes that are published while the client is not connected.
+ * <p>
+ * While the buffer is not empty, all single publishes are added to it even if the client is connected, so that they
+ * are not sent before the buffered publishes. The buffer is drained on the next connection in the order the publishes
+ * were added, limited by the credits of single publishes, so the in-flight window of the connection applies.
+ * <p>
+ * Publishes beyond the memory budget are serialized to a {@link MqttSpillQueue}. Batches are always kept in memory,
+ * as they complete only together.
+ *
+ * @author Silvio Giebl
+ */
+class MqttOfflinePublishBuffer {
+
+    private static final @NotNull InternalLogger LOGGER =
+            InternalLoggerFactory.getLogger(MqttOfflinePublishBuffer.class);
+    private static final @NotNull String SPILL_PREFIX = "offline-publishes";
+    private static final int SPILL_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private final int maxSize;
+    private final long maxBytes;
+    private final long maxMemoryBytes;
+    private final @Nullable Path spillDirectory;
+    private final @NotNull Mqtt5OfflinePublishOverflowPolicy overflowPolicy;
+
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+    private final @NotNull ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private int size;
+    private long bytes;
+    private long memoryBytes;
+    private @Nullable MqttSpillQueue spillQueue;
+    private boolean spillFailed;
+    private boolean connected;
+
+    MqttOfflinePublishBuffer(final @NotNull MqttClientAdvancedConfig advancedConfig) {
+        maxSize = advancedConfig.getOfflinePublishBufferSize();
+        maxBytes = advancedConfig.getOfflinePublishBufferBytes();
+        maxMemoryBytes = advancedConfig.getOfflinePublishBufferMemoryBytes();
+        spillDirectory = advancedConfig.getOfflinePublishSpillDirectory();
+        overflowPolicy = advancedConfig.getOfflinePublishOverflowPolicy();
+    }
+
+    /**
+     * Adds a single publish or a batch of publishes to the buffer if the client is not connected or the buffer is not
+     * empty.
+     * <p>
+     * If the buffer is full, either the added or the oldest buffered publishes are dropped according to the overflow
+     * policy.
+     *
+     * @param publishWithFlow the single publish or the first publish of a batch.
+     * @return whether the publishes were taken by the buffer, <code>false</code> if they can be sent directly.
+     */
+    boolean offer(final @NotNull MqttPublishWithFlow publishWithFlow) {
+        lock.lock();
+        try {
+            if (connected && entries.isEmpty()) {
+                return false;
+            }
+            final MqttAckFlow ackFlow = publishWithFlow.getAckFlow();
+            ackFlow.ingress = MqttAckFlow.INGRESS_OFFLINE;
+            int count = 0;
+            long entryBytes = 0;
+            for (MqttPublishWithFlow current = publishWithFlow; current != null; current = current.nextInBatch) {
+                count++;
+                entryBytes += bytes(current.getPublish());
+            }
+            if ((count > maxSize) || (entryBytes > maxBytes)) {
+                drop(publishWithFlow);
+                return true;
+            }
+            while ((size + count > maxSize) || (bytes + entryBytes > maxBytes)) {
+                if (overflowPolicy == Mqtt5OfflinePublishOverflowPolicy.DROP_NEWEST) {
+                    drop(publishWithFlow);
+                    return true;
+                }
+                drop(poll());
+            }
+            final Entry entry = new Entry(ackFlow, count, entryBytes);
+            if ((memoryBytes + entryBytes <= maxMemoryBytes) || (publishWithFlow.nextInBatch != null) ||
+                    !spill(publishWithFlow.getPublish())) {
+                entry.publishWithFlow = publishWithFlow;
+                memoryBytes += entryBytes;
+            }
+            entries.offer(entry);
+            size += count;
+            bytes += entryBytes;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes the buffered publishes to the consumer in order while the client is connected and credits are available.
+     *
+     * @param credit   acquires a credit for one single publish or batch, returns <code>false</code> if none is
+     *                 available.
+     * @param consumer the consumer of the single publishes or the first publishes of batches.
+     */
+    void drain(final @NotNull BooleanSupplier credit, final @NotNull Consumer<MqttPublishWithFlow> consumer) {
+        lock.lock();
+        try {
+            while (connected && !entries.isEmpty() && credit.getAsBoolean()) {
+                final MqttPublishWithFlow publishWithFlow = poll();
+                publishWithFlow.getAckFlow().ingress = MqttAckFlow.INGRESS_SINGLE_DIRECT;
+                consumer.accept(publishWithFlow);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setConnected(final boolean connected) {
+        lock.lock();
+        try {
+            this.connected = connected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fails all buffered publishes, including the ones spilled to disk, and deletes the spill queue.
+     *
+     * @param cause the cause why the publishes failed.
+     */
+    void clear(final @NotNull Throwable cause) {
+        lock.lock();
+        try {
+            while (!entries.isEmpty()) {
+                fail(poll(), cause);
+            }
+            if (spillQueue != null) {
+                spillQueue.close();
+                spillQueue = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private @NotNull MqttPublishWithFlow poll() {
+        final Entry entry = entries.poll();
+        assert entry != null;
+        size -= entry.count;
+        bytes -= entry.bytes;
+        final MqttPublishWithFlow publishWithFlow = entry.publishWithFlow;
+        if (publishWithFlow != null) {
+            memoryBytes -= entry.bytes;
+            return publishWithFlow;
+        }
+        assert spillQueue != null;
+        final byte[] data = spillQueue.poll();
+        assert data != null;
+        return new MqttPublishWithFlow(MqttChecks.publish(MqttPublishSerializer.deserialize(data, 0)), entry.ackFlow);
+    }
+
+    private boolean spill(final @NotNull MqttPublish publish) {
+        if ((spillDirectory == null) || spillFailed) {
+            return false;
+        }
+        try {
+            if (spillQueue == null) {
+                spillQueue = new MqttSpillQueue(spillDirectory, SPILL_PREFIX, SPILL_SEGMENT_SIZE);
+            }
+            spillQueue.offer(MqttPublishSerializer.serialize(publish, 0));
+            return true;
+        } catch (final IOException e) {
+            spillFailed = true;
+            LOGGER.error("Offline publish buffer could not spill to disk, publishes are only kept in memory.", e);
+            return false;
+        }
+    }
+
+    private static void drop(final @NotNull MqttPublishWithFlow publishWithFlow) {
+        fail(publishWithFlow, MqttClientStateExceptions.offlineBufferFull());
+    }
+
+    /**
+     * Emits the failed results on the event loop of the flow. They are not emitted inline, as a callback that
+     * publishes again would add to the buffer while it is modified.
+     */
+    private static void fail(final @NotNull MqttPublishWithFlow publishWithFlow, final @NotNull Throwable cause) {
+        final MqttAckFlow ackFlow = publishWithFlow.getAckFlow();
+        for (MqttPublishWithFlow current = publishWithFlow; current != null; current = current.nextInBatch) {
+            final MqttPublishResult result = new MqttPublishResult(current.getPublish(), cause);
+            final int batchIndex = current.batchIndex;
+            ackFlow.getEventLoop().execute(() -> ackFlow.onNext(result, batchIndex));
+        }
+    }
+
+    private static long bytes(final @NotNull MqttPublish publish) {
+        final ByteBuffer payload = publish.getRawPayload();
+        return publish.getTopic().encodedLength() + ((payload == null) ? 0 : payload.remaining());
+    }
+
+    private static class Entry {
+
+        final @NotNull MqttAckFlow ackFlow;
+        final int count;
+        final long bytes;
+        @Nullable MqttPublishWithFlow publishWithFlow;
+
+        Entry(final @NotNull MqttAckFlow ackFlow, final int count, final long bytes) {
+            this.ackFlow = ackFlow;
+            this.count = count;
+            this.bytes = bytes;
+        }
+    }
+}
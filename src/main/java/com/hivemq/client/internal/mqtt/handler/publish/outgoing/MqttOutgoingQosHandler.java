@@ -21,13 +21,16 @@ import com.hivemq.client.internal.logging.InternalLogger;
 import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.advanced.interceptor.MqttClientInterceptors;
+import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertiesImpl;
 import com.hivemq.client.internal.mqtt.exceptions.MqttClientStateExceptions;
 import com.hivemq.client.internal.mqtt.handler.MqttSessionAwareHandler;
+import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectEvent;
 import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttPubRelWithFlow.MqttQos2CompleteWithFlow;
 import com.hivemq.client.internal.mqtt.handler.publish.outgoing.MqttPubRelWithFlow.MqttQos2IntermediateWithFlow;
-import com.hivemq.client.internal.mqtt.handler.subscribe.MqttSubscriptionHandler;
+import com.hivemq.client.internal.mqtt.handler.util.MqttStoreSync;
 import com.hivemq.client.internal.mqtt.ioc.ClientScope;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
@@ -41,6 +44,7 @@ import com.hivemq.client.internal.mqtt.message.publish.pubcomp.MqttPubComp;
 import com.hivemq.client.internal.mqtt.message.publish.pubrec.MqttPubRec;
 import com.hivemq.client.internal.mqtt.message.publish.pubrel.MqttPubRel;
 import com.hivemq.client.internal.mqtt.message.publish.pubrel.MqttPubRelBuilder;
+import com.hivemq.client.internal.mqtt.util.MqttChecks;
 import com.hivemq.client.internal.netty.ContextFuture;
 import com.hivemq.client.internal.netty.DefaultContextPromise;
 import com.hivemq.client.internal.util.Ranges;
@@ -50,23 +54,29 @@ import com.hivemq.client.internal.util.collections.NodeList;
 import com.hivemq.client.mqtt.MqttClientState;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
 import com.hivemq.client.mqtt.exceptions.ConnectionClosedException;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.qos1.Mqtt5OutgoingQos1Interceptor;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.qos2.Mqtt5OutgoingQos2Interceptor;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
 import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5PubAckException;
 import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5PubRecException;
 import com.hivemq.client.mqtt.mqtt5.message.disconnect.Mqtt5DisconnectReasonCode;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.pubrel.Mqtt5PubRelReasonCode;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.EventLoop;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableSubscriber;
-import org.jctools.queues.SpscUnboundedArrayQueue;
+import org.jctools.queues.MpscUnboundedArrayQueue;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Subscription;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish.NO_PACKET_IDENTIFIER_QOS_0;
@@ -82,15 +92,32 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     private static final @NotNull InternalLogger LOGGER = InternalLoggerFactory.getLogger(MqttOutgoingQosHandler.class);
     private static final IntIndex.@NotNull Spec<MqttPubOrRelWithFlow> INDEX_SPEC =
             new IntIndex.Spec<>(x -> x.packetIdentifier);
-    private static final int MAX_CONCURRENT_PUBLISH_FLOWABLES = 64; // TODO configurable
-    private static final boolean QOS_2_COMPLETE_RESULT = false; // TODO configurable
 
     private final @NotNull MqttClientConfig clientConfig;
     private final @NotNull MqttPublishFlowables publishFlowables;
+    private final int maxConcurrentPublishFlowables;
+    private final boolean qos2CompleteResult;
+    private final int subscribePipeliningDepth;
+    private final @Nullable MqttClientMetrics metrics;
+    private final @Nullable Mqtt5OutgoingPublishStore store;
+    private final @Nullable MqttStoreSync storeSync;
+    private boolean storeLoaded;
+    // messages written since the last flush, only sent after the store is synced, see flush
+    private final @NotNull ArrayList<Object> unsyncedMessages = new ArrayList<>();
+    private final @NotNull ArrayList<MqttPublishWithFlow> unsyncedPublishes = new ArrayList<>();
+    private boolean unsyncedRemoves;
+    // QoS 0 publishes do not depend on the store, so they are written directly and only need a flush
+    private boolean unflushedQos0;
+    private final @Nullable MqttOfflinePublishBuffer offlineBuffer;
+
+    // single publishes that bypass the publish flowables while credits are available, see publishSingle
+    private final @NotNull AtomicInteger directCredits = new AtomicInteger();
+    private final @NotNull AtomicInteger flowablesSingles = new AtomicInteger();
 
     // valid for session
-    private final @NotNull SpscUnboundedArrayQueue<MqttPublishWithFlow> queue = new SpscUnboundedArrayQueue<>(32);
+    private final @NotNull MpscUnboundedArrayQueue<MqttPublishWithFlow> queue = new MpscUnboundedArrayQueue<>(32);
     private final @NotNull AtomicInteger queuedCounter = new AtomicInteger();
+    private @Nullable MqttPublishWithFlow batchRemainder; // batch is counted in queuedCounter until fully dequeued
     private final @NotNull NodeList<MqttPubOrRelWithFlow> pending = new NodeList<>();
     private final @NotNull Ranges packetIdentifiers = new Ranges(1, 0);
 
@@ -108,6 +135,81 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     MqttOutgoingQosHandler(final @NotNull MqttClientConfig clientConfig) {
         this.clientConfig = clientConfig;
         publishFlowables = new MqttPublishFlowables();
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+        maxConcurrentPublishFlowables = advancedConfig.getMaxConcurrentPublishFlowables();
+        qos2CompleteResult = advancedConfig.isQos2CompleteResult();
+        subscribePipeliningDepth = advancedConfig.getSubscribePipeliningDepth();
+        metrics = clientConfig.getRawMetrics();
+        store = advancedConfig.getOutgoingPublishStore();
+        storeSync = (store == null) ? null : new MqttStoreSync(store::sync);
+        offlineBuffer = (advancedConfig.getOfflinePublishBufferSize() == 0) ? null :
+                new MqttOfflinePublishBuffer(advancedConfig);
+    }
+
+    /**
+     * Loads the outgoing publish store once before the first session is started or resumed.
+     * <p>
+     * If the server still has the session, the stored publishes and pubrels are resent with their packet identifiers.
+     * Otherwise the stored publishes are queued as new publishes and the pubrels are dropped, because the server
+     * already received their publishes.
+     *
+     * @param sessionPresent whether the server still has the session.
+     */
+    @CallByThread("Netty EventLoop")
+    public void loadStore(final boolean sessionPresent) {
+        final Mqtt5OutgoingPublishStore store = this.store;
+        if ((store == null) || storeLoaded) {
+            return;
+        }
+        storeLoaded = true;
+
+        final MqttRestoredAckFlow ackFlow = new MqttRestoredAckFlow(clientConfig);
+        final BitSet restoredIds = new BitSet();
+        store.load(new Mqtt5OutgoingPublishStore.Loader() {
+            @Override
+            public void onPublish(final int packetIdentifier, final @NotNull Mqtt5Publish publish) {
+                final MqttPublishWithFlow publishWithFlow =
+                        new MqttPublishWithFlow(MqttChecks.publish(publish), ackFlow);
+                ackFlow.add();
+                if (sessionPresent) {
+                    publishWithFlow.packetIdentifier = packetIdentifier;
+                    pending.add(publishWithFlow);
+                    restoredIds.set(packetIdentifier);
+                } else {
+                    queue.offer(publishWithFlow);
+                    queuedCounter.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onPubRel(final int packetIdentifier) {
+                if (sessionPresent) {
+                    final MqttQos2IntermediateWithFlow pubRelWithFlow = new MqttQos2IntermediateWithFlow(
+                            new MqttPubRel(packetIdentifier, Mqtt5PubRelReasonCode.SUCCESS, null,
+                                    MqttUserPropertiesImpl.NO_USER_PROPERTIES), ackFlow);
+                    pubRelWithFlow.getAsBoolean(); // the intermediate result was already emitted before the restart
+                    pubRelWithFlow.packetIdentifier = packetIdentifier;
+                    ackFlow.add();
+                    pending.add(pubRelWithFlow);
+                    restoredIds.set(packetIdentifier);
+                }
+            }
+        });
+        if (!sessionPresent) {
+            store.clear();
+        } else if (!restoredIds.isEmpty()) {
+            // no packet identifiers are in use yet, so all up to the highest restored one are taken in order
+            final int maxPacketIdentifier = restoredIds.length() - 1;
+            packetIdentifiers.resize(maxPacketIdentifier);
+            for (int packetIdentifier = 1; packetIdentifier <= maxPacketIdentifier; packetIdentifier++) {
+                packetIdentifiers.getId();
+            }
+            for (int packetIdentifier = restoredIds.nextClearBit(1); packetIdentifier < maxPacketIdentifier;
+                 packetIdentifier = restoredIds.nextClearBit(packetIdentifier + 1)) {
+                packetIdentifiers.returnId(packetIdentifier);
+            }
+        }
+        ackFlow.loaded();
     }
 
     @Override
@@ -116,12 +218,17 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
 
         final int oldSendMaximum = sendMaximum;
         final int newSendMaximum = Math.min(connectionConfig.getSendMaximum(),
-                UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE - MqttSubscriptionHandler.MAX_SUB_PENDING);
+                UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE - subscribePipeliningDepth);
         sendMaximum = newSendMaximum;
         packetIdentifiers.resize(newSendMaximum);
+        directCredits.addAndGet(newSendMaximum - oldSendMaximum);
         if (oldSendMaximum == 0) {
-            publishFlowables.flatMap(
-                    f -> f, true, MAX_CONCURRENT_PUBLISH_FLOWABLES, Math.min(newSendMaximum, Flowable.bufferSize()))
+            // flatMap can not be resized, so the adaptive concurrency is sized from the send maximum of the first
+            // connection: every message that may be in-flight can originate from a different publish flowable
+            final int maxConcurrency = (maxConcurrentPublishFlowables ==
+                    MqttClientAdvancedConfig.ADAPTIVE_MAX_CONCURRENT_PUBLISH_FLOWABLES) ? newSendMaximum :
+                    maxConcurrentPublishFlowables;
+            publishFlowables.flatMap(f -> f, true, maxConcurrency, Math.min(newSendMaximum, Flowable.bufferSize()))
                     .subscribe(this);
             assert subscription != null;
             subscription.request(newSendMaximum);
@@ -144,6 +251,11 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         }
 
         super.onSessionStartOrResume(connectionConfig, eventLoop);
+
+        if (offlineBuffer != null) {
+            offlineBuffer.setConnected(true);
+            drainOfflineBuffer();
+        }
     }
 
     @Override
@@ -151,9 +263,71 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         this.subscription = subscription;
     }
 
+    /**
+     * Queues a single publish or a batch of publishes.
+     * <p>
+     * While credits are available, the publish is queued directly, bypassing the global publish flowables and their
+     * monitor. Otherwise, or if a previous single publish is still on its way through the publish flowables (to
+     * preserve ordering), it is added to the publish flowables which apply backpressure.
+     * <p>
+     * If the {@link MqttOfflinePublishBuffer} is enabled, it takes the publish while the client is not connected or
+     * previously buffered publishes are not yet drained.
+     *
+     * @param publishWithFlow the single publish or the first publish of a batch.
+     */
+    void publishSingle(final @NotNull MqttPublishWithFlow publishWithFlow) {
+        if ((offlineBuffer != null) && offlineBuffer.offer(publishWithFlow)) {
+            return;
+        }
+        final MqttAckFlow ackFlow = publishWithFlow.getAckFlow();
+        if ((flowablesSingles.get() == 0) && acquireDirectCredit()) {
+            ackFlow.ingress = MqttAckFlow.INGRESS_SINGLE_DIRECT;
+            onNext(publishWithFlow);
+        } else {
+            ackFlow.ingress = MqttAckFlow.INGRESS_SINGLE_FLOWABLES;
+            flowablesSingles.incrementAndGet();
+            if (!publishFlowables.add(Flowable.just(publishWithFlow))) {
+                flowablesSingles.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return whether single publishes are accepted while the client is not connected.
+     */
+    boolean isOfflineBuffered() {
+        return offlineBuffer != null;
+    }
+
+    /**
+     * Drains the offline buffer as long as direct credits are available and no single publish is on its way through
+     * the publish flowables, which would be overtaken otherwise.
+     */
+    private void drainOfflineBuffer() {
+        assert offlineBuffer != null;
+        offlineBuffer.drain(() -> (flowablesSingles.get() == 0) && acquireDirectCredit(), this::onNext);
+    }
+
+    private boolean acquireDirectCredit() {
+        while (true) {
+            final int credits = directCredits.get();
+            if (credits <= 0) {
+                return false;
+            }
+            if (directCredits.compareAndSet(credits, credits - 1)) {
+                return true;
+            }
+        }
+    }
+
     @Override
     public void onNext(final @NotNull MqttPublishWithFlow publishWithFlow) {
         queue.offer(publishWithFlow);
+        if (publishWithFlow.getAckFlow().ingress == MqttAckFlow.INGRESS_SINGLE_FLOWABLES) {
+            if ((flowablesSingles.decrementAndGet() == 0) && (offlineBuffer != null)) {
+                drainOfflineBuffer();
+            }
+        }
         if (queuedCounter.getAndIncrement() == 0) {
             publishWithFlow.getAckFlow().getEventLoop().execute(this);
         }
@@ -169,6 +343,18 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         LOGGER.error("MqttPublishFlowables is global and must never error. This must not happen and is a bug.", t);
     }
 
+    @CallByThread("Netty EventLoop")
+    void requestSingle(final @NotNull MqttAckFlow ackFlow) {
+        if (ackFlow.ingress == MqttAckFlow.INGRESS_SINGLE_DIRECT) {
+            directCredits.incrementAndGet();
+            if (offlineBuffer != null) {
+                drainOfflineBuffer();
+            }
+        } else if (ackFlow.ingress != MqttAckFlow.INGRESS_OFFLINE) {
+            request(1);
+        }
+    }
+
     @CallByThread("Netty EventLoop")
     void request(final long n) {
         assert subscription != null;
@@ -208,23 +394,42 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         }
         int dequeued = 0;
         while ((written < maxWrites) && channel.isWritable()) {
-            final MqttPublishWithFlow publishWithFlow = queue.poll();
+            final MqttPublishWithFlow publishWithFlow = pollQueued();
             if (publishWithFlow == null) {
                 break;
             }
             writePublish(ctx, publishWithFlow);
             written++;
-            dequeued++;
+            if (batchRemainder == null) {
+                dequeued++;
+            }
         }
         if (written > 0) {
             final boolean wasWritable = channel.isWritable();
-            ctx.flush();
-            if ((dequeued > 0) && (queuedCounter.addAndGet(-dequeued) > 0) && wasWritable) {
+            flush(ctx);
+            if (metrics != null) {
+                metrics.onInFlight(pendingIndex.size(), sendMaximum);
+            }
+            final int queued = (dequeued > 0) ? queuedCounter.addAndGet(-dequeued) : queuedCounter.get();
+            if ((queued > 0) && wasWritable) {
                 channel.eventLoop().execute(this);
             }
         }
     }
 
+    @CallByThread("Netty EventLoop")
+    private @Nullable MqttPublishWithFlow pollQueued() {
+        MqttPublishWithFlow publishWithFlow = batchRemainder;
+        if (publishWithFlow == null) {
+            publishWithFlow = queue.poll();
+            if (publishWithFlow == null) {
+                return null;
+            }
+        }
+        batchRemainder = publishWithFlow.nextInBatch;
+        return publishWithFlow;
+    }
+
     @Override
     public void channelWritabilityChanged(final @NotNull ChannelHandlerContext ctx) {
         final Channel channel = ctx.channel();
@@ -238,6 +443,10 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubOrRelWithFlow pubOrRelWithFlow) {
 
         pendingIndex.put(pubOrRelWithFlow);
+        if (metrics != null) {
+            // restored messages were never sent by this client, resent messages measure from the resend
+            pubOrRelWithFlow.sentNanoTime = System.nanoTime();
+        }
         if (pubOrRelWithFlow instanceof MqttPublishWithFlow) {
             final MqttPublishWithFlow publishWithFlow = (MqttPublishWithFlow) pubOrRelWithFlow;
             final MqttStatefulPublish publish = publishWithFlow.getPublish()
@@ -252,7 +461,11 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     private void writePublish(
             final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPublishWithFlow publishWithFlow) {
 
-        if (publishWithFlow.getPublish().getQos() == MqttQos.AT_MOST_ONCE) {
+        final MqttQos qos = publishWithFlow.getPublish().getQos();
+        if (metrics != null) {
+            metrics.onPublishSent(qos);
+        }
+        if (qos == MqttQos.AT_MOST_ONCE) {
             writeQos0Publish(ctx, publishWithFlow);
         } else {
             writeQos1Or2Publish(ctx, publishWithFlow);
@@ -262,8 +475,8 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     private void writeQos0Publish(
             final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPublishWithFlow publishWithFlow) {
 
-        ctx.write(publishWithFlow.getPublish().createStateful(NO_PACKET_IDENTIFIER_QOS_0, false, topicAliasMapping),
-                new DefaultContextPromise<>(ctx.channel(), publishWithFlow)).addListener(this);
+        write(ctx, publishWithFlow.getPublish().createStateful(NO_PACKET_IDENTIFIER_QOS_0, false, topicAliasMapping),
+                publishWithFlow);
     }
 
     @Override
@@ -273,9 +486,10 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         final MqttAckFlow ackFlow = publishWithFlow.getAckFlow();
         final Throwable cause = future.cause();
         if (!(cause instanceof IOException)) {
-            ackFlow.onNext(new MqttPublishResult(publish, cause));
+            ackFlow.onNext(new MqttPublishResult(publish, cause), publishWithFlow.batchIndex);
         } else {
-            ackFlow.onNext(new MqttPublishResult(publish, new ConnectionClosedException(cause)));
+            ackFlow.onNext(new MqttPublishResult(publish, new ConnectionClosedException(cause)),
+                    publishWithFlow.batchIndex);
             future.channel().pipeline().fireExceptionCaught(cause);
         }
     }
@@ -289,8 +503,14 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             return;
         }
         publishWithFlow.packetIdentifier = packetIdentifier;
+        if (metrics != null) {
+            publishWithFlow.sentNanoTime = System.nanoTime();
+        }
         pendingIndex.put(publishWithFlow);
         pending.add(publishWithFlow);
+        if (store != null) {
+            store.storePublish(packetIdentifier, publishWithFlow.getPublish());
+        }
 
         writeQos1Or2Publish(ctx,
                 publishWithFlow.getPublish().createStateful(packetIdentifier, false, topicAliasMapping),
@@ -302,9 +522,109 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             final @NotNull MqttStatefulPublish publish,
             final @NotNull MqttPublishWithFlow publishWithFlow) {
 
-        currentPending = publishWithFlow;
-        ctx.write(publish, ctx.voidPromise());
-        currentPending = null;
+        write(ctx, publish, publishWithFlow);
+    }
+
+    /**
+     * Writes a message, or defers it until the next {@link #flush(ChannelHandlerContext) flush} if the outgoing publish
+     * store is set and the message is a QoS 1 or 2 PUBLISH or a PUBREL.
+     * <p>
+     * QoS 0 PUBLISH messages are never deferred, so they neither wait for the sync nor pile up on the heap while the
+     * channel still seems writable. Ordering is only guaranteed per QoS level anyway.
+     *
+     * @param ctx             the channel handler context.
+     * @param message         the PUBLISH or PUBREL message.
+     * @param publishWithFlow the publish with flow of a PUBLISH message, <code>null</code> for a PUBREL message.
+     */
+    private void write(
+            final @NotNull ChannelHandlerContext ctx,
+            final @NotNull Object message,
+            final @Nullable MqttPublishWithFlow publishWithFlow) {
+
+        if (storeSync == null) {
+            send(ctx, message, publishWithFlow);
+        } else if ((publishWithFlow != null) && (publishWithFlow.getPublish().getQos() == MqttQos.AT_MOST_ONCE)) {
+            send(ctx, message, publishWithFlow);
+            unflushedQos0 = true;
+        } else {
+            unsyncedMessages.add(message);
+            unsyncedPublishes.add(publishWithFlow);
+        }
+    }
+
+    private void send(
+            final @NotNull ChannelHandlerContext ctx,
+            final @NotNull Object message,
+            final @Nullable MqttPublishWithFlow publishWithFlow) {
+
+        if (publishWithFlow == null) {
+            ctx.write(message, ctx.voidPromise());
+        } else if (publishWithFlow.getPublish().getQos() == MqttQos.AT_MOST_ONCE) {
+            ctx.write(message, new DefaultContextPromise<>(ctx.channel(), publishWithFlow)).addListener(this);
+        } else {
+            currentPending = publishWithFlow;
+            ctx.write(message, ctx.voidPromise());
+            currentPending = null;
+        }
+    }
+
+    /**
+     * Flushes the written messages.
+     * <p>
+     * If the outgoing publish store is set, the deferred messages are only sent after the store is synced, so the
+     * state they depend on is durable before the server receives them. The sync blocks until the changes are written
+     * to disk, so it is run on a separate thread and all messages which are flushed in the meantime share the next
+     * sync.
+     *
+     * @param ctx the channel handler context.
+     */
+    private void flush(final @NotNull ChannelHandlerContext ctx) {
+        final MqttStoreSync storeSync = this.storeSync;
+        if (storeSync == null) {
+            ctx.flush();
+            return;
+        }
+        if (unflushedQos0) {
+            unflushedQos0 = false;
+            ctx.flush();
+        }
+        final boolean removes = unsyncedRemoves;
+        unsyncedRemoves = false;
+        if (unsyncedMessages.isEmpty()) {
+            if (removes) {
+                storeSync.sync();
+            }
+            return;
+        }
+        final Object[] messages = unsyncedMessages.toArray();
+        final MqttPublishWithFlow[] publishes = unsyncedPublishes.toArray(new MqttPublishWithFlow[0]);
+        unsyncedMessages.clear();
+        unsyncedPublishes.clear();
+        storeSync.afterSync(ctx.channel().eventLoop(), () -> sendSynced(ctx, messages, publishes));
+    }
+
+    @CallByThread("Netty EventLoop")
+    private void sendSynced(
+            final @NotNull ChannelHandlerContext ctx,
+            final @NotNull Object @NotNull [] messages,
+            final @Nullable MqttPublishWithFlow @NotNull [] publishes) {
+
+        if (this.ctx != ctx) {
+            // the connection ended during the sync: pending QoS 1 and 2 messages are resent on the next connection
+            // or failed when the session ends, QoS 0 messages are not sent
+            for (final MqttPublishWithFlow publishWithFlow : publishes) {
+                if ((publishWithFlow != null) && (publishWithFlow.getPublish().getQos() == MqttQos.AT_MOST_ONCE)) {
+                    publishWithFlow.getAckFlow()
+                            .onNext(new MqttPublishResult(publishWithFlow.getPublish(),
+                                    MqttClientStateExceptions.notConnected()), publishWithFlow.batchIndex);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < messages.length; i++) {
+            send(ctx, messages[i], publishes[i]);
+        }
+        ctx.flush();
     }
 
     @Override
@@ -320,6 +640,15 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         }
     }
 
+    @Override
+    public void channelReadComplete(final @NotNull ChannelHandlerContext ctx) {
+        if (unsyncedRemoves) {
+            // the removals do not delay any message, but must not be replayed after a restart
+            flush(ctx);
+        }
+        ctx.fireChannelReadComplete();
+    }
+
     private void readPubAck(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubAck pubAck) {
         final int packetIdentifier = pubAck.getPacketIdentifier();
         final MqttPubOrRelWithFlow removed = pendingIndex.remove(packetIdentifier);
@@ -342,12 +671,15 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         }
 
         completePending(ctx, publishWithFlow);
+        if ((metrics != null) && (publishWithFlow.sentNanoTime != 0)) {
+            metrics.onPublishAcknowledged(MqttQos.AT_LEAST_ONCE, System.nanoTime() - publishWithFlow.sentNanoTime);
+        }
 
         onPubAck(publish, pubAck);
 
         final Throwable t = (pubAck.getReasonCode().isError()) ?
                 new Mqtt5PubAckException(pubAck, "PUBACK contained an Error Code") : null;
-        publishWithFlow.getAckFlow().onNext(new MqttQos1Result(publish, t, pubAck));
+        publishWithFlow.getAckFlow().onNext(new MqttQos1Result(publish, t, pubAck), publishWithFlow.batchIndex);
     }
 
     private void readPubRec(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubRec pubRec) {
@@ -377,35 +709,41 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             onPubRecError(publish, pubRec);
 
             final Throwable t = new Mqtt5PubRecException(pubRec, "PUBREC contained an Error Code");
-            ackFlow.onNext(new MqttQos2Result(publish, t, pubRec));
+            ackFlow.onNext(new MqttQos2Result(publish, t, pubRec), publishWithFlow.batchIndex);
 
         } else {
             final MqttPubRel pubRel = buildPubRel(publish, pubRec);
 
-            if (QOS_2_COMPLETE_RESULT) {
+            if (qos2CompleteResult) {
                 replacePending(publishWithFlow, new MqttQos2CompleteWithFlow(publish, pubRec, pubRel, ackFlow));
             } else {
                 final MqttQos2IntermediateWithFlow pubRelWithFlow = new MqttQos2IntermediateWithFlow(pubRel, ackFlow);
                 replacePending(publishWithFlow, pubRelWithFlow);
 
-                ackFlow.onNext(new MqttQos2IntermediateResult(publish, pubRec, pubRelWithFlow));
+                ackFlow.onNext(new MqttQos2IntermediateResult(publish, pubRec, pubRelWithFlow),
+                        publishWithFlow.batchIndex);
             }
 
             writePubRel(ctx, pubRel);
-            ctx.flush();
+            flush(ctx);
         }
     }
 
     private void writePubRel(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubRel pubRel) {
-        ctx.write(pubRel, ctx.voidPromise());
+        write(ctx, pubRel, null);
     }
 
     private void replacePending(
             final @NotNull MqttPublishWithFlow publishWithFlow, final @NotNull MqttPubRelWithFlow pubRelWithFlow) {
 
         pubRelWithFlow.packetIdentifier = publishWithFlow.packetIdentifier;
+        pubRelWithFlow.sentNanoTime = publishWithFlow.sentNanoTime;
+        pubRelWithFlow.batchIndex = publishWithFlow.batchIndex;
         pendingIndex.put(pubRelWithFlow);
         pending.replace(publishWithFlow, pubRelWithFlow);
+        if (store != null) {
+            store.storePubRel(pubRelWithFlow.packetIdentifier);
+        }
     }
 
     private void readPubComp(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttPubComp pubComp) {
@@ -431,12 +769,16 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         final MqttAckFlow ackFlow = pubRelWithFlow.getAckFlow();
 
         completePending(ctx, pubRelWithFlow);
+        if ((metrics != null) && (pubRelWithFlow.sentNanoTime != 0)) {
+            metrics.onPublishAcknowledged(MqttQos.EXACTLY_ONCE, System.nanoTime() - pubRelWithFlow.sentNanoTime);
+        }
 
         onPubComp(pubRel, pubComp);
 
-        if (QOS_2_COMPLETE_RESULT) {
+        if (pubRelWithFlow instanceof MqttQos2CompleteWithFlow) { // restored pubrels are always intermediate
             final MqttQos2CompleteWithFlow complete = (MqttQos2CompleteWithFlow) pubRelWithFlow;
-            ackFlow.onNext(new MqttQos2CompleteResult(complete.getPublish(), complete.getPubRec(), pubRel, pubComp));
+            ackFlow.onNext(new MqttQos2CompleteResult(complete.getPublish(), complete.getPubRec(), pubRel, pubComp),
+                    complete.batchIndex);
         } else {
             final MqttQos2IntermediateWithFlow intermediate = (MqttQos2IntermediateWithFlow) pubRelWithFlow;
             if (intermediate.getAsBoolean()) {
@@ -451,12 +793,17 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         pending.remove(oldPending);
 
         final int packetIdentifier = oldPending.packetIdentifier;
+        if (store != null) {
+            store.remove(packetIdentifier);
+            unsyncedRemoves = true;
+        }
         packetIdentifiers.returnId(packetIdentifier);
         if (packetIdentifier > sendMaximum) {
             packetIdentifiers.resize(sendMaximum);
         }
 
-        if (resendPending != null) {
+        // a batch only consumes one request, so queued messages may be waiting for the send maximum
+        if ((resendPending != null) || ((pendingIndex.size() + 1 >= sendMaximum) && (queuedCounter.get() > 0))) {
             ctx.channel().eventLoop().execute(this);
         }
     }
@@ -465,7 +812,8 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     public void exceptionCaught(final @NotNull ChannelHandlerContext ctx, final @NotNull Throwable cause) {
         if (!(cause instanceof IOException) && (currentPending != null)) {
             pendingIndex.remove(currentPending.packetIdentifier);
-            currentPending.getAckFlow().onNext(new MqttPublishResult(currentPending.getPublish(), cause));
+            currentPending.getAckFlow()
+                    .onNext(new MqttPublishResult(currentPending.getPublish(), cause), currentPending.batchIndex);
             completePending(ctx, currentPending);
             currentPending = null;
         } else {
@@ -473,6 +821,15 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
         }
     }
 
+    @Override
+    protected void onDisconnectEvent(
+            final @NotNull ChannelHandlerContext ctx, final @NotNull MqttDisconnectEvent disconnectEvent) {
+
+        if (offlineBuffer != null) {
+            offlineBuffer.setConnected(false);
+        }
+    }
+
     @Override
     public void onSessionEnd(final @NotNull Throwable cause) {
         super.onSessionEnd(cause);
@@ -488,11 +845,15 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             packetIdentifiers.returnId(current.packetIdentifier);
             if (current instanceof MqttPublishWithFlow) {
                 final MqttPublishWithFlow publishWithFlow = (MqttPublishWithFlow) current;
-                current.getAckFlow().onNext(new MqttPublishResult(publishWithFlow.getPublish(), cause));
-            } else if (QOS_2_COMPLETE_RESULT) {
+                current.getAckFlow()
+                        .onNext(new MqttPublishResult(publishWithFlow.getPublish(), cause), current.batchIndex);
+            } else if (current instanceof MqttQos2CompleteWithFlow) {
+                // the server already received the publish, but without a PUBCOMP the complete result can not be
+                // emitted, so the PUBREC is emitted together with the cause why the flow could not be completed
                 final MqttQos2CompleteWithFlow complete = (MqttQos2CompleteWithFlow) current;
-                current.getAckFlow().onNext(new MqttQos2Result(complete.getPublish(), cause, complete.getPubRec()));
-                // TODO actually not an error, default PubComp?
+                current.getAckFlow()
+                        .onNext(new MqttQos2Result(complete.getPublish(), cause, complete.getPubRec()),
+                                current.batchIndex);
             } else {
                 final MqttQos2IntermediateWithFlow intermediate = (MqttQos2IntermediateWithFlow) current;
                 if (intermediate.getAsBoolean()) {
@@ -501,7 +862,13 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
             }
         }
         pending.clear();
+        if (store != null) {
+            store.clear();
+        }
         clearQueued(cause);
+        if (offlineBuffer != null) {
+            offlineBuffer.clear(cause);
+        }
     }
 
     private boolean isRepublishIfSessionExpired() {
@@ -511,7 +878,7 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
     private void clearQueued(final @NotNull Throwable cause) {
         int polled = 0;
         while (true) {
-            final MqttPublishWithFlow publishWithFlow = queue.poll();
+            final MqttPublishWithFlow publishWithFlow = pollQueued();
             if (publishWithFlow == null) {
                 if (queuedCounter.addAndGet(-polled) == 0) {
                     break;
@@ -520,8 +887,11 @@ public class MqttOutgoingQosHandler extends MqttSessionAwareHandler
                     continue;
                 }
             }
-            publishWithFlow.getAckFlow().onNext(new MqttPublishResult(publishWithFlow.getPublish(), cause));
-            polled++;
+            publishWithFlow.getAckFlow()
+                    .onNext(new MqttPublishResult(publishWithFlow.getPublish(), cause), publishWithFlow.batchIndex);
+            if (batchRemainder == null) {
+                polled++;
+            }
         }
     }
 
@@ -26,6 +26,8 @@ abstract class MqttPubOrRelWithFlow extends NodeList.Node<MqttPubOrRelWithFlow>
 
     private final @NotNull MqttAckFlow ackFlow;
     int packetIdentifier;
+    int batchIndex; // position of the publish in its batch, 0 if it is not part of a batch
+    long sentNanoTime; // only set if metrics are enabled, 0 if not sent yet
 
     MqttPubOrRelWithFlow(final @NotNull MqttAckFlow ackFlow) {
         this.ackFlow = ackFlow;
@@ -26,6 +26,9 @@ import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * @author Silvio Giebl
  */
@@ -36,6 +39,9 @@ public class MqttPublishFlowables extends Flowable<Flowable<MqttPublishWithFlow>
 
     private @Nullable Subscriber<? super Flowable<MqttPublishWithFlow>> subscriber;
     private long requested;
+    // a lock instead of a monitor, so that threads waiting for requests do not pin the carrier of a virtual thread
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+    private final @NotNull Condition requestedCondition = lock.newCondition();
 
     MqttPublishFlowables() {}
 
@@ -46,29 +52,36 @@ public class MqttPublishFlowables extends Flowable<Flowable<MqttPublishWithFlow>
         s.onSubscribe(this);
     }
 
-    public void add(final @NotNull Flowable<MqttPublishWithFlow> publishFlowable) {
-        synchronized (this) {
+    public boolean add(final @NotNull Flowable<MqttPublishWithFlow> publishFlowable) {
+        lock.lock();
+        try {
             while (requested == 0) {
                 try {
-                    this.wait();
+                    requestedCondition.await();
                 } catch (final InterruptedException e) {
                     LOGGER.error("thread interrupted while waiting to publish.", e);
-                    return;
+                    return false;
                 }
             }
             assert subscriber != null;
             subscriber.onNext(publishFlowable);
             requested--;
+            return true;
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void request(final long n) {
-        synchronized (this) {
+        lock.lock();
+        try {
             requested = BackpressureHelper.addCap(requested, n);
             if (requested == n) {
-                this.notifyAll();
+                requestedCondition.signalAll();
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -18,6 +18,7 @@ package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
 
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * @author Silvio Giebl
@@ -25,6 +26,7 @@ import org.jetbrains.annotations.NotNull;
 class MqttPublishWithFlow extends MqttPubOrRelWithFlow {
 
     private final @NotNull MqttPublish publish;
+    @Nullable MqttPublishWithFlow nextInBatch;
 
     MqttPublishWithFlow(final @NotNull MqttPublish publish, final @NotNull MqttAckFlow ackFlow) {
         super(ackFlow);
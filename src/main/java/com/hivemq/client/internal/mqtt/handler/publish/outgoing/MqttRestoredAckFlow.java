@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.annotations.CallByThread;
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flow of the publishes which were restored from an outgoing publish store after a restart, so their results can not
+ * be emitted to the original publisher. Errors are only logged.
+ * <p>
+ * The flow is done when all restored publishes are acknowledged.
+ *
+ * @author Silvio Giebl
+ */
+class MqttRestoredAckFlow extends MqttAckFlow {
+
+    private static final @NotNull InternalLogger LOGGER = InternalLoggerFactory.getLogger(MqttRestoredAckFlow.class);
+
+    private long remaining;
+
+    MqttRestoredAckFlow(final @NotNull MqttClientConfig clientConfig) {
+        super(clientConfig);
+        init();
+    }
+
+    @CallByThread("Netty EventLoop")
+    void add() {
+        remaining++;
+    }
+
+    @CallByThread("Netty EventLoop")
+    void loaded() {
+        if (remaining == 0) {
+            setDone();
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    @Override
+    void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
+        final Throwable error = result.getRawError();
+        if (error != null) {
+            LOGGER.warn("Restored publish {} failed: {}", result.getPublish(), error);
+        }
+        if (result.acknowledged()) {
+            acknowledged(1);
+        }
+    }
+
+    @CallByThread("Netty EventLoop")
+    @Override
+    void acknowledged(final long acknowledged) {
+        remaining -= acknowledged;
+        if (remaining == 0) {
+            setDone();
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
 
 import com.hivemq.client.internal.mqtt.datatypes.MqttTopicImpl;
 import com.hivemq.client.internal.util.collections.Index;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,10 +34,11 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
     private static final byte OVERWRITE_COST_MIN = 2;
     private static final byte OVERWRITE_COST_MAX = 126;
     private static final byte OVERWRITE_COST_INC = 2;
-    private static final Index.@NotNull Spec<Entry, String> INDEX_SPEC = new Index.Spec<>(entry -> entry.topic);
+    private static final Index.@NotNull Spec<Entry, MqttTopicImpl> INDEX_SPEC = new Index.Spec<>(entry -> entry.topic);
 
     private final int topicAliasMaximum;
-    private final @NotNull Index<Entry, String> map = new Index<>(INDEX_SPEC);
+    private final @Nullable MqttClientMetrics metrics;
+    private final @NotNull Index<Entry, MqttTopicImpl> map = new Index<>(INDEX_SPEC);
     private @Nullable Entry lowest; // entry with lowest priority
     private long accessCounter; // strictly incremented
     private byte overwriteTries;
@@ -44,8 +46,9 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
     private byte fullOverwriteTries;
     private byte fullOverwriteCost = OVERWRITE_COST_MIN;
 
-    public MqttTopicAliasAutoMapping(final int topicAliasMaximum) {
+    public MqttTopicAliasAutoMapping(final int topicAliasMaximum, final @Nullable MqttClientMetrics metrics) {
         this.topicAliasMaximum = topicAliasMaximum;
+        this.metrics = metrics;
     }
 
     @Override
@@ -56,8 +59,7 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
     @Override
     public int onPublish(final @NotNull MqttTopicImpl topic) {
         final long accessCounter = ++this.accessCounter;
-        final String topicString = topic.toString();
-        final Entry entry = map.get(topicString);
+        final Entry entry = map.get(topic);
         if (entry != null) { // entry already present
             entry.access(accessCounter);
             if (entry.topicAlias != DEFAULT_NO_TOPIC_ALIAS) {
@@ -76,9 +78,9 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
                 }
             }
             swapNewer(entry, accessCounter);
-            return entry.topicAlias; // topic alias is 0 if entry is part of oversize
+            return count(entry.topicAlias); // topic alias is 0 if entry is part of oversize
         }
-        final Entry newEntry = new Entry(topicString, accessCounter);
+        final Entry newEntry = new Entry(topic, accessCounter);
         if (map.size() < topicAliasMaximum + OVERSIZE) {
             if (map.size() < topicAliasMaximum) { // still unused topic aliases available
                 newEntry.setNewTopicAlias(map.size() + 1);
@@ -92,10 +94,10 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
             final Entry lowest = this.lowest;
             assert lowest != null;
             if (newEntry.priority(accessCounter) <= lowest.priority(accessCounter)) {
-                return DEFAULT_NO_TOPIC_ALIAS;
+                return count(DEFAULT_NO_TOPIC_ALIAS);
             }
             if (++fullOverwriteTries < fullOverwriteCost) {
-                return DEFAULT_NO_TOPIC_ALIAS;
+                return count(DEFAULT_NO_TOPIC_ALIAS);
             }
             fullOverwriteTries = 0;
             if (fullOverwriteCost < OVERWRITE_COST_MAX) {
@@ -103,6 +105,7 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
             }
             if (lowest.topicAlias != DEFAULT_NO_TOPIC_ALIAS) {
                 newEntry.setNewTopicAlias(lowest.topicAlias);
+                countOverwrite();
             }
             map.remove(lowest.topic);
             map.put(newEntry);
@@ -114,7 +117,26 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
         }
         lowest = newEntry;
         swapNewer(newEntry, accessCounter);
-        return newEntry.topicAlias;
+        return count(newEntry.topicAlias);
+    }
+
+    private int count(final int topicAlias) {
+        final MqttClientMetrics metrics = this.metrics;
+        if ((metrics == null) || ((topicAlias & TOPIC_ALIAS_FLAG_NEW) != 0)) {
+            return topicAlias; // new topic aliases are neither hits nor misses as the topic is still sent
+        }
+        if (topicAlias == DEFAULT_NO_TOPIC_ALIAS) {
+            metrics.onTopicAliasMiss();
+        } else {
+            metrics.onTopicAliasHit();
+        }
+        return topicAlias;
+    }
+
+    private void countOverwrite() {
+        if (metrics != null) {
+            metrics.onTopicAliasOverwrite();
+        }
     }
 
     private void swapNewer(final @NotNull Entry entry, final long accessCounter) {
@@ -139,6 +161,7 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
                 }
                 entry.setNewTopicAlias(higher.topicAlias);
                 higher.topicAlias = DEFAULT_NO_TOPIC_ALIAS;
+                countOverwrite();
             }
             final Entry higherHigher = higher.higher;
             higher.higher = entry;
@@ -175,14 +198,14 @@ public class MqttTopicAliasAutoMapping implements MqttTopicAliasMapping {
 
     static class Entry {
 
-        final @NotNull String topic;
+        final @NotNull MqttTopicImpl topic;
         int topicAlias;
         private long used; // number of accesses, decays over time
         private long access; // stamp when the entry was last accessed
         @Nullable Entry higher; // entry with the next higher priority
         @Nullable Entry lower; // entry with the next lower priority
 
-        Entry(final @NotNull String topic, final long accessCounter) {
+        Entry(final @NotNull MqttTopicImpl topic, final long accessCounter) {
             this.topic = topic;
             topicAlias = DEFAULT_NO_TOPIC_ALIAS;
             used = 1;
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.ssl;
+
+import com.hivemq.client.internal.annotations.ThreadSafe;
+import com.hivemq.client.internal.mqtt.MqttClientSslConfigImpl;
+import io.netty.handler.ssl.SslContext;
+import org.jetbrains.annotations.NotNull;
+
+import javax.net.ssl.SSLException;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of SSL contexts shared by all clients with equal secure transport configurations.
+ * <p>
+ * Every SSL context has a client session cache that is keyed by the host and port of the server, as the engines are
+ * created with the peer host and port. Sharing the SSL contexts also shares these session caches, so a client can
+ * resume a TLS session that another client with an equal configuration established to the same server before.
+ * <p>
+ * Entries are removed when no client references the secure transport configuration anymore.
+ *
+ * @author Silvio Giebl
+ */
+@ThreadSafe
+final class MqttSslContextCache {
+
+    private static final @NotNull Map<MqttClientSslConfigImpl, SslContext> CONTEXTS = new WeakHashMap<>();
+
+    static @NotNull SslContext get(final @NotNull MqttClientSslConfigImpl sslConfig) throws SSLException {
+        synchronized (CONTEXTS) {
+            SslContext sslContext = CONTEXTS.get(sslConfig);
+            if (sslContext == null) {
+                sslContext = MqttSslInitializer.createSslContext(sslConfig);
+                CONTEXTS.put(sslConfig, sslContext);
+            }
+            return sslContext;
+        }
+    }
+
+    private MqttSslContextCache() {}
+}
@@ -16,14 +16,14 @@
 
 package com.hivemq.client.internal.mqtt.handler.ssl;
 
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientSslConfigImpl;
+import com.hivemq.client.internal.util.ClassUtil;
 import com.hivemq.client.internal.util.collections.ImmutableList;
 import io.netty.channel.Channel;
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.SslHandler;
-import io.netty.handler.ssl.SupportedCipherSuiteFilter;
+import io.netty.handler.ssl.*;
 import org.jetbrains.annotations.NotNull;
 
 import javax.net.ssl.HostnameVerifier;
@@ -40,7 +40,21 @@ import java.util.function.Consumer;
  */
 public final class MqttSslInitializer {
 
+    private static final @NotNull InternalLogger LOGGER = InternalLoggerFactory.getLogger(MqttSslInitializer.class);
+
     private static final @NotNull String SSL_HANDLER_NAME = "ssl";
+    private static final int SESSION_CACHE_SIZE = 1024;
+    private static final long SESSION_TIMEOUT_S = 24 * 60 * 60;
+
+    static final boolean OPENSSL_AVAILABLE =
+            ClassUtil.isAvailable("io.netty.internal.tcnative.SSL") && OpenSslHolder.isAvailable();
+
+    private static class OpenSslHolder {
+
+        private static boolean isAvailable() {
+            return OpenSsl.isAvailable();
+        }
+    }
 
     public static void initChannel(
             final @NotNull Channel channel,
@@ -55,7 +69,7 @@ public final class MqttSslInitializer {
         try {
             SslContext sslContext = clientConfig.getCurrentSslContext();
             if (sslContext == null) {
-                sslContext = createSslContext(sslConfig);
+                sslContext = MqttSslContextCache.get(sslConfig);
                 clientConfig.setCurrentSslContext(sslContext);
             }
             sslHandler = sslContext.newHandler(channel.alloc(), serverAddress.getHostString(), serverAddress.getPort());
@@ -89,10 +103,22 @@ public final class MqttSslInitializer {
         channel.pipeline().addLast(SSL_HANDLER_NAME, sslHandler);
     }
 
+    static @NotNull SslProvider sslProvider(final @NotNull MqttClientSslConfigImpl sslConfig) {
+        return (sslConfig.isOpenSsl() && OPENSSL_AVAILABLE) ? SslProvider.OPENSSL : SslProvider.JDK;
+    }
+
     static @NotNull SslContext createSslContext(final @NotNull MqttClientSslConfigImpl sslConfig) throws SSLException {
         final ImmutableList<String> protocols = sslConfig.getRawProtocols();
 
+        if (sslConfig.isOpenSsl() && !OPENSSL_AVAILABLE) {
+            LOGGER.warn("OpenSSL engine is not available, using the SSL/TLS implementation of the JDK instead.");
+        }
+        // the session cache of the context is keyed by host and port as the engines are created with the peer host and
+        // port, so connections to the same server can resume the previous session
         return SslContextBuilder.forClient()
+                .sslProvider(sslProvider(sslConfig))
+                .sessionCacheSize(SESSION_CACHE_SIZE)
+                .sessionTimeout(SESSION_TIMEOUT_S)
                 .trustManager(sslConfig.getRawTrustManagerFactory())
                 .keyManager(sslConfig.getRawKeyManagerFactory())
                 .protocols((protocols == null) ? null : protocols.toArray(new String[0]))
@@ -30,6 +30,11 @@ class MqttSubscribeWithFlow extends MqttSubOrUnsubWithFlow {
     final int subscriptionIdentifier;
     private final @Nullable MqttSubscriptionFlow<MqttSubAck> flow;
 
+    // subscribe calls that are coalesced into the Subscribe message of this one, see MqttSubscriptionHandler#coalesce
+    @Nullable MqttSubscribeWithFlow nextCoalesced;
+    @Nullable MqttSubscribeWithFlow lastCoalesced;
+    int coalescedLength;
+
     MqttSubscribeWithFlow(
             final @NotNull MqttSubscribe subscribe,
             final int subscriptionIdentifier,
@@ -21,7 +21,9 @@ import com.hivemq.client.internal.logging.InternalLogger;
 import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
 import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertiesImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
 import com.hivemq.client.internal.mqtt.handler.MqttSessionAwareHandler;
 import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
 import com.hivemq.client.internal.mqtt.handler.publish.incoming.MqttGlobalIncomingPublishFlow;
@@ -31,6 +33,7 @@ import com.hivemq.client.internal.mqtt.ioc.ClientScope;
 import com.hivemq.client.internal.mqtt.message.MqttCommonReasonCode;
 import com.hivemq.client.internal.mqtt.message.subscribe.MqttStatefulSubscribe;
 import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscribe;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscription;
 import com.hivemq.client.internal.mqtt.message.subscribe.suback.MqttSubAck;
 import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttStatefulUnsubscribe;
 import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribe;
@@ -66,10 +69,14 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
             InternalLoggerFactory.getLogger(MqttSubscriptionHandler.class);
     private static final IntIndex.@NotNull Spec<MqttSubOrUnsubWithFlow> INDEX_SPEC =
             new IntIndex.Spec<>(x -> x.packetIdentifier, 4);
-    public static final int MAX_SUB_PENDING = 10; // TODO configurable
+    // fixed header, packet identifier, property length and subscription identifier of a Subscribe message
+    private static final int SUBSCRIBE_OVERHEAD = 1 + 4 + 2 + 4 + 5;
 
     private final @NotNull MqttClientConfig clientConfig;
     private final @NotNull MqttIncomingPublishFlows incomingPublishFlows;
+    private final int pipeliningDepth;
+    private final boolean coalescing;
+    private final boolean subscriptionIdentifierRouting;
 
     // valid for session
     private final @NotNull NodeList<MqttSubOrUnsubWithFlow> pending = new NodeList<>();
@@ -80,6 +87,7 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
     private final @NotNull IntIndex<MqttSubOrUnsubWithFlow> pendingIndex = new IntIndex<>(INDEX_SPEC);
     private @Nullable MqttSubOrUnsubWithFlow sendPending, currentPending;
     private boolean subscriptionIdentifiersAvailable;
+    private int maximumPacketSize = MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT;
 
     @Inject
     MqttSubscriptionHandler(
@@ -88,9 +96,13 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
 
         this.clientConfig = clientConfig;
         this.incomingPublishFlows = incomingPublishFlows;
+        final MqttClientAdvancedConfig advancedConfig = clientConfig.getAdvancedConfig();
+        pipeliningDepth = advancedConfig.getSubscribePipeliningDepth();
+        coalescing = advancedConfig.isSubscribeCoalescing();
+        subscriptionIdentifierRouting = advancedConfig.isSubscriptionIdentifierRouting();
 
         final int maxPacketIdentifier = UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE;
-        final int minPacketIdentifier = UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE - MAX_SUB_PENDING + 1;
+        final int minPacketIdentifier = UnsignedDataTypes.UNSIGNED_SHORT_MAX_VALUE - pipeliningDepth + 1;
         packetIdentifiers = new Ranges(minPacketIdentifier, maxPacketIdentifier);
     }
 
@@ -99,6 +111,7 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
             final @NotNull MqttClientConnectionConfig connectionConfig, final @NotNull EventLoop eventLoop) {
 
         subscriptionIdentifiersAvailable = connectionConfig.areSubscriptionIdentifiersAvailable();
+        maximumPacketSize = connectionConfig.getSendMaximumPacketSize();
 
         if (!hasSession) {
             incomingPublishFlows.getSubscriptions().forEach((subscriptionIdentifier, subscriptions) -> {
@@ -122,14 +135,82 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
 
         flow.getEventLoop().execute(() -> {
             if (flow.init()) {
+                final MqttSubscribeWithFlow subscribeWithFlow = coalesce(subscribe, flow);
+                if (subscribeWithFlow != null) {
+                    incomingPublishFlows.subscribe(subscribe, subscribeWithFlow.subscriptionIdentifier,
+                            publishFlow(flow));
+                    return;
+                }
                 final int subscriptionIdentifier = nextSubscriptionIdentifier++;
-                incomingPublishFlows.subscribe(subscribe, subscriptionIdentifier,
-                        (flow instanceof MqttSubscribedPublishFlow) ? (MqttSubscribedPublishFlow) flow : null);
+                incomingPublishFlows.subscribe(subscribe, subscriptionIdentifier, publishFlow(flow));
                 queue(new MqttSubscribeWithFlow(subscribe, subscriptionIdentifier, flow));
             }
         });
     }
 
+    /**
+     * Merges a subscribe call into the last queued Subscribe message if coalescing is enabled.
+     * <p>
+     * Only a Subscribe message that is not sent yet and has the same user properties is extended, as long as the
+     * merged message does not exceed the maximum packet size of the server. The merged subscribe calls share the
+     * subscription identifier of the Subscribe message, so with subscription identifier routing they must also share
+     * the publish flow.
+     *
+     * @param subscribe the Subscribe message of the subscribe call.
+     * @param flow      the flow of the subscribe call.
+     * @return the queued Subscribe message the subscribe call was merged into or <code>null</code> if it was not
+     *         merged.
+     */
+    private @Nullable MqttSubscribeWithFlow coalesce(
+            final @NotNull MqttSubscribe subscribe, final @NotNull MqttSubscriptionFlow<MqttSubAck> flow) {
+
+        if (!coalescing) {
+            return null;
+        }
+        final MqttSubOrUnsubWithFlow last = pending.getLast();
+        if (!(last instanceof MqttSubscribeWithFlow) || (last.packetIdentifier != 0)) {
+            return null;
+        }
+        final MqttSubscribeWithFlow first = (MqttSubscribeWithFlow) last;
+        final MqttSubscriptionFlow<MqttSubAck> firstFlow = first.getFlow();
+        if ((firstFlow == null) || !first.subscribe.getUserProperties().equals(subscribe.getUserProperties()) ||
+                (subscriptionIdentifierRouting && (publishFlow(firstFlow) != publishFlow(flow)))) {
+            return null;
+        }
+        if (first.nextCoalesced == null) {
+            first.coalescedLength = encodedLength(first.subscribe);
+        }
+        final int coalescedLength = first.coalescedLength + encodedLength(subscribe);
+        if (coalescedLength + first.subscribe.getUserProperties().encodedLength() + SUBSCRIBE_OVERHEAD >
+                maximumPacketSize) {
+            return null;
+        }
+        final MqttSubscribeWithFlow subscribeWithFlow =
+                new MqttSubscribeWithFlow(subscribe, first.subscriptionIdentifier, flow);
+        if (first.lastCoalesced == null) {
+            first.nextCoalesced = subscribeWithFlow;
+        } else {
+            first.lastCoalesced.nextCoalesced = subscribeWithFlow;
+        }
+        first.lastCoalesced = subscribeWithFlow;
+        first.coalescedLength = coalescedLength;
+        return first;
+    }
+
+    private static @Nullable MqttSubscribedPublishFlow publishFlow(final @NotNull MqttSubscriptionFlow<?> flow) {
+        return (flow instanceof MqttSubscribedPublishFlow) ? (MqttSubscribedPublishFlow) flow : null;
+    }
+
+    private static int encodedLength(final @NotNull MqttSubscribe subscribe) {
+        final ImmutableList<MqttSubscription> subscriptions = subscribe.getSubscriptions();
+        int encodedLength = 0;
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < subscriptions.size(); i++) {
+            encodedLength += subscriptions.get(i).getTopicFilter().encodedLength() + 1; // + subscription options
+        }
+        return encodedLength;
+    }
+
     public void unsubscribe(
             final @NotNull MqttUnsubscribe unsubscribe, final @NotNull MqttSubOrUnsubAckFlow<MqttUnsubAck> flow) {
 
@@ -165,7 +246,7 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
         }
         int written = 0;
         for (MqttSubOrUnsubWithFlow subOrUnsubWithFlow = sendPending;
-             (subOrUnsubWithFlow != null) && (pendingIndex.size() < MAX_SUB_PENDING);
+             (subOrUnsubWithFlow != null) && (pendingIndex.size() < pipeliningDepth);
              sendPending = subOrUnsubWithFlow = subOrUnsubWithFlow.getNext()) {
 
             if (subOrUnsubWithFlow.packetIdentifier == 0) {
@@ -195,8 +276,16 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
 
         final int subscriptionIdentifier = subscriptionIdentifiersAvailable ? subscribeWithFlow.subscriptionIdentifier :
                 MqttStatefulSubscribe.DEFAULT_NO_SUBSCRIPTION_IDENTIFIER;
+        MqttSubscribe subscribe = subscribeWithFlow.subscribe;
+        if (subscribeWithFlow.nextCoalesced != null) {
+            final ImmutableList.Builder<MqttSubscription> subscriptions = ImmutableList.builder();
+            for (MqttSubscribeWithFlow current = subscribeWithFlow; current != null; current = current.nextCoalesced) {
+                subscriptions.addAll(current.subscribe.getSubscriptions());
+            }
+            subscribe = new MqttSubscribe(subscriptions.build(), subscribe.getUserProperties());
+        }
         final MqttStatefulSubscribe statefulSubscribe =
-                subscribeWithFlow.subscribe.createStateful(subscribeWithFlow.packetIdentifier, subscriptionIdentifier);
+                subscribe.createStateful(subscribeWithFlow.packetIdentifier, subscriptionIdentifier);
 
         currentPending = subscribeWithFlow;
         ctx.write(statefulSubscribe, ctx.voidPromise());
@@ -239,13 +328,59 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
             return;
         }
         final MqttSubscribeWithFlow subscribeWithFlow = (MqttSubscribeWithFlow) subOrUnsubWithFlow;
+
+        if (subscribeWithFlow.nextCoalesced == null) {
+            onSubAck(subscribeWithFlow, subAck, subAck.getReasonCodes());
+        } else {
+            final ImmutableList<Mqtt5SubAckReasonCode> reasonCodes = subAck.getReasonCodes();
+            int count = 0;
+            for (MqttSubscribeWithFlow current = subscribeWithFlow; current != null; current = current.nextCoalesced) {
+                count += current.subscribe.getSubscriptions().size();
+            }
+            if (count != reasonCodes.size()) {
+                // not fanned out, so the Reason Codes do not match the count of subscriptions of any subscribe call
+                for (MqttSubscribeWithFlow current = subscribeWithFlow; current != null;
+                     current = current.nextCoalesced) {
+                    onSubAck(current, subAck, ImmutableList.of(Mqtt5SubAckReasonCode.UNSPECIFIED_ERROR));
+                }
+            } else {
+                int index = 0;
+                for (MqttSubscribeWithFlow current = subscribeWithFlow; current != null;
+                     current = current.nextCoalesced) {
+                    final int size = current.subscribe.getSubscriptions().size();
+                    onSubAck(current, new MqttSubAck(subAck.getPacketIdentifier(),
+                            reasonCodes.subList(index, index + size), subAck.getRawReasonString(),
+                            subAck.getUserProperties()), null);
+                    index += size;
+                }
+            }
+        }
+
+        completePending(subscribeWithFlow);
+    }
+
+    /**
+     * Passes the SubAck message to one subscribe call.
+     *
+     * @param subscribeWithFlow the subscribe call.
+     * @param subAck            the SubAck message for the subscriptions of the subscribe call.
+     * @param errorReasonCodes  the Reason Codes if the SubAck message does not match the subscribe call, otherwise
+     *                          <code>null</code>.
+     */
+    private void onSubAck(
+            final @NotNull MqttSubscribeWithFlow subscribeWithFlow,
+            final @NotNull MqttSubAck subAck,
+            final @Nullable ImmutableList<Mqtt5SubAckReasonCode> errorReasonCodes) {
+
         final MqttSubscriptionFlow<MqttSubAck> flow = subscribeWithFlow.getFlow();
 
         final ImmutableList<Mqtt5SubAckReasonCode> reasonCodes = subAck.getReasonCodes();
-        final boolean countNotMatching = subscribeWithFlow.subscribe.getSubscriptions().size() != reasonCodes.size();
+        final boolean countNotMatching = (errorReasonCodes != null) ||
+                (subscribeWithFlow.subscribe.getSubscriptions().size() != reasonCodes.size());
         final boolean allErrors = MqttCommonReasonCode.allErrors(subAck.getReasonCodes());
 
-        incomingPublishFlows.subAck(subscribeWithFlow.subscribe, subscribeWithFlow.subscriptionIdentifier, reasonCodes);
+        incomingPublishFlows.subAck(subscribeWithFlow.subscribe, subscribeWithFlow.subscriptionIdentifier,
+                (errorReasonCodes != null) ? errorReasonCodes : reasonCodes);
 
         if (flow != null) {
             if (!(countNotMatching || allErrors)) {
@@ -268,8 +403,6 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
                 }
             }
         }
-
-        completePending(subscribeWithFlow);
     }
 
     private void readUnsubAck(final @NotNull ChannelHandlerContext ctx, final @NotNull MqttUnsubAck unsubAck) {
@@ -331,15 +464,21 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
             packetIdentifiers.returnId(currentPending.packetIdentifier);
             pendingIndex.remove(currentPending.packetIdentifier);
 
-            final MqttSubscriptionFlow<?> flow = currentPending.getFlow();
-            if (flow != null) {
-                flow.onError(cause);
-            }
-
             if (currentPending instanceof MqttSubscribeWithFlow) {
-                final MqttSubscribeWithFlow subscribeWithFlow = (MqttSubscribeWithFlow) currentPending;
-                incomingPublishFlows.subAck(subscribeWithFlow.subscribe, subscribeWithFlow.subscriptionIdentifier,
-                        ImmutableList.of(Mqtt5SubAckReasonCode.UNSPECIFIED_ERROR));
+                for (MqttSubscribeWithFlow current = (MqttSubscribeWithFlow) currentPending; current != null;
+                     current = current.nextCoalesced) {
+                    final MqttSubscriptionFlow<?> flow = current.getFlow();
+                    if (flow != null) {
+                        flow.onError(cause);
+                    }
+                    incomingPublishFlows.subAck(current.subscribe, current.subscriptionIdentifier,
+                            ImmutableList.of(Mqtt5SubAckReasonCode.UNSPECIFIED_ERROR));
+                }
+            } else {
+                final MqttSubscriptionFlow<?> flow = currentPending.getFlow();
+                if (flow != null) {
+                    flow.onError(cause);
+                }
             }
 
             currentPending = null;
@@ -372,6 +511,15 @@ public class MqttSubscriptionHandler extends MqttSessionAwareHandler implements
             if (flow != null) {
                 flow.onError(cause);
             }
+            if (current instanceof MqttSubscribeWithFlow) {
+                for (MqttSubscribeWithFlow coalesced = ((MqttSubscribeWithFlow) current).nextCoalesced;
+                     coalesced != null; coalesced = coalesced.nextCoalesced) {
+                    final MqttSubscriptionFlow<?> coalescedFlow = coalesced.getFlow();
+                    if (coalescedFlow != null) {
+                        coalescedFlow.onError(cause);
+                    }
+                }
+            }
         }
         pending.clear();
         nextSubscriptionIdentifier = 1;
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.util;
+
+import com.hivemq.client.internal.annotations.ThreadSafe;
+import com.hivemq.client.internal.logging.InternalLogger;
+import com.hivemq.client.internal.logging.InternalLoggerFactory;
+import io.netty.channel.EventLoop;
+import io.reactivex.schedulers.Schedulers;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Syncs a store on a separate thread, as a sync blocks until the changes are written to disk and must not stall the
+ * event loop.
+ * <p>
+ * Actions which must only happen after the changes made so far are durable, for example sending the messages which
+ * depend on them, are run on the event loop after a sync which was started after they were added. Syncs do not
+ * overlap: sync requests and actions which are added while a sync is in progress share the next sync, so syncs are
+ * grouped under load.
+ *
+ * @author Silvio Giebl
+ */
+@ThreadSafe
+public class MqttStoreSync {
+
+    private static final @NotNull InternalLogger LOGGER = InternalLoggerFactory.getLogger(MqttStoreSync.class);
+
+    private final @NotNull Runnable sync;
+    private final @NotNull Executor executor;
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+    private @Nullable EventLoop eventLoop;
+    private @NotNull ArrayList<Runnable> actions = new ArrayList<>();
+    private boolean requested;
+    private boolean syncing;
+
+    public MqttStoreSync(final @NotNull Runnable sync) {
+        this(sync, Schedulers.io()::scheduleDirect);
+    }
+
+    MqttStoreSync(final @NotNull Runnable sync, final @NotNull Executor executor) {
+        this.sync = sync;
+        this.executor = executor;
+    }
+
+    /**
+     * Requests a sync of all changes made before this call.
+     */
+    public void sync() {
+        request(null, null);
+    }
+
+    /**
+     * Runs the action on the event loop after all changes made before this call are durable.
+     *
+     * @param eventLoop the event loop to run the action on.
+     * @param action    the action to run after the sync.
+     */
+    public void afterSync(final @NotNull EventLoop eventLoop, final @NotNull Runnable action) {
+        request(eventLoop, action);
+    }
+
+    private void request(final @Nullable EventLoop eventLoop, final @Nullable Runnable action) {
+        lock.lock();
+        try {
+            if (action != null) {
+                this.eventLoop = eventLoop;
+                actions.add(action);
+            }
+            requested = true;
+            if (syncing) {
+                return;
+            }
+            syncing = true;
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(this::syncRequested);
+    }
+
+    private void syncRequested() {
+        while (true) {
+            final EventLoop eventLoop;
+            final ArrayList<Runnable> actions;
+            lock.lock();
+            try {
+                if (!requested) {
+                    syncing = false;
+                    return;
+                }
+                requested = false;
+                eventLoop = this.eventLoop;
+                actions = this.actions;
+                this.eventLoop = null;
+                this.actions = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                sync.run();
+            } catch (final Throwable t) {
+                LOGGER.error("Store could not be synced.", t);
+            }
+            if (eventLoop != null) {
+                try {
+                    eventLoop.execute(() -> {
+                        for (int i = 0; i < actions.size(); i++) {
+                            actions.get(i).run();
+                        }
+                    });
+                } catch (final Throwable t) {
+                    LOGGER.error("Actions after a store sync could not be executed.", t);
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hivemq.client.internal.mqtt.ioc;
 
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.handler.MqttChannelInitializer;
 import com.hivemq.client.internal.mqtt.handler.auth.MqttAuthHandler;
 import com.hivemq.client.internal.mqtt.handler.auth.MqttConnectAuthHandler;
@@ -35,9 +36,12 @@ import org.jetbrains.annotations.NotNull;
 abstract class ConnectionModule {
 
     @Provides
-    static @NotNull Bootstrap provideBootstrap(final @NotNull MqttChannelInitializer channelInitializer) {
-        return new Bootstrap().channelFactory(NettyEventLoopProvider.INSTANCE.getChannelFactory())
-                .handler(channelInitializer);
+    static @NotNull Bootstrap provideBootstrap(
+            final @NotNull MqttClientConfig clientConfig, final @NotNull MqttChannelInitializer channelInitializer) {
+
+        final NettyEventLoopProvider eventLoopProvider =
+                NettyEventLoopProvider.of(clientConfig.getExecutorConfig().getRawNettyTransport());
+        return new Bootstrap().channelFactory(eventLoopProvider.getChannelFactory()).handler(channelInitializer);
     }
 
     @Provides
@@ -61,6 +61,7 @@ public class MqttPublish extends MqttMessageWithUserProperties implements Mqtt5P
     private final @Nullable ByteBuffer correlationData;
 
     private final @Nullable Confirmable confirmable;
+    private final @Nullable MqttPublishPayloadBuffer payloadBuffer;
 
     public MqttPublish(
             final @NotNull MqttTopicImpl topic,
@@ -75,6 +76,24 @@ public class MqttPublish extends MqttMessageWithUserProperties implements Mqtt5P
             final @NotNull MqttUserPropertiesImpl userProperties,
             final @Nullable Confirmable confirmable) {
 
+        this(topic, payload, qos, retain, messageExpiryInterval, payloadFormatIndicator, contentType, responseTopic,
+                correlationData, userProperties, confirmable, null);
+    }
+
+    public MqttPublish(
+            final @NotNull MqttTopicImpl topic,
+            final @Nullable ByteBuffer payload,
+            final @NotNull MqttQos qos,
+            final boolean retain,
+            final long messageExpiryInterval,
+            final @Nullable Mqtt5PayloadFormatIndicator payloadFormatIndicator,
+            final @Nullable MqttUtf8StringImpl contentType,
+            final @Nullable MqttTopicImpl responseTopic,
+            final @Nullable ByteBuffer correlationData,
+            final @NotNull MqttUserPropertiesImpl userProperties,
+            final @Nullable Confirmable confirmable,
+            final @Nullable MqttPublishPayloadBuffer payloadBuffer) {
+
         super(userProperties);
         this.topic = topic;
         this.payload = payload;
@@ -86,6 +105,7 @@ public class MqttPublish extends MqttMessageWithUserProperties implements Mqtt5P
         this.responseTopic = responseTopic;
         this.correlationData = correlationData;
         this.confirmable = confirmable;
+        this.payloadBuffer = payloadBuffer;
     }
 
     @Override
@@ -173,6 +193,18 @@ public class MqttPublish extends MqttMessageWithUserProperties implements Mqtt5P
         if (!confirmable.confirm()) {
             throw new IllegalStateException("A publish must not be acknowledged more than once");
         }
+        releasePayload();
+    }
+
+    @Override
+    public void releasePayload() {
+        if (payloadBuffer != null) {
+            payloadBuffer.release();
+        }
+    }
+
+    public @Nullable MqttPublishPayloadBuffer getPayloadBuffer() {
+        return payloadBuffer;
     }
 
     @Override
@@ -204,7 +236,16 @@ public class MqttPublish extends MqttMessageWithUserProperties implements Mqtt5P
 
     public @NotNull MqttPublish withConfirmable(final @NotNull Confirmable confirmable) {
         return new MqttPublish(topic, payload, qos, retain, messageExpiryInterval, payloadFormatIndicator, contentType,
-                responseTopic, correlationData, getUserProperties(), confirmable);
+                responseTopic, correlationData, getUserProperties(), confirmable,
+                (payloadBuffer == null) ? null : payloadBuffer.retain());
+    }
+
+    public @NotNull MqttPublish withRetainedPayload() {
+        if (payloadBuffer == null) {
+            return this;
+        }
+        return new MqttPublish(topic, payload, qos, retain, messageExpiryInterval, payloadFormatIndicator, contentType,
+                responseTopic, correlationData, getUserProperties(), confirmable, payloadBuffer.retain());
     }
 
     @Override
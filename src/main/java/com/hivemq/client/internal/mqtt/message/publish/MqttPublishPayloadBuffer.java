@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.message.publish;
+
+import com.hivemq.client.internal.annotations.ThreadSafe;
+import io.netty.util.ReferenceCounted;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reference to the network buffer backing the payload of an incoming Publish message if zero-copy payloads are enabled.
+ * Every reference releases the buffer at most once.
+ *
+ * @author Silvio Giebl
+ */
+@ThreadSafe
+public class MqttPublishPayloadBuffer {
+
+    private final @NotNull ReferenceCounted buffer;
+    private final @NotNull AtomicBoolean released = new AtomicBoolean(false);
+
+    public MqttPublishPayloadBuffer(final @NotNull ReferenceCounted buffer) {
+        this.buffer = buffer;
+    }
+
+    public @NotNull MqttPublishPayloadBuffer retain() {
+        return new MqttPublishPayloadBuffer(buffer.retain());
+    }
+
+    public boolean release() {
+        if (released.compareAndSet(false, true)) {
+            buffer.release();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isReleased() {
+        return released.get();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.metrics;
+
+import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetricsRecorder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Silvio Giebl
+ */
+public class MqttClientMetricsRecorderImpl implements MqttClientMetricsRecorder {
+
+    private final @NotNull LongAdder @NotNull [] publishesSent = createCounters(3);
+    private final @NotNull LongAdder @NotNull [] publishesReceived = createCounters(3);
+    private volatile int inFlight;
+    private final @NotNull AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int sendMaximum;
+    private final @NotNull LongAdder @NotNull [] qos1LatencyHistogram = createCounters(LATENCY_HISTOGRAM_BUCKETS);
+    private final @NotNull LongAdder @NotNull [] qos2LatencyHistogram = createCounters(LATENCY_HISTOGRAM_BUCKETS);
+    private volatile int incomingQos0Queued;
+    private volatile int incomingQos1Or2Queued;
+    private final @NotNull LongAdder qos0Dropped = new LongAdder();
+    private final @NotNull LongAdder topicAliasHits = new LongAdder();
+    private final @NotNull LongAdder topicAliasMisses = new LongAdder();
+    private final @NotNull LongAdder topicAliasOverwrites = new LongAdder();
+    private final @NotNull LongAdder bytesEncoded = new LongAdder();
+    private final @NotNull LongAdder bytesDecoded = new LongAdder();
+    private final @NotNull LongAdder flushes = new LongAdder();
+    private final @NotNull LongAdder flushRequests = new LongAdder();
+    private final @NotNull LongAdder reconnects = new LongAdder();
+
+    private static @NotNull LongAdder @NotNull [] createCounters(final int count) {
+        final LongAdder[] counters = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    @Override
+    public void onPublishSent(final @NotNull MqttQos qos) {
+        publishesSent[qos.getCode()].increment();
+    }
+
+    @Override
+    public void onPublishReceived(final @NotNull MqttQos qos) {
+        publishesReceived[qos.getCode()].increment();
+    }
+
+    @Override
+    public void onInFlight(final int inFlight, final int sendMaximum) {
+        this.inFlight = inFlight;
+        this.sendMaximum = sendMaximum;
+        int maxInFlight;
+        while (inFlight > (maxInFlight = this.maxInFlight.get())) {
+            if (this.maxInFlight.compareAndSet(maxInFlight, inFlight)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void onPublishAcknowledged(final @NotNull MqttQos qos, final long latencyNanos) {
+        final long latencyMicros = latencyNanos / 1000;
+        final int bucket = (latencyMicros <= 1) ? 0 :
+                Math.min(63 - Long.numberOfLeadingZeros(latencyMicros), LATENCY_HISTOGRAM_BUCKETS - 1);
+        latencyHistogram(qos)[bucket].increment();
+    }
+
+    @Override
+    public void onIncomingQueued(final int qos0Queued, final int qos1Or2Queued) {
+        incomingQos0Queued = qos0Queued;
+        incomingQos1Or2Queued = qos1Or2Queued;
+    }
+
+    @Override
+    public void onQos0Dropped() {
+        qos0Dropped.increment();
+    }
+
+    @Override
+    public void onTopicAliasHit() {
+        topicAliasHits.increment();
+    }
+
+    @Override
+    public void onTopicAliasMiss() {
+        topicAliasMisses.increment();
+    }
+
+    @Override
+    public void onTopicAliasOverwrite() {
+        topicAliasOverwrites.increment();
+    }
+
+    @Override
+    public void onBytesEncoded(final int bytes) {
+        bytesEncoded.add(bytes);
+    }
+
+    @Override
+    public void onBytesDecoded(final int bytes) {
+        bytesDecoded.add(bytes);
+    }
+
+    @Override
+    public void onFlush(final int writes, final int flushRequests) {
+        flushes.increment();
+        this.flushRequests.add(flushRequests);
+    }
+
+    @Override
+    public void onReconnect() {
+        reconnects.increment();
+    }
+
+    @Override
+    public long getPublishesSent(final @NotNull MqttQos qos) {
+        return publishesSent[Checks.notNull(qos, "QoS").getCode()].sum();
+    }
+
+    @Override
+    public long getPublishesReceived(final @NotNull MqttQos qos) {
+        return publishesReceived[Checks.notNull(qos, "QoS").getCode()].sum();
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public int getSendMaximum() {
+        return sendMaximum;
+    }
+
+    @Override
+    public long @NotNull [] getAcknowledgementLatencyHistogram(final @NotNull MqttQos qos) {
+        Checks.notNull(qos, "QoS");
+        if (qos == MqttQos.AT_MOST_ONCE) {
+            throw new IllegalArgumentException("QoS 0 Publish messages are not acknowledged.");
+        }
+        final LongAdder[] latencyHistogram = latencyHistogram(qos);
+        final long[] snapshot = new long[LATENCY_HISTOGRAM_BUCKETS];
+        for (int i = 0; i < LATENCY_HISTOGRAM_BUCKETS; i++) {
+            snapshot[i] = latencyHistogram[i].sum();
+        }
+        return snapshot;
+    }
+
+    private @NotNull LongAdder @NotNull [] latencyHistogram(final @NotNull MqttQos qos) {
+        return (qos == MqttQos.EXACTLY_ONCE) ? qos2LatencyHistogram : qos1LatencyHistogram;
+    }
+
+    @Override
+    public int getIncomingQos0Queued() {
+        return incomingQos0Queued;
+    }
+
+    @Override
+    public int getIncomingQos1Or2Queued() {
+        return incomingQos1Or2Queued;
+    }
+
+    @Override
+    public long getQos0Dropped() {
+        return qos0Dropped.sum();
+    }
+
+    @Override
+    public long getTopicAliasHits() {
+        return topicAliasHits.sum();
+    }
+
+    @Override
+    public long getTopicAliasMisses() {
+        return topicAliasMisses.sum();
+    }
+
+    @Override
+    public long getTopicAliasOverwrites() {
+        return topicAliasOverwrites.sum();
+    }
+
+    @Override
+    public long getBytesEncoded() {
+        return bytesEncoded.sum();
+    }
+
+    @Override
+    public long getBytesDecoded() {
+        return bytesDecoded.sum();
+    }
+
+    @Override
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    @Override
+    public long getFlushRequests() {
+        return flushRequests.sum();
+    }
+
+    @Override
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+}
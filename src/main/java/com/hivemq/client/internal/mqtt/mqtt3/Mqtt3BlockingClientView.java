@@ -33,6 +33,7 @@ import com.hivemq.client.internal.mqtt.message.unsubscribe.MqttUnsubscribe;
 import com.hivemq.client.internal.mqtt.message.unsubscribe.mqtt3.Mqtt3UnsubscribeViewBuilder;
 import com.hivemq.client.internal.mqtt.util.MqttChecks;
 import com.hivemq.client.internal.util.Checks;
+import com.hivemq.client.internal.util.collections.ImmutableList;
 import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3BlockingClient;
@@ -46,9 +47,11 @@ import com.hivemq.client.mqtt.mqtt3.message.subscribe.suback.Mqtt3SubAck;
 import com.hivemq.client.mqtt.mqtt3.message.unsubscribe.Mqtt3Unsubscribe;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
 import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5MessageException;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -201,6 +204,23 @@ public class Mqtt3BlockingClientView implements Mqtt3BlockingClient {
             }
         }
 
+        @Override
+        public @NotNull List<@NotNull Mqtt3Publish> receive(
+                final int maxPublishes, final long timeout, final @Nullable TimeUnit timeUnit)
+                throws InterruptedException {
+
+            try {
+                final List<Mqtt5Publish> publishes = delegate.receive(maxPublishes, timeout, timeUnit);
+                final ImmutableList.Builder<Mqtt3Publish> builder = ImmutableList.builder(publishes.size());
+                for (final Mqtt5Publish publish : publishes) {
+                    builder.add(Mqtt3PublishView.of(publish));
+                }
+                return builder.build();
+            } catch (final RuntimeException e) {
+                throw Mqtt3ExceptionFactory.mapWithStackTrace(e);
+            }
+        }
+
         @Override
         public @NotNull Optional<Mqtt3Publish> receiveNow() {
             try {
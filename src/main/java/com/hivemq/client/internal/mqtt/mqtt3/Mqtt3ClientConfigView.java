@@ -30,6 +30,7 @@ import com.hivemq.client.mqtt.datatypes.MqttClientIdentifier;
 import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnect;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3ClientConfig;
 import com.hivemq.client.mqtt.mqtt3.Mqtt3ClientConnectionConfig;
 import com.hivemq.client.mqtt.mqtt3.message.auth.Mqtt3SimpleAuth;
@@ -106,6 +107,11 @@ public class Mqtt3ClientConfigView implements Mqtt3ClientConfig {
         return delegate.getDisconnectedListeners();
     }
 
+    @Override
+    public @NotNull Optional<MqttClientMetrics> getMetrics() {
+        return delegate.getMetrics();
+    }
+
     @Override
     public @NotNull MqttClientState getState() {
         return delegate.getState();
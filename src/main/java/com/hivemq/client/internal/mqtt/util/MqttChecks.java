@@ -49,6 +49,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author Silvio Giebl
@@ -200,6 +201,18 @@ public final class MqttChecks {
         return Checks.notImplemented(publish, MqttPublish.class, "Publish");
     }
 
+    @Contract("null -> fail")
+    public static @NotNull ImmutableList<MqttPublish> publishes(
+            final @Nullable List<@Nullable Mqtt5Publish> publishes) {
+
+        Checks.notNull(publishes, "Publishes");
+        final ImmutableList.Builder<MqttPublish> builder = ImmutableList.builder(publishes.size());
+        for (final Mqtt5Publish publish : publishes) {
+            builder.add(publish(publish));
+        }
+        return builder.build();
+    }
+
     @Contract("null -> fail")
     public static @NotNull MqttPublish publish(final @Nullable Mqtt3Publish publish) {
         return Checks.notImplemented(publish, Mqtt3PublishView.class, "Publish").getDelegate();
@@ -21,6 +21,9 @@ import com.hivemq.client.internal.logging.InternalLogger;
 import com.hivemq.client.internal.logging.InternalLoggerFactory;
 import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
 import com.hivemq.client.internal.util.ClassUtil;
+import com.hivemq.client.mqtt.MqttNettyEventLoopPlacement;
+import com.hivemq.client.mqtt.MqttNettyTransport;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.EventLoop;
 import io.netty.channel.MultithreadEventLoopGroup;
@@ -29,15 +32,21 @@ import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.ThreadPerTaskExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.BiFunction;
 
 /**
@@ -48,32 +57,90 @@ public class NettyEventLoopProvider {
 
     private static final @NotNull InternalLogger LOGGER = InternalLoggerFactory.getLogger(NettyEventLoopProvider.class);
 
+    private static final @NotNull Object DEFAULT_EXECUTOR_KEY = new Object();
+    private static final @NotNull NettyEventLoopProvider NIO =
+            new NettyEventLoopProvider(NioEventLoopGroup::new, NioSocketChannel::new);
+    private static final @Nullable NettyEventLoopProvider EPOLL;
+    private static final @Nullable NettyEventLoopProvider IO_URING;
     public static final @NotNull NettyEventLoopProvider INSTANCE;
 
     static {
         if (ClassUtil.isAvailable("io.netty.channel.epoll.Epoll")) {
-            INSTANCE = EpollHolder.eventLoopProvider();
+            EPOLL = EpollHolder.eventLoopProvider();
         } else {
-            INSTANCE = nioEventLoopProvider();
+            EPOLL = null;
         }
-    }
-
-    private static NettyEventLoopProvider nioEventLoopProvider() {
-        return new NettyEventLoopProvider(NioEventLoopGroup::new, NioSocketChannel::new);
+        if (ClassUtil.isAvailable("io.netty.incubator.channel.uring.IOUring")) {
+            IO_URING = IOUringHolder.eventLoopProvider();
+        } else {
+            IO_URING = null;
+        }
+        // the io_uring transport is still incubating, so it is only used if it is chosen explicitly
+        INSTANCE = (EPOLL != null) ? EPOLL : NIO;
     }
 
     private static class EpollHolder {
 
-        private static NettyEventLoopProvider eventLoopProvider() {
+        private static @Nullable NettyEventLoopProvider eventLoopProvider() {
             if (Epoll.isAvailable()) {
                 return new NettyEventLoopProvider(EpollEventLoopGroup::new, EpollSocketChannel::new);
             } else {
-                return nioEventLoopProvider();
+                return null;
             }
         }
     }
 
-    private final @NotNull Map<@Nullable Executor, @NotNull Entry> entries = new HashMap<>();
+    private static class IOUringHolder {
+
+        private static @Nullable NettyEventLoopProvider eventLoopProvider() {
+            if (IOUring.isAvailable()) {
+                return new NettyEventLoopProvider(IOUringEventLoopGroup::new, IOUringSocketChannel::new);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the event loop provider for the given transport.
+     *
+     * @param transport the transport or <code>null</code> for the default transport (epoll if available, otherwise
+     *                  NIO).
+     * @return the event loop provider for the transport or the default transport if the given transport is not
+     *         available.
+     */
+    public static @NotNull NettyEventLoopProvider of(final @Nullable MqttNettyTransport transport) {
+        if (transport == null) {
+            return INSTANCE;
+        }
+        final NettyEventLoopProvider eventLoopProvider = get(transport);
+        return (eventLoopProvider == null) ? INSTANCE : eventLoopProvider;
+    }
+
+    /**
+     * Checks whether the given transport is available.
+     *
+     * @param transport the transport.
+     * @return whether the transport is available.
+     */
+    public static boolean isAvailable(final @NotNull MqttNettyTransport transport) {
+        return get(transport) != null;
+    }
+
+    private static @Nullable NettyEventLoopProvider get(final @NotNull MqttNettyTransport transport) {
+        switch (transport) {
+            case NIO:
+                return NIO;
+            case EPOLL:
+                return EPOLL;
+            case IO_URING:
+                return IO_URING;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private final @NotNull ConcurrentHashMap<@NotNull Object, @NotNull Entry> entries = new ConcurrentHashMap<>();
     private final @NotNull BiFunction<Integer, Executor, MultithreadEventLoopGroup> eventLoopGroupFactory;
     private final @NotNull ChannelFactory<?> channelFactory;
 
@@ -85,60 +152,176 @@ public class NettyEventLoopProvider {
         this.channelFactory = channelFactory;
     }
 
-    public synchronized @NotNull EventLoop acquireEventLoop(final @Nullable Executor executor, final int threadCount) {
-        Entry entry = entries.get(executor);
-        if (entry == null) {
-            final MultithreadEventLoopGroup eventLoopGroup;
-            if (executor == null) {
-                eventLoopGroup = eventLoopGroupFactory.apply(
-                        threadCount, new ThreadPerTaskExecutor(
-                                new DefaultThreadFactory("com.hivemq.client.mqtt", Thread.MAX_PRIORITY)));
-
-            } else if (executor instanceof MultithreadEventLoopGroup) {
-                eventLoopGroup = (MultithreadEventLoopGroup) executor;
-                if ((threadCount != MqttClientExecutorConfigImpl.DEFAULT_NETTY_THREADS) &&
-                        (eventLoopGroup.executorCount() != threadCount)) {
-                    LOGGER.warn("Tried to use a different amount of Netty threads for the provided event loop. " +
-                            "Using {} threads instead of {}", eventLoopGroup.executorCount(), threadCount);
-                }
-            } else {
-                eventLoopGroup = eventLoopGroupFactory.apply(threadCount, executor);
+    public @NotNull EventLoop acquireEventLoop(final @Nullable Executor executor, final int threadCount) {
+        return acquireEventLoop(executor, threadCount, MqttNettyEventLoopPlacement.ROUND_ROBIN, 0, null);
+    }
+
+    /**
+     * Acquires an event loop of the event loop group for the given executor according to the given placement.
+     * <p>
+     * Only the lookup of the event loop group is synchronized per executor, choosing the event loop is lock-free.
+     *
+     * @param executor  the executor of the event loop group or <code>null</code> for the default executor.
+     * @param threadCount the amount of threads of the event loop group.
+     * @param placement the strategy for choosing the event loop.
+     * @param affinity  the hash used for {@link MqttNettyEventLoopPlacement#CLIENT_IDENTIFIER_AFFINITY}, 0 for none.
+     * @param metrics   the optional metrics notified about the assignment on the chosen event loop.
+     * @return the acquired event loop.
+     */
+    public @NotNull EventLoop acquireEventLoop(
+            final @Nullable Executor executor,
+            final int threadCount,
+            final @NotNull MqttNettyEventLoopPlacement placement,
+            final int affinity,
+            final @Nullable MqttClientMetrics metrics) {
+
+        final Entry entry = entries.compute(key(executor), (key, current) -> {
+            if (current == null) {
+                return new Entry(createEventLoopGroup(executor, threadCount));
             }
-            entry = new Entry(eventLoopGroup);
-            entries.put(executor, entry);
-        } else {
             if ((threadCount != MqttClientExecutorConfigImpl.DEFAULT_NETTY_THREADS) &&
-                    (entry.eventLoopGroup.executorCount() != threadCount)) {
+                    (current.eventLoopGroup.executorCount() != threadCount)) {
                 LOGGER.warn("Tried to use a different amount of Netty threads for the same executor. " +
-                        "Using {} threads instead of {}", entry.eventLoopGroup.executorCount(), threadCount);
+                        "Using {} threads instead of {}", current.eventLoopGroup.executorCount(), threadCount);
+            }
+            current.referenceCount++;
+            return current;
+        });
+        final int index = entry.choose(placement, affinity);
+        final int clients = entry.clients.incrementAndGet(index);
+        final EventLoop eventLoop = entry.eventLoops[index];
+        if (metrics != null) {
+            eventLoop.execute(() -> metrics.onEventLoopAssigned(index, clients));
+        }
+        return eventLoop;
+    }
+
+    private @NotNull MultithreadEventLoopGroup createEventLoopGroup(
+            final @Nullable Executor executor, final int threadCount) {
+
+        if (executor == null) {
+            return eventLoopGroupFactory.apply(threadCount,
+                    new ThreadPerTaskExecutor(new DefaultThreadFactory("com.hivemq.client.mqtt", Thread.MAX_PRIORITY)));
+        }
+        if (executor instanceof MultithreadEventLoopGroup) {
+            final MultithreadEventLoopGroup eventLoopGroup = (MultithreadEventLoopGroup) executor;
+            if ((threadCount != MqttClientExecutorConfigImpl.DEFAULT_NETTY_THREADS) &&
+                    (eventLoopGroup.executorCount() != threadCount)) {
+                LOGGER.warn("Tried to use a different amount of Netty threads for the provided event loop. " +
+                        "Using {} threads instead of {}", eventLoopGroup.executorCount(), threadCount);
             }
-            entry.referenceCount++;
+            return eventLoopGroup;
         }
-        return entry.eventLoopGroup.next();
+        return eventLoopGroupFactory.apply(threadCount, executor);
     }
 
-    public synchronized void releaseEventLoop(final @Nullable Executor executor) {
-        final Entry entry = entries.get(executor);
-        if (--entry.referenceCount == 0) {
-            entries.remove(executor);
-            if (!(executor instanceof MultithreadEventLoopGroup)) {
-                // shutdownGracefully must be the last statement so everything is cleaned up even if it throws
-                entry.eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    public void releaseEventLoop(final @Nullable Executor executor) {
+        releaseEventLoop(executor, null);
+    }
+
+    public void releaseEventLoop(final @Nullable Executor executor, final @Nullable EventLoop eventLoop) {
+        final Object key = key(executor);
+        final Entry entry = entries.get(key);
+        if (eventLoop != null) {
+            final int index = entry.indexOf(eventLoop);
+            if (index != -1) {
+                entry.clients.decrementAndGet(index);
+            }
+        }
+        final Entry removed = entries.computeIfPresent(key, (k, current) -> {
+            if (--current.referenceCount == 0) {
+                current.released = true;
+                return null;
             }
+            return current;
+        });
+        if ((removed == null) && entry.released && !(executor instanceof MultithreadEventLoopGroup)) {
+            // shutdownGracefully must be the last statement so everything is cleaned up even if it throws
+            entry.eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the amount of clients that are currently assigned to each event loop of the event loop group for the
+     * given executor.
+     *
+     * @param executor the executor of the event loop group or <code>null</code> for the default executor.
+     * @return the amount of clients per event loop, empty if the event loop group is not in use.
+     */
+    public int @NotNull [] getEventLoopClients(final @Nullable Executor executor) {
+        final Entry entry = entries.get(key(executor));
+        if (entry == null) {
+            return new int[0];
+        }
+        final int[] clients = new int[entry.eventLoops.length];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = entry.clients.get(i);
         }
+        return clients;
     }
 
     public @NotNull ChannelFactory<?> getChannelFactory() {
         return channelFactory;
     }
 
+    private static @NotNull Object key(final @Nullable Executor executor) {
+        return (executor == null) ? DEFAULT_EXECUTOR_KEY : executor;
+    }
+
     private static class Entry {
 
         final @NotNull MultithreadEventLoopGroup eventLoopGroup;
-        int referenceCount = 1;
+        final @NotNull EventLoop @NotNull [] eventLoops;
+        final @NotNull AtomicIntegerArray clients;
+        final @NotNull AtomicInteger next = new AtomicInteger();
+        int referenceCount = 1; // guarded by the map entry
+        boolean released;
 
         private Entry(final @NotNull MultithreadEventLoopGroup eventLoopGroup) {
             this.eventLoopGroup = eventLoopGroup;
+            final ArrayList<EventLoop> eventLoops = new ArrayList<>(eventLoopGroup.executorCount());
+            for (final EventExecutor eventExecutor : eventLoopGroup) {
+                eventLoops.add((EventLoop) eventExecutor);
+            }
+            this.eventLoops = eventLoops.toArray(new EventLoop[0]);
+            clients = new AtomicIntegerArray(this.eventLoops.length);
+        }
+
+        int choose(final @NotNull MqttNettyEventLoopPlacement placement, final int affinity) {
+            final int size = eventLoops.length;
+            switch (placement) {
+                case CLIENT_IDENTIFIER_AFFINITY:
+                    if (affinity != 0) {
+                        return (affinity & Integer.MAX_VALUE) % size;
+                    }
+                    // fallthrough
+                case LEAST_LOADED: {
+                    // start at a rotating index so that event loops with equal load are used in turn during bursts
+                    final int start = (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+                    int leastIndex = start;
+                    int leastClients = clients.get(start);
+                    for (int i = 1; (i < size) && (leastClients > 0); i++) {
+                        final int index = (start + i) % size;
+                        final int indexClients = clients.get(index);
+                        if (indexClients < leastClients) {
+                            leastIndex = index;
+                            leastClients = indexClients;
+                        }
+                    }
+                    return leastIndex;
+                }
+                default:
+                    return (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+            }
+        }
+
+        int indexOf(final @NotNull EventLoop eventLoop) {
+            for (int i = 0; i < eventLoops.length; i++) {
+                if (eventLoops[i] == eventLoop) {
+                    return i;
+                }
+            }
+            return -1;
         }
     }
 }
@@ -16,7 +16,12 @@
 
 package com.hivemq.client.internal.util;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.PlatformDependent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
 
 /**
  * @author Silvio Giebl
@@ -28,73 +33,175 @@ public final class Utf8Util {
     private static final long UTF_16_SURROGATES = 0b1110_0000L << 56;
     private static final long INVALID_CODE_POINTS = 0b1111_0000L << 56;
 
+    private static final long NULL_CHARACTER = 0b1111_1000L << 56;
+    private static final long ASCII_MASK = 0x8080_8080_8080_8080L;
+    private static final long LOW_BITS = 0x0101_0101_0101_0101L;
+    // ByteBuffer.getLong assembles the bytes one by one for heap buffers on Java 8, so the ASCII fast path reads
+    // their arrays directly if unaligned access is possible, otherwise reading single bytes is as fast
+    private static final boolean UNALIGNED_ARRAY_ACCESS =
+            PlatformDependent.hasUnsafe() && PlatformDependent.isUnaligned();
+
+    /**
+     * Checks whether the given bytes are well-formed UTF-8.
+     *
+     * @param bytes the UTF-8 encoded data.
+     * @return 0 if well-formed, otherwise the index after the first malformed byte combined with the type of error.
+     */
     public static long isWellFormed(final byte @NotNull [] bytes) {
-        int index = 0;
-        final int end = bytes.length;
+        return isWellFormed(ByteBuffer.wrap(bytes), true);
+    }
+
+    /**
+     * Same as {@link #isWellFormed(byte[])}, but additionally the null character (U+0000) is not allowed, as
+     * required for UTF-8 encoded strings in MQTT.
+     *
+     * @param bytes the UTF-8 encoded data.
+     * @return see {@link #isWellFormed(byte[])}.
+     */
+    public static long isWellFormedWithoutNullCharacter(final byte @NotNull [] bytes) {
+        return isWellFormed(ByteBuffer.wrap(bytes), false);
+    }
+
+    /**
+     * Checks whether the remaining bytes of the given byte buffer are well-formed UTF-8 without copying them.
+     * <p>
+     * The position of the byte buffer is not changed.
+     *
+     * @param byteBuffer the byte buffer with the UTF-8 encoded data.
+     * @return see {@link #isWellFormed(byte[])}, the index is relative to the position of the byte buffer.
+     */
+    public static long isWellFormed(final @NotNull ByteBuffer byteBuffer) {
+        return isWellFormed(byteBuffer, true);
+    }
+
+    /**
+     * Checks whether the given range of the byte buffer is well-formed UTF-8 without copying it, as long as the range
+     * is backed by a single NIO buffer.
+     * <p>
+     * The reader and writer index of the byte buffer are not changed.
+     *
+     * @param byteBuf the byte buffer with the UTF-8 encoded data.
+     * @param index   the index of the range.
+     * @param length  the length of the range.
+     * @return see {@link #isWellFormed(byte[])}, the index is relative to the index of the range.
+     */
+    public static long isWellFormed(final @NotNull ByteBuf byteBuf, final int index, final int length) {
+        if (byteBuf.nioBufferCount() == 1) {
+            return isWellFormed(byteBuf.nioBuffer(index, length), true);
+        }
+        final byte[] bytes = new byte[length];
+        byteBuf.getBytes(index, bytes);
+        return isWellFormed(bytes);
+    }
+
+    private static long isWellFormed(final @NotNull ByteBuffer byteBuffer, final boolean nullCharacterAllowed) {
+        final int start = byteBuffer.position();
+        final int end = byteBuffer.limit();
+        final byte[] array;
+        final int arrayOffset;
+        final int fastPathEnd;
+        if (!byteBuffer.hasArray()) {
+            array = null;
+            arrayOffset = 0;
+            fastPathEnd = end - 8;
+        } else if (UNALIGNED_ARRAY_ACCESS) {
+            array = byteBuffer.array();
+            arrayOffset = byteBuffer.arrayOffset();
+            fastPathEnd = end - 8;
+        } else {
+            array = null;
+            arrayOffset = 0;
+            fastPathEnd = -1;
+        }
+        int index = start;
         while (true) {
 
+            // ASCII fast path: skip 8 bytes at once while none of them has the high bit set (and none is 0)
+            while (index <= fastPathEnd) {
+                final long word = getLong(byteBuffer, array, arrayOffset, index);
+                if (((word & ASCII_MASK) != 0) ||
+                        (!nullCharacterAllowed && (((word - LOW_BITS) & ~word & ASCII_MASK) != 0))) {
+                    break;
+                }
+                index += 8;
+            }
+
             byte byte1;
             do {
                 if (index >= end) {
                     return 0;
                 }
-            } while ((byte1 = bytes[index++]) >= 0);
+                byte1 = byteBuffer.get(index++);
+                if ((byte1 == 0) && !nullCharacterAllowed) {
+                    return index - start + NULL_CHARACTER;
+                }
+            } while (byte1 >= 0);
 
             if (byte1 < (byte) 0xE0) { // 2 bytes
                 if (index == end) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
                 if (byte1 < (byte) 0xC2) {
-                    return index + NON_SHORTEST_FORM;
+                    return index - start + NON_SHORTEST_FORM;
                 }
-                final byte byte2 = bytes[index++];
+                final byte byte2 = byteBuffer.get(index++);
                 if (byte2 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
             } else if (byte1 < (byte) 0xF0) { // 3 bytes
                 if (index + 1 >= end) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
-                final byte byte2 = bytes[index++];
+                final byte byte2 = byteBuffer.get(index++);
                 if (byte2 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
                 if ((byte1 == (byte) 0xE0) && (byte2 < (byte) 0xA0)) {
-                    return index + NON_SHORTEST_FORM;
+                    return index - start + NON_SHORTEST_FORM;
                 }
                 if ((byte1 == (byte) 0xED) && (byte2 >= (byte) 0xA0)) {
-                    return index + UTF_16_SURROGATES;
+                    return index - start + UTF_16_SURROGATES;
                 }
-                final byte byte3 = bytes[index++];
+                final byte byte3 = byteBuffer.get(index++);
                 if (byte3 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
             } else { // 4 bytes
                 if (index + 2 >= end) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
-                final byte byte2 = bytes[index++];
+                final byte byte2 = byteBuffer.get(index++);
                 if (byte2 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
                 if ((byte1 == (byte) 0xF0) && (byte2 < (byte) 0x90)) {
-                    return index + NON_SHORTEST_FORM;
+                    return index - start + NON_SHORTEST_FORM;
                 }
                 if ((byte1 == (byte) 0xF4) && (byte2 > (byte) 0x8F) || (byte1 > (byte) 0xF4)) {
-                    return index + INVALID_CODE_POINTS;
+                    return index - start + INVALID_CODE_POINTS;
                 }
-                final byte byte3 = bytes[index++];
+                final byte byte3 = byteBuffer.get(index++);
                 if (byte3 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
-                final byte byte4 = bytes[index++];
+                final byte byte4 = byteBuffer.get(index++);
                 if (byte4 > (byte) 0xBF) {
-                    return index + NO_FOLLOWING_BYTE;
+                    return index - start + NO_FOLLOWING_BYTE;
                 }
             }
         }
     }
 
+    private static long getLong(
+            final @NotNull ByteBuffer byteBuffer,
+            final byte @Nullable [] array,
+            final int arrayOffset,
+            final int index) {
+
+        // the byte order does not matter, as all bytes are checked in the same way
+        return (array == null) ? byteBuffer.getLong(index) : PlatformDependent.getLong(array, arrayOffset + index);
+    }
+
     public static int encodedLength(final @NotNull String string) {
         final int utf16Length = string.length();
         int utf8Length = utf16Length;
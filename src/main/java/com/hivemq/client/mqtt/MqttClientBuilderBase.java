@@ -23,6 +23,7 @@ import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnect;
 import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnectBuilder;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -333,4 +334,14 @@ public interface MqttClientBuilderBase<B extends MqttClientBuilderBase<B>> {
      */
     @CheckReturnValue
     @NotNull B addDisconnectedListener(@NotNull MqttClientDisconnectedListener disconnectedListener);
+
+    /**
+     * Sets the optional {@link MqttClientConfig#getMetrics() metrics}.
+     *
+     * @param metrics the metrics or <code>null</code> to remove any previously set metrics.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B metrics(@Nullable MqttClientMetrics metrics);
 }
@@ -22,6 +22,7 @@ import com.hivemq.client.mqtt.datatypes.MqttClientIdentifier;
 import com.hivemq.client.mqtt.lifecycle.MqttClientAutoReconnect;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedListener;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.InetSocketAddress;
@@ -117,6 +118,12 @@ public interface MqttClientConfig {
      */
     @Immutable @NotNull List<@NotNull MqttClientDisconnectedListener> getDisconnectedListeners();
 
+    /**
+     * @return the optional metrics of the client.
+     * @since 1.3
+     */
+    @NotNull Optional<MqttClientMetrics> getMetrics();
+
     /**
      * @return the state of the client.
      */
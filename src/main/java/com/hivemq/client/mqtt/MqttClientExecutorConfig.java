@@ -36,6 +36,12 @@ import java.util.concurrent.Executor;
 public interface MqttClientExecutorConfig {
 
     @NotNull Scheduler DEFAULT_APPLICATION_SCHEDULER = Schedulers.computation();
+    /**
+     * The default strategy for assigning clients to Netty event loops.
+     *
+     * @since 1.3
+     */
+    @NotNull MqttNettyEventLoopPlacement DEFAULT_NETTY_EVENT_LOOP_PLACEMENT = MqttNettyEventLoopPlacement.ROUND_ROBIN;
 
     /**
      * Creates a builder for an executor configuration.
@@ -56,6 +62,30 @@ public interface MqttClientExecutorConfig {
      */
     @NotNull OptionalInt getNettyThreads();
 
+    /**
+     * Returns the optional user defined Netty (network communication framework) transport.
+     * <p>
+     * If absent, the default transport is used: epoll if available, otherwise NIO. The io_uring transport is only used
+     * if it is defined explicitly. If the user defined transport is not available, a warning is logged and the default
+     * transport is used instead.
+     *
+     * @return the optional user defined Netty transport.
+     * @since 1.3
+     */
+    @NotNull Optional<MqttNettyTransport> getNettyTransport();
+
+    /**
+     * Returns the strategy for assigning clients to the event loops of the Netty (network communication framework)
+     * event loop group they share.
+     * <p>
+     * The event loop is chosen when a client connects and is released when the client is disconnected and will not
+     * reconnect.
+     *
+     * @return the strategy for assigning clients to Netty event loops.
+     * @since 1.3
+     */
+    @NotNull MqttNettyEventLoopPlacement getNettyEventLoopPlacement();
+
     /**
      * @return the {@link Scheduler} used for executing application specific code, such as callbacks.
      */
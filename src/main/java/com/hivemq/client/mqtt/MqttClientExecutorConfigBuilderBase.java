@@ -54,6 +54,29 @@ public interface MqttClientExecutorConfigBuilderBase<B extends MqttClientExecuto
     @CheckReturnValue
     @NotNull B nettyThreads(int nettyThreads);
 
+    /**
+     * Sets the optional user defined {@link MqttClientExecutorConfig#getNettyTransport() Netty transport} (network
+     * communication framework).
+     *
+     * @param nettyTransport the user defined Netty transport or <code>null</code> to use the default transport (epoll
+     *                       if available, otherwise NIO).
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B nettyTransport(@Nullable MqttNettyTransport nettyTransport);
+
+    /**
+     * Sets the {@link MqttClientExecutorConfig#getNettyEventLoopPlacement() strategy for assigning clients to Netty
+     * event loops}.
+     *
+     * @param nettyEventLoopPlacement the strategy for assigning clients to Netty event loops.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B nettyEventLoopPlacement(@NotNull MqttNettyEventLoopPlacement nettyEventLoopPlacement);
+
     /**
      * Sets the {@link MqttClientExecutorConfig#getApplicationScheduler() scheduler used for executing application
      * specific code}.
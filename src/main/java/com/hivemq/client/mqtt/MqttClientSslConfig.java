@@ -88,6 +88,17 @@ public interface MqttClientSslConfig {
      */
     @NotNull Optional<HostnameVerifier> getHostnameVerifier();
 
+    /**
+     * Returns whether the OpenSSL engine is used instead of the SSL/TLS implementation of the JDK.
+     * <p>
+     * The OpenSSL engine requires the openssl module on the classpath. If it is not available, the implementation of
+     * the JDK is used.
+     *
+     * @return whether the OpenSSL engine is used.
+     * @since 1.3
+     */
+    boolean isOpenSsl();
+
     /**
      * Creates a builder for extending this secure transport configuration.
      *
@@ -98,4 +98,17 @@ public interface MqttClientSslConfigBuilderBase<B extends MqttClientSslConfigBui
      */
     @CheckReturnValue
     @NotNull B hostnameVerifier(@Nullable HostnameVerifier hostnameVerifier);
+
+    /**
+     * Sets whether the {@link MqttClientSslConfig#isOpenSsl() OpenSSL engine} is used instead of the SSL/TLS
+     * implementation of the JDK.
+     * <p>
+     * Defaults to <code>false</code>.
+     *
+     * @param openSsl whether the OpenSSL engine is used, requires the openssl module on the classpath.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B openSsl(boolean openSsl);
 }
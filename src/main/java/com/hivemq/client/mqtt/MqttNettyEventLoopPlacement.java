@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt;
+
+/**
+ * Strategies for assigning clients to the event loops of the Netty (network communication framework) event loop group
+ * they share, selected via {@link MqttClientExecutorConfig#getNettyEventLoopPlacement()}.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+public enum MqttNettyEventLoopPlacement {
+
+    /**
+     * Assigns clients to the event loops in turn, regardless of how many clients the event loops already serve.
+     */
+    ROUND_ROBIN,
+    /**
+     * Assigns a client to the event loop that currently serves the fewest connected clients.
+     */
+    LEAST_LOADED,
+    /**
+     * Assigns a client to an event loop determined by the hash of its Client Identifier, so the same client always
+     * uses the same event loop. Clients that request their Client Identifier from the broker are assigned as with
+     * {@link #LEAST_LOADED}.
+     */
+    CLIENT_IDENTIFIER_AFFINITY
+}
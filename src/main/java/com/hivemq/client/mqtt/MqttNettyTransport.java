@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt;
+
+/**
+ * Netty (network communication framework) transports that can be selected via {@link
+ * MqttClientExecutorConfig#getNettyTransport()}.
+ * <p>
+ * The native transports are only available if the respective optional module is on the classpath and the platform
+ * supports it.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+public enum MqttNettyTransport {
+
+    /**
+     * Java NIO transport, available on all platforms.
+     */
+    NIO,
+    /**
+     * Native epoll transport (Linux), requires the epoll module.
+     */
+    EPOLL,
+    /**
+     * Native io_uring transport (Linux 5.9+), requires the iouring module.
+     * <p>
+     * The io_uring transport is still incubating, so it is never used by default, only if it is selected explicitly.
+     */
+    IO_URING
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.metrics;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Metrics of the hot paths of a client, for example publishes, acknowledgements and connections.
+ * <p>
+ * All methods are called on the Netty event loop of the client, so they must not block and should be as cheap as
+ * possible. The same metrics may be set for multiple clients, so implementations have to be thread safe. All methods
+ * have empty default implementations, so only the required metrics have to be implemented.
+ *
+ * @author Silvio Giebl
+ * @see MqttClientMetricsRecorder
+ * @since 1.3
+ */
+public interface MqttClientMetrics {
+
+    /**
+     * Called when a Publish message is sent for the first time (not when it is resent on reconnect).
+     *
+     * @param qos the QoS of the sent Publish message.
+     */
+    default void onPublishSent(final @NotNull MqttQos qos) {}
+
+    /**
+     * Called when a Publish message is received.
+     *
+     * @param qos the QoS of the received Publish message.
+     */
+    default void onPublishReceived(final @NotNull MqttQos qos) {}
+
+    /**
+     * Called after outgoing messages were sent with the amount of QoS 1 and QoS 2 messages that are in-flight.
+     *
+     * @param inFlight    the amount of in-flight QoS 1 and QoS 2 messages.
+     * @param sendMaximum the maximum amount of in-flight messages (the Receive Maximum of the server).
+     */
+    default void onInFlight(final int inFlight, final int sendMaximum) {}
+
+    /**
+     * Called when an outgoing QoS 1 Publish message is acknowledged with a PubAck message or an outgoing QoS 2 Publish
+     * message is completed with a PubComp message.
+     *
+     * @param qos          the QoS of the acknowledged Publish message.
+     * @param latencyNanos the time in nanoseconds between sending the Publish message and receiving the PubAck or
+     *                     PubComp message.
+     */
+    default void onPublishAcknowledged(final @NotNull MqttQos qos, final long latencyNanos) {}
+
+    /**
+     * Called when an incoming Publish message is queued because it can not be emitted to all subscribers yet.
+     *
+     * @param qos0Queued    the amount of queued incoming QoS 0 Publish messages.
+     * @param qos1Or2Queued the amount of queued incoming QoS 1 and QoS 2 Publish messages.
+     */
+    default void onIncomingQueued(final int qos0Queued, final int qos1Or2Queued) {}
+
+    /**
+     * Called when an incoming QoS 0 Publish message is dropped because the subscribers can not keep up.
+     */
+    default void onQos0Dropped() {}
+
+    /**
+     * Called when an outgoing Publish message is sent with an already established topic alias instead of its topic.
+     */
+    default void onTopicAliasHit() {}
+
+    /**
+     * Called when an outgoing Publish message is sent without a topic alias, because all topic aliases are used for
+     * topics that are published more often.
+     */
+    default void onTopicAliasMiss() {}
+
+    /**
+     * Called when a topic alias is reassigned to a different topic.
+     */
+    default void onTopicAliasOverwrite() {}
+
+    /**
+     * Called when a message is encoded.
+     *
+     * @param bytes the amount of bytes of the encoded message.
+     */
+    default void onBytesEncoded(final int bytes) {}
+
+    /**
+     * Called when a message is decoded.
+     *
+     * @param bytes the amount of bytes of the decoded message.
+     */
+    default void onBytesDecoded(final int bytes) {}
+
+    /**
+     * Called when the connection is flushed, which usually results in a system call.
+     * <p>
+     * Flushes are delayed while messages are read and may be coalesced (see {@link
+     * com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig#getFlushCoalescingMaxWrites()}), so one flush
+     * may cover multiple flush requests. The difference of the flush requests and the flushes is the amount of system
+     * calls saved.
+     *
+     * @param writes        the amount of messages written since the previous flush.
+     * @param flushRequests the amount of flushes requested since the previous flush, may be 0 if the connection is
+     *                      flushed before it is closed.
+     */
+    default void onFlush(final int writes, final int flushRequests) {}
+
+    /**
+     * Called when the client reconnects.
+     */
+    default void onReconnect() {}
+
+    /**
+     * Called when the client is assigned to a Netty event loop, which happens when it connects after it has not been
+     * connected or reconnecting.
+     *
+     * @param eventLoopIndex   the index of the event loop in its event loop group.
+     * @param eventLoopClients the amount of clients currently assigned to the event loop, including this client.
+     * @see com.hivemq.client.mqtt.MqttClientExecutorConfig#getNettyEventLoopPlacement()
+     */
+    default void onEventLoopAssigned(final int eventLoopIndex, final int eventLoopClients) {}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.metrics;
+
+import com.hivemq.client.annotations.DoNotImplement;
+import com.hivemq.client.internal.mqtt.metrics.MqttClientMetricsRecorderImpl;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link MqttClientMetrics} which records the metrics in counters and histograms.
+ * <p>
+ * Recording is lock-free and uses striped counters, so it has low overhead even if the recorder is shared by many
+ * clients.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+@DoNotImplement
+public interface MqttClientMetricsRecorder extends MqttClientMetrics {
+
+    /**
+     * The amount of buckets of the {@link #getAcknowledgementLatencyHistogram(MqttQos) acknowledgement latency
+     * histogram}.
+     */
+    int LATENCY_HISTOGRAM_BUCKETS = 32;
+
+    /**
+     * Creates a recorder for metrics of clients.
+     *
+     * @return the created recorder.
+     */
+    static @NotNull MqttClientMetricsRecorder create() {
+        return new MqttClientMetricsRecorderImpl();
+    }
+
+    /**
+     * @param qos the QoS.
+     * @return the amount of sent Publish messages with the given QoS.
+     */
+    long getPublishesSent(@NotNull MqttQos qos);
+
+    /**
+     * @param qos the QoS.
+     * @return the amount of received Publish messages with the given QoS.
+     */
+    long getPublishesReceived(@NotNull MqttQos qos);
+
+    /**
+     * @return the amount of in-flight QoS 1 and QoS 2 messages that was last recorded.
+     */
+    int getInFlight();
+
+    /**
+     * @return the maximum amount of in-flight QoS 1 and QoS 2 messages that was recorded.
+     */
+    int getMaxInFlight();
+
+    /**
+     * @return the maximum amount of in-flight messages (the Receive Maximum of the server) that was last recorded.
+     */
+    int getSendMaximum();
+
+    /**
+     * Returns the histogram of the latencies between sending Publish messages with the given QoS and receiving their
+     * PubAck (QoS 1) or PubComp (QoS 2) messages.
+     * <p>
+     * The bucket at index <code>i</code> counts the latencies in the range [2<sup>i</sup>, 2<sup>i+1</sup>)
+     * microseconds. The first bucket also counts latencies below 1 microsecond, the last bucket also counts all higher
+     * latencies.
+     *
+     * @param qos the QoS, must be {@link MqttQos#AT_LEAST_ONCE} or {@link MqttQos#EXACTLY_ONCE}.
+     * @return a snapshot of the latency histogram with {@link #LATENCY_HISTOGRAM_BUCKETS} buckets.
+     */
+    long @NotNull [] getAcknowledgementLatencyHistogram(@NotNull MqttQos qos);
+
+    /**
+     * @return the amount of queued incoming QoS 0 Publish messages that was last recorded.
+     */
+    int getIncomingQos0Queued();
+
+    /**
+     * @return the amount of queued incoming QoS 1 and QoS 2 Publish messages that was last recorded.
+     */
+    int getIncomingQos1Or2Queued();
+
+    /**
+     * @return the amount of dropped incoming QoS 0 Publish messages.
+     */
+    long getQos0Dropped();
+
+    /**
+     * @return the amount of outgoing Publish messages that were sent with an already established topic alias instead
+     *         of their topic.
+     */
+    long getTopicAliasHits();
+
+    /**
+     * @return the amount of outgoing Publish messages that were sent without a topic alias.
+     */
+    long getTopicAliasMisses();
+
+    /**
+     * @return the amount of topic aliases that were reassigned to a different topic.
+     */
+    long getTopicAliasOverwrites();
+
+    /**
+     * @return the amount of encoded bytes.
+     */
+    long getBytesEncoded();
+
+    /**
+     * @return the amount of decoded bytes.
+     */
+    long getBytesDecoded();
+
+    /**
+     * @return the amount of flushes of the connections.
+     */
+    long getFlushes();
+
+    /**
+     * @return the amount of flushes requested, the difference to {@link #getFlushes()} is the amount of flushes saved
+     *         by delaying and coalescing flushes.
+     */
+    long getFlushRequests();
+
+    /**
+     * @return the amount of reconnects.
+     */
+    long getReconnects();
+}
@@ -31,6 +31,7 @@ import com.hivemq.client.mqtt.mqtt3.message.unsubscribe.Mqtt3Unsubscribe;
 import com.hivemq.client.mqtt.mqtt3.message.unsubscribe.Mqtt3UnsubscribeBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -207,6 +208,26 @@ public interface Mqtt3BlockingClient extends Mqtt3Client {
         @NotNull Optional<Mqtt3Publish> receive(final long timeout, final @NotNull TimeUnit timeUnit)
                 throws InterruptedException;
 
+        /**
+         * Receives multiple incoming Publish messages at once.
+         * <ul>
+         *   <li>Blocks the calling thread until at least one Publish message is received or the given timeout
+         *     applies.
+         *   <li>Then additionally returns up to <code>maxPublishes - 1</code> further Publish messages that are already
+         *     queued in this {@link Mqtt3Publishes} instance without blocking.
+         * </ul>
+         *
+         * @param maxPublishes the maximum amount of Publish messages to receive, must be greater than 0.
+         * @param timeout      the time to wait for the first Publish message to be received.
+         * @param timeUnit     the time unit of the timeout parameter.
+         * @return the received Publish messages, empty if no Publish message was received in the given timeout period.
+         * @throws InterruptedException if the calling thread is interrupted while waiting for a Publish message to be
+         *                              received.
+         * @since 1.3
+         */
+        @NotNull List<@NotNull Mqtt3Publish> receive(int maxPublishes, long timeout, @NotNull TimeUnit timeUnit)
+                throws InterruptedException;
+
         /**
          * Receives the next incoming Publish message if it is already queued in this {@link Mqtt3Publishes} instance.
          *
@@ -35,6 +35,7 @@ import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.Mqtt5UnsubscribeBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.unsuback.Mqtt5UnsubAck;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -322,6 +323,25 @@ public interface Mqtt5AsyncClient extends Mqtt5Client {
     @CheckReturnValue
     Mqtt5PublishBuilder.@NotNull Send<CompletableFuture<Mqtt5PublishResult>> publishWith();
 
+    /**
+     * Publishes the given Publish messages as a batch.
+     * <p>
+     * The whole batch is handed over to the client at once and is written to the network with a single flush (as long
+     * as the send maximum of the broker and the network buffers allow it), which reduces the overhead per message
+     * compared to publishing each message individually. The Publish messages are sent in the given order.
+     * <p>
+     * The result list contains one {@link Mqtt5PublishResult} per Publish message at the same position as the Publish
+     * message in the given list. If a Publish message failed, its result contains the error ({@link
+     * Mqtt5PublishResult#getError()}) instead of failing the whole batch.
+     *
+     * @param publishes the Publish messages sent to the broker.
+     * @return a {@link CompletableFuture} which completes normally with the {@link Mqtt5PublishResult}s of all Publish
+     *         messages when all Publish messages have been completed.
+     * @since 1.3
+     */
+    @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5PublishResult>> publishBatch(
+            @NotNull List<@NotNull Mqtt5Publish> publishes);
+
     /**
      * Re-authenticates this client.
      *
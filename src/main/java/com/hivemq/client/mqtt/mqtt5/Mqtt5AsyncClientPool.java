@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.mqtt5;
+
+import com.hivemq.client.annotations.DoNotImplement;
+import com.hivemq.client.annotations.Immutable;
+import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5Connect;
+import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAck;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pool of {@link Mqtt5AsyncClient}s with the same configuration but distinct Client Identifiers which spreads
+ * publishes across the connections of the clients.
+ * <p>
+ * Publishes with QoS 1 and 2 are routed by the hash of their topic, so publishes with the same topic are always sent
+ * via the same client and keep their order. Publishes with QoS 0 are distributed round-robin and therefore are not
+ * ordered across the clients.
+ * <p>
+ * The clients of a pool share the executor config, connected/disconnected listeners, automatic reconnect and metrics
+ * of the builder. If the builder specifies a Client Identifier, the index of the client in the pool is appended
+ * ({@code <identifier>-<index>}), otherwise each client requests a Client Identifier from the broker.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+@DoNotImplement
+public interface Mqtt5AsyncClientPool {
+
+    /**
+     * The maximum amount of clients in a pool.
+     */
+    int MAX_SIZE = 1024;
+
+    /**
+     * @return the clients of this pool, at least one.
+     */
+    @Immutable @NotNull List<@NotNull ? extends Mqtt5AsyncClient> getClients();
+
+    /**
+     * Returns the client of this pool which the given Publish message is routed to.
+     *
+     * @param publish the Publish message.
+     * @return the client that sends the Publish message.
+     */
+    @NotNull Mqtt5AsyncClient getClient(@NotNull Mqtt5Publish publish);
+
+    /**
+     * Connects all clients of this pool with the default Connect message.
+     *
+     * @return see {@link #connect(Mqtt5Connect)}.
+     * @see #connect(Mqtt5Connect)
+     */
+    @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5ConnAck>> connect();
+
+    /**
+     * Connects all clients of this pool with the given Connect message.
+     *
+     * @param connect the Connect message sent to the broker by every client.
+     * @return a {@link CompletableFuture} which completes normally with the ConnAck messages in the order of {@link
+     *         #getClients()} if all clients connected successfully, or completes exceptionally as described in {@link
+     *         Mqtt5AsyncClient#connect(Mqtt5Connect)} if any client failed to connect.
+     */
+    @NotNull CompletableFuture<@NotNull List<@NotNull Mqtt5ConnAck>> connect(@NotNull Mqtt5Connect connect);
+
+    /**
+     * Publishes the given Publish message via the {@link #getClient(Mqtt5Publish) client it is routed to}.
+     *
+     * @param publish the Publish message sent to the broker.
+     * @return see {@link Mqtt5AsyncClient#publish(Mqtt5Publish)}.
+     */
+    @NotNull CompletableFuture<@NotNull Mqtt5PublishResult> publish(@NotNull Mqtt5Publish publish);
+
+    /**
+     * Disconnects all clients of this pool with the default Disconnect message.
+     *
+     * @return a {@link CompletableFuture} which completes normally when all clients disconnected, or completes
+     *         exceptionally as described in {@link Mqtt5AsyncClient#disconnect()} if any client failed to disconnect.
+     */
+    @NotNull CompletableFuture<Void> disconnect();
+}
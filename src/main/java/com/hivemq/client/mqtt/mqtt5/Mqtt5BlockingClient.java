@@ -35,6 +35,7 @@ import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.Mqtt5UnsubscribeBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.unsubscribe.unsuback.Mqtt5UnsubAck;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -172,6 +173,23 @@ public interface Mqtt5BlockingClient extends Mqtt5Client {
     @CheckReturnValue
     Mqtt5PublishBuilder.@NotNull Send<Mqtt5PublishResult> publishWith();
 
+    /**
+     * Publishes the given Publish messages as a batch.
+     * <p>
+     * The whole batch is handed over to the client at once and is written to the network with a single flush (as long
+     * as the send maximum of the broker and the network buffers allow it), which reduces the overhead per message
+     * compared to publishing each message individually. The Publish messages are sent in the given order.
+     * <p>
+     * The result list contains one {@link Mqtt5PublishResult} per Publish message at the same position as the Publish
+     * message in the given list. If a Publish message failed, its result contains the error ({@link
+     * Mqtt5PublishResult#getError()}) instead of failing the whole batch.
+     *
+     * @param publishes the Publish messages sent to the broker.
+     * @return the {@link Mqtt5PublishResult}s of all Publish messages.
+     * @since 1.3
+     */
+    @NotNull List<@NotNull Mqtt5PublishResult> publishBatch(@NotNull List<@NotNull Mqtt5Publish> publishes);
+
     /**
      * Re-authenticates this client.
      *
@@ -250,6 +268,26 @@ public interface Mqtt5BlockingClient extends Mqtt5Client {
         @NotNull Optional<Mqtt5Publish> receive(final long timeout, final @NotNull TimeUnit timeUnit)
                 throws InterruptedException;
 
+        /**
+         * Receives multiple incoming Publish messages at once.
+         * <ul>
+         *   <li>Blocks the calling thread until at least one Publish message is received or the given timeout
+         *     applies.
+         *   <li>Then additionally returns up to <code>maxPublishes - 1</code> further Publish messages that are already
+         *     queued in this {@link Mqtt5Publishes} instance without blocking.
+         * </ul>
+         *
+         * @param maxPublishes the maximum amount of Publish messages to receive, must be greater than 0.
+         * @param timeout      the time to wait for the first Publish message to be received.
+         * @param timeUnit     the time unit of the timeout parameter.
+         * @return the received Publish messages, empty if no Publish message was received in the given timeout period.
+         * @throws InterruptedException if the calling thread is interrupted while waiting for a Publish message to be
+         *                              received.
+         * @since 1.3
+         */
+        @NotNull List<@NotNull Mqtt5Publish> receive(int maxPublishes, long timeout, @NotNull TimeUnit timeUnit)
+                throws InterruptedException;
+
         /**
          * Receives the next incoming Publish message if it is already queued in this {@link Mqtt5Publishes} instance.
          *
@@ -152,4 +152,23 @@ public interface Mqtt5ClientBuilder extends MqttClientBuilderBase<Mqtt5ClientBui
      */
     @CheckReturnValue
     @NotNull Mqtt5BlockingClient buildBlocking();
+
+    /**
+     * Builds a pool of the given amount of {@link Mqtt5AsyncClient}s with the same configuration but distinct Client
+     * Identifiers, which spreads publishes across their connections.
+     * <p>
+     * The size must be in the range: [1, {@link Mqtt5AsyncClientPool#MAX_SIZE}].
+     * <p>
+     * The {@link Mqtt5ClientAdvancedConfig#getOutgoingPublishStore() outgoing publish store} and the {@link
+     * Mqtt5ClientAdvancedConfig#getIncomingQos2Store() incoming QoS 2 store} must not be set, as a store must only be
+     * used by one client.
+     *
+     * @param size the amount of clients in the pool.
+     * @return the built pool of Mqtt5AsyncClients.
+     * @throws IllegalArgumentException if the size is out of range or a store is set.
+     * @see Mqtt5AsyncClientPool
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull Mqtt5AsyncClientPool buildAsyncPool(int size);
 }
@@ -38,6 +38,8 @@ import io.reactivex.Flowable;
 import io.reactivex.Single;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 /**
  * Reactive API of an {@link Mqtt5Client}.
  *
@@ -317,6 +319,27 @@ public interface Mqtt5RxClient extends Mqtt5Client {
     @CheckReturnValue
     @NotNull Flowable<Mqtt5PublishResult> publish(@NotNull Flowable<Mqtt5Publish> publishFlowable);
 
+    /**
+     * Creates a {@link Single} for publishing the given Publish messages as a batch.
+     * <p>
+     * Calling this method does not start publishing yet. Publishing is performed lazy and asynchronous when subscribing
+     * (in terms of Reactive Streams) to the returned {@link Single}. The whole batch is handed over to the client at
+     * once and is written to the network with a single flush (as long as the send maximum of the broker and the network
+     * buffers allow it), which reduces the overhead per message compared to publishing each message individually. The
+     * Publish messages are sent in the given order.
+     * <p>
+     * The result list contains one {@link Mqtt5PublishResult} per Publish message at the same position as the Publish
+     * message in the given list. If a Publish message failed, its result contains the error ({@link
+     * Mqtt5PublishResult#getError()}) instead of failing the whole batch.
+     *
+     * @param publishes the Publish messages sent to the broker.
+     * @return the {@link Single} which succeeds with the {@link Mqtt5PublishResult}s of all Publish messages when all
+     *         Publish messages have been completed.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull Single<List<Mqtt5PublishResult>> publishBatch(@NotNull List<@NotNull Mqtt5Publish> publishes);
+
     /**
      * Creates a {@link Completable} for re-authenticating this client.
      * <p>
@@ -19,9 +19,15 @@ package com.hivemq.client.mqtt.mqtt5.advanced;
 import com.hivemq.client.annotations.DoNotImplement;
 import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.Mqtt5ClientInterceptors;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+import java.util.function.Function;
+
 /**
  * Advanced configuration of an {@link com.hivemq.client.mqtt.mqtt5.Mqtt5Client Mqtt5Client}.
  *
@@ -31,6 +37,75 @@ import org.jetbrains.annotations.Nullable;
 @DoNotImplement
 public interface Mqtt5ClientAdvancedConfig {
 
+    /**
+     * The default maximum amount of Publish {@link org.reactivestreams.Publisher Publishers} whose messages are sent
+     * concurrently.
+     *
+     * @since 1.3
+     */
+    int DEFAULT_MAX_CONCURRENT_PUBLISH_FLOWABLES = 64;
+    /**
+     * Maximum amount of concurrent Publish {@link org.reactivestreams.Publisher Publishers} that sizes the concurrency
+     * adaptively from the send maximum of the connection.
+     *
+     * @since 1.3
+     */
+    int ADAPTIVE_MAX_CONCURRENT_PUBLISH_FLOWABLES = 0;
+    /**
+     * Maximum amount of buffered incoming QoS 0 Publish messages that sizes the buffer from the Receive Maximum of the
+     * client.
+     *
+     * @since 1.3
+     */
+    int RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER = 0;
+    /**
+     * The default maximum amount of bytes of payloads of buffered incoming QoS 0 Publish messages (unlimited).
+     *
+     * @since 1.3
+     */
+    long DEFAULT_INCOMING_QOS_0_BUFFER_BYTES = Long.MAX_VALUE;
+    /**
+     * The default {@link Mqtt5IncomingQos0OverflowPolicy}.
+     *
+     * @since 1.3
+     */
+    @NotNull Mqtt5IncomingQos0OverflowPolicy DEFAULT_INCOMING_QOS_0_OVERFLOW_POLICY =
+            Mqtt5IncomingQos0OverflowPolicy.DROP_OLDEST;
+    /**
+     * The default maximum amount of bytes of buffered outgoing Publish messages while the client is offline
+     * (unlimited).
+     *
+     * @since 1.3
+     */
+    long DEFAULT_OFFLINE_PUBLISH_BUFFER_BYTES = Long.MAX_VALUE;
+    /**
+     * The default maximum amount of bytes of buffered outgoing Publish messages that are kept in memory while the
+     * client is offline (unlimited, so nothing is spilled to disk).
+     *
+     * @since 1.3
+     */
+    long DEFAULT_OFFLINE_PUBLISH_BUFFER_MEMORY_BYTES = Long.MAX_VALUE;
+    /**
+     * The default {@link Mqtt5OfflinePublishOverflowPolicy}.
+     *
+     * @since 1.3
+     */
+    @NotNull Mqtt5OfflinePublishOverflowPolicy DEFAULT_OFFLINE_PUBLISH_OVERFLOW_POLICY =
+            Mqtt5OfflinePublishOverflowPolicy.DROP_NEWEST;
+    /**
+     * The default maximum amount of Subscribe and Unsubscribe messages that are sent without waiting for their
+     * acknowledgements.
+     *
+     * @since 1.3
+     */
+    int DEFAULT_SUBSCRIBE_PIPELINING_DEPTH = 10;
+    /**
+     * The default maximum amount of Publish messages that are requested in advance for a blocking publishes stream.
+     *
+     * @since 1.3
+     */
+    int DEFAULT_BLOCKING_PUBLISHES_PREFETCH = 64;
+
     /**
      * Creates a builder for an advanced configuration.
      *
@@ -53,6 +128,374 @@ public interface Mqtt5ClientAdvancedConfig {
      */
     boolean isValidatePayloadFormat();
 
+    /**
+     * Returns whether the payload of incoming Publish messages is backed directly by the network buffer instead of
+     * being copied.
+     * <p>
+     * If enabled, every received Publish message has to be released via {@link
+     * com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish#releasePayload() Mqtt5Publish#releasePayload()} or, if
+     * manual acknowledgement is enabled, {@link com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish#acknowledge()
+     * Mqtt5Publish#acknowledge()}. Otherwise pooled network buffers are leaked.
+     *
+     * @return whether zero-copy payloads are enabled.
+     * @since 1.3
+     */
+    boolean isZeroCopyPayload();
+
+    /**
+     * Returns the amount of written messages after which a flush of the connection is no longer coalesced with
+     * following flushes.
+     * <p>
+     * Flush coalescing reduces the amount of system calls when many messages are sent, at the cost of a delay of up to
+     * {@link #getFlushCoalescingMaxDelayMicros()} for each message.
+     *
+     * @return the amount of written messages after which a flush is no longer coalesced, 1 if flush coalescing is
+     *         disabled.
+     * @since 1.3
+     */
+    int getFlushCoalescingMaxWrites();
+
+    /**
+     * Returns the maximum delay in microseconds a flush of the connection is deferred to be coalesced with following
+     * flushes.
+     * <p>
+     * 0 defers a flush only until the currently executed task of the event loop completes.
+     *
+     * @return the maximum delay in microseconds of a coalesced flush.
+     * @since 1.3
+     */
+    int getFlushCoalescingMaxDelayMicros();
+
+    /**
+     * Returns the maximum amount of Publish {@link org.reactivestreams.Publisher Publishers} whose messages are sent
+     * concurrently. Messages of further Publishers are only sent after one of the concurrent Publishers completes.
+     * <p>
+     * If {@link #ADAPTIVE_MAX_CONCURRENT_PUBLISH_FLOWABLES}, the concurrency is sized from the send maximum (the
+     * Receive Maximum of the server) of the first connection, so that every message that may be in-flight can
+     * originate from a different Publisher. The default is {@link #DEFAULT_MAX_CONCURRENT_PUBLISH_FLOWABLES}.
+     *
+     * @return the maximum amount of concurrent Publish Publishers.
+     * @since 1.3
+     */
+    int getMaxConcurrentPublishFlowables();
+
+    /**
+     * Returns whether the result of an outgoing QoS 2 Publish message is emitted only after the PubComp message is
+     * received instead of already after the PubRec message is received.
+     * <p>
+     * If enabled, the results of successful QoS 2 Publish messages are {@link
+     * com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult.Mqtt5Qos2CompleteResult
+     * Mqtt5Qos2CompleteResult}s.
+     *
+     * @return whether results of QoS 2 Publish messages are emitted after the PubComp message.
+     * @since 1.3
+     */
+    boolean isQos2CompleteResult();
+
+    /**
+     * Returns whether incoming Publish messages are routed to subscriptions by the subscription identifiers that the
+     * server includes in them, instead of by matching their topic against all topic filters.
+     * <p>
+     * Messages that do not contain subscription identifiers (for example if the server does not support them) or that
+     * contain subscription identifiers that are unknown to the client are still routed by their topic.
+     *
+     * @return whether incoming Publish messages are routed by subscription identifiers.
+     * @since 1.3
+     */
+    boolean isSubscriptionIdentifierRouting();
+
+    /**
+     * Returns the maximum amount of topics for which the subscriptions matching them are cached, so that incoming
+     * Publish messages with a recently used topic do not need to be matched against all topic filters again.
+     * <p>
+     * The least recently used topics are evicted first. The whole cache is invalidated when subscriptions change.
+     * <p>
+     * 0 disables the cache, which is the default.
+     *
+     * @return the maximum amount of topics in the topic matching cache.
+     * @since 1.3
+     */
+    int getTopicMatchingCacheSize();
+
+    /**
+     * Returns the maximum amount of incoming QoS 0 Publish messages that are buffered if subscribers do not consume
+     * them as fast as they are received.
+     * <p>
+     * If {@link #RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER}, the buffer is sized from the Receive Maximum of the client,
+     * which is the default.
+     *
+     * @return the maximum amount of buffered incoming QoS 0 Publish messages.
+     * @since 1.3
+     */
+    int getIncomingQos0BufferSize();
+
+    /**
+     * Returns the maximum amount of bytes of payloads of incoming QoS 0 Publish messages that are buffered if
+     * subscribers do not consume them as fast as they are received.
+     * <p>
+     * A QoS 0 Publish message with a payload larger than this maximum is always dropped, regardless of the {@link
+     * #getIncomingQos0OverflowPolicy() overflow policy}, as it could never be buffered.
+     * <p>
+     * The default is {@link #DEFAULT_INCOMING_QOS_0_BUFFER_BYTES}.
+     *
+     * @return the maximum amount of bytes of payloads of buffered incoming QoS 0 Publish messages.
+     * @since 1.3
+     */
+    long getIncomingQos0BufferBytes();
+
+    /**
+     * Returns the policy that is applied when an incoming QoS 0 Publish message is received while the buffer for
+     * incoming QoS 0 Publish messages is full.
+     * <p>
+     * Dropped messages are reported via {@link com.hivemq.client.mqtt.metrics.MqttClientMetrics#onQos0Dropped()
+     * MqttClientMetrics#onQos0Dropped()}. The default is {@link #DEFAULT_INCOMING_QOS_0_OVERFLOW_POLICY}.
+     *
+     * @return the policy for a full buffer of incoming QoS 0 Publish messages.
+     * @since 1.3
+     */
+    @NotNull Mqtt5IncomingQos0OverflowPolicy getIncomingQos0OverflowPolicy();
+
+    /**
+     * Returns the amount of buffered incoming Publish messages at which reading from the connection is paused until
+     * the amount falls to the {@link #getIncomingBackpressureLowWaterMark() low water mark}.
+     * <p>
+     * Incoming Publish messages are buffered if subscribers do not consume them as fast as they are received. Pausing
+     * reading applies backpressure on the server via TCP flow control, but also delays all other incoming messages.
+     * <p>
+     * 0 disables backpressure based on the amount of buffered messages, which is the default.
+     *
+     * @return the amount of buffered incoming Publish messages at which reading is paused.
+     * @since 1.3
+     */
+    int getIncomingBackpressureHighWaterMark();
+
+    /**
+     * Returns the amount of buffered incoming Publish messages at or below which reading from the connection is
+     * resumed if it was paused because the {@link #getIncomingBackpressureHighWaterMark() high water mark} was
+     * reached.
+     *
+     * @return the amount of buffered incoming Publish messages at which reading is resumed.
+     * @since 1.3
+     */
+    int getIncomingBackpressureLowWaterMark();
+
+    /**
+     * Returns the amount of bytes of payloads of buffered incoming Publish messages at which reading from the
+     * connection is paused until the amount falls to the {@link #getIncomingBackpressureLowWaterMarkBytes() low water
+     * mark}.
+     * <p>
+     * 0 disables backpressure based on the amount of bytes of buffered messages, which is the default.
+     *
+     * @return the amount of bytes of payloads of buffered incoming Publish messages at which reading is paused.
+     * @since 1.3
+     */
+    long getIncomingBackpressureHighWaterMarkBytes();
+
+    /**
+     * Returns the amount of bytes of payloads of buffered incoming Publish messages at or below which reading from the
+     * connection is resumed if it was paused because the {@link #getIncomingBackpressureHighWaterMarkBytes() high
+     * water mark} was reached.
+     *
+     * @return the amount of bytes of payloads of buffered incoming Publish messages at which reading is resumed.
+     * @since 1.3
+     */
+    long getIncomingBackpressureLowWaterMarkBytes();
+
+    /**
+     * Returns the amount of lanes that incoming Publish messages are dispatched to before they are passed to callbacks
+     * of the {@link com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient Mqtt5AsyncClient}.
+     * <p>
+     * Messages are assigned to a lane by the hash of their {@link #getIncomingPublishDispatchKey() dispatch key}. Each
+     * lane passes its messages to the callback in order, while different lanes run concurrently. So the order of
+     * messages is only preserved for messages with the same dispatch key. Acknowledgements are still sent in the order
+     * required by the MQTT specification.
+     * <p>
+     * 1 dispatches all messages in one lane, which is the default.
+     *
+     * @return the amount of lanes of incoming Publish messages.
+     * @since 1.3
+     */
+    int getIncomingPublishDispatchLanes();
+
+    /**
+     * Returns the function that extracts the key of incoming Publish messages that determines the {@link
+     * #getIncomingPublishDispatchLanes() lane} they are dispatched to.
+     *
+     * @return the function that extracts the dispatch key or <code>null</code> if messages are dispatched by their
+     *         topic.
+     * @since 1.3
+     */
+    @Nullable Function<? super Mqtt5Publish, ?> getIncomingPublishDispatchKey();
+
+    /**
+     * Returns whether only a PingResp message counts as response to a PingReq message.
+     * <p>
+     * If <code>false</code> (the default), any message received from the server after a PingReq message was sent
+     * proves that the connection is alive. If <code>true</code>, the connection is closed if no PingResp message is
+     * received before the next Keep Alive check, so a server that still sends messages but does not process the
+     * client's messages is detected as well.
+     *
+     * @return whether only a PingResp message counts as response to a PingReq message.
+     * @since 1.3
+     */
+    boolean isPingRespRequired();
+
+    /**
+     * Returns whether the Keep Alive checks of all connections on the same Netty event loop are batched on one shared
+     * timer wheel.
+     * <p>
+     * If <code>false</code> (the default), each connection schedules its own timer task for every Keep Alive check.
+     * The shared timer only runs one task per event loop which checks all due connections, but it may send PingReq
+     * messages up to 100 milliseconds early. This reduces the timer overhead if an event loop serves many
+     * connections.
+     *
+     * @return whether the Keep Alive checks use a shared timer per event loop.
+     * @since 1.3
+     */
+    boolean isSharedKeepAliveTimer();
+
+    /**
+     * Returns the optional store for the state of in-flight outgoing Publish messages with QoS 1 or 2.
+     * <p>
+     * If set, Publish messages are stored when they are sent and removed when they are acknowledged. After a restart
+     * of the application, the stored Publish and PubRel messages are resent on the first connection if the server
+     * still has the session, otherwise the Publish messages are sent again as new messages.
+     * <p>
+     * Only Publish messages which are in flight (a packet identifier was assigned to them) are stored. Publish messages
+     * which are still queued in the client, for example because the Receive Maximum of the server is reached or the
+     * client is not connected, are not stored and are lost on a restart of the application.
+     * <p>
+     * The store is synced on a separate thread, so the event loop is not blocked until the changes are written to disk.
+     * QoS 1 and 2 Publish and PubRel messages are only sent after the sync, which adds its latency to every batch of
+     * messages. QoS 0 Publish messages are sent without waiting for the sync.
+     *
+     * @return the optional store for outgoing Publish messages.
+     * @since 1.3
+     */
+    @Nullable Mqtt5OutgoingPublishStore getOutgoingPublishStore();
+
+    /**
+     * Returns the optional store for the state of incoming Publish messages with QoS 2.
+     * <p>
+     * If set, the packet identifiers of QoS 2 Publish messages are stored when they are acknowledged with a PubRec
+     * message and removed when the PubRel message is received. After a restart of the application, a resent Publish
+     * message with a stored packet identifier is only acknowledged again instead of being delivered a second time.
+     * <p>
+     * The store is synced on a separate thread, so the event loop is not blocked until the changes are written to disk.
+     * PubRec and PubComp messages are only sent after the sync, which adds its latency to every batch of messages.
+     *
+     * @return the optional store for incoming QoS 2 states.
+     * @since 1.3
+     */
+    @Nullable Mqtt5IncomingQos2Store getIncomingQos2Store();
+
+    /**
+     * Returns the maximum amount of outgoing Publish messages that are buffered while the client is offline.
+     * <p>
+     * If greater than 0, Publish messages that are published via a single call (not via a {@link
+     * org.reactivestreams.Publisher Publisher}, which is already backpressured) while the client is not connected are
+     * buffered, even if the client is not reconnecting. The buffer is drained on the next connection as fast as the
+     * send maximum of the server allows.
+     * <p>
+     * 0 disables the buffer, which is the default.
+     *
+     * @return the maximum amount of buffered outgoing Publish messages while the client is offline.
+     * @since 1.3
+     */
+    int getOfflinePublishBufferSize();
+
+    /**
+     * Returns the maximum amount of bytes of outgoing Publish messages that are buffered while the client is offline.
+     * <p>
+     * The default is {@link #DEFAULT_OFFLINE_PUBLISH_BUFFER_BYTES}.
+     *
+     * @return the maximum amount of bytes of buffered outgoing Publish messages while the client is offline.
+     * @since 1.3
+     */
+    long getOfflinePublishBufferBytes();
+
+    /**
+     * Returns the maximum amount of bytes of buffered outgoing Publish messages that are kept in memory while the
+     * client is offline.
+     * <p>
+     * Messages beyond this budget are spilled to segment files in the {@link #getOfflinePublishSpillDirectory() spill
+     * directory}. The default is {@link #DEFAULT_OFFLINE_PUBLISH_BUFFER_MEMORY_BYTES}.
+     *
+     * @return the maximum amount of bytes of buffered outgoing Publish messages in memory.
+     * @since 1.3
+     */
+    long getOfflinePublishBufferMemoryBytes();
+
+    /**
+     * Returns the directory that buffered outgoing Publish messages are spilled to if they exceed the {@link
+     * #getOfflinePublishBufferMemoryBytes() memory budget}.
+     * <p>
+     * The spilled messages are only a replacement for memory and do not survive a restart of the application. The
+     * directory can be shared with other clients, spill files which are left over from a previous process are
+     * deleted.
+     *
+     * @return the spill directory or <code>null</code> if buffered messages are only kept in memory.
+     * @since 1.3
+     */
+    @Nullable Path getOfflinePublishSpillDirectory();
+
+    /**
+     * Returns the policy that is applied when an outgoing Publish message is published while the buffer for offline
+     * Publish messages is full.
+     * <p>
+     * Dropped messages complete with a {@link com.hivemq.client.mqtt.exceptions.MqttClientStateException
+     * MqttClientStateException}. The default is {@link #DEFAULT_OFFLINE_PUBLISH_OVERFLOW_POLICY}.
+     *
+     * @return the policy for a full buffer of offline Publish messages.
+     * @since 1.3
+     */
+    @NotNull Mqtt5OfflinePublishOverflowPolicy getOfflinePublishOverflowPolicy();
+
+    /**
+     * Returns the maximum amount of Subscribe and Unsubscribe messages that are sent without waiting for their
+     * acknowledgements.
+     * <p>
+     * Further subscribe and unsubscribe calls are queued until acknowledgements are received. The default is {@link
+     * #DEFAULT_SUBSCRIBE_PIPELINING_DEPTH}.
+     *
+     * @return the maximum amount of unacknowledged Subscribe and Unsubscribe messages.
+     * @since 1.3
+     */
+    int getSubscribePipeliningDepth();
+
+    /**
+     * Returns whether queued subscribe calls are merged into Subscribe messages with multiple subscriptions.
+     * <p>
+     * If <code>true</code>, a subscribe call that is queued because the {@link #getSubscribePipeliningDepth()
+     * pipelining depth} is reached (or the client is not connected) is added to the last queued Subscribe message if
+     * both have the same user properties and the merged message does not exceed the maximum packet size of the server.
+     * The merged subscriptions share one subscription identifier, so calls with different callbacks are only merged
+     * if {@link #isSubscriptionIdentifierRouting() subscription identifier routing} is disabled. The reason codes of
+     * the SubAck message are passed to each call for its subscriptions.
+     * <p>
+     * The default is <code>false</code>.
+     *
+     * @return whether queued subscribe calls are merged.
+     * @since 1.3
+     */
+    boolean isSubscribeCoalescing();
+
+    /**
+     * Returns the maximum amount of Publish messages that are requested in advance for a {@link
+     * com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient.Mqtt5Publishes blocking publishes stream}.
+     * <p>
+     * Prefetched messages are buffered until they are received. As they already count as delivered, a higher prefetch
+     * removes a request per message but keeps messages in the buffer even if nobody receives them (which may for
+     * example delay their acknowledgement). Further messages are requested in batches when 3/4 of the prefetched
+     * messages were received. The default is {@link #DEFAULT_BLOCKING_PUBLISHES_PREFETCH}, so messages are requested
+     * in batches of 48 and a batch receive can return up to 64 messages at once. Set the prefetch to 1 to only request
+     * a message after the previous one was received.
+     *
+     * @return the maximum amount of Publish messages requested in advance for a blocking publishes stream.
+     * @since 1.3
+     */
+    int getBlockingPublishesPrefetch();
+
     /**
      * @return the optional interceptors of messages.
      */
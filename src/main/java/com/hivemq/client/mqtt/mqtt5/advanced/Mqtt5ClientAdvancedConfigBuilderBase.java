@@ -20,9 +20,16 @@ import com.hivemq.client.annotations.CheckReturnValue;
 import com.hivemq.client.annotations.DoNotImplement;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.Mqtt5ClientInterceptors;
 import com.hivemq.client.mqtt.mqtt5.advanced.interceptor.Mqtt5ClientInterceptorsBuilder;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
 /**
  * Builder base for a {@link Mqtt5ClientAdvancedConfig}.
  *
@@ -51,6 +58,303 @@ public interface Mqtt5ClientAdvancedConfigBuilderBase<B extends Mqtt5ClientAdvan
     @CheckReturnValue
     @NotNull B validatePayloadFormat(boolean validatePayloadFormat);
 
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isZeroCopyPayload() zero-copy payloads} are enabled.
+     *
+     * @param zeroCopyPayload whether zero-copy payloads are enabled.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B zeroCopyPayload(boolean zeroCopyPayload);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getFlushCoalescingMaxWrites() amount of writes} and the {@link
+     * Mqtt5ClientAdvancedConfig#getFlushCoalescingMaxDelayMicros() maximum delay} of flush coalescing.
+     * <p>
+     * The amount of writes must be in the range: [1, {@link Integer#MAX_VALUE}], 1 disables flush coalescing.
+     * <p>
+     * The maximum delay in microseconds must be in the range: [0, {@link Integer#MAX_VALUE}], it must be 0 if flush
+     * coalescing is disabled.
+     *
+     * @param maxWrites the amount of written messages after which a flush is no longer coalesced.
+     * @param maxDelay  the maximum delay of a coalesced flush.
+     * @param timeUnit  the time unit of the given maximum delay (this delay only supports microsecond precision).
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B flushCoalescing(int maxWrites, long maxDelay, @NotNull TimeUnit timeUnit);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getMaxConcurrentPublishFlowables() maximum amount of concurrent Publish
+     * Publishers}.
+     * <p>
+     * The value must be in the range: [0, {@link Integer#MAX_VALUE}], {@link
+     * Mqtt5ClientAdvancedConfig#ADAPTIVE_MAX_CONCURRENT_PUBLISH_FLOWABLES} sizes the concurrency adaptively.
+     *
+     * @param maxConcurrentPublishFlowables the maximum amount of concurrent Publish Publishers.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B maxConcurrentPublishFlowables(int maxConcurrentPublishFlowables);
+
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isQos2CompleteResult() results of QoS 2 Publish messages are
+     * emitted after the PubComp message}.
+     *
+     * @param qos2CompleteResult whether results of QoS 2 Publish messages are emitted after the PubComp message.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B qos2CompleteResult(boolean qos2CompleteResult);
+
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isSubscriptionIdentifierRouting() incoming Publish messages are
+     * routed by subscription identifiers}.
+     *
+     * @param subscriptionIdentifierRouting whether incoming Publish messages are routed by subscription identifiers.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B subscriptionIdentifierRouting(boolean subscriptionIdentifierRouting);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getTopicMatchingCacheSize() maximum amount of topics in the topic
+     * matching cache}.
+     * <p>
+     * The value must be in the range: [0, {@link Integer#MAX_VALUE}], 0 disables the cache.
+     *
+     * @param size the maximum amount of topics in the topic matching cache.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B topicMatchingCache(int size);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingQos0BufferSize() maximum amount} and the {@link
+     * Mqtt5ClientAdvancedConfig#getIncomingQos0BufferBytes() maximum amount of payload bytes} of buffered incoming QoS
+     * 0 Publish messages.
+     * <p>
+     * The amount of messages must be in the range: [0, {@link Integer#MAX_VALUE}], {@link
+     * Mqtt5ClientAdvancedConfig#RECEIVE_MAXIMUM_INCOMING_QOS_0_BUFFER} sizes the buffer from the Receive Maximum.
+     * <p>
+     * The amount of bytes must be in the range: [1, {@link Long#MAX_VALUE}].
+     *
+     * @param size  the maximum amount of buffered incoming QoS 0 Publish messages.
+     * @param bytes the maximum amount of bytes of payloads of buffered incoming QoS 0 Publish messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingQos0Buffer(int size, long bytes);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingQos0OverflowPolicy() policy for a full buffer of incoming
+     * QoS 0 Publish messages}.
+     *
+     * @param overflowPolicy the policy for a full buffer of incoming QoS 0 Publish messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingQos0OverflowPolicy(@NotNull Mqtt5IncomingQos0OverflowPolicy overflowPolicy);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingBackpressureHighWaterMark() high} and {@link
+     * Mqtt5ClientAdvancedConfig#getIncomingBackpressureLowWaterMark() low water mark} of the amount of buffered
+     * incoming Publish messages for pausing and resuming reading from the connection.
+     * <p>
+     * The high water mark must be in the range: [0, {@link Integer#MAX_VALUE}], 0 disables backpressure based on the
+     * amount of buffered messages.
+     * <p>
+     * The low water mark must be in the range: [0, high water mark].
+     *
+     * @param highWaterMark the amount of buffered incoming Publish messages at which reading is paused.
+     * @param lowWaterMark  the amount of buffered incoming Publish messages at which reading is resumed.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingBackpressure(int highWaterMark, int lowWaterMark);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingBackpressureHighWaterMarkBytes() high} and {@link
+     * Mqtt5ClientAdvancedConfig#getIncomingBackpressureLowWaterMarkBytes() low water mark} of the amount of bytes of
+     * payloads of buffered incoming Publish messages for pausing and resuming reading from the connection.
+     * <p>
+     * The high water mark must be in the range: [0, {@link Long#MAX_VALUE}], 0 disables backpressure based on the
+     * amount of bytes of buffered messages.
+     * <p>
+     * The low water mark must be in the range: [0, high water mark].
+     *
+     * @param highWaterMark the amount of bytes of buffered incoming Publish messages at which reading is paused.
+     * @param lowWaterMark  the amount of bytes of buffered incoming Publish messages at which reading is resumed.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingBackpressureBytes(long highWaterMark, long lowWaterMark);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingPublishDispatchLanes() amount of lanes} incoming Publish
+     * messages are dispatched to by their topic.
+     * <p>
+     * The amount of lanes must be in the range: [1, 1024].
+     *
+     * @param lanes the amount of lanes of incoming Publish messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingPublishDispatch(int lanes);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getIncomingPublishDispatchLanes() amount of lanes} incoming Publish
+     * messages are dispatched to and the {@link Mqtt5ClientAdvancedConfig#getIncomingPublishDispatchKey() function
+     * that extracts their dispatch key}.
+     * <p>
+     * The amount of lanes must be in the range: [1, 1024].
+     *
+     * @param lanes       the amount of lanes of incoming Publish messages.
+     * @param dispatchKey the function that extracts the dispatch key of incoming Publish messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingPublishDispatch(int lanes, @NotNull Function<? super Mqtt5Publish, ?> dispatchKey);
+
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isPingRespRequired() only a PingResp message counts as response
+     * to a PingReq message}.
+     *
+     * @param pingRespRequired whether only a PingResp message counts as response to a PingReq message.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B pingRespRequired(boolean pingRespRequired);
+
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isSharedKeepAliveTimer() the Keep Alive checks use a shared timer
+     * per event loop}.
+     *
+     * @param sharedKeepAliveTimer whether the Keep Alive checks use a shared timer per event loop.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B sharedKeepAliveTimer(boolean sharedKeepAliveTimer);
+
+    /**
+     * Sets the optional {@link Mqtt5ClientAdvancedConfig#getOutgoingPublishStore() store for outgoing Publish
+     * messages}.
+     *
+     * @param outgoingPublishStore the store for in-flight outgoing Publish messages or <code>null</code> to not persist
+     *                             them.
+     * @return the builder.
+     * @see Mqtt5OutgoingPublishStore#journal(java.nio.file.Path)
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B outgoingPublishStore(@Nullable Mqtt5OutgoingPublishStore outgoingPublishStore);
+
+    /**
+     * Sets the optional {@link Mqtt5ClientAdvancedConfig#getIncomingQos2Store() store for incoming QoS 2 states}.
+     *
+     * @param incomingQos2Store the store for incoming QoS 2 states or <code>null</code> to not persist them.
+     * @return the builder.
+     * @see Mqtt5IncomingQos2Store#mapped(java.nio.file.Path)
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B incomingQos2Store(@Nullable Mqtt5IncomingQos2Store incomingQos2Store);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getOfflinePublishBufferSize() maximum amount} and the {@link
+     * Mqtt5ClientAdvancedConfig#getOfflinePublishBufferBytes() maximum amount of bytes} of outgoing Publish messages
+     * that are buffered while the client is offline.
+     * <p>
+     * The amount of messages must be in the range: [0, {@link Integer#MAX_VALUE}], 0 disables the buffer.
+     * <p>
+     * The amount of bytes must be in the range: [1, {@link Long#MAX_VALUE}].
+     *
+     * @param size  the maximum amount of buffered outgoing Publish messages while the client is offline.
+     * @param bytes the maximum amount of bytes of buffered outgoing Publish messages while the client is offline.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B offlinePublishBuffer(int size, long bytes);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getOfflinePublishBufferMemoryBytes() memory budget} of the buffer for
+     * outgoing Publish messages while the client is offline and the {@link
+     * Mqtt5ClientAdvancedConfig#getOfflinePublishSpillDirectory() directory} that messages beyond the budget are
+     * spilled to.
+     * <p>
+     * The amount of bytes must be in the range: [0, {@link Long#MAX_VALUE}].
+     *
+     * @param memoryBytes    the maximum amount of bytes of buffered outgoing Publish messages in memory.
+     * @param spillDirectory the spill directory or <code>null</code> to only keep buffered messages in memory.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B offlinePublishBufferSpill(long memoryBytes, @Nullable Path spillDirectory);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getOfflinePublishOverflowPolicy() policy for a full buffer of Publish
+     * messages while the client is offline}.
+     *
+     * @param overflowPolicy the policy for a full buffer of offline Publish messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B offlinePublishOverflowPolicy(@NotNull Mqtt5OfflinePublishOverflowPolicy overflowPolicy);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getSubscribePipeliningDepth() maximum amount of unacknowledged
+     * Subscribe and Unsubscribe messages}.
+     * <p>
+     * The depth must be in the range: [1, 1024].
+     *
+     * @param depth the maximum amount of unacknowledged Subscribe and Unsubscribe messages.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B subscribePipelining(int depth);
+
+    /**
+     * Sets whether {@link Mqtt5ClientAdvancedConfig#isSubscribeCoalescing() queued subscribe calls are merged} into
+     * Subscribe messages with multiple subscriptions.
+     *
+     * @param subscribeCoalescing whether queued subscribe calls are merged.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B subscribeCoalescing(boolean subscribeCoalescing);
+
+    /**
+     * Sets the {@link Mqtt5ClientAdvancedConfig#getBlockingPublishesPrefetch() maximum amount of Publish messages that
+     * are requested in advance for a blocking publishes stream}.
+     * <p>
+     * The prefetch must be in the range: [1, 1024].
+     *
+     * @param prefetch the maximum amount of Publish messages requested in advance for a blocking publishes stream.
+     * @return the builder.
+     * @since 1.3
+     */
+    @CheckReturnValue
+    @NotNull B blockingPublishesPrefetch(int prefetch);
+
     /**
      * Sets the optional {@link Mqtt5ClientInterceptors collection of interceptors of MQTT messages}.
      *
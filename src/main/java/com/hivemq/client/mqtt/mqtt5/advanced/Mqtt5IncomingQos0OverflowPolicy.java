@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.mqtt5.advanced;
+
+/**
+ * Policy that is applied when an incoming QoS 0 Publish message is received while the buffer for incoming QoS 0
+ * Publish messages is full.
+ * <p>
+ * Incoming QoS 0 Publish messages are buffered if subscribers do not consume them as fast as they are received.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ * @see Mqtt5ClientAdvancedConfig#getIncomingQos0OverflowPolicy()
+ */
+public enum Mqtt5IncomingQos0OverflowPolicy {
+
+    /**
+     * The oldest buffered QoS 0 Publish message is dropped to make space for the received message.
+     */
+    DROP_OLDEST,
+    /**
+     * The received QoS 0 Publish message is dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * No QoS 0 Publish message is dropped, instead reading from the connection is paused until the buffer is no longer
+     * full. This applies backpressure on the server via TCP flow control, but also delays all other incoming messages.
+     * <p>
+     * Reading is paused as soon as the buffer is full. Messages that were already read from the connection at that
+     * point are still buffered, so the buffer may be exceeded by the messages of a single read.
+     */
+    BACKPRESSURE
+}
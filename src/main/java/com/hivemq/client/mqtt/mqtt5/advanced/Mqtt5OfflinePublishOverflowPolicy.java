@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.mqtt5.advanced;
+
+/**
+ * Policy that is applied when an outgoing Publish message is published while the buffer for Publish messages of an
+ * offline client is full.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ * @see Mqtt5ClientAdvancedConfig#getOfflinePublishOverflowPolicy()
+ */
+public enum Mqtt5OfflinePublishOverflowPolicy {
+
+    /**
+     * The oldest buffered Publish message is dropped to make space for the published message.
+     */
+    DROP_OLDEST,
+    /**
+     * The published message is dropped.
+     */
+    DROP_NEWEST
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.mqtt5.advanced.persistence;
+
+import com.hivemq.client.internal.mqtt.advanced.persistence.MqttMappedIncomingQos2Store;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+/**
+ * Store for the packet identifiers of incoming Publish messages with QoS 2 which were acknowledged with a PubRec
+ * message but not released with a PubRel message yet.
+ * <p>
+ * After a restart of the application, a Publish message with one of these packet identifiers which is resent by the
+ * server is not delivered again, so the exactly once guarantee also holds across restarts if the server still has the
+ * session.
+ * <p>
+ * All methods except {@link #sync()} are called sequentially on the Netty event loop of the client, so they must not
+ * block. A store only has to guarantee that changes are durable after {@link #sync()} returns, so implementations can
+ * buffer the other methods and commit them as a group. As a sync blocks, it is called on a separate thread,
+ * concurrently to the other methods.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+public interface Mqtt5IncomingQos2Store {
+
+    /**
+     * Creates a store which maps a file with one slot per packet identifier into memory, so storing and removing a
+     * packet identifier only writes 4 bytes to memory.
+     * <p>
+     * The file must only be used by one client.
+     *
+     * @param file the file of the store, created if it does not exist.
+     * @return the created memory mapped store.
+     */
+    static @NotNull Mqtt5IncomingQos2Store mapped(final @NotNull Path file) {
+        return new MqttMappedIncomingQos2Store(file);
+    }
+
+    /**
+     * Loads the stored packet identifiers. Called once before the first session is started or resumed.
+     *
+     * @param loader the consumer which the stored packet identifiers are passed to.
+     */
+    void load(@NotNull IntConsumer loader);
+
+    /**
+     * Stores the packet identifier of a Publish message with QoS 2 after it was acknowledged with a PubRec message.
+     *
+     * @param packetIdentifier the packet identifier of the acknowledged Publish message.
+     */
+    void store(int packetIdentifier);
+
+    /**
+     * Removes a packet identifier after the PubRel message for it was received.
+     *
+     * @param packetIdentifier the packet identifier of the released Publish message.
+     */
+    void remove(int packetIdentifier);
+
+    /**
+     * Removes all stored packet identifiers, because the session ended.
+     */
+    void clear();
+
+    /**
+     * Makes all changes durable which were made before this method was called.
+     * <p>
+     * Called on a separate thread once per batch of changes, never concurrently to another sync, but concurrently to
+     * the other methods. The PubRec and PubComp messages of the batch are only sent after this method returned.
+     */
+    void sync();
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.mqtt.mqtt5.advanced.persistence;
+
+import com.hivemq.client.internal.mqtt.advanced.persistence.MqttOutgoingPublishJournal;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Store for the state of outgoing Publish messages with QoS 1 or 2 which are in flight (sent, but not acknowledged
+ * yet), so they can be resent after a restart of the application if the server still has the session.
+ * <p>
+ * Publish messages which are still queued in the client and have no packet identifier yet are not passed to the
+ * store.
+ * <p>
+ * All methods except {@link #sync()} are called sequentially on the Netty event loop of the client, so they must not
+ * block. A store only has to guarantee that changes are durable after {@link #sync()} returns, so implementations can
+ * buffer the other methods and commit them as a group. As a sync blocks, it is called on a separate thread,
+ * concurrently to the other methods.
+ *
+ * @author Silvio Giebl
+ * @since 1.3
+ */
+public interface Mqtt5OutgoingPublishStore {
+
+    /**
+     * Creates a store which appends its changes to a journal of memory mapped segment files in the given directory.
+     * <p>
+     * Segments are compacted when they are full by only copying the entries which are not acknowledged yet to the
+     * next segment. The directory must only be used by one client.
+     *
+     * @param directory the directory of the journal files, created if it does not exist.
+     * @return the created journal store.
+     */
+    static @NotNull Mqtt5OutgoingPublishStore journal(final @NotNull Path directory) {
+        return new MqttOutgoingPublishJournal(directory);
+    }
+
+    /**
+     * Loads the stored state. Called once before the first session is started or resumed.
+     * <p>
+     * The entries must be passed to the loader in the order they were first stored.
+     *
+     * @param loader the loader which the stored entries are passed to.
+     */
+    void load(@NotNull Loader loader);
+
+    /**
+     * Stores a Publish message after a packet identifier was assigned to it.
+     *
+     * @param packetIdentifier the packet identifier of the Publish message.
+     * @param publish          the Publish message with QoS 1 or 2.
+     */
+    void storePublish(int packetIdentifier, @NotNull Mqtt5Publish publish);
+
+    /**
+     * Replaces the stored Publish message with the given packet identifier with a PubRel message, because a PubRec
+     * message was received for the QoS 2 Publish message.
+     *
+     * @param packetIdentifier the packet identifier of the PubRel message.
+     */
+    void storePubRel(int packetIdentifier);
+
+    /**
+     * Removes the stored Publish or PubRel message with the given packet identifier, because its QoS flow is
+     * completed.
+     *
+     * @param packetIdentifier the packet identifier of the removed message.
+     */
+    void remove(int packetIdentifier);
+
+    /**
+     * Removes all stored messages, because the session ended.
+     */
+    void clear();
+
+    /**
+     * Makes all changes durable which were made before this method was called.
+     * <p>
+     * Called on a separate thread once per batch of changes, never concurrently to another sync, but concurrently to
+     * the other methods. The Publish and PubRel messages of the batch are only sent after this method returned.
+     */
+    void sync();
+
+    /**
+     * Loader of the entries of a {@link Mqtt5OutgoingPublishStore}.
+     *
+     * @since 1.3
+     */
+    interface Loader {
+
+        /**
+         * Called for a stored Publish message.
+         *
+         * @param packetIdentifier the packet identifier of the Publish message.
+         * @param publish          the Publish message with QoS 1 or 2.
+         */
+        void onPublish(int packetIdentifier, @NotNull Mqtt5Publish publish);
+
+        /**
+         * Called for a stored PubRel message.
+         *
+         * @param packetIdentifier the packet identifier of the PubRel message.
+         */
+        void onPubRel(int packetIdentifier);
+    }
+}
@@ -118,6 +118,19 @@ public interface Mqtt5Publish extends Mqtt5Message {
      */
     void acknowledge();
 
+    /**
+     * Releases the network buffer backing the payload of this incoming Publish message if {@link
+     * com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig#isZeroCopyPayload() zero-copy payloads} are
+     * enabled.
+     * <p>
+     * The payload (also of Publish messages created from this Publish message) must not be accessed after it has been
+     * released. If manual acknowledgement is enabled, {@link #acknowledge()} also releases the payload. Calling this
+     * method more than once or if the payload is not backed by a network buffer has no effect.
+     *
+     * @since 1.3
+     */
+    void releasePayload();
+
     @Override
     default @NotNull Mqtt5MessageType getType() {
         return Mqtt5MessageType.PUBLISH;
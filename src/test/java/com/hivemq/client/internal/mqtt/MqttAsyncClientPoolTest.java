@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt;
+
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5IncomingQos2Store;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttAsyncClientPoolTest {
+
+    @Test
+    void buildAsyncPool_identifiers() {
+        final MqttAsyncClientPool pool = new MqttRxClientBuilder().identifier("test").buildAsyncPool(3);
+
+        assertEquals(3, pool.getClients().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("test-" + i, pool.getClients().get(i).getConfig().getRawClientIdentifier().toString());
+        }
+    }
+
+    @Test
+    void buildAsyncPool_noIdentifier_requestedFromServer() {
+        final MqttAsyncClientPool pool = new MqttRxClientBuilder().buildAsyncPool(2);
+
+        for (final MqttAsyncClient client : pool.getClients()) {
+            assertEquals("", client.getConfig().getRawClientIdentifier().toString());
+        }
+    }
+
+    @Test
+    void buildAsyncPool_sizeOutOfRange_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new MqttRxClientBuilder().buildAsyncPool(0));
+        assertThrows(IllegalArgumentException.class, () -> new MqttRxClientBuilder().buildAsyncPool(1025));
+    }
+
+    @Test
+    void buildAsyncPool_storeSet_throws(final @TempDir @NotNull Path directory) {
+        assertThrows(IllegalArgumentException.class, () -> new MqttRxClientBuilder().advancedConfig()
+                .outgoingPublishStore(Mqtt5OutgoingPublishStore.journal(directory.resolve("outgoing")))
+                .applyAdvancedConfig()
+                .buildAsyncPool(2));
+        assertThrows(IllegalArgumentException.class, () -> new MqttRxClientBuilder().advancedConfig()
+                .incomingQos2Store(Mqtt5IncomingQos2Store.mapped(directory.resolve("incoming")))
+                .applyAdvancedConfig()
+                .buildAsyncPool(2));
+    }
+
+    @Test
+    void getClient_qos1_sameTopic_sameClient() {
+        final MqttAsyncClientPool pool = new MqttRxClientBuilder().buildAsyncPool(4);
+
+        for (int i = 0; i < 10; i++) {
+            final String topic = "topic/" + i;
+            final MqttAsyncClient client = pool.getClient(publish(topic, MqttQos.AT_LEAST_ONCE));
+            for (int j = 0; j < 5; j++) {
+                assertSame(client, pool.getClient(publish(topic, MqttQos.AT_LEAST_ONCE)));
+                assertSame(client, pool.getClient(publish(topic, MqttQos.EXACTLY_ONCE)));
+            }
+        }
+    }
+
+    @Test
+    void getClient_qos0_roundRobin() {
+        final MqttAsyncClientPool pool = new MqttRxClientBuilder().buildAsyncPool(4);
+
+        final Set<MqttAsyncClient> clients = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            clients.add(pool.getClient(publish("topic", MqttQos.AT_MOST_ONCE)));
+        }
+        assertEquals(4, clients.size());
+    }
+
+    private static @NotNull MqttPublish publish(final @NotNull String topic, final @NotNull MqttQos qos) {
+        return new MqttPublishBuilder.Default().topic(topic).qos(qos).build();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt;
+
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5ClientAdvancedConfig;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import io.reactivex.Flowable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttBlockingClientPublishesTest {
+
+    private final @NotNull AtomicLong requested = new AtomicLong();
+    private volatile boolean cancelled;
+    private @Nullable MqttBlockingClient.MqttPublishes publishes;
+
+    @AfterEach
+    void tearDown() {
+        if (publishes != null) {
+            publishes.close();
+        }
+    }
+
+    private @NotNull MqttBlockingClient.MqttPublishes createPublishes(final int prefetch) {
+        final Subscription subscription = new Subscription() {
+            @Override
+            public void request(final long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        };
+        publishes = new MqttBlockingClient.MqttPublishes(
+                Flowable.fromPublisher(subscriber -> subscriber.onSubscribe(subscription)), prefetch);
+        return publishes;
+    }
+
+    private static @NotNull Mqtt5Publish publish(final int i) {
+        return new MqttPublishBuilder.Default().topic("topic/" + i).build();
+    }
+
+    @Test
+    void prefetch_one_requestsNextAfterReceive() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+        assertEquals(1, requested.get());
+
+        final Mqtt5Publish publish = publish(0);
+        publishes.onNext(publish);
+        assertEquals(1, requested.get());
+
+        assertSame(publish, publishes.receive());
+        assertEquals(2, requested.get());
+    }
+
+    @Test
+    void prefetch_requestsInBatchesOfThreeQuarters() {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(8);
+        assertEquals(8, requested.get());
+        for (int i = 0; i < 8; i++) {
+            publishes.onNext(publish(i));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(publishes.receiveNow().isPresent());
+        }
+        assertEquals(8, requested.get());
+        assertTrue(publishes.receiveNow().isPresent());
+        assertEquals(14, requested.get());
+    }
+
+    @Test
+    void receive_multipleConsumers_eachPublishReceivedOnce() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(4);
+        final Set<Mqtt5Publish> received = ConcurrentHashMap.newKeySet();
+        final Thread[] consumers = new Thread[4];
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Thread(() -> {
+                try {
+                    received.add(publishes.receive());
+                } catch (final InterruptedException ignored) {
+                }
+            });
+            consumers[i].start();
+        }
+        for (final Thread consumer : consumers) {
+            awaitParked(consumer);
+        }
+
+        for (int i = 0; i < consumers.length; i++) {
+            publishes.onNext(publish(i));
+        }
+        for (final Thread consumer : consumers) {
+            consumer.join(10_000);
+            assertFalse(consumer.isAlive());
+        }
+        assertEquals(4, received.size());
+    }
+
+    @Test
+    void receive_timeout_returnsEmpty() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+
+        assertEquals(Optional.empty(), publishes.receive(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void receive_timed_wokenUpByPublish() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+        final Mqtt5Publish publish = publish(0);
+        final AtomicReference<Optional<Mqtt5Publish>> received = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                received.set(publishes.receive(10, TimeUnit.SECONDS));
+            } catch (final InterruptedException ignored) {
+            }
+        });
+        consumer.start();
+        awaitParked(consumer);
+
+        publishes.onNext(publish);
+        consumer.join(10_000);
+        assertEquals(Optional.of(publish), received.get());
+    }
+
+    @Test
+    void receive_interrupted_throws() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                publishes.receive();
+            } catch (final Throwable t) {
+                thrown.set(t);
+            }
+        });
+        consumer.start();
+        awaitParked(consumer);
+
+        consumer.interrupt();
+        consumer.join(10_000);
+        assertTrue(thrown.get() instanceof InterruptedException);
+
+        final Mqtt5Publish publish = publish(0);
+        publishes.onNext(publish);
+        assertEquals(Optional.of(publish), publishes.receiveNow());
+    }
+
+    @Test
+    void receive_error_wakesUpAllWaiters() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+        final RuntimeException error = new IllegalArgumentException("test");
+        final Thread[] consumers = new Thread[2];
+        final Set<Throwable> thrown = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < consumers.length; i++) {
+            consumers[i] = new Thread(() -> {
+                try {
+                    publishes.receive();
+                } catch (final Throwable t) {
+                    thrown.add(t);
+                }
+            });
+            consumers[i].start();
+            awaitParked(consumers[i]);
+        }
+
+        publishes.onError(error);
+        for (final Thread consumer : consumers) {
+            consumer.join(10_000);
+            assertFalse(consumer.isAlive());
+        }
+        assertEquals(1, thrown.size());
+        assertSame(error, thrown.iterator().next());
+    }
+
+    @Test
+    void close_wakesUpWaiterAndCancels() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(1);
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                publishes.receive(10, TimeUnit.SECONDS);
+            } catch (final Throwable t) {
+                thrown.set(t);
+            }
+        });
+        consumer.start();
+        awaitParked(consumer);
+
+        publishes.close();
+        consumer.join(10_000);
+        assertTrue(thrown.get() instanceof CancellationException);
+        assertTrue(cancelled);
+    }
+
+    @Test
+    void receive_batch_drainsQueuedPublishesUpToMax() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(8);
+        for (int i = 0; i < 3; i++) {
+            publishes.onNext(publish(i));
+        }
+
+        final List<Mqtt5Publish> first = publishes.receive(2, 1, TimeUnit.SECONDS);
+        assertEquals(2, first.size());
+        assertEquals(publish(0).getTopic(), first.get(0).getTopic());
+        assertEquals(publish(1).getTopic(), first.get(1).getTopic());
+
+        final List<Mqtt5Publish> second = publishes.receive(10, 1, TimeUnit.SECONDS);
+        assertEquals(1, second.size());
+        assertEquals(publish(2).getTopic(), second.get(0).getTopic());
+
+        assertTrue(publishes.receive(10, 10, TimeUnit.MILLISECONDS).isEmpty());
+    }
+
+    @Test
+    void receive_batch_defaultPrefetch_receivesBatches() throws InterruptedException {
+        final int prefetch = Mqtt5ClientAdvancedConfig.DEFAULT_BLOCKING_PUBLISHES_PREFETCH;
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(prefetch);
+        assertEquals(prefetch, requested.get());
+        for (int i = 0; i < prefetch; i++) {
+            publishes.onNext(publish(i));
+        }
+
+        final List<Mqtt5Publish> received = publishes.receive(prefetch, 1, TimeUnit.SECONDS);
+        assertEquals(prefetch, received.size());
+        for (int i = 0; i < prefetch; i++) {
+            assertEquals(publish(i).getTopic(), received.get(i).getTopic());
+        }
+        assertEquals(prefetch + (prefetch - (prefetch >> 2)), requested.get());
+    }
+
+    @Test
+    void receive_batch_wokenUpByFirstPublish() throws InterruptedException {
+        final MqttBlockingClient.MqttPublishes publishes = createPublishes(4);
+        final AtomicReference<List<Mqtt5Publish>> received = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                received.set(publishes.receive(4, 10, TimeUnit.SECONDS));
+            } catch (final InterruptedException ignored) {
+            }
+        });
+        consumer.start();
+        awaitParked(consumer);
+
+        publishes.onNext(publish(0));
+        consumer.join(10_000);
+        assertEquals(1, received.get().size());
+    }
+
+    private static void awaitParked(final @NotNull Thread thread) throws InterruptedException {
+        while ((thread.getState() != Thread.State.WAITING) && (thread.getState() != Thread.State.TIMED_WAITING)) {
+            Thread.sleep(1);
+        }
+    }
+}
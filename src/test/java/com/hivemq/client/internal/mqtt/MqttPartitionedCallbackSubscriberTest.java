@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt;
+
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttPartitionedCallbackSubscriberTest {
+
+    private static final int TOPICS = 8;
+    private static final int PUBLISHES = 10_000;
+
+    @Test
+    void onNext_sameTopic_keepsOrder() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+            final CountDownLatch latch = new CountDownLatch(PUBLISHES);
+
+            Flowable.range(0, PUBLISHES)
+                    .map(i -> Mqtt5Publish.builder()
+                            .topic("topic/" + (i % TOPICS))
+                            .payload(ByteBuffer.allocate(4).putInt(0, i))
+                            .build())
+                    .subscribe(new MqttPartitionedCallbackSubscriber(publish -> {
+                        final List<Integer> list =
+                                received.computeIfAbsent(publish.getTopic().toString(), k -> new ArrayList<>());
+                        synchronized (list) {
+                            list.add(publish.getPayload().get().getInt(0));
+                        }
+                        latch.countDown();
+                    }, Schedulers.from(executor), 4, null));
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(TOPICS, received.size());
+            for (final List<Integer> list : received.values()) {
+                assertEquals(PUBLISHES / TOPICS, list.size());
+                for (int i = 1; i < list.size(); i++) {
+                    assertEquals(list.get(i - 1) + TOPICS, (int) list.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void onNext_singleLane_keepsOrderAcrossTopics() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> received = new ArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(PUBLISHES);
+
+            Flowable.range(0, PUBLISHES)
+                    .map(i -> Mqtt5Publish.builder()
+                            .topic("topic/" + (i % TOPICS))
+                            .payload(ByteBuffer.allocate(4).putInt(0, i))
+                            .build())
+                    .subscribe(new MqttPartitionedCallbackSubscriber(publish -> {
+                        received.add(publish.getPayload().get().getInt(0));
+                        latch.countDown();
+                    }, Schedulers.from(executor), 1, null));
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(PUBLISHES, received.size());
+            for (int i = 0; i < received.size(); i++) {
+                assertEquals(i, (int) received.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void onNext_dispatchKey_keepsOrderPerKey() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+            final AtomicInteger dispatchKeys = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(PUBLISHES);
+
+            // all publishes have the same topic, so they are only distributed across lanes by the dispatch key
+            Flowable.range(0, PUBLISHES)
+                    .map(i -> Mqtt5Publish.builder()
+                            .topic("topic")
+                            .payload(ByteBuffer.allocate(4).putInt(0, i))
+                            .build())
+                    .subscribe(new MqttPartitionedCallbackSubscriber(publish -> {
+                        final int i = publish.getPayload().get().getInt(0);
+                        final List<Integer> list = received.computeIfAbsent(i % TOPICS, k -> new ArrayList<>());
+                        synchronized (list) {
+                            list.add(i);
+                        }
+                        latch.countDown();
+                    }, Schedulers.from(executor), 4, publish -> {
+                        dispatchKeys.incrementAndGet();
+                        return publish.getPayload().get().getInt(0) % TOPICS;
+                    }));
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(PUBLISHES, dispatchKeys.get());
+            assertEquals(TOPICS, received.size());
+            for (final List<Integer> list : received.values()) {
+                assertEquals(PUBLISHES / TOPICS, list.size());
+                for (int i = 1; i < list.size(); i++) {
+                    assertEquals(list.get(i - 1) + TOPICS, (int) list.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttMappedIncomingQos2StoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void load_empty() {
+        assertEquals(Collections.emptyList(), load(new MqttMappedIncomingQos2Store(directory.resolve("qos2"))));
+    }
+
+    @Test
+    void store_remove_load() {
+        final Path file = directory.resolve("qos2");
+        final MqttMappedIncomingQos2Store store = new MqttMappedIncomingQos2Store(file);
+        load(store);
+        store.store(1);
+        store.store(65535);
+        store.store(100);
+        store.store(7);
+        store.remove(100);
+        store.sync();
+
+        assertEquals(Arrays.asList(1, 7, 65535), load(new MqttMappedIncomingQos2Store(file)));
+    }
+
+    @Test
+    void clear() {
+        final Path file = directory.resolve("qos2");
+        final MqttMappedIncomingQos2Store store = new MqttMappedIncomingQos2Store(file);
+        load(store);
+        store.store(1);
+        store.store(2);
+        store.clear();
+        store.store(3);
+        store.sync();
+
+        assertEquals(Collections.singletonList(3), load(new MqttMappedIncomingQos2Store(file)));
+    }
+
+    @Test
+    void clear_afterRestart() {
+        final Path file = directory.resolve("qos2");
+        final MqttMappedIncomingQos2Store store = new MqttMappedIncomingQos2Store(file);
+        load(store);
+        store.store(1);
+        store.sync();
+
+        final MqttMappedIncomingQos2Store restarted = new MqttMappedIncomingQos2Store(file);
+        assertEquals(Collections.singletonList(1), load(restarted));
+        restarted.clear();
+        restarted.store(2);
+        restarted.sync();
+
+        assertEquals(Collections.singletonList(2), load(new MqttMappedIncomingQos2Store(file)));
+    }
+
+    private static @NotNull List<Integer> load(final @NotNull MqttMappedIncomingQos2Store store) {
+        final List<Integer> packetIdentifiers = new ArrayList<>();
+        store.load(packetIdentifiers::add);
+        return packetIdentifiers;
+    }
+}
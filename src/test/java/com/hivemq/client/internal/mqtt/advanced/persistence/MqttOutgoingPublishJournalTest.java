@@ -0,0 +1,231 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.datatypes.Mqtt5UserProperties;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PayloadFormatIndicator;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttOutgoingPublishJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void encodePublish_decodePublish() {
+        final Mqtt5Publish publish = Mqtt5Publish.builder()
+                .topic("test/topic")
+                .qos(MqttQos.EXACTLY_ONCE)
+                .retain(true)
+                .payload("payload".getBytes(StandardCharsets.UTF_8))
+                .messageExpiryInterval(10)
+                .payloadFormatIndicator(Mqtt5PayloadFormatIndicator.UTF_8)
+                .contentType("text")
+                .responseTopic("response/topic")
+                .correlationData(new byte[]{1, 2, 3})
+                .userProperties(Mqtt5UserProperties.builder().add("key", "value").add("key", "value2").build())
+                .build();
+
+        assertEquals(publish,
+                MqttOutgoingPublishJournal.decodePublish(MqttOutgoingPublishJournal.encodePublish(12, publish)));
+    }
+
+    @Test
+    void encodePublish_decodePublish_minimal() {
+        final Mqtt5Publish publish = Mqtt5Publish.builder().topic("test").qos(MqttQos.AT_LEAST_ONCE).build();
+
+        assertEquals(publish,
+                MqttOutgoingPublishJournal.decodePublish(MqttOutgoingPublishJournal.encodePublish(1, publish)));
+    }
+
+    @Test
+    void load_restoresEntriesInOrder() {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory);
+        journal.load(new Entries());
+        journal.storePublish(3, publish("a"));
+        journal.storePublish(1, publish("b"));
+        journal.storePublish(2, publish("c"));
+        journal.storePubRel(3);
+        journal.remove(1);
+        journal.sync();
+
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory).load(entries);
+
+        assertEquals(Arrays.asList("3:pubrel", "2:c"), entries.entries);
+    }
+
+    @Test
+    void clear_removesAllEntries() {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory);
+        journal.load(new Entries());
+        journal.storePublish(1, publish("a"));
+        journal.storePublish(2, publish("b"));
+        journal.clear();
+        journal.storePublish(3, publish("c"));
+        journal.sync();
+
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory).load(entries);
+
+        assertEquals(Collections.singletonList("3:c"), entries.entries);
+    }
+
+    @Test
+    void roll_compactsSegments() throws IOException {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory, 256);
+        journal.load(new Entries());
+        journal.storePublish(1, publish("live"));
+        for (int i = 0; i < 1000; i++) {
+            final int packetIdentifier = 2 + (i % 10);
+            journal.storePublish(packetIdentifier, publish("topic" + i));
+            journal.remove(packetIdentifier);
+        }
+        journal.storePublish(5, publish("last"));
+        journal.sync();
+
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory, 256).load(entries);
+
+        assertEquals(Arrays.asList("1:live", "5:last"), entries.entries);
+    }
+
+    @Test
+    void roll_previousSegmentsDeletedBySync() throws IOException {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory, 256);
+        journal.load(new Entries());
+        journal.storePublish(1, publish("live"));
+        journal.sync();
+        rollWithoutSync(journal);
+        journal.remove(3);
+
+        assertTrue(segments().size() > 1);
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory, 256).load(entries);
+        assertEquals(Collections.singletonList("1:live"), entries.entries);
+
+        journal.sync();
+        assertEquals(2, segments().size()); // the current segment and the one rolled by the second load
+    }
+
+    @Test
+    void load_incompleteSnapshot_replaysPreviousSegment() throws IOException {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory, 256);
+        journal.load(new Entries());
+        journal.storePublish(1, publish("live"));
+        journal.sync();
+        rollWithoutSync(journal);
+        journal.remove(3);
+
+        // corrupt the first record of the snapshot of the newest segment as if it was not completely written
+        final List<Path> segments = segments();
+        final Path newest = segments.get(segments.size() - 1);
+        final byte[] bytes = Files.readAllBytes(newest);
+        bytes[8]++;
+        Files.write(newest, bytes);
+
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory, 256).load(entries);
+        assertEquals("1:live", entries.entries.get(0));
+        assertTrue(entries.entries.contains("3:x"));
+    }
+
+    private static void rollWithoutSync(final @NotNull MqttOutgoingPublishJournal journal) {
+        journal.storePublish(3, publish("x"));
+        for (int i = 0; i < 20; i++) {
+            journal.storePublish(10 + i, publish("topic" + i));
+            journal.remove(10 + i);
+        }
+    }
+
+    private @NotNull List<Path> segments() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void load_ignoresIncompleteRecord() throws IOException {
+        final MqttOutgoingPublishJournal journal = new MqttOutgoingPublishJournal(directory);
+        journal.load(new Entries());
+        journal.storePublish(1, publish("a"));
+        journal.storePublish(2, publish("b"));
+        journal.sync();
+
+        final Path segment;
+        try (final Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow(AssertionError::new);
+        }
+        // corrupt the last byte of the second record as if it was not completely written
+        final byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (bytes[end - 1] == 0) {
+            end--;
+        }
+        bytes[end - 1]++;
+        Files.write(segment, bytes);
+
+        final Entries entries = new Entries();
+        new MqttOutgoingPublishJournal(directory).load(entries);
+
+        assertEquals(Collections.singletonList("1:a"), entries.entries);
+    }
+
+    private static @NotNull Mqtt5Publish publish(final @NotNull String topic) {
+        return Mqtt5Publish.builder().topic(topic).qos(MqttQos.EXACTLY_ONCE).build();
+    }
+
+    private static class Entries implements Mqtt5OutgoingPublishStore.Loader {
+
+        final @NotNull List<String> entries = new ArrayList<>();
+
+        @Override
+        public void onPublish(final int packetIdentifier, final @NotNull Mqtt5Publish publish) {
+            entries.add(packetIdentifier + ":" + publish.getTopic());
+        }
+
+        @Override
+        public void onPubRel(final int packetIdentifier) {
+            entries.add(packetIdentifier + ":pubrel");
+        }
+    }
+}
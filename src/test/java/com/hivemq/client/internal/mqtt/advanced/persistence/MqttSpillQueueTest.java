@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.advanced.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttSpillQueueTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void offer_poll_inOrder() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 64);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(new byte[]{(byte) i, (byte) (i + 1), (byte) (i + 2)});
+        }
+        assertEquals(100, queue.size());
+        for (int i = 0; i < 100; i++) {
+            assertArrayEquals(new byte[]{(byte) i, (byte) (i + 1), (byte) (i + 2)}, queue.poll());
+        }
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void offer_largerThanSegment() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        final byte[] data = new byte[100];
+        data[99] = 1;
+        queue.offer(new byte[]{1});
+        queue.offer(data);
+        queue.offer(new byte[]{2});
+
+        assertArrayEquals(new byte[]{1}, queue.poll());
+        assertArrayEquals(data, queue.poll());
+        assertArrayEquals(new byte[]{2}, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void poll_deletesExhaustedSegments() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new byte[8]);
+        }
+        assertEquals(10, segmentCount());
+        for (int i = 0; i < 9; i++) {
+            queue.poll();
+        }
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void clear() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new byte[8]);
+        }
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+        assertEquals(0, segmentCount());
+    }
+
+    @Test
+    void create_keepsSegmentsOfLiveQueue() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        queue.offer(new byte[]{1});
+        queue.offer(new byte[8]);
+
+        final MqttSpillQueue newQueue = new MqttSpillQueue(directory, "test", 16);
+        newQueue.offer(new byte[]{2});
+        assertEquals(3, segmentCount());
+        assertArrayEquals(new byte[]{1}, queue.poll());
+        assertArrayEquals(new byte[]{2}, newQueue.poll());
+    }
+
+    @Test
+    void create_deletesLeftoverSegments() throws IOException {
+        // segments and an unlocked lock file of a queue of a previous process
+        final Path leftoverLock = Files.createFile(directory.resolve("test-previous.lock"));
+        final Path leftoverSegment = Files.createFile(directory.resolve("test-previous-0000000000000001.spill"));
+        final Path other = Files.createFile(directory.resolve("other.spill"));
+
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        assertFalse(Files.exists(leftoverLock));
+        assertFalse(Files.exists(leftoverSegment));
+        assertTrue(Files.exists(other));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void close_deletesSegmentsAndLockFile() throws IOException {
+        final MqttSpillQueue queue = new MqttSpillQueue(directory, "test", 16);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new byte[8]);
+        }
+        queue.close();
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spill")).count();
+        }
+    }
+}
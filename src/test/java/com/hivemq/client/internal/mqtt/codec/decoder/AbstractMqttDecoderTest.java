@@ -102,23 +102,28 @@ public abstract class AbstractMqttDecoderTest {
     }
 
     protected void createChannel() {
-        createChannel(false);
+        createChannel(MqttClientAdvancedConfig.DEFAULT);
     }
 
-    private void createChannel(final boolean validatePayloadFormat) {
-        final MqttClientAdvancedConfig advancedConfig =
-                new MqttClientAdvancedConfigBuilder.Default().validatePayloadFormat(validatePayloadFormat).build();
+    private void createChannel(final @NotNull MqttClientAdvancedConfig advancedConfig) {
         final MqttClientConfig clientConfig =
                 new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("test"),
                         MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
-                        MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(), ImmutableList.of());
+                        MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(),
+                        ImmutableList.of(), null);
 
         channel = new EmbeddedChannel();
         channel.pipeline().addLast(new MqttDecoder(decoders, clientConfig, connect)).addLast(disconnectHandler);
     }
 
     protected void validatePayloadFormat() {
-        createChannel(true);
+        createChannel(new MqttClientAdvancedConfigBuilder.Default().validatePayloadFormat(true).build());
+    }
+
+    protected void zeroCopyPayload() {
+        createChannel(new MqttClientAdvancedConfigBuilder.Default().validatePayloadFormat(true)
+                .zeroCopyPayload(true)
+                .build());
     }
 
     public static @NotNull MqttPingRespDecoder createPingRespDecoder() {
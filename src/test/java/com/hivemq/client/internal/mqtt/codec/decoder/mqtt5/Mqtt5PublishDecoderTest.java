@@ -19,6 +19,7 @@ package com.hivemq.client.internal.mqtt.codec.decoder.mqtt5;
 import com.hivemq.client.internal.mqtt.codec.decoder.MqttMessageDecoders;
 import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertyImpl;
 import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishPayloadBuffer;
 import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
 import com.hivemq.client.internal.util.collections.ImmutableIntList;
 import com.hivemq.client.internal.util.collections.ImmutableList;
@@ -449,6 +450,73 @@ class Mqtt5PublishDecoderTest extends AbstractMqtt5DecoderTest {
         decodeNok(encoded, PAYLOAD_FORMAT_INVALID);
     }
 
+    @Test
+    void decode_zeroCopyPayload() {
+        zeroCopyPayload();
+        final byte[] encoded = {
+                // fixed header
+                //   type, flags
+                0b0011_0000,
+                //   remaining length
+                12,
+                // variable header
+                //   topic name
+                0, 5, 't', 'o', 'p', 'i', 'c',
+                //   properties
+                0,
+                // payload
+                1, 2, 3, 4
+        };
+        final ByteBuf byteBuf = channel.alloc().buffer();
+        byteBuf.writeBytes(encoded);
+        channel.writeInbound(byteBuf);
+
+        final MqttStatefulPublish publishInternal = channel.readInbound();
+        assertNotNull(publishInternal);
+        final MqttPublish publish = publishInternal.stateless();
+        final MqttPublishPayloadBuffer payloadBuffer = publish.getPayloadBuffer();
+        assertNotNull(payloadBuffer);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, publish.getPayloadAsBytes());
+        assertEquals(1, byteBuf.refCnt());
+
+        final MqttPublish retainedPublish = publish.withRetainedPayload();
+        assertEquals(publish.getRawPayload(), retainedPublish.getRawPayload());
+        publish.releasePayload();
+        publish.releasePayload();
+        assertTrue(payloadBuffer.isReleased());
+        assertEquals(1, byteBuf.refCnt());
+
+        retainedPublish.releasePayload();
+        assertEquals(0, byteBuf.refCnt());
+    }
+
+    @Test
+    void decode_zeroCopyPayload_PayloadUtf8NotWellFormed_releasesBuffer() {
+        zeroCopyPayload();
+        final byte[] encoded = {
+                // fixed header
+                //   type, flags
+                0b0011_0001,
+                //   remaining length
+                11,
+                // variable header
+                //   topic name
+                0, 5, 't', 'o', 'p', 'i', 'c',
+                //   properties
+                2,
+                //     payload format indicator
+                0x01, 1,
+                // payload
+                (byte) 0xFF
+        };
+        final ByteBuf byteBuf = channel.alloc().buffer();
+        byteBuf.writeBytes(encoded);
+        channel.writeInbound(byteBuf);
+
+        assertNull(channel.readInbound());
+        assertEquals(0, byteBuf.refCnt());
+    }
+
     @Test
     void decode_contentType() {
         final byte[] encoded = {
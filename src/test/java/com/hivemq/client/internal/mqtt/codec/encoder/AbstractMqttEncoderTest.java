@@ -16,13 +16,21 @@
 
 package com.hivemq.client.internal.mqtt.codec.encoder;
 
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
 import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
 import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
 import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
 import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
@@ -57,7 +65,23 @@ public abstract class AbstractMqttEncoderTest {
     }
 
     private void createChannel() {
-        channel = new EmbeddedChannel(encoder = new MqttEncoder(messageEncoders));
+        createChannel(MqttClientAdvancedConfig.DEFAULT);
+    }
+
+    protected void createChannel(final @NotNull MqttClientAdvancedConfig advancedConfig) {
+        createChannel(advancedConfig, null);
+    }
+
+    protected void createChannel(
+            final @NotNull MqttClientAdvancedConfig advancedConfig, final @Nullable MqttClientMetrics metrics) {
+
+        final MqttClientConfig clientConfig =
+                new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("test"),
+                        MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
+                        MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(),
+                        ImmutableList.of(), metrics);
+
+        channel = new EmbeddedChannel(encoder = new MqttEncoder(messageEncoders, clientConfig));
         if (connected) {
             connected(MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
         }
@@ -67,7 +91,7 @@ public abstract class AbstractMqttEncoderTest {
         encoder.onConnected(
                 new MqttClientConnectionConfig(MqttClientTransportConfigImpl.DEFAULT, 10, true, true, 0, false, false,
                         null, 10, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, true, false, 10,
-                        maximumPacketSize, 3, MqttQos.EXACTLY_ONCE, true, true, true, true, channel));
+                        maximumPacketSize, 3, MqttQos.EXACTLY_ONCE, true, true, true, true, channel, null));
     }
 
     protected void encode(final @NotNull Object message, final @NotNull byte[] expected) {
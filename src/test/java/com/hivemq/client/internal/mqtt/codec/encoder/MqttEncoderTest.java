@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.codec.encoder;
+
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.message.ping.MqttPingReq;
+import com.hivemq.client.mqtt.metrics.MqttClientMetricsRecorder;
+import com.hivemq.client.mqtt.mqtt5.message.Mqtt5MessageType;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttEncoderTest extends AbstractMqttEncoderTest {
+
+    MqttEncoderTest() {
+        super(new MqttMessageEncoders() {{
+            encoders[Mqtt5MessageType.PINGREQ.getCode()] = createPingReqEncoder();
+        }}, true);
+    }
+
+    private final @NotNull MqttClientMetricsRecorder metrics = MqttClientMetricsRecorder.create();
+
+    @Test
+    void flush_withoutCoalescing_flushesImmediately() {
+        createChannel(MqttClientAdvancedConfig.DEFAULT, metrics);
+
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+
+        assertFlushed(2);
+        assertEquals(2, metrics.getFlushRequests());
+        assertEquals(2, metrics.getFlushes());
+    }
+
+    @Test
+    void flush_withCoalescing_flushesAfterCurrentTask() {
+        createChannel(new MqttClientAdvancedConfigBuilder.Default().flushCoalescing(10, 0, TimeUnit.MICROSECONDS)
+                .build(), metrics);
+
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        assertNull(channel.readOutbound());
+
+        channel.runPendingTasks();
+        assertFlushed(2);
+        assertEquals(2, metrics.getFlushRequests());
+        assertEquals(1, metrics.getFlushes());
+    }
+
+    @Test
+    void flush_withCoalescing_flushesAfterMaxWrites() {
+        createChannel(new MqttClientAdvancedConfigBuilder.Default().flushCoalescing(3, 1, TimeUnit.MINUTES).build(),
+                metrics);
+
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        assertNull(channel.readOutbound());
+
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        assertFlushed(3);
+        assertEquals(3, metrics.getFlushRequests());
+        assertEquals(1, metrics.getFlushes());
+    }
+
+    @Test
+    void flush_withCoalescing_flushesOnClose() {
+        createChannel(new MqttClientAdvancedConfigBuilder.Default().flushCoalescing(3, 1, TimeUnit.MINUTES).build(),
+                metrics);
+
+        channel.writeOutbound(MqttPingReq.INSTANCE);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        channel.close();
+        assertFlushed(1);
+        assertEquals(1, metrics.getFlushes());
+    }
+
+    @Test
+    void flushCoalescing_delayWithoutCoalescing_throws() {
+        final MqttClientAdvancedConfigBuilder.Default builder = new MqttClientAdvancedConfigBuilder.Default();
+        assertThrows(IllegalArgumentException.class, () -> builder.flushCoalescing(1, 100, TimeUnit.MICROSECONDS));
+        builder.flushCoalescing(1, 0, TimeUnit.MICROSECONDS);
+    }
+
+    private void assertFlushed(final int count) {
+        for (int i = 0; i < count; i++) {
+            final ByteBuf byteBuf = channel.readOutbound();
+            assertEquals(2, byteBuf.readableBytes());
+            byteBuf.release();
+        }
+        assertNull(channel.readOutbound());
+    }
+}
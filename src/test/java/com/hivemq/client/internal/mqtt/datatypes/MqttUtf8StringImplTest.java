@@ -365,6 +365,22 @@ class MqttUtf8StringImplTest {
         assertTrue(MqttUtf8StringImpl.of(new byte[]{'t', 'e', 's', 't'}).equals(stringAndBinary));
     }
 
+    @Test
+    @SuppressWarnings({"SimplifiableJUnitAssertion", "ConstantConditions"})
+    void equals_stringAndBinary_nonAscii() {
+        final byte[] binary = "t\u00e9st".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(MqttUtf8StringImpl.of("t\u00e9st").equals(MqttUtf8StringImpl.of(binary)));
+        assertTrue(MqttUtf8StringImpl.of(binary).equals(MqttUtf8StringImpl.of("t\u00e9st")));
+
+        assertFalse(MqttUtf8StringImpl.of("t\u00e9s").equals(MqttUtf8StringImpl.of(binary)));
+        assertFalse(MqttUtf8StringImpl.of("x\u00e9st").equals(MqttUtf8StringImpl.of(binary)));
+        assertFalse(MqttUtf8StringImpl.of("test").equals(MqttUtf8StringImpl.of(binary)));
+        assertFalse(MqttUtf8StringImpl.of("t\u00e9st").equals(MqttUtf8StringImpl.of(new byte[]{'t', 'e', 's', 't'})));
+        assertFalse(MqttUtf8StringImpl.of("tes").equals(MqttUtf8StringImpl.of(new byte[]{'t', 'e', 's', 't'})));
+        assertFalse(MqttUtf8StringImpl.of("test2").equals(MqttUtf8StringImpl.of(new byte[]{'t', 'e', 's', 't'})));
+    }
+
     @Test
     @SuppressWarnings("ConstantConditions")
     void compareTo_converted() {
@@ -388,4 +404,14 @@ class MqttUtf8StringImplTest {
         assertEquals("test".hashCode(), string.hashCode());
         assertEquals("test".hashCode(), binary.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashCode_nonAscii_sameAsString() {
+        final MqttUtf8StringImpl binary =
+                MqttUtf8StringImpl.of("t\u00e9st\uD83D\uDE00".getBytes(StandardCharsets.UTF_8));
+        assertNotNull(binary);
+
+        assertEquals("t\u00e9st\uD83D\uDE00".hashCode(), binary.hashCode());
+        assertEquals("t\u00e9st\uD83D\uDE00".hashCode(), binary.hashCode());
+    }
+}
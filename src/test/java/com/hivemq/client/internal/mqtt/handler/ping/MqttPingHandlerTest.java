@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.ping;
+
+import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectEvent;
+import com.hivemq.client.internal.mqtt.message.ping.MqttPingReq;
+import com.hivemq.client.internal.mqtt.message.ping.MqttPingResp;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttPingHandlerTest {
+
+    private final @NotNull List<MqttDisconnectEvent> disconnectEvents = new ArrayList<>();
+    private MqttPingHandler handler;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        // last flush and read lie a whole keep alive interval in the past, so the first check sends a PINGREQ
+        final long timeNanos = System.nanoTime() - TimeUnit.SECONDS.toNanos(60);
+        handler = new MqttPingHandler(60, timeNanos, timeNanos, true, false);
+        channel = new EmbeddedChannel(handler, new ChannelInboundHandlerAdapter() {
+            @Override
+            public void userEventTriggered(final @NotNull ChannelHandlerContext ctx, final @NotNull Object evt) {
+                if (evt instanceof MqttDisconnectEvent) {
+                    disconnectEvents.add((MqttDisconnectEvent) evt);
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    @Test
+    void pingResp_notReceived_timesOut() {
+        handler.run();
+        assertSame(MqttPingReq.INSTANCE, channel.readOutbound());
+
+        handler.run();
+        assertEquals(1, disconnectEvents.size());
+    }
+
+    @Test
+    void pingResp_received_doesNotTimeOut() {
+        handler.run();
+        assertSame(MqttPingReq.INSTANCE, channel.readOutbound());
+        channel.writeInbound(MqttPingResp.INSTANCE);
+
+        handler.run();
+        assertTrue(disconnectEvents.isEmpty());
+    }
+
+    @Test
+    void pingResp_notReceivedWhileReadingPaused_timeoutPostponed() {
+        handler.run();
+        assertSame(MqttPingReq.INSTANCE, channel.readOutbound());
+        channel.config().setAutoRead(false);
+
+        handler.run();
+        assertTrue(disconnectEvents.isEmpty());
+        assertNull(channel.readOutbound());
+
+        channel.config().setAutoRead(true);
+        channel.writeInbound(MqttPingResp.INSTANCE);
+        handler.run();
+        assertTrue(disconnectEvents.isEmpty());
+    }
+
+    @Test
+    void pingResp_notReceivedAfterReadingResumed_timesOut() {
+        handler.run();
+        assertSame(MqttPingReq.INSTANCE, channel.readOutbound());
+        channel.config().setAutoRead(false);
+        handler.run();
+        assertTrue(disconnectEvents.isEmpty());
+
+        channel.config().setAutoRead(true);
+        handler.run();
+        assertEquals(1, disconnectEvents.size());
+    }
+
+    @Test
+    void pingResp_notReceivedWhileReadingPausedLongerThanKeepAlive_timesOut() {
+        handler.run();
+        assertSame(MqttPingReq.INSTANCE, channel.readOutbound());
+        channel.config().setAutoRead(false);
+
+        handler.run();
+        assertTrue(disconnectEvents.isEmpty());
+        handler.run();
+        assertEquals(1, disconnectEvents.size());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.ping;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttPingTimerTest {
+
+    private EmbeddedChannel channel;
+    private EventLoop eventLoop;
+    private MqttPingTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel();
+        eventLoop = channel.eventLoop();
+        timer = new MqttPingTimer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    @Test
+    void schedule_runsAfterDelayRoundedDownToTicks() {
+        final AtomicInteger runs = new AtomicInteger();
+        timer.schedule(eventLoop, runs::incrementAndGet, TimeUnit.MILLISECONDS.toNanos(350));
+        assertEquals(1, timer.size());
+
+        timer.run();
+        timer.run();
+        assertEquals(0, runs.get());
+        timer.run();
+        assertEquals(1, runs.get());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void schedule_delayLessThanOneTick_runsOnNextTick() {
+        final AtomicInteger runs = new AtomicInteger();
+        timer.schedule(eventLoop, runs::incrementAndGet, 1_000);
+
+        timer.run();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void schedule_delayLongerThanWheel_runsOnlyAfterFullDelay() {
+        final AtomicInteger runs = new AtomicInteger();
+        final int ticks = 600;
+        timer.schedule(eventLoop, runs::incrementAndGet, ticks * MqttPingTimer.TICK_NANOS);
+
+        for (int i = 1; i < ticks; i++) {
+            timer.run();
+        }
+        assertEquals(0, runs.get());
+        timer.run();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void schedule_rescheduleFromTask() {
+        final AtomicInteger runs = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (runs.incrementAndGet() < 3) {
+                    timer.schedule(eventLoop, this, MqttPingTimer.TICK_NANOS);
+                }
+            }
+        };
+        timer.schedule(eventLoop, task, MqttPingTimer.TICK_NANOS);
+
+        for (int i = 0; i < 5; i++) {
+            timer.run();
+        }
+        assertEquals(3, runs.get());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void schedule_multipleTasksInSameBucket() {
+        final AtomicInteger runs = new AtomicInteger();
+        timer.schedule(eventLoop, runs::incrementAndGet, MqttPingTimer.TICK_NANOS);
+        timer.schedule(eventLoop, runs::incrementAndGet, MqttPingTimer.TICK_NANOS);
+        timer.schedule(eventLoop, runs::incrementAndGet, 2 * MqttPingTimer.TICK_NANOS);
+        assertEquals(3, timer.size());
+
+        timer.run();
+        assertEquals(2, runs.get());
+        timer.run();
+        assertEquals(3, runs.get());
+        assertEquals(0, timer.size());
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.incoming;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.metrics.MqttClientMetricsRecorder;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5IncomingQos0OverflowPolicy;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.reactivex.subscribers.TestSubscriber;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttIncomingPublishServiceTest {
+
+    private final @NotNull MqttClientMetricsRecorder metrics = MqttClientMetricsRecorder.create();
+    private MqttClientConfig clientConfig;
+    private MqttIncomingQosHandler handler;
+    private EmbeddedChannel channel;
+    private TestFlow flow;
+
+    private void setUp(final @NotNull MqttClientAdvancedConfig advancedConfig) {
+        clientConfig = new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("test"),
+                MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
+                MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(), ImmutableList.of(),
+                metrics);
+        final MqttIncomingPublishFlows incomingPublishFlows = new MqttIncomingPublishFlows(clientConfig);
+        handler = new MqttIncomingQosHandler(clientConfig, incomingPublishFlows);
+        channel = new EmbeddedChannel(handler);
+        handler.onSessionStartOrResume(
+                new MqttClientConnectionConfig(MqttClientTransportConfigImpl.DEFAULT, 10, true, true, 0, false, false,
+                        null, 10, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, true, false, 10,
+                        MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, MqttQos.EXACTLY_ONCE, true, true, true,
+                        true, channel, null), channel.eventLoop());
+        flow = new TestFlow();
+        flow.init();
+        incomingPublishFlows.subscribeGlobal(flow);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flow.cancel();
+        channel.close();
+    }
+
+    @Test
+    void qos0DropNewest_receivedPublishDroppedIfBufferFull() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(2, Long.MAX_VALUE)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.DROP_NEWEST)
+                .build());
+
+        publishQos0(0, 1);
+        publishQos0(1, 1);
+        publishQos0(2, 1);
+        assertEquals(1, metrics.getQos0Dropped());
+
+        flow.demand(10);
+        assertReceived(0, 1);
+    }
+
+    @Test
+    void qos0DropOldest_bytes_oldestPublishesDroppedUntilReceivedPublishFits() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(100, 10)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.DROP_OLDEST)
+                .build());
+
+        publishQos0(0, 4);
+        publishQos0(1, 4);
+        publishQos0(2, 4);
+        assertEquals(1, metrics.getQos0Dropped());
+        publishQos0(3, 6);
+        assertEquals(2, metrics.getQos0Dropped());
+
+        flow.demand(10);
+        assertReceived(2, 3);
+    }
+
+    @Test
+    void qos0DropOldest_publishLargerThanBuffer_droppedWithoutDroppingBuffered() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(100, 10)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.DROP_OLDEST)
+                .build());
+
+        publishQos0(0, 4);
+        publishQos0(1, 4);
+        publishQos0(2, 11);
+        assertEquals(1, metrics.getQos0Dropped());
+
+        flow.demand(10);
+        assertReceived(0, 1);
+    }
+
+    @Test
+    void qos0Backpressure_readingPausedAsSoonAsBufferFull() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(2, Long.MAX_VALUE)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.BACKPRESSURE)
+                .build());
+
+        publishQos0(0, 1);
+        assertTrue(channel.config().isAutoRead());
+        publishQos0(1, 1);
+        assertFalse(channel.config().isAutoRead());
+        publishQos0(2, 1); // already read together with the publish that filled the buffer
+        assertFalse(channel.config().isAutoRead());
+
+        flow.demand(1);
+        assertFalse(channel.config().isAutoRead());
+        flow.demand(1);
+        assertTrue(channel.config().isAutoRead());
+
+        flow.demand(10);
+        assertReceived(0, 1, 2);
+        assertEquals(0, metrics.getQos0Dropped());
+    }
+
+    @Test
+    void qos0Backpressure_bytes_readingPausedAsSoonAsBufferFull() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(100, 10)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.BACKPRESSURE)
+                .build());
+
+        publishQos0(0, 6);
+        assertTrue(channel.config().isAutoRead());
+        publishQos0(1, 4);
+        assertFalse(channel.config().isAutoRead());
+
+        flow.demand(1);
+        assertTrue(channel.config().isAutoRead());
+        flow.demand(10);
+        assertReceived(0, 1);
+    }
+
+    @Test
+    void qos0Backpressure_publishLargerThanBuffer_dropped() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(100, 10)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.BACKPRESSURE)
+                .build());
+
+        publishQos0(0, 11);
+        assertEquals(1, metrics.getQos0Dropped());
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    void qos0Overflow_episodeEndsWhenPublishFitsAgain() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingQos0Buffer(1, Long.MAX_VALUE)
+                .incomingQos0OverflowPolicy(Mqtt5IncomingQos0OverflowPolicy.DROP_NEWEST)
+                .build());
+        final MqttIncomingPublishService service = handler.incomingPublishService;
+
+        publishQos0(0, 1);
+        assertFalse(service.isQos0Overflowing());
+        publishQos0(1, 1); // warning is logged
+        assertTrue(service.isQos0Overflowing());
+        publishQos0(2, 1); // no further warning in the same episode
+        assertTrue(service.isQos0Overflowing());
+
+        flow.demand(1);
+        publishQos0(3, 1);
+        assertFalse(service.isQos0Overflowing());
+        publishQos0(4, 1); // warning is logged again
+        assertTrue(service.isQos0Overflowing());
+        assertEquals(3, metrics.getQos0Dropped());
+
+        flow.demand(10);
+        assertReceived(0, 3);
+    }
+
+    @Test
+    void backpressure_pausedAtHighWaterMark_resumedAtLowWaterMark() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingBackpressure(3, 1).build());
+
+        publishQos0(0, 1);
+        publishQos0(1, 1);
+        assertTrue(channel.config().isAutoRead());
+        publishQos0(2, 1);
+        assertFalse(channel.config().isAutoRead());
+
+        flow.demand(1);
+        assertFalse(channel.config().isAutoRead());
+        flow.demand(1);
+        assertTrue(channel.config().isAutoRead());
+
+        flow.demand(10);
+        assertReceived(0, 1, 2);
+    }
+
+    @Test
+    void backpressureBytes_pausedAtHighWaterMark_resumedAtLowWaterMark() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingBackpressureBytes(10, 4).build());
+
+        publishQos0(0, 6);
+        assertTrue(channel.config().isAutoRead());
+        publishQos0(1, 4);
+        assertFalse(channel.config().isAutoRead());
+
+        flow.demand(1);
+        assertTrue(channel.config().isAutoRead());
+
+        flow.demand(10);
+        assertReceived(0, 1);
+    }
+
+    @Test
+    void backpressure_resumedAfterDrainingEverything() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingBackpressure(2, 0).build());
+
+        publishQos0(0, 1);
+        publishQos0(1, 1);
+        assertFalse(channel.config().isAutoRead());
+
+        flow.demand(1);
+        assertFalse(channel.config().isAutoRead());
+        flow.demand(1);
+        assertTrue(channel.config().isAutoRead());
+        assertReceived(0, 1);
+    }
+
+    @Test
+    void backpressure_channelEnd_pausedChannelNotResumed() {
+        setUp(new MqttClientAdvancedConfigBuilder.Default().incomingBackpressure(1, 0).build());
+
+        publishQos0(0, 1);
+        assertFalse(channel.config().isAutoRead());
+
+        MqttDisconnectUtil.close(channel, "test");
+        flow.demand(10);
+        assertReceived(0);
+        assertFalse(channel.config().isAutoRead());
+    }
+
+    private void publishQos0(final int index, final int payloadSize) {
+        channel.writeInbound(new MqttPublishBuilder.Default().topic("topic/" + index)
+                .qos(MqttQos.AT_MOST_ONCE)
+                .payload(new byte[payloadSize])
+                .build()
+                .createStateful(NO_PACKET_IDENTIFIER_QOS_0, false, DEFAULT_NO_TOPIC_ALIAS,
+                        DEFAULT_NO_SUBSCRIPTION_IDENTIFIERS));
+    }
+
+    private void assertReceived(final int... indices) {
+        final List<String> expected = new ArrayList<>();
+        for (final int index : indices) {
+            expected.add("topic/" + index);
+        }
+        final List<String> actual = new ArrayList<>();
+        for (final Mqtt5Publish publish : flow.received) {
+            actual.add(publish.getTopic().toString());
+        }
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Flow with demand that is controlled by the test and drained on the calling thread.
+     */
+    private class TestFlow extends MqttGlobalIncomingPublishFlow {
+
+        final @NotNull List<Mqtt5Publish> received = new ArrayList<>();
+        private long demand;
+
+        TestFlow() {
+            super(new TestSubscriber<>(), clientConfig, handler, MqttGlobalPublishFilter.ALL, false);
+        }
+
+        void demand(final long n) {
+            demand += n;
+            handler.incomingPublishService.drain();
+        }
+
+        @Override
+        long requested(final long runIndex) {
+            return demand;
+        }
+
+        @Override
+        public void onNext(final @NotNull Mqtt5Publish result) {
+            received.add(result);
+            demand--;
+        }
+
+        @Override
+        protected void onCancel() {}
+    }
+}
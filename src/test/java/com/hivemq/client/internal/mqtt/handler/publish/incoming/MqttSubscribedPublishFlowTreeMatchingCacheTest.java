@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.incoming;
+
+import com.google.common.collect.ImmutableSet;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscription;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscriptionBuilder;
+import com.hivemq.client.internal.util.collections.HandleList;
+import com.hivemq.client.internal.util.collections.ImmutableIntList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttSubscribedPublishFlowTreeMatchingCacheTest extends MqttSubscribedPublishFlowsTest {
+
+    MqttSubscribedPublishFlowTreeMatchingCacheTest() {
+        super(() -> new MqttSubscribedPublishFlowTree(false, 2));
+    }
+
+    @Test
+    void findMatching_cached_sameFlows() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+");
+        final MqttSubscribedPublishFlow flow2 = subscribe("a/#");
+
+        for (int i = 0; i < 3; i++) {
+            final MqttStatefulPublishWithFlows publishWithFlows = findMatching("a/b");
+            assertTrue(publishWithFlows.subscriptionFound);
+            assertEquals(ImmutableSet.of(flow1, flow2), toElementSet(publishWithFlows));
+        }
+    }
+
+    @Test
+    void findMatching_cachedNoMatch_subscribe_invalidates() {
+        assertFalse(findMatching("a/b").subscriptionFound);
+
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+");
+        final MqttStatefulPublishWithFlows publishWithFlows = findMatching("a/b");
+        assertTrue(publishWithFlows.subscriptionFound);
+        assertEquals(ImmutableSet.of(flow1), toElementSet(publishWithFlows));
+    }
+
+    @Test
+    void findMatching_cached_unsubscribe_invalidates() {
+        subscribe("a/+");
+        assertTrue(findMatching("a/b").subscriptionFound);
+
+        flows.unsubscribe(new MqttSubscriptionBuilder.Default().topicFilter("a/+").build().getTopicFilter());
+        final MqttStatefulPublishWithFlows publishWithFlows = findMatching("a/b");
+        assertFalse(publishWithFlows.subscriptionFound);
+        assertTrue(publishWithFlows.isEmpty());
+    }
+
+    @Test
+    void findMatching_cached_cancel_invalidates() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+");
+        assertEquals(ImmutableSet.of(flow1), toElementSet(findMatching("a/b")));
+
+        flows.cancel(flow1);
+        final MqttStatefulPublishWithFlows publishWithFlows = findMatching("a/b");
+        assertTrue(publishWithFlows.subscriptionFound);
+        assertTrue(publishWithFlows.isEmpty());
+    }
+
+    @Test
+    void findMatching_evicted_stillMatches() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+");
+        final MqttSubscribedPublishFlow flow2 = subscribe("b/+");
+
+        assertEquals(ImmutableSet.of(flow1), toElementSet(findMatching("a/a")));
+        assertEquals(ImmutableSet.of(flow1), toElementSet(findMatching("a/b")));
+        assertEquals(ImmutableSet.of(flow2), toElementSet(findMatching("b/a")));
+        assertEquals(ImmutableSet.of(flow1), toElementSet(findMatching("a/a")));
+    }
+
+    private @NotNull MqttSubscribedPublishFlow subscribe(final @NotNull String topicFilter) {
+        final MqttSubscription subscription = new MqttSubscriptionBuilder.Default().topicFilter(topicFilter).build();
+        final MqttSubscribedPublishFlow flow = mockSubscriptionFlow(topicFilter);
+        flows.subscribe(subscription, 1, flow);
+        flows.suback(subscription.getTopicFilter(), 1, false);
+        return flow;
+    }
+
+    private @NotNull MqttStatefulPublishWithFlows findMatching(final @NotNull String topic) {
+        final MqttStatefulPublishWithFlows publishWithFlows = new MqttStatefulPublishWithFlows(
+                new MqttPublishBuilder.Default().topic(topic)
+                        .build()
+                        .createStateful(1, false, MqttStatefulPublish.DEFAULT_NO_TOPIC_ALIAS,
+                                ImmutableIntList.of()));
+        flows.findMatching(publishWithFlows);
+        return publishWithFlows;
+    }
+
+    private static <E> @NotNull ImmutableSet<E> toElementSet(final @NotNull HandleList<E> list) {
+        final ImmutableSet.Builder<E> builder = ImmutableSet.builder();
+        for (HandleList.Handle<E> h = list.getFirst(); h != null; h = h.getNext()) {
+            builder.add(h.getElement());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.incoming;
+
+import com.google.common.collect.ImmutableSet;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscription;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscriptionBuilder;
+import com.hivemq.client.internal.util.collections.HandleList;
+import com.hivemq.client.internal.util.collections.ImmutableIntList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttSubscribedPublishFlowTreeSubscriptionIdentifierRoutingTest extends MqttSubscribedPublishFlowsTest {
+
+    MqttSubscribedPublishFlowTreeSubscriptionIdentifierRoutingTest() {
+        super(() -> new MqttSubscribedPublishFlowTree(true, 0));
+    }
+
+    @Test
+    void findMatching_subscriptionIdentifiers_doNotTraverseTree() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+", 1);
+        final MqttSubscribedPublishFlow flow2 = subscribe("b/#", 2);
+
+        // topic deliberately does not match, the subscription identifiers alone determine the flows
+        final MqttStatefulPublishWithFlows publishWithFlows = newPublishWithFlows("c", ImmutableIntList.of(2, 1, 2));
+        flows.findMatching(publishWithFlows);
+        assertTrue(publishWithFlows.subscriptionFound);
+        assertEquals(ImmutableSet.of(flow1, flow2), toElementSet(publishWithFlows));
+        assertEquals(2, count(publishWithFlows));
+    }
+
+    @Test
+    void findMatching_unknownSubscriptionIdentifier_traversesTree() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+", 1);
+        subscribe("b/#", 2);
+
+        final MqttStatefulPublishWithFlows publishWithFlows = newPublishWithFlows("a/b", ImmutableIntList.of(2, 3));
+        flows.findMatching(publishWithFlows);
+        assertTrue(publishWithFlows.subscriptionFound);
+        assertEquals(ImmutableSet.of(flow1), toElementSet(publishWithFlows));
+    }
+
+    @Test
+    void findMatching_unsubscribed_traversesTree() {
+        subscribe("a/+", 1);
+        flows.unsubscribe(new MqttSubscriptionBuilder.Default().topicFilter("a/+").build().getTopicFilter());
+
+        final MqttStatefulPublishWithFlows publishWithFlows = newPublishWithFlows("a/b", ImmutableIntList.of(1));
+        flows.findMatching(publishWithFlows);
+        assertFalse(publishWithFlows.subscriptionFound);
+        assertTrue(publishWithFlows.isEmpty());
+    }
+
+    @Test
+    void findMatching_subackError_traversesTree() {
+        final MqttSubscription subscription = new MqttSubscriptionBuilder.Default().topicFilter("a/+").build();
+        flows.subscribe(subscription, 1, mockSubscriptionFlow("a/+"));
+        flows.suback(subscription.getTopicFilter(), 1, true);
+
+        final MqttStatefulPublishWithFlows publishWithFlows = newPublishWithFlows("a/b", ImmutableIntList.of(1));
+        flows.findMatching(publishWithFlows);
+        assertFalse(publishWithFlows.subscriptionFound);
+        assertTrue(publishWithFlows.isEmpty());
+    }
+
+    @Test
+    void findMatching_cancelled_subscriptionFoundWithoutFlow() {
+        final MqttSubscribedPublishFlow flow1 = subscribe("a/+", 1);
+        flows.cancel(flow1);
+
+        final MqttStatefulPublishWithFlows publishWithFlows = newPublishWithFlows("a/b", ImmutableIntList.of(1));
+        flows.findMatching(publishWithFlows);
+        assertTrue(publishWithFlows.subscriptionFound);
+        assertTrue(publishWithFlows.isEmpty());
+    }
+
+    private @NotNull MqttSubscribedPublishFlow subscribe(final @NotNull String topicFilter, final int identifier) {
+        final MqttSubscription subscription = new MqttSubscriptionBuilder.Default().topicFilter(topicFilter).build();
+        final MqttSubscribedPublishFlow flow = mockSubscriptionFlow(topicFilter);
+        flows.subscribe(subscription, identifier, flow);
+        flows.suback(subscription.getTopicFilter(), identifier, false);
+        return flow;
+    }
+
+    private static @NotNull MqttStatefulPublishWithFlows newPublishWithFlows(
+            final @NotNull String topic, final @NotNull ImmutableIntList subscriptionIdentifiers) {
+
+        return new MqttStatefulPublishWithFlows(new MqttPublishBuilder.Default().topic(topic)
+                .build()
+                .createStateful(1, false, MqttStatefulPublish.DEFAULT_NO_TOPIC_ALIAS, subscriptionIdentifiers));
+    }
+
+    private static <E> @NotNull ImmutableSet<E> toElementSet(final @NotNull HandleList<E> list) {
+        final ImmutableSet.Builder<E> builder = ImmutableSet.builder();
+        for (HandleList.Handle<E> h = list.getFirst(); h != null; h = h.getNext()) {
+            builder.add(h.getElement());
+        }
+        return builder.build();
+    }
+
+    private static int count(final @NotNull HandleList<?> list) {
+        int count = 0;
+        for (HandleList.Handle<?> h = list.getFirst(); h != null; h = h.getNext()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -806,7 +806,7 @@ abstract class MqttSubscribedPublishFlowsTest {
                 (subscriptionId, subscriptionsForId) -> assertEquals(atomicInteger.addAndGet(-2), subscriptionId));
     }
 
-    private static @NotNull MqttSubscribedPublishFlow mockSubscriptionFlow(final @NotNull String name) {
+    static @NotNull MqttSubscribedPublishFlow mockSubscriptionFlow(final @NotNull String name) {
         final MqttSubscribedPublishFlow flow = mock(MqttSubscribedPublishFlow.class);
         final HandleList<MqttTopicFilterImpl> topicFilters = new HandleList<>();
         when(flow.getTopicFilters()).thenReturn(topicFilters);
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.exceptions.MqttClientStateException;
+import com.hivemq.client.mqtt.mqtt5.advanced.Mqtt5OfflinePublishOverflowPolicy;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttOfflinePublishBufferTest {
+
+    // every publish has a topic of 3 encoded bytes and a payload of 7 bytes
+    private static final int PUBLISH_BYTES = 10;
+
+    @TempDir
+    Path directory;
+
+    private final @NotNull EmbeddedChannel channel = new EmbeddedChannel();
+    private final @NotNull MqttClientConfig clientConfig =
+            new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("test"),
+                    MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT,
+                    MqttClientAdvancedConfig.DEFAULT, MqttClientConfig.ConnectDefaults.of(null, null, null),
+                    ImmutableList.of(), ImmutableList.of(), null);
+    private final @NotNull TestAckFlow flow = new TestAckFlow();
+    private final @NotNull List<MqttPublishWithFlow> drained = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        flow.cancel();
+        channel.close();
+    }
+
+    @Test
+    void offer_connectedAndEmpty_notTaken() {
+        final MqttOfflinePublishBuffer buffer = buffer();
+        buffer.setConnected(true);
+
+        assertFalse(buffer.offer(single("a")));
+    }
+
+    @Test
+    void offer_connectedAndNotEmpty_takenBehindBufferedPublishes() {
+        final MqttOfflinePublishBuffer buffer = buffer();
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+
+        assertTrue(buffer.offer(publish0));
+        assertEquals(MqttAckFlow.INGRESS_OFFLINE, flow.ingress);
+        buffer.setConnected(true);
+        assertTrue(buffer.offer(publish1));
+
+        buffer.drain(() -> true, drained::add);
+        assertDrained(publish0, publish1);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow.ingress);
+    }
+
+    @Test
+    void offer_countLimit_dropNewest() {
+        final MqttOfflinePublishBuffer buffer =
+                buffer(new MqttClientAdvancedConfigBuilder.Default().offlinePublishBuffer(2, 1024));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        final MqttPublishWithFlow publish2 = single("c");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertTrue(buffer.offer(publish2));
+        assertFailed(MqttClientStateException.class, publish2);
+
+        drainAll(buffer);
+        assertDrained(publish0, publish1);
+    }
+
+    @Test
+    void offer_countLimit_dropOldest() {
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(2, 1024)
+                .offlinePublishOverflowPolicy(Mqtt5OfflinePublishOverflowPolicy.DROP_OLDEST));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        final MqttPublishWithFlow publish2 = single("c");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertTrue(buffer.offer(publish2));
+        assertFailed(MqttClientStateException.class, publish0);
+
+        drainAll(buffer);
+        assertDrained(publish1, publish2);
+    }
+
+    @Test
+    void offer_byteLimit_dropNewest() {
+        final MqttOfflinePublishBuffer buffer = buffer(
+                new MqttClientAdvancedConfigBuilder.Default().offlinePublishBuffer(10, 2 * PUBLISH_BYTES + 1));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        final MqttPublishWithFlow publish2 = single("c");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertTrue(buffer.offer(publish2));
+        assertFailed(MqttClientStateException.class, publish2);
+
+        drainAll(buffer);
+        assertDrained(publish0, publish1);
+    }
+
+    @Test
+    void offer_byteLimit_dropOldestUntilFits() {
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(10, 3 * PUBLISH_BYTES)
+                .offlinePublishOverflowPolicy(Mqtt5OfflinePublishOverflowPolicy.DROP_OLDEST));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        final MqttPublishWithFlow publish2 = single("c");
+        final MqttPublishWithFlow batch = batch("d", "e");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertTrue(buffer.offer(publish2));
+        assertTrue(buffer.offer(batch));
+        assertFailed(MqttClientStateException.class, publish0, publish1);
+
+        drainAll(buffer);
+        assertDrained(publish2, batch);
+    }
+
+    @Test
+    void offer_batchLargerThanLimit_dropped() {
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(2, 1024)
+                .offlinePublishOverflowPolicy(Mqtt5OfflinePublishOverflowPolicy.DROP_OLDEST));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow batch = batch("b", "c", "d");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(batch));
+        assertFailed(MqttClientStateException.class, batch, batch.nextInBatch, batch.nextInBatch.nextInBatch);
+
+        drainAll(buffer);
+        assertDrained(publish0);
+    }
+
+    @Test
+    void offer_beyondMemoryBudget_spilledInOrder() throws IOException {
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(10, 1024)
+                .offlinePublishBufferSpill(PUBLISH_BYTES, directory));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        final MqttPublishWithFlow batch = batch("c", "d");
+        final MqttPublishWithFlow publish2 = single("e");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertTrue(buffer.offer(batch));
+        assertTrue(buffer.offer(publish2));
+        assertEquals(1, spillSegmentCount());
+
+        // batches are kept in memory even beyond the budget
+        drainAll(buffer);
+        assertEquals(4, drained.size());
+        assertSame(publish0, drained.get(0));
+        assertSpilled("b", drained.get(1));
+        assertSame(batch, drained.get(2));
+        assertSpilled("e", drained.get(3));
+    }
+
+    @Test
+    void offer_spillDirectoryNotUsable_keptInMemory() throws IOException {
+        final Path file = Files.createFile(directory.resolve("file"));
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(10, 1024)
+                .offlinePublishBufferSpill(0, file));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+
+        drainAll(buffer);
+        assertDrained(publish0, publish1);
+    }
+
+    @Test
+    void drain_notConnected_nothingDrained() {
+        final MqttOfflinePublishBuffer buffer = buffer();
+        assertTrue(buffer.offer(single("a")));
+
+        buffer.drain(() -> true, drained::add);
+        assertTrue(drained.isEmpty());
+    }
+
+    @Test
+    void drain_limitedByCredits() {
+        final MqttOfflinePublishBuffer buffer = buffer();
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow batch = batch("b", "c");
+        final MqttPublishWithFlow publish1 = single("d");
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(batch));
+        assertTrue(buffer.offer(publish1));
+        buffer.setConnected(true);
+        final int[] credits = {2};
+
+        // a batch needs only one credit
+        buffer.drain(() -> credits[0]-- > 0, drained::add);
+        assertDrained(publish0, batch);
+
+        drained.clear();
+        buffer.drain(() -> false, drained::add);
+        assertTrue(drained.isEmpty());
+        buffer.drain(() -> true, drained::add);
+        assertDrained(publish1);
+        assertFalse(buffer.offer(single("e")));
+    }
+
+    @Test
+    void clear_bufferedAndSpilledPublishesFailed_spillDeleted() throws IOException {
+        final MqttOfflinePublishBuffer buffer = buffer(new MqttClientAdvancedConfigBuilder.Default()
+                .offlinePublishBuffer(10, 1024)
+                .offlinePublishBufferSpill(PUBLISH_BYTES, directory));
+        final MqttPublishWithFlow publish0 = single("a");
+        final MqttPublishWithFlow publish1 = single("b");
+        assertTrue(buffer.offer(publish0));
+        assertTrue(buffer.offer(publish1));
+        assertEquals(1, spillSegmentCount());
+        final Exception cause = new Exception("session expired");
+
+        buffer.clear(cause);
+        assertEquals(0, spillSegmentCount());
+        channel.runPendingTasks();
+        assertEquals(2, flow.results.size());
+        assertSame(publish0.getPublish(), flow.results.get(0).getPublish());
+        assertSame(cause, flow.results.get(0).getError().orElse(null));
+        assertEquals("b", flow.results.get(1).getPublish().getTopic().toString());
+        assertSame(cause, flow.results.get(1).getError().orElse(null));
+
+        buffer.setConnected(true);
+        assertFalse(buffer.offer(single("c")));
+    }
+
+    private static @NotNull MqttOfflinePublishBuffer buffer() {
+        return buffer(new MqttClientAdvancedConfigBuilder.Default().offlinePublishBuffer(10, 1024));
+    }
+
+    private static @NotNull MqttOfflinePublishBuffer buffer(
+            final @NotNull MqttClientAdvancedConfigBuilder.Default builder) {
+
+        return new MqttOfflinePublishBuffer(builder.build());
+    }
+
+    private void drainAll(final @NotNull MqttOfflinePublishBuffer buffer) {
+        buffer.setConnected(true);
+        buffer.drain(() -> true, drained::add);
+    }
+
+    private void assertDrained(final @NotNull MqttPublishWithFlow @NotNull ... publishes) {
+        assertEquals(publishes.length, drained.size());
+        for (int i = 0; i < publishes.length; i++) {
+            assertSame(publishes[i], drained.get(i));
+        }
+    }
+
+    private void assertFailed(
+            final @NotNull Class<? extends Throwable> causeType,
+            final @NotNull MqttPublishWithFlow @NotNull ... publishes) {
+
+        assertTrue(flow.results.isEmpty()); // results are emitted on the event loop
+        channel.runPendingTasks();
+        assertEquals(publishes.length, flow.results.size());
+        for (int i = 0; i < publishes.length; i++) {
+            assertSame(publishes[i].getPublish(), flow.results.get(i).getPublish());
+            assertTrue(causeType.isInstance(flow.results.get(i).getError().orElse(null)));
+        }
+    }
+
+    private static void assertSpilled(final @NotNull String topic, final @NotNull MqttPublishWithFlow publishWithFlow) {
+        assertEquals(topic, publishWithFlow.getPublish().getTopic().toString());
+        assertArrayEquals(payload(), publishWithFlow.getPublish().getPayloadAsBytes());
+    }
+
+    private long spillSegmentCount() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spill")).count();
+        }
+    }
+
+    private @NotNull MqttPublishWithFlow single(final @NotNull String topic) {
+        return new MqttPublishWithFlow(publish(topic), flow);
+    }
+
+    private @NotNull MqttPublishWithFlow batch(final @NotNull String @NotNull ... topics) {
+        final MqttPublishWithFlow first = new MqttPublishWithFlow(publish(topics[0]), flow);
+        MqttPublishWithFlow last = first;
+        for (int i = 1; i < topics.length; i++) {
+            last = last.nextInBatch = new MqttPublishWithFlow(publish(topics[i]), flow);
+            last.batchIndex = i;
+        }
+        return first;
+    }
+
+    private static @NotNull MqttPublish publish(final @NotNull String topic) {
+        return new MqttPublishBuilder.Default().topic(topic).qos(MqttQos.AT_LEAST_ONCE).payload(payload()).build();
+    }
+
+    private static byte @NotNull [] payload() {
+        return new byte[]{1, 2, 3, 4, 5, 6, 7};
+    }
+
+    /**
+     * Ack flow that runs on the event loop of the embedded channel and records the results.
+     */
+    private class TestAckFlow extends MqttAckFlow {
+
+        final @NotNull List<MqttPublishResult> results = new ArrayList<>();
+
+        TestAckFlow() {
+            super(clientConfig);
+            init();
+        }
+
+        @Override
+        void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
+            results.add(result);
+        }
+
+        @Override
+        void acknowledged(final long acknowledged) {}
+
+        @Override
+        public @NotNull EventLoop getEventLoop() {
+            return channel.eventLoop();
+        }
+    }
+}
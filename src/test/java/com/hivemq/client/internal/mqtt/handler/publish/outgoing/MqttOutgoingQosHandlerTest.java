@@ -0,0 +1,684 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertiesImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.mqtt.handler.disconnect.MqttDisconnectUtil;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublish;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishBuilder;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult.MqttQos2CompleteResult;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult.MqttQos2IntermediateResult;
+import com.hivemq.client.internal.mqtt.message.publish.MqttPublishResult.MqttQos2Result;
+import com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish;
+import com.hivemq.client.internal.mqtt.message.publish.puback.MqttPubAck;
+import com.hivemq.client.internal.mqtt.message.publish.pubcomp.MqttPubComp;
+import com.hivemq.client.internal.mqtt.message.publish.pubrec.MqttPubRec;
+import com.hivemq.client.internal.mqtt.message.publish.pubrel.MqttPubRel;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.lifecycle.MqttDisconnectSource;
+import com.hivemq.client.mqtt.metrics.MqttClientMetrics;
+import com.hivemq.client.mqtt.mqtt5.advanced.persistence.Mqtt5OutgoingPublishStore;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import com.hivemq.client.mqtt.mqtt5.message.publish.puback.Mqtt5PubAckReasonCode;
+import com.hivemq.client.mqtt.mqtt5.message.publish.pubcomp.Mqtt5PubCompReasonCode;
+import com.hivemq.client.mqtt.mqtt5.message.publish.pubrec.Mqtt5PubRecReasonCode;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.reactivex.Flowable;
+import io.reactivex.observers.TestObserver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttOutgoingQosHandlerTest {
+
+    private MqttClientConfig clientConfig;
+    private MqttOutgoingQosHandler handler;
+    private EmbeddedChannel channel;
+    private final @NotNull List<MqttAckFlow> flows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        createHandler(MqttClientAdvancedConfig.DEFAULT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (final MqttAckFlow flow : flows) {
+            flow.cancel();
+        }
+        channel.close();
+    }
+
+    private void createHandler(final @NotNull MqttClientAdvancedConfig advancedConfig) {
+        createHandler(advancedConfig, null);
+    }
+
+    private void createHandler(
+            final @NotNull MqttClientAdvancedConfig advancedConfig, final @Nullable MqttClientMetrics metrics) {
+
+        clientConfig = new MqttClientConfig(MqttVersion.MQTT_5_0, MqttClientIdentifierImpl.of("test"),
+                MqttClientTransportConfigImpl.DEFAULT, MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
+                MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(), ImmutableList.of(),
+                metrics);
+        handler = new MqttOutgoingQosHandler(clientConfig);
+        channel = new EmbeddedChannel(handler);
+    }
+
+    private void connect(final int sendMaximum) {
+        handler.onSessionStartOrResume(
+                new MqttClientConnectionConfig(MqttClientTransportConfigImpl.DEFAULT, 10, true, true, 0, false, false,
+                        null, 10, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, true, false, sendMaximum,
+                        MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, MqttQos.EXACTLY_ONCE, true, true, true,
+                        true, channel, null), channel.eventLoop());
+        channel.runPendingTasks();
+    }
+
+    @Test
+    void publishBatch_resultsAtPositionOfPublishes() {
+        connect(10);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_MOST_ONCE);
+        final MqttPublish publish2 = publish("c", MqttQos.EXACTLY_ONCE);
+        final TestObserver<List<Mqtt5PublishResult>> observer = new TestObserver<>();
+        final MqttAckBatchSingle.Flow flow = batchFlow(observer, 3);
+
+        handler.publishSingle(batch(flow, publish0, publish1, publish2));
+        channel.runPendingTasks();
+        final MqttStatefulPublish stateful0 = channel.readOutbound();
+        final MqttStatefulPublish stateful1 = channel.readOutbound();
+        final MqttStatefulPublish stateful2 = channel.readOutbound();
+        assertSame(publish0, stateful0.stateless());
+        assertSame(publish1, stateful1.stateless());
+        assertSame(publish2, stateful2.stateless());
+
+        // the QoS 0 publish completes on flush, the QoS 2 publish before the QoS 1 publish
+        channel.writeInbound(pubRec(stateful2.getPacketIdentifier()));
+        final MqttPubRel pubRel = channel.readOutbound();
+        channel.writeInbound(pubComp(pubRel.getPacketIdentifier()));
+        observer.assertNoValues();
+        channel.writeInbound(pubAck(stateful0.getPacketIdentifier()));
+
+        observer.assertValueCount(1);
+        final List<Mqtt5PublishResult> results = observer.values().get(0);
+        assertEquals(3, results.size());
+        assertSame(publish0, results.get(0).getPublish());
+        assertSame(publish1, results.get(1).getPublish());
+        assertSame(publish2, results.get(2).getPublish());
+    }
+
+    @Test
+    void publishBatch_largerThanSendMaximum_remainderSentWhenAcknowledged() {
+        connect(2);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish2 = publish("c", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish single = publish("d", MqttQos.AT_LEAST_ONCE);
+        final TestObserver<List<Mqtt5PublishResult>> observer = new TestObserver<>();
+        final MqttAckBatchSingle.Flow flow = batchFlow(observer, 3);
+        final TestAckFlow singleFlow = new TestAckFlow();
+
+        handler.publishSingle(batch(flow, publish0, publish1, publish2));
+        handler.publishSingle(new MqttPublishWithFlow(single, singleFlow));
+        channel.runPendingTasks();
+        final MqttStatefulPublish stateful0 = channel.readOutbound();
+        final MqttStatefulPublish stateful1 = channel.readOutbound();
+        assertSame(publish0, stateful0.stateless());
+        assertSame(publish1, stateful1.stateless());
+        assertNull(channel.readOutbound());
+
+        // completing a pending publish reschedules the remainder of the batch, the single publish stays behind it
+        channel.writeInbound(pubAck(stateful0.getPacketIdentifier()));
+        final MqttStatefulPublish stateful2 = channel.readOutbound();
+        assertSame(publish2, stateful2.stateless());
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(pubAck(stateful1.getPacketIdentifier()));
+        final MqttStatefulPublish statefulSingle = channel.readOutbound();
+        assertSame(single, statefulSingle.stateless());
+
+        channel.writeInbound(pubAck(stateful2.getPacketIdentifier()));
+        observer.assertValueCount(1);
+        channel.writeInbound(pubAck(statefulSingle.getPacketIdentifier()));
+        assertEquals(1, singleFlow.results.size());
+        assertNull(singleFlow.results.get(0).getRawError());
+    }
+
+    @Test
+    void publishBatch_sessionEnd_failsRemainderAtPositionOfPublishes() {
+        connect(1);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish2 = publish("c", MqttQos.AT_LEAST_ONCE);
+        final TestObserver<List<Mqtt5PublishResult>> observer = new TestObserver<>();
+        final MqttAckBatchSingle.Flow flow = batchFlow(observer, 3);
+
+        handler.publishSingle(batch(flow, publish0, publish1, publish2));
+        channel.runPendingTasks();
+        final MqttStatefulPublish stateful0 = channel.readOutbound();
+        channel.writeInbound(pubAck(stateful0.getPacketIdentifier()));
+        assertNotNull(channel.readOutbound());
+
+        final Exception cause = new Exception("session ended");
+        handler.onSessionEnd(cause);
+        channel.runPendingTasks();
+
+        observer.assertValueCount(1);
+        final List<Mqtt5PublishResult> results = observer.values().get(0);
+        assertSame(publish0, results.get(0).getPublish());
+        assertFalse(results.get(0).getError().isPresent());
+        assertSame(publish1, results.get(1).getPublish());
+        assertSame(cause, results.get(1).getError().orElse(null));
+        assertSame(publish2, results.get(2).getPublish());
+        assertSame(cause, results.get(2).getError().orElse(null));
+    }
+
+    @Test
+    void qos2CompleteResult_emittedAfterPubComp() {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().qos2CompleteResult(true).build());
+        connect(10);
+        final MqttPublish publish = publish("a", MqttQos.EXACTLY_ONCE);
+        final TestAckFlow flow = new TestAckFlow();
+
+        handler.publishSingle(new MqttPublishWithFlow(publish, flow));
+        channel.runPendingTasks();
+        final MqttStatefulPublish statefulPublish = channel.readOutbound();
+        channel.writeInbound(pubRec(statefulPublish.getPacketIdentifier()));
+        final MqttPubRel pubRel = channel.readOutbound();
+        assertEquals(statefulPublish.getPacketIdentifier(), pubRel.getPacketIdentifier());
+        assertTrue(flow.results.isEmpty());
+
+        channel.writeInbound(pubComp(pubRel.getPacketIdentifier()));
+        assertEquals(1, flow.results.size());
+        final MqttPublishResult result = flow.results.get(0);
+        assertTrue(result instanceof MqttQos2CompleteResult);
+        assertSame(publish, result.getPublish());
+        assertSame(pubRel, ((MqttQos2CompleteResult) result).getPubRel());
+        assertFalse(result.getError().isPresent());
+        assertEquals(1, flow.acknowledged);
+    }
+
+    @Test
+    void qos2CompleteResult_sessionEndBeforePubComp_emitsPubRecWithCause() {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().qos2CompleteResult(true).build());
+        connect(10);
+        final MqttPublish publish = publish("a", MqttQos.EXACTLY_ONCE);
+        final TestAckFlow flow = new TestAckFlow();
+
+        handler.publishSingle(new MqttPublishWithFlow(publish, flow));
+        channel.runPendingTasks();
+        final MqttStatefulPublish statefulPublish = channel.readOutbound();
+        final MqttPubRec pubRec = pubRec(statefulPublish.getPacketIdentifier());
+        channel.writeInbound(pubRec);
+        assertNotNull(channel.readOutbound());
+
+        final Exception cause = new Exception("session ended");
+        handler.onSessionEnd(cause);
+        assertEquals(1, flow.results.size());
+        final MqttPublishResult result = flow.results.get(0);
+        assertFalse(result instanceof MqttQos2CompleteResult);
+        assertSame(pubRec, ((MqttQos2Result) result).getPubRec());
+        assertSame(cause, result.getError().orElse(null));
+    }
+
+    @Test
+    void qos2IntermediateResult_emittedAfterPubRec_acknowledgedAfterPubComp() {
+        connect(10);
+        final TestAckFlow flow = new TestAckFlow();
+
+        handler.publishSingle(new MqttPublishWithFlow(publish("a", MqttQos.EXACTLY_ONCE), flow));
+        channel.runPendingTasks();
+        final MqttStatefulPublish statefulPublish = channel.readOutbound();
+        channel.writeInbound(pubRec(statefulPublish.getPacketIdentifier()));
+        assertEquals(1, flow.results.size());
+        assertTrue(flow.results.get(0) instanceof MqttQos2IntermediateResult);
+        assertEquals(0, flow.acknowledged);
+
+        final MqttPubRel pubRel = channel.readOutbound();
+        channel.writeInbound(pubComp(pubRel.getPacketIdentifier()));
+        assertEquals(1, flow.results.size());
+        assertEquals(1, flow.acknowledged);
+    }
+
+    @Test
+    void maxConcurrentPublishFlowables_adaptive_sizedFromFirstSendMaximum() throws Exception {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().maxConcurrentPublishFlowables(
+                MqttClientAdvancedConfig.ADAPTIVE_MAX_CONCURRENT_PUBLISH_FLOWABLES).build());
+        connect(2);
+        connect(5); // flatMap can not be resized
+
+        final MqttPublishFlowables publishFlowables = handler.getPublishFlowables();
+        assertTrue(publishFlowables.add(Flowable.never()));
+        assertTrue(publishFlowables.add(Flowable.never()));
+        assertAddWaits(publishFlowables);
+    }
+
+    @Test
+    void maxConcurrentPublishFlowables_fixed_independentOfSendMaximum() throws Exception {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().maxConcurrentPublishFlowables(3).build());
+        connect(2);
+
+        final MqttPublishFlowables publishFlowables = handler.getPublishFlowables();
+        assertTrue(publishFlowables.add(Flowable.never()));
+        assertTrue(publishFlowables.add(Flowable.never()));
+        assertTrue(publishFlowables.add(Flowable.never()));
+        assertAddWaits(publishFlowables);
+    }
+
+    @Test
+    void publishSingle_multipleProducers_orderPreservedPerProducer() throws InterruptedException {
+        connect(100);
+        // more publishes than direct credits, so the producers switch to the publish flowables while the channel
+        // is not running, but not more than the publish flowables accept without waiting
+        final int producers = 4;
+        final int publishesPerProducer = 40;
+        final TestAckFlow[][] ackFlows = new TestAckFlow[producers][publishesPerProducer];
+        for (int producer = 0; producer < producers; producer++) {
+            for (int i = 0; i < publishesPerProducer; i++) {
+                ackFlows[producer][i] = new TestAckFlow();
+            }
+        }
+        final Thread[] threads = new Thread[producers];
+        for (int producer = 0; producer < producers; producer++) {
+            final int p = producer;
+            threads[producer] = new Thread(() -> {
+                for (int i = 0; i < publishesPerProducer; i++) {
+                    handler.publishSingle(
+                            new MqttPublishWithFlow(publish(p + "/" + i, MqttQos.AT_MOST_ONCE), ackFlows[p][i]));
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join(10_000);
+            assertFalse(thread.isAlive());
+        }
+        channel.runPendingTasks();
+
+        final int[] next = new int[producers];
+        MqttStatefulPublish statefulPublish;
+        while ((statefulPublish = channel.readOutbound()) != null) {
+            final String[] levels = statefulPublish.stateless().getTopic().toString().split("/");
+            final int producer = Integer.parseInt(levels[0]);
+            assertEquals(next[producer]++, Integer.parseInt(levels[1]));
+        }
+        int direct = 0;
+        for (int producer = 0; producer < producers; producer++) {
+            assertEquals(publishesPerProducer, next[producer]);
+            for (final TestAckFlow ackFlow : ackFlows[producer]) {
+                assertEquals(1, ackFlow.results.size());
+                if (ackFlow.ingress == MqttAckFlow.INGRESS_SINGLE_DIRECT) {
+                    direct++;
+                }
+            }
+        }
+        assertTrue(direct <= 100);
+    }
+
+    @Test
+    void publishSingle_afterSingleInPublishFlowables_notSentDirectly() {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().maxConcurrentPublishFlowables(4).build());
+        connect(1);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish2 = publish("c", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish3 = publish("d", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish4 = publish("e", MqttQos.AT_LEAST_ONCE);
+
+        final TestAckFlow flow0 = publishSingle(publish0);
+        final TestAckFlow flow1 = publishSingle(publish1);
+        final TestAckFlow flow2 = publishSingle(publish2); // waits in the publish flowables for a request
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow0.ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, flow1.ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, flow2.ingress);
+        final MqttStatefulPublish stateful0 = assertSent(publish0);
+        assertNull(channel.readOutbound());
+
+        // the acknowledgement returns the direct credit, but the next publish must not overtake the waiting one
+        channel.writeInbound(pubAck(stateful0.getPacketIdentifier()));
+        final MqttStatefulPublish stateful1 = assertSent(publish1);
+        final TestAckFlow flow3 = publishSingle(publish3);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, flow3.ingress);
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(pubAck(stateful1.getPacketIdentifier()));
+        final MqttStatefulPublish stateful2 = assertSent(publish2);
+        channel.writeInbound(pubAck(stateful2.getPacketIdentifier()));
+        final MqttStatefulPublish stateful3 = assertSent(publish3);
+
+        // no single publish is left in the publish flowables, so the unused direct credit is taken again
+        final TestAckFlow flow4 = publishSingle(publish4);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow4.ingress);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+        channel.writeInbound(pubAck(stateful3.getPacketIdentifier()));
+        assertSent(publish4);
+    }
+
+    @Test
+    void publishSingle_sendMaximumIncreased_directCreditsIncreased() {
+        connect(2);
+        final TestAckFlow flow0 = publishSingle(publish("a", MqttQos.AT_LEAST_ONCE));
+        final TestAckFlow flow1 = publishSingle(publish("b", MqttQos.AT_LEAST_ONCE));
+        final TestAckFlow flow2 = publishSingle(publish("c", MqttQos.AT_LEAST_ONCE));
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow0.ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow1.ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, flow2.ingress);
+
+        connect(5);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, publishSingle(publish("d", MqttQos.AT_LEAST_ONCE)).ingress);
+        }
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, publishSingle(publish("e", MqttQos.AT_LEAST_ONCE)).ingress);
+    }
+
+    @Test
+    void publishSingle_sendMaximumDecreased_directCreditsDecreasedWhenReturned() {
+        connect(5);
+        final List<TestAckFlow> directFlows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            directFlows.add(publishSingle(publish("a", MqttQos.AT_LEAST_ONCE)));
+        }
+        channel.runPendingTasks();
+        for (final TestAckFlow flow : directFlows) {
+            assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow.ingress);
+            assertNotNull(channel.readOutbound());
+        }
+
+        connect(2); // resends the pending publishes
+        acknowledgeAll();
+        for (final TestAckFlow flow : directFlows) {
+            assertEquals(1, flow.acknowledged);
+        }
+
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, publishSingle(publish("b", MqttQos.AT_LEAST_ONCE)).ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, publishSingle(publish("c", MqttQos.AT_LEAST_ONCE)).ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, publishSingle(publish("d", MqttQos.AT_LEAST_ONCE)).ingress);
+    }
+
+    @Test
+    void offlineBuffer_notDrainedWhileSingleInPublishFlowables() {
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().offlinePublishBuffer(10, 1024).build());
+        connect(1);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish2 = publish("c", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish3 = publish("d", MqttQos.AT_LEAST_ONCE);
+
+        publishSingle(publish0);
+        publishSingle(publish1);
+        final TestAckFlow flow2 = publishSingle(publish2); // waits in the publish flowables for a request
+        final MqttStatefulPublish stateful0 = assertSent(publish0);
+        channel.writeInbound(pubAck(stateful0.getPacketIdentifier())); // returns the direct credit
+        assertSent(publish1);
+
+        MqttDisconnectUtil.fireDisconnectEvent(channel, new Exception("disconnected"), MqttDisconnectSource.CLIENT);
+        final TestAckFlow flow3 = publishSingle(publish3);
+        assertEquals(MqttAckFlow.INGRESS_OFFLINE, flow3.ingress);
+
+        channel.close();
+        channel = new EmbeddedChannel(handler);
+        connect(1);
+        final MqttStatefulPublish resent1 = assertSent(publish1);
+        assertNull(channel.readOutbound());
+        assertEquals(MqttAckFlow.INGRESS_OFFLINE, flow3.ingress);
+
+        // the request delivers the waiting publish, only then the offline buffer is drained behind it
+        channel.writeInbound(pubAck(resent1.getPacketIdentifier()));
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_FLOWABLES, flow2.ingress);
+        assertEquals(MqttAckFlow.INGRESS_SINGLE_DIRECT, flow3.ingress);
+        final MqttStatefulPublish stateful2 = assertSent(publish2);
+        assertNull(channel.readOutbound());
+        channel.writeInbound(pubAck(stateful2.getPacketIdentifier()));
+        assertSent(publish3);
+    }
+
+    @Test
+    void outgoingPublishStore_qos0SentWithoutWaitingForSync() throws InterruptedException {
+        final CountDownLatch syncLatch = new CountDownLatch(1);
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().outgoingPublishStore(
+                new BlockingSyncStore(syncLatch)).build());
+        connect(10);
+        final MqttPublish publish0 = publish("a", MqttQos.AT_LEAST_ONCE);
+        final MqttPublish publish1 = publish("b", MqttQos.AT_MOST_ONCE);
+
+        publishSingle(publish0);
+        final TestAckFlow flow1 = publishSingle(publish1);
+        assertSent(publish1);
+        assertNull(channel.readOutbound());
+        assertEquals(1, flow1.results.size());
+
+        // the QoS 1 publish is only sent after the sync returned
+        syncLatch.countDown();
+        assertSame(publish0, awaitSynced().stateless());
+    }
+
+    @Test
+    void metrics_restoredPublish_latencyMeasuredFromResend() throws InterruptedException {
+        final MqttPublish publish = publish("a", MqttQos.AT_LEAST_ONCE);
+        final BlockingSyncStore store = new BlockingSyncStore(new CountDownLatch(0)) {
+            @Override
+            public void load(final @NotNull Loader loader) {
+                loader.onPublish(1, publish);
+            }
+        };
+        final List<Long> latencies = new ArrayList<>();
+        final long start = System.nanoTime();
+        createHandler(new MqttClientAdvancedConfigBuilder.Default().outgoingPublishStore(store).build(),
+                new MqttClientMetrics() {
+                    @Override
+                    public void onPublishAcknowledged(final @NotNull MqttQos qos, final long latencyNanos) {
+                        latencies.add(latencyNanos);
+                    }
+                });
+        handler.loadStore(true);
+        connect(10);
+
+        final MqttStatefulPublish resent = awaitSynced();
+        assertSame(publish, resent.stateless());
+        assertEquals(1, resent.getPacketIdentifier());
+        channel.writeInbound(pubAck(1));
+        assertEquals(1, latencies.size());
+        assertTrue(latencies.get(0) <= System.nanoTime() - start);
+    }
+
+    private static void assertAddWaits(final @NotNull MqttPublishFlowables publishFlowables) throws Exception {
+        final AtomicReference<Boolean> added = new AtomicReference<>();
+        final Thread thread = new Thread(() -> added.set(publishFlowables.add(Flowable.never())));
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        thread.interrupt();
+        thread.join(10_000);
+        assertEquals(false, added.get());
+    }
+
+    private @NotNull TestAckFlow publishSingle(final @NotNull MqttPublish publish) {
+        final TestAckFlow flow = new TestAckFlow();
+        handler.publishSingle(new MqttPublishWithFlow(publish, flow));
+        return flow;
+    }
+
+    private @NotNull MqttStatefulPublish assertSent(final @NotNull MqttPublish publish) {
+        channel.runPendingTasks();
+        final MqttStatefulPublish statefulPublish = channel.readOutbound();
+        assertNotNull(statefulPublish);
+        assertSame(publish, statefulPublish.stateless());
+        return statefulPublish;
+    }
+
+    private @NotNull MqttStatefulPublish awaitSynced() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        MqttStatefulPublish statefulPublish;
+        while ((statefulPublish = channel.readOutbound()) == null) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+            channel.runPendingTasks();
+        }
+        return statefulPublish;
+    }
+
+    private void acknowledgeAll() {
+        MqttStatefulPublish statefulPublish;
+        while ((statefulPublish = channel.readOutbound()) != null) {
+            channel.writeInbound(pubAck(statefulPublish.getPacketIdentifier()));
+        }
+    }
+
+    private @NotNull MqttAckBatchSingle.Flow batchFlow(
+            final @NotNull TestObserver<List<Mqtt5PublishResult>> observer, final int size) {
+
+        final MqttAckBatchSingle.Flow flow = new MqttAckBatchSingle.Flow(observer, clientConfig, handler, size) {
+            @Override
+            public @NotNull EventLoop getEventLoop() {
+                return channel.eventLoop();
+            }
+        };
+        observer.onSubscribe(flow);
+        flows.add(flow);
+        return flow;
+    }
+
+    private static @NotNull MqttPublishWithFlow batch(
+            final @NotNull MqttAckFlow flow, final @NotNull MqttPublish @NotNull ... publishes) {
+
+        final MqttPublishWithFlow first = new MqttPublishWithFlow(publishes[0], flow);
+        MqttPublishWithFlow last = first;
+        for (int i = 1; i < publishes.length; i++) {
+            last = last.nextInBatch = new MqttPublishWithFlow(publishes[i], flow);
+            last.batchIndex = i;
+        }
+        return first;
+    }
+
+    private static @NotNull MqttPublish publish(final @NotNull String topic, final @NotNull MqttQos qos) {
+        return new MqttPublishBuilder.Default().topic(topic).qos(qos).build();
+    }
+
+    private static @NotNull MqttPubAck pubAck(final int packetIdentifier) {
+        return new MqttPubAck(packetIdentifier, Mqtt5PubAckReasonCode.SUCCESS, null,
+                MqttUserPropertiesImpl.NO_USER_PROPERTIES);
+    }
+
+    private static @NotNull MqttPubRec pubRec(final int packetIdentifier) {
+        return new MqttPubRec(packetIdentifier, Mqtt5PubRecReasonCode.SUCCESS, null,
+                MqttUserPropertiesImpl.NO_USER_PROPERTIES);
+    }
+
+    private static @NotNull MqttPubComp pubComp(final int packetIdentifier) {
+        return new MqttPubComp(packetIdentifier, Mqtt5PubCompReasonCode.SUCCESS, null,
+                MqttUserPropertiesImpl.NO_USER_PROPERTIES);
+    }
+
+    /**
+     * Outgoing publish store whose syncs block until the latch is released.
+     */
+    private static class BlockingSyncStore implements Mqtt5OutgoingPublishStore {
+
+        private final @NotNull CountDownLatch syncLatch;
+
+        BlockingSyncStore(final @NotNull CountDownLatch syncLatch) {
+            this.syncLatch = syncLatch;
+        }
+
+        @Override
+        public void load(final @NotNull Loader loader) {}
+
+        @Override
+        public void storePublish(final int packetIdentifier, final @NotNull Mqtt5Publish publish) {}
+
+        @Override
+        public void storePubRel(final int packetIdentifier) {}
+
+        @Override
+        public void remove(final int packetIdentifier) {}
+
+        @Override
+        public void clear() {}
+
+        @Override
+        public void sync() {
+            try {
+                syncLatch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ack flow of single publishes that runs on the event loop of the embedded channel.
+     */
+    private class TestAckFlow extends MqttAckFlow {
+
+        final @NotNull List<MqttPublishResult> results = new ArrayList<>();
+        long acknowledged;
+
+        TestAckFlow() {
+            super(clientConfig);
+            init();
+            flows.add(this);
+        }
+
+        @Override
+        void onNext(final @NotNull MqttPublishResult result, final int batchIndex) {
+            results.add(result);
+            if (result.acknowledged()) {
+                acknowledged(1);
+            }
+        }
+
+        @Override
+        void acknowledged(final long acknowledged) {
+            this.acknowledged += acknowledged;
+            handler.requestSingle(this);
+        }
+
+        @Override
+        public @NotNull EventLoop getEventLoop() {
+            return channel.eventLoop();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttPublishFlowablesTest {
+
+    @Test
+    void add_waitsUntilRequested() throws Exception {
+        final MqttPublishFlowables publishFlowables = new MqttPublishFlowables();
+        final TestSubscriber<Flowable<MqttPublishWithFlow>> testSubscriber = new TestSubscriber<>(0);
+        publishFlowables.subscribe(testSubscriber);
+
+        final CompletableFuture<Boolean> added =
+                CompletableFuture.supplyAsync(() -> publishFlowables.add(Flowable.empty()));
+        assertThrows(TimeoutException.class, () -> added.get(100, TimeUnit.MILLISECONDS));
+        testSubscriber.assertValueCount(0);
+
+        testSubscriber.request(1);
+        assertTrue(added.get(10, TimeUnit.SECONDS));
+        testSubscriber.assertValueCount(1);
+    }
+
+    @Test
+    void add_interrupted_returnsFalse() throws Exception {
+        final MqttPublishFlowables publishFlowables = new MqttPublishFlowables();
+        publishFlowables.subscribe(new TestSubscriber<>(0));
+
+        final AtomicReference<Boolean> added = new AtomicReference<>();
+        final Thread thread = new Thread(() -> added.set(publishFlowables.add(Flowable.empty())));
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        thread.interrupt();
+        thread.join(10_000);
+        assertEquals(false, added.get());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.publish.outgoing;
+
+import com.hivemq.client.internal.mqtt.datatypes.MqttTopicImpl;
+import com.hivemq.client.mqtt.metrics.MqttClientMetricsRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+
+import static com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish.DEFAULT_NO_TOPIC_ALIAS;
+import static com.hivemq.client.internal.mqtt.message.publish.MqttStatefulPublish.TOPIC_ALIAS_FLAG_NEW;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttTopicAliasAutoMappingTest {
+
+    @Test
+    void onPublish_hitsMissesAndOverwritesCounted() {
+        final MqttClientMetricsRecorder metrics = MqttClientMetricsRecorder.create();
+        final MqttTopicAliasAutoMapping mapping = new MqttTopicAliasAutoMapping(1, metrics);
+        final MqttTopicImpl a = MqttTopicImpl.of("a");
+        final MqttTopicImpl b = MqttTopicImpl.of("b");
+
+        assertEquals(1 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(a));
+        assertEquals(1, mapping.onPublish(a));
+        assertEquals(DEFAULT_NO_TOPIC_ALIAS, mapping.onPublish(b));
+        assertEquals(DEFAULT_NO_TOPIC_ALIAS, mapping.onPublish(b));
+        assertEquals(DEFAULT_NO_TOPIC_ALIAS, mapping.onPublish(b));
+        assertEquals(1 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(b));
+        assertEquals(1, mapping.onPublish(b));
+
+        assertEquals(2, metrics.getTopicAliasHits());
+        assertEquals(3, metrics.getTopicAliasMisses());
+        assertEquals(1, metrics.getTopicAliasOverwrites());
+    }
+
+    @Test
+    void onPublish_withoutMetrics() {
+        final MqttTopicAliasAutoMapping mapping = new MqttTopicAliasAutoMapping(1, null);
+        final MqttTopicImpl topic = MqttTopicImpl.of("a");
+
+        assertEquals(1 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(topic));
+        assertEquals(1, mapping.onPublish(topic));
+    }
+
+    @Test
+    void onPublish_equalTopicsOfDifferentRepresentations_sameTopicAlias() {
+        final MqttTopicAliasAutoMapping mapping = new MqttTopicAliasAutoMapping(2, null);
+        final MqttTopicImpl binaryTopic = MqttTopicImpl.of("a/b".getBytes(StandardCharsets.UTF_8));
+        final MqttTopicImpl nonAsciiBinaryTopic = MqttTopicImpl.of("\u00e4/b".getBytes(StandardCharsets.UTF_8));
+        assertNotNull(binaryTopic);
+        assertNotNull(nonAsciiBinaryTopic);
+
+        assertEquals(1 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(MqttTopicImpl.of("a/b")));
+        assertEquals(1, mapping.onPublish(binaryTopic));
+        assertEquals(1, mapping.onPublish(MqttTopicImpl.of("a/b")));
+        assertEquals(2 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(nonAsciiBinaryTopic));
+        assertEquals(2, mapping.onPublish(MqttTopicImpl.of("\u00e4/b")));
+    }
+
+    @Test
+    void onPublish_hit_doesNotConvertAsciiTopics() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported() &&
+                allocationMXBean.isThreadAllocatedMemoryEnabled());
+
+        final MqttTopicAliasAutoMapping mapping = new MqttTopicAliasAutoMapping(1, null);
+        assertEquals(1 | TOPIC_ALIAS_FLAG_NEW, mapping.onPublish(MqttTopicImpl.of("topic/with/alias")));
+        final int count = 10_000;
+        final MqttTopicImpl[] topics = new MqttTopicImpl[count];
+        for (int i = 0; i < count; i++) {
+            topics[i] = MqttTopicImpl.of("topic/with/alias".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (final MqttTopicImpl topic : topics) {
+            assertEquals(1, mapping.onPublish(topic));
+        }
+        final long allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        // converting the topic to a Java string would allocate at least one string per publish
+        assertTrue(allocated < count, "allocated " + allocated + " bytes for " + count + " hits");
+    }
+}
@@ -21,6 +21,8 @@ import com.hivemq.client.internal.mqtt.MqttClientSslConfigImplBuilder;
 import com.hivemq.client.internal.util.collections.ImmutableList;
 import io.netty.channel.Channel;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslProvider;
 import org.jetbrains.annotations.NotNull;
@@ -144,6 +146,40 @@ class MqttSslInitializerTest {
         assertEquals(protocols.get(1), enabledProtocols[1]);
     }
 
+    @Test
+    public void test_createSslContext_jdk_provider_by_default() throws Exception {
+
+        final MqttClientSslConfigImpl sslConfig = new MqttClientSslConfigImplBuilder.Default().build();
+
+        assertEquals(SslProvider.JDK, MqttSslInitializer.sslProvider(sslConfig));
+        assertTrue(MqttSslInitializer.createSslContext(sslConfig) instanceof JdkSslContext);
+    }
+
+    @Test
+    public void test_sslProvider_openssl_only_if_enabled_and_available() {
+
+        final MqttClientSslConfigImpl sslConfig = new MqttClientSslConfigImplBuilder.Default().openSsl(true).build();
+
+        assertEquals(MqttSslInitializer.OPENSSL_AVAILABLE ? SslProvider.OPENSSL : SslProvider.JDK,
+                MqttSslInitializer.sslProvider(sslConfig));
+    }
+
+    @Test
+    public void test_sslContextCache_shared_for_equal_configs() throws Exception {
+
+        final MqttClientSslConfigImpl sslConfig1 =
+                new MqttClientSslConfigImplBuilder.Default().protocols(ImmutableList.of("TLSv1.2")).build();
+        final MqttClientSslConfigImpl sslConfig2 =
+                new MqttClientSslConfigImplBuilder.Default().protocols(ImmutableList.of("TLSv1.2")).build();
+        final MqttClientSslConfigImpl sslConfig3 =
+                new MqttClientSslConfigImplBuilder.Default().protocols(ImmutableList.of("TLSv1.1")).build();
+
+        final SslContext sslContext = MqttSslContextCache.get(sslConfig1);
+        assertSame(sslContext, MqttSslContextCache.get(sslConfig2));
+        assertNotSame(sslContext, MqttSslContextCache.get(sslConfig3));
+        assertEquals(1024, sslContext.sessionCacheSize());
+    }
+
     private @NotNull ImmutableList<String> getFirstSupportedCipherSuite() throws Exception {
 
         final List<String> supportedCipherSuites = getEnabledCipherSuites();
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.subscribe;
+
+import com.hivemq.client.internal.mqtt.MqttClientConfig;
+import com.hivemq.client.internal.mqtt.MqttClientConnectionConfig;
+import com.hivemq.client.internal.mqtt.MqttClientExecutorConfigImpl;
+import com.hivemq.client.internal.mqtt.MqttClientTransportConfigImpl;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfig;
+import com.hivemq.client.internal.mqtt.advanced.MqttClientAdvancedConfigBuilder;
+import com.hivemq.client.internal.mqtt.datatypes.MqttClientIdentifierImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttUserPropertiesImpl;
+import com.hivemq.client.internal.mqtt.datatypes.MqttVariableByteInteger;
+import com.hivemq.client.internal.mqtt.handler.publish.incoming.MqttIncomingPublishFlows;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttStatefulSubscribe;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscribe;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscribeBuilder;
+import com.hivemq.client.internal.mqtt.message.subscribe.MqttSubscriptionBuilder;
+import com.hivemq.client.internal.mqtt.message.subscribe.suback.MqttSubAck;
+import com.hivemq.client.internal.util.collections.ImmutableList;
+import com.hivemq.client.mqtt.MqttVersion;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt5.exceptions.Mqtt5SubAckException;
+import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAckReasonCode;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttSubscriptionHandlerTest {
+
+    private final @NotNull MqttIncomingPublishFlows incomingPublishFlows = mock(MqttIncomingPublishFlows.class);
+    private MqttSubscriptionHandler handler;
+    private EmbeddedChannel channel;
+    private @Nullable RuntimeException writeFailure;
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    private void createHandler(final int pipeliningDepth, final int sendMaximumPacketSize) {
+        final MqttClientAdvancedConfig advancedConfig =
+                new MqttClientAdvancedConfigBuilder.Default().subscribeCoalescing(true)
+                        .subscribePipelining(pipeliningDepth)
+                        .build();
+        final MqttClientConfig clientConfig = new MqttClientConfig(MqttVersion.MQTT_5_0,
+                MqttClientIdentifierImpl.of("test"), MqttClientTransportConfigImpl.DEFAULT,
+                MqttClientExecutorConfigImpl.DEFAULT, advancedConfig,
+                MqttClientConfig.ConnectDefaults.of(null, null, null), ImmutableList.of(), ImmutableList.of(), null);
+        handler = new MqttSubscriptionHandler(clientConfig, incomingPublishFlows);
+        channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(
+                    final @NotNull ChannelHandlerContext ctx,
+                    final @NotNull Object msg,
+                    final @NotNull ChannelPromise promise) {
+
+                if (writeFailure != null) {
+                    throw writeFailure;
+                }
+                ctx.write(msg, promise);
+            }
+        }, handler);
+        handler.onSessionStartOrResume(
+                new MqttClientConnectionConfig(MqttClientTransportConfigImpl.DEFAULT, 10, true, true, 0, false, false,
+                        null, 10, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT, 0, true, false, 10,
+                        sendMaximumPacketSize, 0, MqttQos.EXACTLY_ONCE, true, true, true, true, channel, null),
+                channel.eventLoop());
+        channel.runPendingTasks();
+    }
+
+    @Test
+    void subscribe_queued_coalescedIntoOneSubscribe() {
+        createHandler(1, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
+        final MqttStatefulSubscribe blocking = sendBlockingSubscribe();
+        final MqttSubscribe subscribe0 = subscribe("a");
+        final MqttSubscribe subscribe1 = subscribe("b", "c");
+        final TestSubAckFlow flow0 = subscribe(subscribe0);
+        final TestSubAckFlow flow1 = subscribe(subscribe1);
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(subAck(blocking.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        final MqttStatefulSubscribe coalesced = assertSent("a", "b", "c");
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(subAck(coalesced.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0,
+                Mqtt5SubAckReasonCode.GRANTED_QOS_1, Mqtt5SubAckReasonCode.GRANTED_QOS_2));
+        assertNull(flow0.error);
+        assertNull(flow1.error);
+        assertNotNull(flow0.subAck);
+        assertNotNull(flow1.subAck);
+        assertEquals(ImmutableList.of(Mqtt5SubAckReasonCode.GRANTED_QOS_0), flow0.subAck.getReasonCodes());
+        assertEquals(ImmutableList.of(Mqtt5SubAckReasonCode.GRANTED_QOS_1, Mqtt5SubAckReasonCode.GRANTED_QOS_2),
+                flow1.subAck.getReasonCodes());
+        verify(incomingPublishFlows).subAck(subscribe0, coalesced.getSubscriptionIdentifier(),
+                ImmutableList.of(Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        verify(incomingPublishFlows).subAck(subscribe1, coalesced.getSubscriptionIdentifier(),
+                ImmutableList.of(Mqtt5SubAckReasonCode.GRANTED_QOS_1, Mqtt5SubAckReasonCode.GRANTED_QOS_2));
+    }
+
+    @Test
+    void subscribe_coalesced_reasonCodeCountNotMatching_allFail() {
+        createHandler(1, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
+        final MqttStatefulSubscribe blocking = sendBlockingSubscribe();
+        final MqttSubscribe subscribe0 = subscribe("a");
+        final MqttSubscribe subscribe1 = subscribe("b", "c");
+        final TestSubAckFlow flow0 = subscribe(subscribe0);
+        final TestSubAckFlow flow1 = subscribe(subscribe1);
+        channel.writeInbound(subAck(blocking.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        final MqttStatefulSubscribe coalesced = assertSent("a", "b", "c");
+
+        channel.writeInbound(subAck(coalesced.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0,
+                Mqtt5SubAckReasonCode.GRANTED_QOS_1));
+        assertNull(flow0.subAck);
+        assertNull(flow1.subAck);
+        assertTrue(flow0.error instanceof Mqtt5SubAckException);
+        assertTrue(flow1.error instanceof Mqtt5SubAckException);
+        final ImmutableList<Mqtt5SubAckReasonCode> unspecifiedError =
+                ImmutableList.of(Mqtt5SubAckReasonCode.UNSPECIFIED_ERROR);
+        verify(incomingPublishFlows).subAck(subscribe0, coalesced.getSubscriptionIdentifier(), unspecifiedError);
+        verify(incomingPublishFlows).subAck(subscribe1, coalesced.getSubscriptionIdentifier(), unspecifiedError);
+    }
+
+    @Test
+    void subscribe_coalesced_writeFails_allFail() {
+        createHandler(1, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
+        final MqttStatefulSubscribe blocking = sendBlockingSubscribe();
+        final TestSubAckFlow flow0 = subscribe(subscribe("a"));
+        final TestSubAckFlow flow1 = subscribe(subscribe("b"));
+        writeFailure = new IllegalStateException("encoding failed");
+
+        channel.writeInbound(subAck(blocking.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        assertSame(writeFailure, flow0.error);
+        assertSame(writeFailure, flow1.error);
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    void subscribe_coalesced_sessionEnd_allFail() {
+        createHandler(1, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
+        final TestSubAckFlow blockingFlow = subscribe(subscribe("x"));
+        assertSent("x");
+        final TestSubAckFlow flow0 = subscribe(subscribe("a"));
+        final TestSubAckFlow flow1 = subscribe(subscribe("b"));
+        final TestSubAckFlow flow2 = subscribe(subscribe("c"));
+        final Exception cause = new Exception("session expired");
+
+        handler.onSessionEnd(cause);
+        assertSame(cause, blockingFlow.error);
+        assertSame(cause, flow0.error);
+        assertSame(cause, flow1.error);
+        assertSame(cause, flow2.error);
+        verify(incomingPublishFlows).clear(cause);
+    }
+
+    @Test
+    void subscribe_coalesced_notBeyondMaximumPacketSize() {
+        // fixed header, packet identifier, property length, subscription identifier and 2 subscriptions of length 4
+        createHandler(1, 1 + 4 + 2 + 4 + 5 + 2 * 4);
+        final MqttStatefulSubscribe blocking = sendBlockingSubscribe();
+        final TestSubAckFlow flow0 = subscribe(subscribe("a"));
+        final TestSubAckFlow flow1 = subscribe(subscribe("b"));
+        final TestSubAckFlow flow2 = subscribe(subscribe("c"));
+        final TestSubAckFlow flow3 = subscribe(subscribe("d"));
+
+        channel.writeInbound(subAck(blocking.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        final MqttStatefulSubscribe coalesced0 = assertSent("a", "b");
+        assertNull(channel.readOutbound());
+        channel.writeInbound(subAck(coalesced0.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0,
+                Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        final MqttStatefulSubscribe coalesced1 = assertSent("c", "d");
+        assertNotEquals(coalesced0.getSubscriptionIdentifier(), coalesced1.getSubscriptionIdentifier());
+        channel.writeInbound(subAck(coalesced1.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0,
+                Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+
+        assertNotNull(flow0.subAck);
+        assertNotNull(flow1.subAck);
+        assertNotNull(flow2.subAck);
+        assertNotNull(flow3.subAck);
+    }
+
+    @Test
+    void subscribe_pipeliningDepthReached_sentWhenAcknowledged() {
+        createHandler(2, MqttVariableByteInteger.MAXIMUM_PACKET_SIZE_LIMIT);
+        final TestSubAckFlow flow0 = subscribe(subscribe("a"));
+        final MqttStatefulSubscribe subscribe0 = assertSent("a");
+        final TestSubAckFlow flow1 = subscribe(subscribe("b"));
+        final MqttStatefulSubscribe subscribe1 = assertSent("b");
+        final TestSubAckFlow flow2 = subscribe(subscribe("c"));
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(subAck(subscribe1.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        assertNotNull(flow1.subAck);
+        final MqttStatefulSubscribe subscribe2 = assertSent("c");
+        assertNotEquals(subscribe0.getPacketIdentifier(), subscribe2.getPacketIdentifier());
+        assertNull(channel.readOutbound());
+
+        channel.writeInbound(subAck(subscribe0.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        channel.writeInbound(subAck(subscribe2.getPacketIdentifier(), Mqtt5SubAckReasonCode.GRANTED_QOS_0));
+        assertNotNull(flow0.subAck);
+        assertNotNull(flow2.subAck);
+    }
+
+    /**
+     * Sends a Subscribe message that uses up the pipelining depth of 1, so the following subscribe calls are queued.
+     */
+    private @NotNull MqttStatefulSubscribe sendBlockingSubscribe() {
+        subscribe(subscribe("x"));
+        return assertSent("x");
+    }
+
+    private @NotNull TestSubAckFlow subscribe(final @NotNull MqttSubscribe subscribe) {
+        final TestSubAckFlow flow = new TestSubAckFlow();
+        handler.subscribe(subscribe, flow);
+        channel.runPendingTasks();
+        return flow;
+    }
+
+    private @NotNull MqttStatefulSubscribe assertSent(final @NotNull String @NotNull ... topicFilters) {
+        final MqttStatefulSubscribe statefulSubscribe = channel.readOutbound();
+        assertNotNull(statefulSubscribe);
+        final MqttSubscribe subscribe = statefulSubscribe.stateless();
+        assertEquals(topicFilters.length, subscribe.getSubscriptions().size());
+        for (int i = 0; i < topicFilters.length; i++) {
+            assertEquals(topicFilters[i], subscribe.getSubscriptions().get(i).getTopicFilter().toString());
+        }
+        return statefulSubscribe;
+    }
+
+    private static @NotNull MqttSubscribe subscribe(final @NotNull String @NotNull ... topicFilters) {
+        final MqttSubscribeBuilder.Default builder = new MqttSubscribeBuilder.Default();
+        for (final String topicFilter : topicFilters) {
+            builder.addSubscription(new MqttSubscriptionBuilder.Default().topicFilter(topicFilter).build());
+        }
+        return builder.build();
+    }
+
+    private static @NotNull MqttSubAck subAck(
+            final int packetIdentifier, final @NotNull Mqtt5SubAckReasonCode @NotNull ... reasonCodes) {
+
+        return new MqttSubAck(packetIdentifier, ImmutableList.copyOf(reasonCodes), null,
+                MqttUserPropertiesImpl.NO_USER_PROPERTIES);
+    }
+
+    /**
+     * SubAck flow of a subscribe call that runs on the event loop of the embedded channel.
+     */
+    private class TestSubAckFlow implements MqttSubscriptionFlow<MqttSubAck> {
+
+        @Nullable MqttSubAck subAck;
+        @Nullable Throwable error;
+
+        @Override
+        public boolean init() {
+            return true;
+        }
+
+        @Override
+        public void onSuccess(final @NotNull MqttSubAck subAck) {
+            this.subAck = subAck;
+        }
+
+        @Override
+        public void onError(final @NotNull Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public @NotNull EventLoop getEventLoop() {
+            return channel.eventLoop();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.handler.util;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttStoreSyncTest {
+
+    private final @NotNull EmbeddedChannel channel = new EmbeddedChannel();
+    private final @NotNull EventLoop eventLoop = channel.eventLoop();
+    // tasks of the sync executor, run by the test instead of a separate thread
+    private final @NotNull ArrayDeque<Runnable> syncTasks = new ArrayDeque<>();
+    private final @NotNull List<String> events = new ArrayList<>();
+    private @NotNull Runnable onSync = () -> {};
+    private final @NotNull MqttStoreSync storeSync = new MqttStoreSync(() -> {
+        events.add("sync");
+        onSync.run();
+    }, syncTasks::add);
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    @Test
+    void afterSync_actionRunOnEventLoopAfterSync() {
+        storeSync.afterSync(eventLoop, () -> events.add("a"));
+        channel.runPendingTasks();
+        assertTrue(events.isEmpty());
+
+        runSyncTasks();
+        assertEquals(Arrays.asList("sync"), events);
+        channel.runPendingTasks();
+        assertEquals(Arrays.asList("sync", "a"), events);
+    }
+
+    @Test
+    void afterSync_notSyncing_actionsShareSync() {
+        storeSync.afterSync(eventLoop, () -> events.add("a"));
+        storeSync.afterSync(eventLoop, () -> events.add("b"));
+        storeSync.sync();
+        assertEquals(1, syncTasks.size());
+
+        runSyncTasks();
+        channel.runPendingTasks();
+        assertEquals(Arrays.asList("sync", "a", "b"), events);
+    }
+
+    @Test
+    void afterSync_whileSyncing_actionsWaitForNextSync() {
+        onSync = () -> {
+            onSync = () -> {};
+            storeSync.afterSync(eventLoop, () -> events.add("b"));
+            storeSync.afterSync(eventLoop, () -> events.add("c"));
+        };
+        storeSync.afterSync(eventLoop, () -> events.add("a"));
+
+        runSyncTasks();
+        channel.runPendingTasks();
+        assertEquals(Arrays.asList("sync", "sync", "a", "b", "c"), events);
+    }
+
+    @Test
+    void sync_withoutActions_nextRequestStartsNewSync() {
+        storeSync.sync();
+        runSyncTasks();
+        assertEquals(Arrays.asList("sync"), events);
+
+        storeSync.afterSync(eventLoop, () -> events.add("a"));
+        assertEquals(1, syncTasks.size());
+        runSyncTasks();
+        channel.runPendingTasks();
+        assertEquals(Arrays.asList("sync", "sync", "a"), events);
+    }
+
+    @Test
+    void sync_throws_actionsRunAndNextRequestStartsNewSync() {
+        onSync = () -> {
+            onSync = () -> {};
+            throw new IllegalStateException("test");
+        };
+        storeSync.afterSync(eventLoop, () -> events.add("a"));
+        runSyncTasks();
+        channel.runPendingTasks();
+        assertEquals(Arrays.asList("sync", "a"), events);
+
+        storeSync.sync();
+        assertEquals(1, syncTasks.size());
+    }
+
+    private void runSyncTasks() {
+        Runnable task;
+        while ((task = syncTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
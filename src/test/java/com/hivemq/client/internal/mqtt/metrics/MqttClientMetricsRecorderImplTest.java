@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.mqtt.metrics;
+
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class MqttClientMetricsRecorderImplTest {
+
+    @Test
+    void publishes_countedPerQos() {
+        final MqttClientMetricsRecorderImpl recorder = new MqttClientMetricsRecorderImpl();
+        recorder.onPublishSent(MqttQos.AT_MOST_ONCE);
+        recorder.onPublishSent(MqttQos.EXACTLY_ONCE);
+        recorder.onPublishSent(MqttQos.EXACTLY_ONCE);
+        recorder.onPublishReceived(MqttQos.AT_LEAST_ONCE);
+
+        assertEquals(1, recorder.getPublishesSent(MqttQos.AT_MOST_ONCE));
+        assertEquals(0, recorder.getPublishesSent(MqttQos.AT_LEAST_ONCE));
+        assertEquals(2, recorder.getPublishesSent(MqttQos.EXACTLY_ONCE));
+        assertEquals(1, recorder.getPublishesReceived(MqttQos.AT_LEAST_ONCE));
+    }
+
+    @Test
+    void inFlight_maxIsKept() {
+        final MqttClientMetricsRecorderImpl recorder = new MqttClientMetricsRecorderImpl();
+        recorder.onInFlight(5, 10);
+        recorder.onInFlight(2, 10);
+
+        assertEquals(2, recorder.getInFlight());
+        assertEquals(5, recorder.getMaxInFlight());
+        assertEquals(10, recorder.getSendMaximum());
+    }
+
+    @Test
+    void acknowledgementLatencyHistogram_log2Buckets() {
+        final MqttClientMetricsRecorderImpl recorder = new MqttClientMetricsRecorderImpl();
+        recorder.onPublishAcknowledged(MqttQos.AT_LEAST_ONCE, 500);
+        recorder.onPublishAcknowledged(MqttQos.AT_LEAST_ONCE, TimeUnit.MICROSECONDS.toNanos(3));
+        recorder.onPublishAcknowledged(MqttQos.AT_LEAST_ONCE, TimeUnit.DAYS.toNanos(1));
+        recorder.onPublishAcknowledged(MqttQos.EXACTLY_ONCE, TimeUnit.MILLISECONDS.toNanos(1));
+
+        final long[] qos1Histogram = recorder.getAcknowledgementLatencyHistogram(MqttQos.AT_LEAST_ONCE);
+        assertEquals(MqttClientMetricsRecorderImpl.LATENCY_HISTOGRAM_BUCKETS, qos1Histogram.length);
+        assertEquals(1, qos1Histogram[0]);
+        assertEquals(1, qos1Histogram[1]);
+        assertEquals(1, qos1Histogram[MqttClientMetricsRecorderImpl.LATENCY_HISTOGRAM_BUCKETS - 1]);
+        assertEquals(1, recorder.getAcknowledgementLatencyHistogram(MqttQos.EXACTLY_ONCE)[9]);
+    }
+
+    @Test
+    void acknowledgementLatencyHistogram_qos0_throws() {
+        final MqttClientMetricsRecorderImpl recorder = new MqttClientMetricsRecorderImpl();
+        assertThrows(IllegalArgumentException.class,
+                () -> recorder.getAcknowledgementLatencyHistogram(MqttQos.AT_MOST_ONCE));
+    }
+
+    @Test
+    void counters() {
+        final MqttClientMetricsRecorderImpl recorder = new MqttClientMetricsRecorderImpl();
+        recorder.onBytesEncoded(10);
+        recorder.onBytesEncoded(5);
+        recorder.onBytesDecoded(7);
+        recorder.onQos0Dropped();
+        recorder.onReconnect();
+        recorder.onIncomingQueued(3, 4);
+        recorder.onFlush(3, 2);
+        recorder.onFlush(1, 0);
+        recorder.onTopicAliasHit();
+        recorder.onTopicAliasHit();
+        recorder.onTopicAliasMiss();
+        recorder.onTopicAliasOverwrite();
+
+        assertEquals(15, recorder.getBytesEncoded());
+        assertEquals(7, recorder.getBytesDecoded());
+        assertEquals(1, recorder.getQos0Dropped());
+        assertEquals(1, recorder.getReconnects());
+        assertEquals(3, recorder.getIncomingQos0Queued());
+        assertEquals(4, recorder.getIncomingQos1Or2Queued());
+        assertEquals(2, recorder.getFlushes());
+        assertEquals(2, recorder.getFlushRequests());
+        assertEquals(2, recorder.getTopicAliasHits());
+        assertEquals(1, recorder.getTopicAliasMisses());
+        assertEquals(1, recorder.getTopicAliasOverwrites());
+    }
+}
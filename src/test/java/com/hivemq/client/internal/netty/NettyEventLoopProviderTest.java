@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-present HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hivemq.client.internal.netty;
+
+import com.hivemq.client.mqtt.MqttNettyEventLoopPlacement;
+import com.hivemq.client.mqtt.MqttNettyTransport;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Silvio Giebl
+ */
+class NettyEventLoopProviderTest {
+
+    @Test
+    void of_null_default() {
+        assertSame(NettyEventLoopProvider.INSTANCE, NettyEventLoopProvider.of(null));
+    }
+
+    @Test
+    void instance_epollOrNio() {
+        final MqttNettyTransport transport =
+                NettyEventLoopProvider.isAvailable(MqttNettyTransport.EPOLL) ? MqttNettyTransport.EPOLL :
+                        MqttNettyTransport.NIO;
+        assertSame(NettyEventLoopProvider.of(transport), NettyEventLoopProvider.INSTANCE);
+    }
+
+    @Test
+    void of_nio() {
+        final Channel channel = NettyEventLoopProvider.of(MqttNettyTransport.NIO).getChannelFactory().newChannel();
+        assertTrue(channel instanceof NioSocketChannel);
+    }
+
+    @Test
+    void of_notAvailable_default() {
+        // the io_uring module is not on the test classpath
+        assertFalse(NettyEventLoopProvider.isAvailable(MqttNettyTransport.IO_URING));
+        assertSame(NettyEventLoopProvider.INSTANCE, NettyEventLoopProvider.of(MqttNettyTransport.IO_URING));
+    }
+
+    @Test
+    void acquireEventLoop_leastLoaded_spreadsEvenly() {
+        final NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(4);
+        try {
+            final NettyEventLoopProvider provider = NettyEventLoopProvider.of(MqttNettyTransport.NIO);
+            final EventLoop eventLoop0 = acquire(provider, eventLoopGroup, MqttNettyEventLoopPlacement.LEAST_LOADED, 0);
+            for (int i = 0; i < 7; i++) {
+                acquire(provider, eventLoopGroup, MqttNettyEventLoopPlacement.LEAST_LOADED, 0);
+            }
+            assertArrayEquals(new int[]{2, 2, 2, 2}, provider.getEventLoopClients(eventLoopGroup));
+
+            provider.releaseEventLoop(eventLoopGroup, eventLoop0);
+            final EventLoop eventLoop = acquire(provider, eventLoopGroup, MqttNettyEventLoopPlacement.LEAST_LOADED, 0);
+            assertSame(eventLoop0, eventLoop);
+            assertArrayEquals(new int[]{2, 2, 2, 2}, provider.getEventLoopClients(eventLoopGroup));
+        } finally {
+            eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void acquireEventLoop_clientIdentifierAffinity_sameEventLoop() {
+        final NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(4);
+        try {
+            final NettyEventLoopProvider provider = NettyEventLoopProvider.of(MqttNettyTransport.NIO);
+            final MqttNettyEventLoopPlacement placement = MqttNettyEventLoopPlacement.CLIENT_IDENTIFIER_AFFINITY;
+            final int affinity = "client".hashCode();
+            final EventLoop eventLoop = acquire(provider, eventLoopGroup, placement, affinity);
+            provider.releaseEventLoop(eventLoopGroup, eventLoop);
+            for (int i = 0; i < 3; i++) {
+                assertSame(eventLoop, acquire(provider, eventLoopGroup, placement, affinity));
+            }
+        } finally {
+            eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void releaseEventLoop_lastRelease_removesStatistics() {
+        final NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(2);
+        try {
+            final NettyEventLoopProvider provider = NettyEventLoopProvider.of(MqttNettyTransport.NIO);
+            final EventLoop eventLoop = acquire(provider, eventLoopGroup, MqttNettyEventLoopPlacement.ROUND_ROBIN, 0);
+            assertEquals(2, provider.getEventLoopClients(eventLoopGroup).length);
+
+            provider.releaseEventLoop(eventLoopGroup, eventLoop);
+            assertEquals(0, provider.getEventLoopClients(eventLoopGroup).length);
+            assertFalse(eventLoopGroup.isShuttingDown());
+        } finally {
+            eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static @NotNull EventLoop acquire(
+            final @NotNull NettyEventLoopProvider provider,
+            final @NotNull NioEventLoopGroup eventLoopGroup,
+            final @NotNull MqttNettyEventLoopPlacement placement,
+            final int affinity) {
+
+        return provider.acquireEventLoop(eventLoopGroup, 0, placement, affinity, null);
+    }
+}
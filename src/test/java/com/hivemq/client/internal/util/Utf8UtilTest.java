@@ -17,12 +17,17 @@
 package com.hivemq.client.internal.util;
 
 import com.google.common.base.Utf8;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 /**
  * @author Silvio Giebl
@@ -43,6 +48,85 @@ class Utf8UtilTest {
         }
     }
 
+    @Test
+    void isWellFormed_byteBuffer() {
+        final Random random = new Random();
+        final byte[] bytes = new byte[100];
+        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(110);
+        for (int i = 0; i < 10_000; i++) {
+            random.nextBytes(bytes);
+            final byte[] utf8Bytes = new String(bytes, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+            for (final byte[] data : new byte[][]{bytes, utf8Bytes}) {
+                final int length = Math.min(data.length, 100);
+                byteBuffer.clear().position(5);
+                byteBuffer.put(data, 0, length).flip().position(5);
+                final ByteBuffer expected = ByteBuffer.wrap(data, 0, length);
+                assertEquals(Utf8Util.isWellFormed(expected), Utf8Util.isWellFormed(byteBuffer));
+                assertEquals(5, byteBuffer.position());
+            }
+        }
+    }
+
+    @Test
+    void isWellFormed_asciiFastPath() {
+        final byte[] bytes = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, Utf8Util.isWellFormed(bytes));
+        for (int i = 0; i < bytes.length; i++) {
+            final byte[] invalid = bytes.clone();
+            invalid[i] = (byte) 0x80;
+            assertEquals(i + 1, (int) Utf8Util.isWellFormed(invalid));
+        }
+    }
+
+    @Test
+    void isWellFormed_asciiFastPath_heapByteBufferWithArrayOffset() {
+        final byte[] bytes = "__0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer slice = ((ByteBuffer) ByteBuffer.wrap(bytes).position(2)).slice();
+        assertEquals(0, Utf8Util.isWellFormed(slice));
+        for (int i = 2; i < bytes.length; i++) {
+            final byte[] invalid = bytes.clone();
+            invalid[i] = (byte) 0x80;
+            final ByteBuffer invalidSlice = ((ByteBuffer) ByteBuffer.wrap(invalid).position(2)).slice();
+            invalidSlice.position(1);
+            assertEquals((i < 3) ? 0 : i - 2, (int) Utf8Util.isWellFormed(invalidSlice));
+            assertEquals(1, invalidSlice.position());
+        }
+    }
+
+    @Test
+    void isWellFormed_byteBuf() {
+        final byte[] valid = "{\"temperature\": 21.5, \"unit\": \"\u00b0C\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] invalid = valid.clone();
+        invalid[invalid.length - 3] = (byte) 0xC0;
+
+        final ByteBuf byteBuf = Unpooled.directBuffer().writeInt(0).writeBytes(valid);
+        assertEquals(0, Utf8Util.isWellFormed(byteBuf, 4, valid.length));
+        final ByteBuf invalidByteBuf = Unpooled.buffer().writeInt(0).writeBytes(invalid);
+        assertNotEquals(0, Utf8Util.isWellFormed(invalidByteBuf, 4, invalid.length));
+        assertEquals(0, invalidByteBuf.readerIndex());
+
+        final CompositeByteBuf composite = Unpooled.compositeBuffer();
+        composite.addComponent(true, Unpooled.wrappedBuffer(invalid, 0, 10));
+        composite.addComponent(true, Unpooled.wrappedBuffer(invalid, 10, invalid.length - 10));
+        assertNotEquals(0, Utf8Util.isWellFormed(composite, 0, invalid.length));
+        assertEquals(0, Utf8Util.isWellFormed(composite, 0, invalid.length - 5));
+
+        byteBuf.release();
+        invalidByteBuf.release();
+        composite.release();
+    }
+
+    @Test
+    void isWellFormedWithoutNullCharacter() {
+        final byte[] bytes = "0123456789abcdef\u00e4".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, Utf8Util.isWellFormedWithoutNullCharacter(bytes));
+        for (int i = 0; i < bytes.length; i++) {
+            final byte[] withNull = bytes.clone();
+            withNull[i] = 0;
+            assertNotEquals(0, Utf8Util.isWellFormedWithoutNullCharacter(withNull));
+        }
+    }
+
     @Test
     void encodedLength() {
         final Random random = new Random();